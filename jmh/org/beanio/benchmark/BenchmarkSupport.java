@@ -0,0 +1,126 @@
+/*
+ * Copyright 2013 Kevin Seim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.beanio.benchmark;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.util.*;
+
+import org.beanio.*;
+
+/**
+ * Utility methods for creating stream factories and synthetic datasets used
+ * by the benchmarks.
+ *
+ * @author Kevin Seim
+ * @since 2.1.1
+ */
+public class BenchmarkSupport {
+
+    /** The mapping file that defines a stream for each format */
+    public static final String MAPPING = "org/beanio/benchmark/benchmark_mapping.xml";
+    
+    private static final String[] CUSTOMERS = { 
+        "Joe", "Jane", "Kevin Seim", "Acme Corp", "Smith, John", "\"Quoted\" Inc" 
+    };
+    
+    private BenchmarkSupport() { }
+    
+    /**
+     * Creates a new stream factory loaded with the benchmark mapping file.
+     * @return the new {@link StreamFactory}
+     */
+    public static StreamFactory newStreamFactory() {
+        StreamFactory factory = StreamFactory.newInstance();
+        factory.loadResource(MAPPING);
+        return factory;
+    }
+    
+    /**
+     * Creates a list of orders with predictable values.
+     * @param count the number of orders to create
+     * @return the list of {@link Order}
+     */
+    public static List<Order> createOrders(int count) {
+        Random random = new Random(count);
+        Calendar calendar = Calendar.getInstance();
+        calendar.clear();
+        calendar.set(2013, Calendar.JANUARY, 1);
+        
+        List<Order> list = new ArrayList<Order>(count);
+        for (int i=0; i<count; i++) {
+            Order order = new Order();
+            order.setId(i + 1);
+            order.setCustomer(CUSTOMERS[i % CUSTOMERS.length]);
+            order.setAmount(BigDecimal.valueOf(random.nextInt(1000000), 2));
+            order.setDate(calendar.getTime());
+            order.setShipped(random.nextBoolean());
+            list.add(order);
+            
+            calendar.add(Calendar.DAY_OF_MONTH, 1);
+        }
+        return list;
+    }
+    
+    /**
+     * Marshals a list of orders using a stream mapping.
+     * @param factory the {@link StreamFactory}
+     * @param stream the name of the stream
+     * @param orders the orders to write
+     * @return the marshalled text
+     */
+    public static String write(StreamFactory factory, String stream, List<Order> orders) {
+        StringWriter text = new StringWriter();
+        BeanWriter out = factory.createWriter(stream, text);
+        for (Order order : orders) {
+            out.write(order);
+        }
+        out.close();
+        return text.toString();
+    }
+    
+    /**
+     * Marshals each order to record text using a stream mapping.
+     * @param factory the {@link StreamFactory}
+     * @param stream the name of the stream
+     * @param orders the orders to marshal
+     * @return the record text for each order
+     */
+    public static String[] marshal(StreamFactory factory, String stream, List<Order> orders) {
+        Marshaller marshaller = factory.createMarshaller(stream);
+        String[] records = new String[orders.size()];
+        for (int i=0; i<records.length; i++) {
+            records[i] = marshaller.marshal(orders.get(i)).toString();
+        }
+        return records;
+    }
+    
+    /**
+     * A {@link Writer} that discards all output.
+     */
+    public static class NullWriter extends Writer {
+        @Override
+        public void write(char[] cbuf, int off, int len) { }
+        @Override
+        public void write(String str, int off, int len) { }
+        @Override
+        public void write(int c) { }
+        @Override
+        public void flush() { }
+        @Override
+        public void close() { }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2013 Kevin Seim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.beanio.benchmark;
+
+import java.io.*;
+import java.nio.charset.Charset;
+import java.util.concurrent.TimeUnit;
+
+import org.beanio.stream.RecordReader;
+import org.beanio.stream.csv.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares the throughput of a {@link CsvReader} and a {@link CsvByteReader}
+ * reading the same UTF-8 encoded records.
+ *
+ * @author Kevin Seim
+ * @since 2.1.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CsvReaderBenchmark {
+
+    private static final int RECORDS = 1000;
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    @Param({ "false", "true" })
+    public boolean quoted;
+
+    private CsvRecordParserFactory factory;
+    private byte[] data;
+
+    @Setup
+    public void setup() throws IOException {
+        factory = new CsvRecordParserFactory();
+
+        StringBuilder s = new StringBuilder();
+        for (int i=0; i<RECORDS; i++) {
+            String q = quoted ? "\"" : "";
+            s.append(i).append(',')
+                .append(q).append("Customer ").append(i).append(q).append(',')
+                .append(q).append("123 Main Street, Apt ").append(i % 50).append(q).append(',')
+                .append("2013-01-").append(10 + i % 20).append(',')
+                .append(i * 7 % 1000).append('.').append(i % 100).append("\r\n");
+        }
+        data = s.toString().getBytes("UTF-8");
+    }
+
+    /**
+     * Reads all records using a {@link CsvReader}.
+     * @param blackhole the {@link Blackhole} to consume records
+     */
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public void charReader(Blackhole blackhole) throws IOException {
+        read(factory.createReader(new BufferedReader(new InputStreamReader(
+            new ByteArrayInputStream(data), UTF8))), blackhole);
+    }
+
+    /**
+     * Reads all records using a {@link CsvByteReader}.
+     * @param blackhole the {@link Blackhole} to consume records
+     */
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public void byteReader(Blackhole blackhole) throws IOException {
+        read(factory.createReader(new ByteArrayInputStream(data), UTF8), blackhole);
+    }
+
+    private void read(RecordReader in, Blackhole blackhole) throws IOException {
+        try {
+            Object record;
+            while ((record = in.read()) != null) {
+                blackhole.consume(record);
+            }
+        }
+        finally {
+            in.close();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2013 Kevin Seim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.beanio.benchmark;
+
+import java.io.StringReader;
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.beanio.*;
+import org.beanio.builder.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the throughput of identifying records in a fixed length stream 
+ * with many record types, each identified by a 3 character literal.
+ *
+ * @author Kevin Seim
+ * @since 2.1.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GroupMatchingBenchmark {
+
+    private static final int RECORDS = 1000;
+    
+    @Param({ "10", "50", "150" })
+    public int recordTypes;
+    
+    /** true to wrap the records in a nested group */
+    @Param({ "false", "true" })
+    public boolean grouped;
+    
+    private StreamFactory factory;
+    private String text;
+    
+    @Setup
+    public void setup() {
+        StreamBuilder stream = new StreamBuilder("s", "fixedlength");
+        GroupBuilder group = new GroupBuilder("g").occurs(0, -1);
+        for (int i=0; i<recordTypes; i++) {
+            RecordBuilder record = new RecordBuilder(identifier(i), HashMap.class)
+                .occurs(0, -1)
+                .addField(new FieldBuilder("type").rid().literal(identifier(i)).length(3))
+                .addField(new FieldBuilder("value").length(10));
+            if (grouped) {
+                group.addRecord(record);
+            }
+            else {
+                stream.addRecord(record);
+            }
+        }
+        if (grouped) {
+            stream.addGroup(group);
+        }
+        
+        factory = StreamFactory.newInstance();
+        factory.define(stream);
+        
+        StringBuilder s = new StringBuilder();
+        for (int i=0; i<RECORDS; i++) {
+            s.append(identifier((i * 7) % recordTypes)).append(String.format("%010d", i)).append('\n');
+        }
+        text = s.toString();
+    }
+    
+    /**
+     * Reads all records from the dataset.
+     * @param blackhole the {@link Blackhole} to consume bean objects
+     */
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public void read(Blackhole blackhole) {
+        BeanReader in = factory.createReader("s", new StringReader(text));
+        try {
+            Object bean;
+            while ((bean = in.read()) != null) {
+                blackhole.consume(bean);
+            }
+        }
+        finally {
+            in.close();
+        }
+    }
+    
+    private static String identifier(int i) {
+        return String.format("%03d", i);
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2013 Kevin Seim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.beanio.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.beanio.*;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures the throughput of {@link Unmarshaller#unmarshal(String)} and 
+ * {@link Marshaller#marshal(Object)} for each stream format.
+ *
+ * @author Kevin Seim
+ * @since 2.1.1
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MarshallerBenchmark {
+
+    private static final int RECORDS = 256;
+    
+    @Param({ "csv", "delimited", "fixedlength", "xml", "json" })
+    public String format;
+    
+    private Unmarshaller unmarshaller;
+    private Marshaller marshaller;
+    private List<Order> orders;
+    private String[] records;
+    private int index;
+    
+    @Setup
+    public void setup() {
+        StreamFactory factory = BenchmarkSupport.newStreamFactory();
+        orders = BenchmarkSupport.createOrders(RECORDS);
+        records = BenchmarkSupport.marshal(factory, format, orders);
+        unmarshaller = factory.createUnmarshaller(format);
+        marshaller = factory.createMarshaller(format);
+    }
+    
+    /**
+     * Unmarshals a single record.
+     * @return the unmarshalled bean
+     */
+    @Benchmark
+    public Object unmarshal() {
+        index = (index + 1) % RECORDS;
+        return unmarshaller.unmarshal(records[index]);
+    }
+    
+    /**
+     * Marshals a single bean to record text.
+     * @return the record text
+     */
+    @Benchmark
+    public String marshal() {
+        index = (index + 1) % RECORDS;
+        return marshaller.marshal(orders.get(index)).toString();
+    }
+}
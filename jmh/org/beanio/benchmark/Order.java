@@ -0,0 +1,65 @@
+/*
+ * Copyright 2013 Kevin Seim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.beanio.benchmark;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+/**
+ * Bean object used by the benchmarks.
+ *
+ * @author Kevin Seim
+ * @since 2.1.1
+ */
+public class Order {
+
+    private int id;
+    private String customer;
+    private BigDecimal amount;
+    private Date date;
+    private boolean shipped;
+    
+    public int getId() {
+        return id;
+    }
+    public void setId(int id) {
+        this.id = id;
+    }
+    public String getCustomer() {
+        return customer;
+    }
+    public void setCustomer(String customer) {
+        this.customer = customer;
+    }
+    public BigDecimal getAmount() {
+        return amount;
+    }
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+    public Date getDate() {
+        return date;
+    }
+    public void setDate(Date date) {
+        this.date = date;
+    }
+    public boolean isShipped() {
+        return shipped;
+    }
+    public void setShipped(boolean shipped) {
+        this.shipped = shipped;
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2013 Kevin Seim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.beanio.benchmark;
+
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+import org.beanio.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the throughput of {@link BeanReader#read()} for each stream format.
+ *
+ * @author Kevin Seim
+ * @since 2.1.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReaderBenchmark {
+
+    private static final int RECORDS = 1000;
+
+    @Param({ "csv", "delimited", "fixedlength", "xml", "json" })
+    public String format;
+    
+    private StreamFactory factory;
+    private String text;
+    
+    @Setup
+    public void setup() {
+        factory = BenchmarkSupport.newStreamFactory();
+        text = BenchmarkSupport.write(factory, format, BenchmarkSupport.createOrders(RECORDS));
+    }
+    
+    /**
+     * Reads all records from the dataset.
+     * @param blackhole the {@link Blackhole} to consume bean objects
+     */
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public void read(Blackhole blackhole) {
+        BeanReader in = factory.createReader(format, new StringReader(text));
+        try {
+            Object bean;
+            while ((bean = in.read()) != null) {
+                blackhole.consume(bean);
+            }
+        }
+        finally {
+            in.close();
+        }
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2013 Kevin Seim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.beanio.benchmark;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import org.beanio.internal.util.TypeHandlerFactory;
+import org.beanio.types.*;
+import org.beanio.types.xml.*;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures the throughput of parsing and formatting field text for each
+ * type handler in <tt>org.beanio.types</tt>.
+ *
+ * @author Kevin Seim
+ * @since 2.1.1
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TypeHandlerBenchmark {
+
+    private static final Map<String, Object[]> HANDLERS = new LinkedHashMap<String, Object[]>();
+    static {
+        add("BigDecimal", new BigDecimalTypeHandler(), "12345.67");
+        add("BigDecimal(pattern)", pattern(BigDecimal.class, "#,##0.00"), "12,345.67");
+        add("BigInteger", new BigIntegerTypeHandler(), "1234567890123");
+        add("Boolean", new BooleanTypeHandler(), "true");
+        add("Byte", new ByteTypeHandler(), "123");
+        addValue("Calendar", new CalendarTypeHandler(), Calendar.getInstance());
+        add("Calendar(pattern)", pattern(Calendar.class, "yyyy-MM-dd"), "2013-01-01");
+        add("Character", new CharacterTypeHandler(), "c");
+        addValue("Date", new DateTypeHandler(), new Date());
+        add("Date(pattern)", pattern(Date.class, "yyyy-MM-dd"), "2013-01-01");
+        add("Double", new DoubleTypeHandler(), "12345.678");
+        add("Float", new FloatTypeHandler(), "123.45");
+        add("Integer", new IntegerTypeHandler(), "123456");
+        add("Integer(pattern)", pattern(Integer.class, "#,##0"), "123,456");
+        add("Long", new LongTypeHandler(), "1234567890123");
+        add("Short", new ShortTypeHandler(), "12345");
+        add("String", new StringTypeHandler(), "text");
+        add("URL", new URLTypeHandler(), "http://beanio.org/");
+        add("UUID", new UUIDTypeHandler(), "f81d4fae-7dec-11d0-a765-00a0c91e6bf6");
+        add("XmlBoolean", new XmlBooleanTypeHandler(), "1");
+        add("XmlCalendarDate", new XmlCalendarDateTypeHandler(), "2013-01-01");
+        add("XmlCalendarDateTime", new XmlCalendarDateTimeTypeHandler(), "2013-01-01T12:30:45");
+        add("XmlCalendarTime", new XmlCalendarTimeTypeHandler(), "12:30:45");
+        add("XmlDate", new XmlDateTypeHandler(), "2013-01-01");
+        add("XmlDateTime", new XmlDateTimeTypeHandler(), "2013-01-01T12:30:45");
+        add("XmlTime", new XmlTimeTypeHandler(), "12:30:45");
+    }
+    
+    @Param({ "BigDecimal", "BigDecimal(pattern)", "BigInteger", "Boolean", "Byte", "Calendar", 
+        "Calendar(pattern)", "Character", "Date", "Date(pattern)", "Double", "Float", "Integer", 
+        "Integer(pattern)", "Long", "Short", "String", "URL", "UUID", "XmlBoolean", "XmlCalendarDate", 
+        "XmlCalendarDateTime", "XmlCalendarTime", "XmlDate", "XmlDateTime", "XmlTime" })
+    public String handler;
+    
+    private TypeHandler typeHandler;
+    private String text;
+    private Object value;
+    
+    @Setup
+    public void setup() throws TypeConversionException {
+        Object[] entry = HANDLERS.get(handler);
+        if (entry == null) {
+            throw new IllegalArgumentException("Unknown type handler '" + handler + "'");
+        }
+        typeHandler = (TypeHandler) entry[0];
+        text = (String) entry[1];
+        value = typeHandler.parse(text);
+    }
+    
+    /**
+     * Parses field text.
+     * @return the parsed value
+     * @throws TypeConversionException if the text is invalid
+     */
+    @Benchmark
+    public Object parse() throws TypeConversionException {
+        return typeHandler.parse(text);
+    }
+    
+    /**
+     * Formats a field value.
+     * @return the field text
+     */
+    @Benchmark
+    public String format() {
+        return typeHandler.format(value);
+    }
+    
+    private static void add(String name, TypeHandler handler, String text) {
+        HANDLERS.put(name, new Object[] { handler, text });
+    }
+    
+    /*
+     * Used for type handlers that format text using the default locale.
+     */
+    private static void addValue(String name, TypeHandler handler, Object value) {
+        add(name, handler, handler.format(value));
+    }
+    
+    /*
+     * Returns the type handler for a field with a format pattern, created the same
+     * way as when a mapping file is compiled.
+     */
+    private static TypeHandler pattern(Class<?> type, String pattern) {
+        Properties properties = new Properties();
+        properties.setProperty(ConfigurableTypeHandler.FORMAT_SETTING, pattern);
+        return TypeHandlerFactory.getDefault().getTypeHandlerFor(type, null, properties);
+    }
+}
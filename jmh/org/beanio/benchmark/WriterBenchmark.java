@@ -0,0 +1,64 @@
+/*
+ * Copyright 2013 Kevin Seim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.beanio.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.beanio.*;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures the throughput of {@link BeanWriter#write(Object)} for each stream format.
+ *
+ * @author Kevin Seim
+ * @since 2.1.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WriterBenchmark {
+
+    private static final int RECORDS = 1000;
+
+    @Param({ "csv", "delimited", "fixedlength", "xml", "json" })
+    public String format;
+    
+    private StreamFactory factory;
+    private List<Order> orders;
+    
+    @Setup
+    public void setup() {
+        factory = BenchmarkSupport.newStreamFactory();
+        orders = BenchmarkSupport.createOrders(RECORDS);
+    }
+    
+    /**
+     * Writes all orders to a writer that discards its output.
+     */
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public void write() {
+        BeanWriter out = factory.createWriter(format, new BenchmarkSupport.NullWriter());
+        for (Order order : orders) {
+            out.write(order);
+        }
+        out.close();
+    }
+}
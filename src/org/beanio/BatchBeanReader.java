@@ -0,0 +1,57 @@
+/*
+ * Copyright 2013 Kevin Seim
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.beanio;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * A {@link BeanReader} that can read multiple bean objects in a single call.
+ * 
+ * <p>All <tt>BeanReader</tt> implementations created by a {@link StreamFactory}
+ * implement this interface.</p>
+ * 
+ * @author Kevin Seim
+ * @since 2.1.1
+ */
+public interface BatchBeanReader extends BeanReader {
+
+	/**
+	 * Reads up to <tt>max</tt> beans from the input stream and adds them to the given list.
+	 * Each bean is read and validated as if by calling {@link #read()}, and exceptions
+	 * are passed to the error handler in the same way.  If an exception is thrown, beans
+	 * read before the exception remain in the list.
+	 * <p>
+	 * After this method returns, {@link #getRecordName()}, {@link #getLineNumber()},
+	 * {@link #getRecordCount()} and {@link #getRecordContext(int)} describe the last
+	 * bean added to the list.
+	 * @param beans the list to add the beans read to
+	 * @param max the maximum number of beans to read
+	 * @return the number of beans added to the list, which is less than <tt>max</tt>
+	 *   only if the end of the stream was reached
+	 * @throws BeanReaderIOException if the underlying input stream throws an
+	 *   {@link IOException} or this reader was closed
+	 * @throws MalformedRecordException if the underlying input stream is malformed
+	 *   and the record could not be accurately read
+	 * @throws UnidentifiedRecordException if the record type could not be identified
+	 * @throws UnexpectedRecordException if the record type is out of sequence
+	 * @throws InvalidRecordException if the record was identified and failed record
+	 *   or field level validations (including field type conversion errors)
+	 */
+	public int read(List<Object> beans, int max) throws BeanReaderIOException, MalformedRecordException,
+		UnidentifiedRecordException, UnexpectedRecordException, InvalidRecordException;
+
+}
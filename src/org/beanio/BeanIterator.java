@@ -0,0 +1,72 @@
+/*
+ * Copyright 2013 Kevin Seim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.beanio;
+
+import java.util.Iterator;
+
+/**
+ * An <tt>Iterator</tt> over the bean objects read from a file, that may be split
+ * into multiple iterators so that the file can be read by multiple threads.
+ * <p>
+ * An iterator is split using {@link #trySplit()}, which works like
+ * <tt>java.util.Spliterator</tt>: the returned iterator covers the first part of the file
+ * not yet read, and this iterator continues with the rest.  Each iterator may then be
+ * consumed by a different thread, but a single iterator is not thread safe.  Split
+ * iterators share the stream's type handlers, so custom type handlers must be thread
+ * safe, as the included type handlers are.
+ * <p>
+ * Exceptions thrown by the underlying {@link BeanReader} are thrown from
+ * {@link #hasNext()} or {@link #next()}, unless handled by a registered
+ * {@link BeanReaderErrorHandler}.  An iterator is closed automatically when there
+ * are no more bean objects to read.
+ *
+ * @author Kevin Seim
+ * @since 2.1.1
+ * @param <T> the bean object type
+ * @see StreamFactory#createIterator(String, java.io.File, java.nio.charset.Charset, Class)
+ */
+public interface BeanIterator<T> extends Iterator<T> {
+
+    /**
+     * Splits this iterator if possible.  If split, the returned iterator reads the
+     * first part of the file remaining to be read by this iterator, and this iterator
+     * continues with the rest of the file.  Splitting is only possible before the
+     * first bean object is read, and if the stream supports reading the file in chunks.
+     * @return the new <tt>BeanIterator</tt>, or null if this iterator cannot be split
+     */
+    public BeanIterator<T> trySplit();
+
+    /**
+     * Returns an estimate of the amount of input remaining to be read by this iterator.
+     * @return the estimated number of bytes remaining
+     */
+    public long estimateSize();
+
+    /**
+     * Sets the error handler to handle exceptions thrown when reading bean objects.
+     * The error handler is inherited by iterators split from this one.
+     * @param errorHandler the {@link BeanReaderErrorHandler}
+     */
+    public void setErrorHandler(BeanReaderErrorHandler errorHandler);
+
+    /**
+     * Closes the underlying input stream.
+     * @throws BeanReaderIOException if the underlying input stream throws an
+     *   <tt>IOException</tt>
+     */
+    public void close() throws BeanReaderIOException;
+
+}
@@ -16,6 +16,7 @@
 package org.beanio;
 
 import java.io.*;
+import java.nio.charset.Charset;
 import java.util.*;
 
 import org.beanio.builder.StreamBuilder;
@@ -38,6 +39,7 @@ import org.beanio.internal.util.*;
 public abstract class StreamFactory {
 
     private ClassLoader classLoader;
+    private volatile StreamListener streamListener;
     
     /**
      * Constructs a new <tt>StreamFactory</tt>.
@@ -73,7 +75,7 @@ public abstract class StreamFactory {
         
         Reader in = null;
         try {
-            in = new BufferedReader(new FileReader(file));
+            in = IOUtil.openReader(file, Charset.defaultCharset());
             return createReader(name, in);
         }
         catch (IOException ex) {
@@ -86,6 +88,106 @@ public abstract class StreamFactory {
         }
     }
 
+    /**
+     * Creates a new <tt>BeanReader</tt> for reading from a file encoded using the given
+     * character set.  For fixed length streams that use a single-byte character set, 
+     * the file may be memory mapped and records read without decoding the entire file.
+     * For CSV streams encoded using UTF-8, US-ASCII or ISO-8859-1, only field values
+     * are decoded.
+     * @param name the name of the stream in the mapping file
+     * @param file the {@link File} to read
+     * @param charset the character set the file is encoded with
+     * @return the created {@link BeanReader}
+     * @throws IllegalArgumentException if there is no stream configured for the given name, or
+     *   if the stream mapping mode does not support reading an input stream
+     * @throws BeanReaderIOException if the file could not be opened for reading
+     * @since 2.1.1
+     */
+    public BeanReader createReader(String name, File file, Charset charset) throws IllegalArgumentException, BeanReaderIOException {
+        if (!isMapped(name)) {
+            throw new IllegalArgumentException("No stream mapping configured for name '" + name + "'");
+        }
+        
+        Reader in = null;
+        try {
+            in = IOUtil.openReader(file, charset);
+            return createReader(name, in);
+        }
+        catch (IOException ex) {
+            IOUtil.closeQuietly(in);
+            throw new BeanReaderIOException("Failed to open file '" + file + "' for reading", ex);
+        }
+        catch (RuntimeException ex) {
+            IOUtil.closeQuietly(in);
+            throw ex;            
+        }
+    }
+    
+    /**
+     * Creates a new <tt>BeanReader</tt> for reading a file using multiple threads.  The file
+     * is split into chunks aligned on record boundaries, and each chunk is unmarshalled by 
+     * a worker thread.  Parallel reading is limited to delimited, CSV and fixed length 
+     * streams where records cannot span multiple lines, and where the stream layout only 
+     * contains unordered records that may occur any number of times.
+     * <p>
+     * The worker threads are stopped when the reader is closed.  A registered
+     * {@link BeanReaderErrorHandler} is invoked from the thread calling {@link BeanReader#read()}.
+     * @param name the name of the stream in the mapping file
+     * @param file the {@link File} to read
+     * @param charset the character set the file is encoded with
+     * @param threads the number of worker threads
+     * @param ordered <tt>true</tt> to return bean objects in the order they appear in the 
+     *   file, or <tt>false</tt> to return them in the order they are unmarshalled
+     * @return the created {@link BeanReader}
+     * @throws IllegalArgumentException if there is no stream configured for the given name, or
+     *   if the stream mapping mode does not support reading an input stream, or if the
+     *   stream does not support parallel reading
+     * @since 2.1.1
+     */
+    public abstract BeanReader createParallelReader(String name, File file, Charset charset, int threads, 
+        boolean ordered) throws IllegalArgumentException;
+    
+    /**
+     * Creates a new <tt>BeanIterator</tt> for reading bean objects from a file.  For
+     * streams that support parallel reading (see 
+     * {@link #createParallelReader(String, File, Charset, int, boolean)}), the iterator 
+     * can be split into multiple iterators using {@link BeanIterator#trySplit()}, each
+     * reading a byte range of the file aligned on record boundaries.  Otherwise the 
+     * file is read sequentially.
+     * @param name the name of the stream in the mapping file
+     * @param file the {@link File} to read
+     * @param charset the character set the file is encoded with
+     * @param type the bean object type, which all bean objects read from the stream
+     *   must be assignable to
+     * @return the created {@link BeanIterator}
+     * @throws IllegalArgumentException if there is no stream configured for the given name, or
+     *   if the stream mapping mode does not support reading an input stream
+     * @since 2.1.1
+     */
+    public abstract <T> BeanIterator<T> createIterator(String name, File file, Charset charset, Class<T> type)
+        throws IllegalArgumentException;
+    
+    /**
+     * Creates a new <tt>BeanReader</tt> that unmarshals records using multiple threads.
+     * Records are read from the input stream and identified by a single reader thread,
+     * so record ordering and occurrences are validated as usual, and then unmarshalled
+     * by a pool of worker threads.  Bean objects are returned in the order they
+     * are read.  Pipelined reading is not supported for XML streams.
+     * <p>
+     * The threads are stopped when the reader is closed.  A registered
+     * {@link BeanReaderErrorHandler} is invoked from the thread calling {@link BeanReader#read()}.
+     * @param name the name of the stream in the mapping file
+     * @param in the input stream to read from
+     * @param threads the number of worker threads
+     * @return the created {@link BeanReader}
+     * @throws IllegalArgumentException if there is no stream configured for the given name, or
+     *   if the stream mapping mode does not support reading an input stream, or if the
+     *   stream does not support pipelined reading
+     * @since 2.1.1
+     */
+    public abstract BeanReader createPipelinedReader(String name, Reader in, int threads) 
+        throws IllegalArgumentException;
+    
     /**
      * Creates a new <tt>BeanReader</tt> for reading from the given input stream.
      * @param name the name of the stream in the mapping file
@@ -132,30 +234,123 @@ public abstract class StreamFactory {
     public abstract Unmarshaller createUnmarshaller(String name, Locale locale);
     
     /**
-     * Creates a new <tt>BeanWriter</tt> for writing to the given file.
+     * Creates a new thread safe {@link Unmarshaller} that may be shared by multiple threads.
+     * Each call is delegated to an unmarshaller borrowed from a pool, and every record
+     * is unmarshalled independently of records previously unmarshalled by any thread.
+     * {@link Unmarshaller#getRecordName()} and {@link Unmarshaller#getRecordContext()}
+     * return information about the last record unmarshalled by the calling thread.
+     * @param name the name of the stream in the mapping file
+     * @param locale the {@link Locale} used to format error messages, or null to use {@link Locale#getDefault()}
+     * @param poolSize the maximum number of idle unmarshallers to retain
+     * @return the created {@link Unmarshaller}
+     * @throws IllegalArgumentException if there is no stream configured for the given name, or
+     *   if the stream mapping mode does not support unmarshalling
+     * @since 2.1.1
+     */
+    public abstract Unmarshaller createPooledUnmarshaller(String name, Locale locale, int poolSize) 
+        throws IllegalArgumentException;
+    
+    /**
+     * Creates a new <tt>BeanWriter</tt> for writing to the given file using the 
+     * default character set.
      * @param name the name of the stream in the mapping file
      * @param file the file to write to
      * @return the created {@link BeanWriter}
      * @throws IllegalArgumentException if there is no stream configured for the given name, or
      *   if the stream mapping mode does not support writing to an output stream
      * @throws BeanWriterIOException if the file could not be opened for writing
+     * @see #createWriter(String, OutputStream, Charset)
      */
     public BeanWriter createWriter(String name, File file) throws IllegalArgumentException, BeanWriterIOException {
         if (!isMapped(name)) {
             throw new IllegalArgumentException("No stream mapping configured for name '" + name + "'");
         }
         
+        OutputStream out = null;
+        try {
+            out = new FileOutputStream(file);
+            return createWriter(name, out, Charset.defaultCharset());
+        }
+        catch (IOException ex) {
+            IOUtil.closeQuietly(out);
+            throw new BeanWriterIOException("Failed to open file '" + file + "' for writing", ex);
+        }
+        catch (RuntimeException ex) {
+            IOUtil.closeQuietly(out);
+            throw ex;
+        }
+    }
+    
+    /**
+     * Creates a new <tt>BeanWriter</tt> for writing to an output stream encoded using 
+     * the given character set.  For UTF-8, US-ASCII and ISO-8859-1, records are encoded
+     * directly into a reusable byte buffer instead of using an <tt>OutputStreamWriter</tt>.
+     * @param name the name of the stream in the mapping file
+     * @param out the output stream to write to
+     * @param charset the character set to encode the output stream with
+     * @return the created {@link BeanWriter}
+     * @throws IllegalArgumentException if there is no stream configured for the given name, or
+     *   if the stream mapping mode does not support writing to an output stream
+     * @since 2.1.1
+     */
+    public BeanWriter createWriter(String name, OutputStream out, Charset charset) throws IllegalArgumentException {
+        if (!isMapped(name)) {
+            throw new IllegalArgumentException("No stream mapping configured for name '" + name + "'");
+        }
+        
+        Writer writer;
+        if (ByteEncodingWriter.isSupported(charset)) {
+            writer = new ByteEncodingWriter(out, charset);
+        }
+        else {
+            writer = new BufferedWriter(new OutputStreamWriter(out, charset));
+        }
+        return createWriter(name, writer);
+    }
+
+    /**
+     * Creates a new <tt>BeanWriter</tt> for writing to a file using a background thread.
+     * Records are formatted into a ring of character buffers by the calling thread, 
+     * and encoded and written to the file by the background thread, so that formatting 
+     * and writing overlap.  If all buffers are waiting to be written, the calling thread
+     * blocks until one is written.  An exception thrown writing the file is thrown
+     * from the next call to <tt>write</tt>, {@link BeanWriter#flush()} or 
+     * {@link BeanWriter#close()}.  The background thread is stopped when the writer
+     * is closed.
+     * @param name the name of the stream in the mapping file
+     * @param file the file to write to
+     * @param charset the character set to encode the file with
+     * @param bufferCount the number of character buffers, which must be at least 2
+     * @return the created {@link BeanWriter}
+     * @throws IllegalArgumentException if there is no stream configured for the given name, or
+     *   if the stream mapping mode does not support writing to an output stream
+     * @throws BeanWriterIOException if the file could not be opened for writing
+     * @since 2.1.1
+     */
+    public BeanWriter createAsyncWriter(String name, File file, Charset charset, int bufferCount) 
+        throws IllegalArgumentException, BeanWriterIOException {
+        if (!isMapped(name)) {
+            throw new IllegalArgumentException("No stream mapping configured for name '" + name + "'");
+        }
+        if (bufferCount < 2) {
+            throw new IllegalArgumentException("Buffer count must be at least 2");
+        }
+        
+        FileOutputStream fout = null;
         Writer out = null;
         try {
-            out = new BufferedWriter(new FileWriter(file));
+            fout = new FileOutputStream(file);
+            out = new AsyncChannelWriter(fout.getChannel(), charset, 
+                AsyncChannelWriter.DEFAULT_BUFFER_SIZE, bufferCount);
             return createWriter(name, out);
         }
         catch (IOException ex) {
-            IOUtil.closeQuietly(out);
+            IOUtil.closeQuietly(fout);
             throw new BeanWriterIOException("Failed to open file '" + file + "' for writing", ex);
         }
         catch (RuntimeException ex) {
             IOUtil.closeQuietly(out);
+            IOUtil.closeQuietly(fout);
             throw ex;
         }
     }
@@ -180,6 +375,43 @@ public abstract class StreamFactory {
      */
     public abstract Marshaller createMarshaller(String name) throws IllegalArgumentException;
     
+    /**
+     * Creates a new thread safe {@link Marshaller} that may be shared by multiple threads.
+     * Each call is delegated to a marshaller borrowed from a pool, and every bean
+     * is marshalled independently of beans previously marshalled by any thread.
+     * The marshalled record can be retrieved from the thread that marshalled it.
+     * @param name the name of the stream in the mapping file
+     * @param poolSize the maximum number of idle marshallers to retain
+     * @return the created {@link Marshaller}
+     * @throws IllegalArgumentException if there is no stream configured for the given name, or
+     *   if the stream mapping mode does not support marshalling
+     * @since 2.1.1
+     */
+    public abstract Marshaller createPooledMarshaller(String name, int poolSize) throws IllegalArgumentException;
+    
+    /**
+     * Sets the listener to notify of events raised by bean readers and writers
+     * created by this factory.  The listener applies to all mapped streams, 
+     * including streams loaded after it is set, but only to readers and writers
+     * created after it is set.  By default, no listener is set.
+     * @param streamListener the {@link StreamListener}, or <tt>null</tt> to disable
+     *   notifications
+     * @since 2.1.1
+     */
+    public void setStreamListener(StreamListener streamListener) {
+        this.streamListener = streamListener;
+    }
+    
+    /**
+     * Returns the listener notified of events raised by bean readers and writers
+     * created by this factory.
+     * @return the {@link StreamListener}, or <tt>null</tt> if not set
+     * @since 2.1.1
+     */
+    public StreamListener getStreamListener() {
+        return streamListener;
+    }
+    
     /**
      * Defines a new stream mapping.
      * @param builder the {@link StreamBuilder}
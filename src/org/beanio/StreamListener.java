@@ -0,0 +1,89 @@
+/*
+ * Copyright 2013 Kevin Seim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.beanio;
+
+/**
+ * A <tt>StreamListener</tt> is notified of events raised by a {@link BeanReader} or
+ * {@link BeanWriter} and can be used to gather metrics about the records read
+ * and written.  A listener is registered with a {@link StreamFactory} using
+ * {@link StreamFactory#setStreamListener(StreamListener)}, and applies to readers
+ * and writers created after it is set.
+ * <p>
+ * If no listener is registered, readers and writers skip all timing calls.
+ * When registered, a listener is invoked from the thread that reads or writes
+ * each record, so an implementation shared by multiple readers or writers must be
+ * thread safe.  Elapsed times are measured using <tt>System.nanoTime()</tt>.
+ *
+ * @author Kevin Seim
+ * @since 2.1.1
+ * @see org.beanio.metrics.StreamMetrics
+ */
+public interface StreamListener {
+
+    /**
+     * Invoked after a record is read from the input stream.
+     * @param streamName the name of the stream
+     * @param length the number of characters in the record text, or -1 if
+     *   the record text is not available (as is the case for XML streams), or if
+     *   its length is not known without copying it
+     * @param nanos the time spent reading the record in nanoseconds
+     */
+    public void recordRead(String streamName, int length, long nanos);
+
+    /**
+     * Invoked after a record read from the input stream is matched to a
+     * record or group in the stream layout.
+     * @param streamName the name of the stream
+     * @param recordName the name of the matched record or group, or <tt>null</tt>
+     *   if the record was not identified
+     * @param nanos the time spent identifying the record in nanoseconds
+     */
+    public void recordIdentified(String streamName, String recordName, long nanos);
+
+    /**
+     * Invoked after a record or group is unmarshalled, including when the
+     * record is invalid.
+     * @param streamName the name of the stream
+     * @param recordName the name of the record or group
+     * @param nanos the time spent parsing fields and unmarshalling the bean object
+     *   in nanoseconds
+     */
+    public void recordUnmarshalled(String streamName, String recordName, long nanos);
+
+    /**
+     * Invoked when a field value fails type conversion.
+     * @param streamName the name of the stream
+     * @param recordName the name of the record containing the field
+     * @param fieldName the name of the field
+     */
+    public void typeConversionFailed(String streamName, String recordName, String fieldName);
+
+    /**
+     * Invoked when a {@link BeanReader} passes an exception to its error handler, or
+     * throws it if no error handler is configured.
+     * @param streamName the name of the stream
+     * @param ex the {@link BeanReaderException}
+     */
+    public void readError(String streamName, BeanReaderException ex);
+
+    /**
+     * Invoked after a bean object is marshalled and written to the output stream.
+     * @param streamName the name of the stream
+     * @param recordName the name of the record or group
+     * @param nanos the time spent marshalling and writing the bean object in nanoseconds
+     */
+    public void recordWritten(String streamName, String recordName, long nanos);
+}
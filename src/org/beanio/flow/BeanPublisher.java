@@ -0,0 +1,311 @@
+/*
+ * Copyright 2013 Kevin Seim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.beanio.flow;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+import org.beanio.*;
+
+/**
+ * A <tt>BeanPublisher</tt> publishes the bean objects read from a {@link BeanReader}
+ * to a single {@link BeanSubscriber}, following the contract of
+ * <tt>java.util.concurrent.Flow.Publisher</tt>.
+ * <p>
+ * Bean objects are read using the given <tt>Executor</tt>, and only while the
+ * subscriber has outstanding demand, or to fill a bounded read ahead buffer.  Blocking
+ * reads are therefore confined to the executor, and a thread is never held waiting
+ * for demand.
+ * <p>
+ * Exceptions thrown by the reader are first passed to its registered
+ * {@link BeanReaderErrorHandler}, if any.  If the error handler handles an exception,
+ * reading continues.  Otherwise the exception is sent to the subscriber using
+ * {@link BeanSubscriber#onError(Throwable)} after any bean objects read before it.
+ * The reader is closed when the subscription completes, fails or is cancelled.
+ *
+ * @author Kevin Seim
+ * @since 2.1.1
+ */
+public class BeanPublisher {
+
+    /** The default number of bean objects to read ahead of demand */
+    public static final int DEFAULT_READ_AHEAD = 16;
+
+    private BeanReader reader;
+    private Executor executor;
+    private int readAhead;
+    private AtomicBoolean subscribed = new AtomicBoolean();
+
+    /**
+     * Constructs a new <tt>BeanPublisher</tt> that reads ahead up to
+     * {@link #DEFAULT_READ_AHEAD} bean objects.
+     * @param reader the {@link BeanReader} to read from
+     * @param executor the <tt>Executor</tt> used to read bean objects and signal the subscriber
+     */
+    public BeanPublisher(BeanReader reader, Executor executor) {
+        this(reader, executor, DEFAULT_READ_AHEAD);
+    }
+
+    /**
+     * Constructs a new <tt>BeanPublisher</tt>.
+     * @param reader the {@link BeanReader} to read from
+     * @param executor the <tt>Executor</tt> used to read bean objects and signal the subscriber
+     * @param readAhead the maximum number of bean objects to read ahead of demand
+     */
+    public BeanPublisher(BeanReader reader, Executor executor, int readAhead) {
+        if (reader == null) {
+            throw new NullPointerException("null reader");
+        }
+        if (executor == null) {
+            throw new NullPointerException("null executor");
+        }
+        if (readAhead < 1) {
+            throw new IllegalArgumentException("Read ahead must be greater than 0");
+        }
+        this.reader = reader;
+        this.executor = executor;
+        this.readAhead = readAhead;
+    }
+
+    /**
+     * Subscribes a subscriber to this publisher.  A publisher accepts only one
+     * subscriber, and any others are sent {@link BeanSubscriber#onError(Throwable)}
+     * with an <tt>IllegalStateException</tt>.
+     * @param subscriber the {@link BeanSubscriber}
+     */
+    public void subscribe(BeanSubscriber subscriber) {
+        if (subscriber == null) {
+            throw new NullPointerException("null subscriber");
+        }
+
+        if (!subscribed.compareAndSet(false, true)) {
+            subscriber.onSubscribe(new BeanSubscription() {
+                public void request(long n) { }
+                public void cancel() { }
+            });
+            subscriber.onError(new IllegalStateException("Publisher already has a subscriber"));
+            return;
+        }
+
+        Subscription subscription = new Subscription(subscriber);
+        subscriber.onSubscribe(subscription);
+        subscription.schedule();
+    }
+
+    /**
+     * The subscription, which reads bean objects and signals the subscriber from a
+     * single task at a time submitted to the executor.
+     */
+    private class Subscription implements BeanSubscription, Runnable {
+
+        private BeanSubscriber subscriber;
+        private AtomicLong demand = new AtomicLong();
+        // the number of times the task was scheduled while running
+        private AtomicInteger pending = new AtomicInteger();
+        private volatile boolean cancelled;
+        private volatile Throwable invalidRequest;
+        private volatile Throwable rejected;
+
+        // the following are only accessed from the task
+        private Queue<Object> buffer = new LinkedList<Object>();
+        private boolean eof;
+        private Throwable error;
+        private boolean terminated;
+
+        public Subscription(BeanSubscriber subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        /*
+         * (non-Javadoc)
+         * @see org.beanio.flow.BeanSubscription#request(long)
+         */
+        public void request(long n) {
+            if (n <= 0) {
+                invalidRequest = new IllegalArgumentException(
+                    "Requested bean count must be greater than 0: " + n);
+            }
+            else {
+                long current, updated;
+                do {
+                    current = demand.get();
+                    updated = current + n;
+                    if (updated < 0) {
+                        updated = Long.MAX_VALUE;
+                    }
+                }
+                while (!demand.compareAndSet(current, updated));
+            }
+            schedule();
+        }
+
+        /*
+         * (non-Javadoc)
+         * @see org.beanio.flow.BeanSubscription#cancel()
+         */
+        public void cancel() {
+            cancelled = true;
+            schedule();
+        }
+
+        /**
+         * Submits this task to the executor unless it is already running.  If the
+         * executor rejects the task, the task is run in the calling thread to
+         * send the rejection to the subscriber.
+         */
+        void schedule() {
+            if (pending.getAndIncrement() == 0) {
+                try {
+                    executor.execute(this);
+                }
+                catch (RejectedExecutionException ex) {
+                    // this thread still owns the task, so it is safe to run here
+                    rejected = ex;
+                    run();
+                }
+            }
+        }
+
+        /*
+         * (non-Javadoc)
+         * @see java.lang.Runnable#run()
+         */
+        public void run() {
+            int missed = 1;
+            try {
+                do {
+                    try {
+                        drain();
+                    }
+                    catch (RuntimeException ex) {
+                        // the subscriber violated its contract by throwing an exception
+                        fail(ex);
+                    }
+                    missed = pending.addAndGet(-missed);
+                }
+                while (missed != 0);
+            }
+            finally {
+                // if an Error was thrown, allow the task to be scheduled again
+                if (missed != 0) {
+                    pending.set(0);
+                }
+            }
+        }
+
+        /**
+         * Sends buffered bean objects to the subscriber while there is demand,
+         * and reads bean objects until the buffer is full.
+         */
+        private void drain() {
+            while (!terminated) {
+                if (cancelled) {
+                    terminate();
+                    return;
+                }
+                if (rejected != null) {
+                    terminate();
+                    subscriber.onError(rejected);
+                    return;
+                }
+                if (invalidRequest != null) {
+                    terminate();
+                    subscriber.onError(invalidRequest);
+                    return;
+                }
+
+                if (!buffer.isEmpty()) {
+                    if (demand.get() > 0) {
+                        if (demand.get() != Long.MAX_VALUE) {
+                            demand.decrementAndGet();
+                        }
+                        subscriber.onNext(buffer.poll());
+                        continue;
+                    }
+                }
+                else if (eof) {
+                    terminate();
+                    if (error == null) {
+                        subscriber.onComplete();
+                    }
+                    else {
+                        subscriber.onError(error);
+                    }
+                    return;
+                }
+
+                if (eof || buffer.size() >= readAhead) {
+                    return;
+                }
+
+                try {
+                    Object bean = reader.read();
+                    if (bean == null) {
+                        eof = true;
+                    }
+                    else {
+                        buffer.add(bean);
+                    }
+                }
+                catch (Exception ex) {
+                    // reported after buffered bean objects are sent
+                    eof = true;
+                    error = ex;
+                }
+            }
+        }
+
+        /**
+         * Cancels the subscription after the subscriber threw an exception, and
+         * sends the exception to the subscriber unless it was thrown while
+         * handling a terminal signal.
+         * @param ex the exception thrown by the subscriber
+         */
+        private void fail(RuntimeException ex) {
+            cancelled = true;
+            if (terminated) {
+                return;
+            }
+            terminate();
+            try {
+                subscriber.onError(ex);
+            }
+            catch (RuntimeException e) {
+                // ignore, the subscription is already cancelled
+            }
+        }
+
+        /**
+         * Closes the reader and discards buffered bean objects.
+         */
+        private void terminate() {
+            if (terminated) {
+                return;
+            }
+            terminated = true;
+            buffer.clear();
+            try {
+                reader.close();
+            }
+            catch (BeanReaderIOException ex) {
+                if (error == null) {
+                    error = ex;
+                }
+            }
+        }
+    }
+}
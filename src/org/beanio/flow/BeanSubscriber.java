@@ -0,0 +1,57 @@
+/*
+ * Copyright 2013 Kevin Seim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.beanio.flow;
+
+/**
+ * A <tt>BeanSubscriber</tt> receives bean objects from a {@link BeanPublisher}.
+ * <p>
+ * This interface follows the contract of <tt>java.util.concurrent.Flow.Subscriber</tt>:
+ * {@link #onSubscribe(BeanSubscription)} is called first, followed by any number of
+ * calls to {@link #onNext(Object)} not exceeding the requested demand, and then at
+ * most one call to either {@link #onComplete()} or {@link #onError(Throwable)}.
+ * Methods are never called concurrently.
+ *
+ * @author Kevin Seim
+ * @since 2.1.1
+ */
+public interface BeanSubscriber {
+
+    /**
+     * Called before any other method to pass the subscription.  No bean objects 
+     * are received until requested using {@link BeanSubscription#request(long)}.
+     * @param subscription the {@link BeanSubscription}
+     */
+    public void onSubscribe(BeanSubscription subscription);
+
+    /**
+     * Called with the next bean object.
+     * @param bean the bean object
+     */
+    public void onNext(Object bean);
+
+    /**
+     * Called if the subscription failed.  No other methods are called afterwards.
+     * @param error the error, which is typically a 
+     *   {@link org.beanio.BeanReaderException BeanReaderException}
+     */
+    public void onError(Throwable error);
+
+    /**
+     * Called when all bean objects have been sent.  No other methods are called afterwards.
+     */
+    public void onComplete();
+
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2013 Kevin Seim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.beanio.flow;
+
+/**
+ * A <tt>BeanSubscription</tt> links a {@link BeanSubscriber} to a {@link BeanPublisher},
+ * and is used by the subscriber to request bean objects or cancel the subscription.
+ * <p>
+ * This interface follows the contract of <tt>java.util.concurrent.Flow.Subscription</tt>.
+ *
+ * @author Kevin Seim
+ * @since 2.1.1
+ */
+public interface BeanSubscription {
+
+    /**
+     * Requests up to <tt>n</tt> additional bean objects.  Demand is cumulative, and
+     * may be requested from within {@link BeanSubscriber#onNext(Object)}.
+     * @param n the number of bean objects to request, which must be greater than 0,
+     *   or the subscriber is sent {@link BeanSubscriber#onError(Throwable)}
+     */
+    public void request(long n);
+
+    /**
+     * Cancels the subscription.  Bean objects already being sent may still be
+     * received by the subscriber.
+     */
+    public void cancel();
+
+}
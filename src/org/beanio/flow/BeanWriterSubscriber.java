@@ -0,0 +1,180 @@
+/*
+ * Copyright 2013 Kevin Seim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.beanio.flow;
+
+import java.util.concurrent.*;
+
+import org.beanio.*;
+
+/**
+ * A {@link BeanSubscriber} that writes the bean objects it receives to a {@link BeanWriter}.
+ * <p>
+ * Bean objects are requested in batches.  When every bean object in a batch has been
+ * written, the writer is flushed before the next batch is requested, so that the
+ * output never lags behind demand by more than one batch.  The writer is flushed and
+ * closed when the subscription completes, and closed if the subscription fails.
+ *
+ * @author Kevin Seim
+ * @since 2.1.1
+ */
+public class BeanWriterSubscriber implements BeanSubscriber {
+
+    /** The default number of bean objects to request at a time */
+    public static final int DEFAULT_BATCH_SIZE = 64;
+
+    private BeanWriter writer;
+    private int batchSize;
+    private BeanSubscription subscription;
+    private int count;
+    private volatile Throwable error;
+    private CountDownLatch done = new CountDownLatch(1);
+
+    /**
+     * Constructs a new <tt>BeanWriterSubscriber</tt> that requests up to
+     * {@link #DEFAULT_BATCH_SIZE} bean objects at a time.
+     * @param writer the {@link BeanWriter} to write to
+     */
+    public BeanWriterSubscriber(BeanWriter writer) {
+        this(writer, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Constructs a new <tt>BeanWriterSubscriber</tt>.
+     * @param writer the {@link BeanWriter} to write to
+     * @param batchSize the number of bean objects to request at a time
+     */
+    public BeanWriterSubscriber(BeanWriter writer, int batchSize) {
+        if (writer == null) {
+            throw new NullPointerException("null writer");
+        }
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be greater than 0");
+        }
+        this.writer = writer;
+        this.batchSize = batchSize;
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see org.beanio.flow.BeanSubscriber#onSubscribe(org.beanio.flow.BeanSubscription)
+     */
+    public void onSubscribe(BeanSubscription subscription) {
+        if (this.subscription != null) {
+            subscription.cancel();
+            return;
+        }
+        this.subscription = subscription;
+        subscription.request(batchSize);
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see org.beanio.flow.BeanSubscriber#onNext(java.lang.Object)
+     */
+    public void onNext(Object bean) {
+        if (isDone()) {
+            return;
+        }
+
+        try {
+            writer.write(bean);
+            if (++count == batchSize) {
+                count = 0;
+                writer.flush();
+                subscription.request(batchSize);
+            }
+        }
+        catch (BeanWriterException ex) {
+            subscription.cancel();
+            finish(ex);
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see org.beanio.flow.BeanSubscriber#onError(java.lang.Throwable)
+     */
+    public void onError(Throwable error) {
+        finish(error);
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see org.beanio.flow.BeanSubscriber#onComplete()
+     */
+    public void onComplete() {
+        finish(null);
+    }
+
+    /**
+     * Flushes (if successful) and closes the writer, and releases threads waiting
+     * for the subscription to finish.
+     * @param ex the error that caused the subscription to fail, or null if completed
+     */
+    private void finish(Throwable ex) {
+        if (isDone()) {
+            return;
+        }
+
+        try {
+            if (ex == null) {
+                writer.flush();
+            }
+        }
+        catch (BeanWriterException e) {
+            ex = e;
+        }
+        finally {
+            try {
+                writer.close();
+            }
+            catch (BeanWriterException e) {
+                if (ex == null) {
+                    ex = e;
+                }
+            }
+            error = ex;
+            done.countDown();
+        }
+    }
+
+    /**
+     * Returns whether the subscription has completed or failed.
+     * @return true if the subscription has finished
+     */
+    public boolean isDone() {
+        return done.getCount() == 0;
+    }
+
+    /**
+     * Waits for the subscription to complete or fail.
+     * @param timeout the maximum time to wait
+     * @param unit the time unit of the <tt>timeout</tt> argument
+     * @return true if the subscription finished, or false if the waiting time elapsed
+     * @throws InterruptedException if the current thread is interrupted while waiting
+     */
+    public boolean await(long timeout, TimeUnit unit) throws InterruptedException {
+        return done.await(timeout, unit);
+    }
+
+    /**
+     * Returns the error that caused the subscription to fail.
+     * @return the error, or null if the subscription has not finished or was successful
+     */
+    public Throwable getError() {
+        return error;
+    }
+}
@@ -16,6 +16,7 @@
 package org.beanio.internal;
 
 import java.io.*;
+import java.nio.charset.Charset;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -77,6 +78,59 @@ public class DefaultStreamFactory extends StreamFactory {
         }
     }
     
+    @Override
+    public BeanReader createReader(String name, File file, Charset charset) {
+        Stream stream = getStream(name);
+        switch (stream.getMode()) {
+            case Stream.READ_WRITE_MODE:
+            case Stream.READ_ONLY_MODE:
+                try {
+                    return stream.createBeanReader(file, charset, Locale.getDefault());
+                }
+                catch (IOException ex) {
+                    throw new BeanReaderIOException("Failed to open file '" + file + "' for reading", ex);
+                }
+            default:
+                throw new IllegalArgumentException("Read mode not supported for stream mapping '" + name + "'");
+        }
+    }
+    
+    @Override
+    public BeanReader createParallelReader(String name, File file, Charset charset, int threads, boolean ordered) {
+        Stream stream = getStream(name);
+        switch (stream.getMode()) {
+            case Stream.READ_WRITE_MODE:
+            case Stream.READ_ONLY_MODE:
+                return stream.createParallelBeanReader(file, charset, Locale.getDefault(), threads, ordered);
+            default:
+                throw new IllegalArgumentException("Read mode not supported for stream mapping '" + name + "'");
+        }
+    }
+    
+    @Override
+    public <T> BeanIterator<T> createIterator(String name, File file, Charset charset, Class<T> type) {
+        Stream stream = getStream(name);
+        switch (stream.getMode()) {
+            case Stream.READ_WRITE_MODE:
+            case Stream.READ_ONLY_MODE:
+                return stream.createBeanIterator(file, charset, Locale.getDefault(), type);
+            default:
+                throw new IllegalArgumentException("Read mode not supported for stream mapping '" + name + "'");
+        }
+    }
+    
+    @Override
+    public BeanReader createPipelinedReader(String name, Reader in, int threads) {
+        Stream stream = getStream(name);
+        switch (stream.getMode()) {
+            case Stream.READ_WRITE_MODE:
+            case Stream.READ_ONLY_MODE:
+                return stream.createPipelinedBeanReader(in, Locale.getDefault(), threads);
+            default:
+                throw new IllegalArgumentException("Read mode not supported for stream mapping '" + name + "'");
+        }
+    }
+    
     @Override
     public Unmarshaller createUnmarshaller(String name, Locale locale) {
         if (locale == null) {
@@ -92,6 +146,22 @@ public class DefaultStreamFactory extends StreamFactory {
                 throw new IllegalArgumentException("Read mode not supported for stream mapping '" + name + "'");
         }
     }
+    
+    @Override
+    public Unmarshaller createPooledUnmarshaller(String name, Locale locale, int poolSize) {
+        if (locale == null) {
+            locale = Locale.getDefault();
+        }
+        
+        Stream stream = getStream(name);
+        switch (stream.getMode()) {
+            case Stream.READ_WRITE_MODE:
+            case Stream.READ_ONLY_MODE:
+                return stream.createPooledUnmarshaller(locale, poolSize);
+            default:
+                throw new IllegalArgumentException("Read mode not supported for stream mapping '" + name + "'");
+        }
+    }
 
     @Override
     public BeanWriter createWriter(String name, Writer out) {
@@ -116,6 +186,18 @@ public class DefaultStreamFactory extends StreamFactory {
                 throw new IllegalArgumentException("Write mode not supported for stream mapping '" + name + "'");
         }
     }
+    
+    @Override
+    public Marshaller createPooledMarshaller(String name, int poolSize) {
+        Stream stream = getStream(name);
+        switch (stream.getMode()) {
+            case Stream.READ_WRITE_MODE:
+            case Stream.WRITE_ONLY_MODE:
+                return stream.createPooledMarshaller(poolSize);
+            default:
+                throw new IllegalArgumentException("Write mode not supported for stream mapping '" + name + "'");
+        }
+    }
 
     /**
      * Returns the named stream.
@@ -136,6 +218,7 @@ public class DefaultStreamFactory extends StreamFactory {
      * @param stream the {@link Stream} to add
      */
     public void addStream(Stream stream) {
+        stream.setStreamListener(getStreamListener());
         contextMap.put(stream.getName(), stream);
     }
 
@@ -157,6 +240,14 @@ public class DefaultStreamFactory extends StreamFactory {
         this.compiler = compiler;
     }
 
+    @Override
+    public void setStreamListener(StreamListener streamListener) {
+        super.setStreamListener(streamListener);
+        for (Stream stream : contextMap.values()) {
+            stream.setStreamListener(streamListener);
+        }
+    }
+    
     @Override
     public boolean isMapped(String streamName) {
         return contextMap.containsKey(streamName);
@@ -437,7 +437,13 @@ public abstract class ParserFactorySupport extends ProcessorSupport implements P
             reflectPropertyType(config, property);
         }
         // pop the record from the parser stack
-        finalizeGroup(config, (Group)popParser());
+        Group group = (Group) popParser();
+        finalizeGroup(config, group);
+        
+        // index the records that can be identified by a literal field value
+        if (readEnabled) {
+            group.setIdentifierIndex(RecordIdentifierIndex.create(group));
+        }
         
         return property;
     }
@@ -21,7 +21,7 @@ import org.beanio.internal.config.*;
 import org.beanio.internal.parser.*;
 import org.beanio.internal.parser.format.json.*;
 import org.beanio.stream.RecordParserFactory;
-import org.beanio.stream.json.JsonRecordParserFactory;
+import org.beanio.stream.json.*;
 
 /**
  * A {@link ParserFactory} for the JSON stream format.
@@ -47,9 +47,57 @@ public class JsonParserFactory extends ParserFactorySupport {
     @Override
     public Stream createStream(StreamConfig config) throws BeanIOConfigurationException {
         Stream stream =  super.createStream(config);
-        ((JsonStreamFormat)stream.getFormat()).setMaxDepth(maxDepth);
+        JsonStreamFormat format = (JsonStreamFormat) stream.getFormat();
+        format.setMaxDepth(maxDepth);
+        
+        // unmapped JSON fields are skipped when read
+        JsonProjection projection = new JsonProjection();
+        if (project((Component) stream.getLayout(), projection, false)) {
+            format.setProjection(projection);
+        }
         return stream;
     }
+    
+    /**
+     * Adds the JSON fields referenced by the descendants of a parser component to
+     * a projection.
+     * @param node the parser component
+     * @param projection the {@link JsonProjection} to add fields to
+     * @param array true if <tt>projection</tt> is applied to a JSON array, in which
+     *   case its child nodes are referenced by index and not by name
+     * @return false if <tt>projection</tt> cannot be applied because a value
+     *   must be kept in full
+     */
+    private boolean project(Component node, JsonProjection projection, boolean array) {
+        for (Component child : node.getChildren()) {
+            if (child instanceof JsonWrapper) {
+                JsonWrapper wrapper = (JsonWrapper) child;
+                boolean isArray = wrapper.getJsonType() == JsonNode.ARRAY;
+                if (array) {
+                    // the projection applied to an array is applied to each of its elements
+                    if (!project(wrapper, projection, isArray)) {
+                        return false;
+                    }
+                }
+                else {
+                    JsonProjection nested = projection.addNode(wrapper.getJsonName());
+                    if (nested != null && !project(wrapper, nested, isArray)) {
+                        projection.addValue(wrapper.getJsonName());
+                    }
+                }
+            }
+            else if (child instanceof Field && ((Field) child).getFormat() instanceof JsonFieldFormat) {
+                if (array) {
+                    return false;
+                }
+                projection.addValue(((JsonFieldFormat) ((Field) child).getFormat()).getJsonName());
+            }
+            else if (!project(child, projection, array)) {
+                return false;
+            }
+        }
+        return true;
+    }
 
     @Override
     protected void initializeSegmentIteration(SegmentConfig config, Property property) {
@@ -22,7 +22,7 @@ import org.beanio.internal.parser.*;
 import org.beanio.internal.parser.format.FieldPadding;
 import org.beanio.internal.parser.format.xml.*;
 import org.beanio.stream.RecordParserFactory;
-import org.beanio.stream.xml.XmlRecordParserFactory;
+import org.beanio.stream.xml.*;
 
 /**
  * A {@link ParserFactory} for the XML stream format.
@@ -51,9 +51,70 @@ public class XmlParserFactory extends ParserFactorySupport {
         Stream stream =  super.createStream(config);
         ((XmlStreamFormat)stream.getFormat()).setLayout(stream.getLayout());
         ((XmlStreamFormat)stream.getFormat()).setGroupDepth(maxGroupDepth);
+        
+        // unmapped XML elements are skipped when read
+        XmlProjection projection = new XmlProjection();
+        if (project((Component) stream.getLayout(), projection, null)) {
+            ((XmlStreamFormat)stream.getFormat()).setProjection(projection);
+        }
         return stream;
     }
     
+    /**
+     * Adds the XML elements referenced by the descendants of a parser component
+     * to a projection.
+     * @param node the parser component
+     * @param root the {@link XmlProjection} of record elements
+     * @param current the {@link XmlProjection} of the enclosing record or segment 
+     *   element, or <tt>null</tt> if not within a record
+     * @return false if a projection cannot be used
+     */
+    private boolean project(Component node, XmlProjection root, XmlProjection current) {
+        for (Component child : node.getChildren()) {
+            if (child instanceof XmlSelectorWrapper) {
+                XmlSelectorWrapper wrapper = (XmlSelectorWrapper) child;
+                if (wrapper.isGroup()) {
+                    if (!project(wrapper, root, null)) {
+                        return false;
+                    }
+                }
+                else {
+                    XmlProjection nested = root.addNode(wrapper.getLocalName());
+                    if (nested != null && !project(wrapper, root, nested)) {
+                        return false;
+                    }
+                }
+            }
+            else if (child instanceof XmlWrapper) {
+                if (current == null) {
+                    return false;
+                }
+                XmlProjection nested = current.addNode(((XmlWrapper) child).getLocalName());
+                if (nested != null && !project(child, root, nested)) {
+                    return false;
+                }
+            }
+            else if (child instanceof Field && ((Field) child).getFormat() instanceof XmlFieldFormat) {
+                if (current == null) {
+                    return false;
+                }
+                XmlFieldFormat format = (XmlFieldFormat) ((Field) child).getFormat();
+                switch (format.getType()) {
+                case XmlNode.XML_TYPE_ELEMENT:
+                    current.addElement(format.getLocalName());
+                    break;
+                case XmlNode.XML_TYPE_TEXT:
+                    current.setText(true);
+                    break;
+                }
+            }
+            else if (!project(child, root, current)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
     @Override
     protected void initializeGroupMain(GroupConfig config, Property bean) {
         if (!XmlTypeConstants.XML_TYPE_NONE.equals(config.getXmlType())) {
@@ -40,7 +40,7 @@ public abstract class Aggregation extends DelegatingParser implements Property,
     protected Field occurs;
     
     // the current iteration index
-    private ParserLocal<Integer> index = new ParserLocal<Integer>();
+    private ParserLocalInt index = new ParserLocalInt();
     
     /**
      * Constructs a new <tt>Aggregation</tt>.
@@ -172,11 +172,11 @@ public abstract class Aggregation extends DelegatingParser implements Property,
      * @see org.beanio.parser2.Iteration#getIterationIndex()
      */
     public final int getIterationIndex(ParsingContext context) {
-        return index.get(context);
+        return index.getInt(context);
     }
     
     protected final void setIterationIndex(ParsingContext context, int index) {
-        this.index.set(context, index);
+        this.index.setInt(context, index);
     }
     
     public int getMinOccurs() {
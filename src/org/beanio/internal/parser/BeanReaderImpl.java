@@ -16,6 +16,7 @@
 package org.beanio.internal.parser;
 
 import java.io.*;
+import java.util.List;
 
 import org.beanio.*;
 import org.beanio.internal.util.DebugUtil;
@@ -26,7 +27,7 @@ import org.beanio.internal.util.DebugUtil;
  * @author Kevin Seim
  * @since 2.0
  */
-public class BeanReaderImpl implements BeanReader {
+public class BeanReaderImpl implements BatchBeanReader {
     
     // stream specific unmarshalling context
     private UnmarshallingContext context;
@@ -57,7 +58,34 @@ public class BeanReaderImpl implements BeanReader {
      */
     public Object read() {
         ensureOpen();
+        return nextBean();
+    }
+    
+    /*
+     * (non-Javadoc)
+     * @see org.beanio.BatchBeanReader#read(java.util.List, int)
+     */
+    public int read(List<Object> beans, int max) {
+        ensureOpen();
         
+        int n = 0;
+        while (n < max) {
+            Object bean = nextBean();
+            if (bean == null) {
+                break;
+            }
+            beans.add(bean);
+            ++n;
+        }
+        return n;
+    }
+    
+    /**
+     * Reads the next bean object from the input stream, passing any exceptions to
+     * the error handler.
+     * @return the next bean object, or null if the end of the stream was reached
+     */
+    private Object nextBean() {
         while (true) {
             if (layout == null) {
                 return null;
@@ -89,15 +117,24 @@ public class BeanReaderImpl implements BeanReader {
     }
     
     private Object internalRead() {
-        Selector parser = null;
-        
+        // match the next record, parser may be null if EOF was reached
+        Selector parser = nextRecord();
+        if (parser == null) {
+            return null;
+        }
+        return unmarshal(parser);
+    }
+    
+    /**
+     * Unmarshals the current record, or group of records, using the given record node.
+     * @param parser the record node matched by {@link #nextRecord()}
+     * @return the unmarshalled bean object, which may be null
+     * @throws BeanReaderException if the record is invalid
+     */
+    Object unmarshal(Selector parser) throws BeanReaderException {
+        StreamListener listener = context.getStreamListener();
+        long start = (listener == null) ? 0 : System.nanoTime();
         try {
-            // match the next record, parser may be null if EOF was reached
-            parser = nextRecord();
-            if (parser == null) {
-                return null;
-            }
-            
             // notify the unmarshalling context that we are about to unmarshal a new record
             context.prepare(parser.getName(), parser.isRecordGroup());
             
@@ -114,8 +151,10 @@ public class BeanReaderImpl implements BeanReader {
             return parser.getValue(context);
         }
         finally {
-            if (parser != null) {
-                parser.clearValue(context);
+            parser.clearValue(context);
+            
+            if (listener != null) {
+                listener.recordUnmarshalled(context.getStreamName(), parser.getName(), System.nanoTime() - start);
             }
         }
     }
@@ -126,12 +165,14 @@ public class BeanReaderImpl implements BeanReader {
      *   was reached
      * @throws BeanReaderException if the next node cannot be determined
      */
-    private Selector nextRecord() throws BeanReaderException {
+    Selector nextRecord() throws BeanReaderException {
         Selector parser = null;
         
         // clear the current record name
         recordName = null;
         
+        StreamListener listener = context.getStreamListener();
+        
         do {
             // read the next record
             context.nextRecord();
@@ -160,12 +201,17 @@ public class BeanReaderImpl implements BeanReader {
             // update the last line number read
             lineNumber = context.getLineNumber();
             
+            long start = (listener == null) ? 0 : System.nanoTime();
             try {
                 parser = layout.matchNext(context);
             }
             catch (UnexpectedRecordException ex) {
                 // when thrown, 'parser' is null and the error is handled below
             }
+            if (listener != null) {
+                listener.recordIdentified(context.getStreamName(), 
+                    parser == null ? null : parser.getName(), System.nanoTime() - start);
+            }
             
             if (parser == null && ignoreUnidentifiedRecords) {
                 context.recordSkipped();
@@ -287,6 +333,14 @@ public class BeanReaderImpl implements BeanReader {
         this.errorHandler = errorHandler;
     }
     
+    /**
+     * Returns the unmarshalling context used by this reader.
+     * @return the {@link UnmarshallingContext}
+     */
+    UnmarshallingContext getContext() {
+        return context;
+    }
+    
     /*
      * Throws an exception if the stream has already been closed.
      */
@@ -297,6 +351,11 @@ public class BeanReaderImpl implements BeanReader {
     }
 
     private void handleError(BeanReaderException ex) {
+        StreamListener listener = context.getStreamListener();
+        if (listener != null) {
+            listener.readError(context.getStreamName(), ex);
+        }
+        
         if (errorHandler == null) {
             throw ex;
         }
@@ -69,6 +69,9 @@ public class BeanWriterImpl implements BeanWriter, StatefulWriter {
             // set the bean to be marshalled on the context
             context.setBean(bean);
             
+            StreamListener listener = context.getStreamListener();
+            long start = (listener == null) ? 0 : System.nanoTime();
+            
             // find the parser in the layout that defines the given bean
             Selector matched = layout.matchNext(context);
             if (matched == null) {
@@ -86,6 +89,10 @@ public class BeanWriterImpl implements BeanWriter, StatefulWriter {
             
             // marshal the bean object
             matched.marshal(context);
+            
+            if (listener != null) {
+                listener.recordWritten(context.getStreamName(), matched.getName(), System.nanoTime() - start);
+            }
         }
         catch (IOException e) {
             throw new BeanWriterIOException(e);
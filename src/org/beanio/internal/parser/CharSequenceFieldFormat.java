@@ -0,0 +1,43 @@
+/*
+ * Copyright 2013 Kevin Seim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.beanio.internal.parser;
+
+/**
+ * A {@link FieldFormat} that can locate field text in the record being unmarshalled
+ * without creating a <tt>String</tt> for the field.
+ *
+ * <p>Implementations of this interface must be thread-safe.
+ *
+ * @author Kevin Seim
+ * @since 2.1.1
+ */
+public interface CharSequenceFieldFormat extends FieldFormat {
+
+    /**
+     * Locates the field text in the record being unmarshalled.  If located, the field
+     * text (with any field padding removed) is set on the context using
+     * {@link UnmarshallingContext#setFieldRegion(CharSequence, int, int)}.
+     *
+     * <p>If the field is not present, invalid, or otherwise cannot be located, this method
+     * returns <tt>false</tt> without reporting any errors, and the field text must be
+     * extracted using {@link #extract(UnmarshallingContext, boolean)}.</p>
+     *
+     * @param context the {@link UnmarshallingContext} holding the record
+     * @return true if the field text was located, false otherwise
+     */
+    public boolean extractRegion(UnmarshallingContext context);
+
+}
@@ -18,6 +18,7 @@ package org.beanio.internal.parser;
 import java.util.*;
 
 import org.beanio.*;
+import org.beanio.stream.RecordReader;
 
 /**
  * 
@@ -28,12 +29,20 @@ public class ErrorContext implements RecordContext, Cloneable {
     
     private int lineNumber;
     private String recordText;
+    private RecordReader recordTextSource;
     private String recordName;
     private ArrayList<String> recordErrors;
     private HashMap<String, String> fieldTextMap;
     private HashMap<String, Counter> fieldCountMap;
     private HashMap<String, Collection<String>> fieldErrorMap;
     
+    // field text that has been located in a record, but not yet copied
+    private int pendingCount;
+    private String[] pendingNames;
+    private String[] pendingRecords;
+    private int[] pendingBounds;
+    private boolean[] pendingRepeating;
+    
     /**
      * Constructs a new <tt>ErrorContext</tt>.
      */
@@ -46,6 +55,8 @@ public class ErrorContext implements RecordContext, Cloneable {
         lineNumber = 0;
         recordName = null;
         recordText = null;
+        recordTextSource = null;
+        pendingCount = 0;
         
         if (fieldTextMap != null)
             fieldTextMap.clear();
@@ -86,6 +97,10 @@ public class ErrorContext implements RecordContext, Cloneable {
      * @return the raw text of the last record read
      */
     public String getRecordText() {
+        if (recordTextSource != null) {
+            recordText = recordTextSource.getRecordText();
+            recordTextSource = null;
+        }
         return recordText;
     }
 
@@ -95,6 +110,19 @@ public class ErrorContext implements RecordContext, Cloneable {
      */
     public void setRecordText(String text) {
         this.recordText = text;
+        this.recordTextSource = null;
+    }
+    
+    /**
+     * Sets the record reader to request the raw record text from the first time
+     * it is needed.  The record reader must not read another record until the 
+     * text is requested, or the text is replaced using {@link #setRecordText(String)}.
+     * @param reader the {@link RecordReader} positioned at this context's record
+     * @since 2.1.1
+     */
+    public void setRecordTextSource(RecordReader reader) {
+        this.recordText = null;
+        this.recordTextSource = reader;
     }
     
     /**
@@ -169,6 +197,68 @@ public class ErrorContext implements RecordContext, Cloneable {
      * @param repeating whether the field repeats in the stream
      */
     public void setFieldText(String fieldName, String text, boolean repeating) {
+        if (pendingCount > 0) {
+            resolveFieldText();
+        }
+        putFieldText(fieldName, text, repeating);
+    }
+    
+    /**
+     * Sets the raw field text for a named field using a region of an immutable record.
+     * The field text is not copied from the record until it is requested.
+     * @param fieldName the name of the field
+     * @param record the record text
+     * @param start the index of the first character of the field text
+     * @param end the index after the last character of the field text
+     * @param repeating whether the field repeats in the stream
+     * @since 2.1.1
+     */
+    public void setFieldText(String fieldName, String record, int start, int end, boolean repeating) {
+        if (pendingNames == null) {
+            pendingNames = new String[16];
+            pendingRecords = new String[16];
+            pendingBounds = new int[32];
+            pendingRepeating = new boolean[16];
+        }
+        else if (pendingCount == pendingNames.length) {
+            int size = pendingCount * 2;
+            String[] names = new String[size];
+            System.arraycopy(pendingNames, 0, names, 0, pendingCount);
+            pendingNames = names;
+            String[] records = new String[size];
+            System.arraycopy(pendingRecords, 0, records, 0, pendingCount);
+            pendingRecords = records;
+            int[] bounds = new int[size * 2];
+            System.arraycopy(pendingBounds, 0, bounds, 0, pendingCount * 2);
+            pendingBounds = bounds;
+            boolean[] flags = new boolean[size];
+            System.arraycopy(pendingRepeating, 0, flags, 0, pendingCount);
+            pendingRepeating = flags;
+        }
+        
+        int i = pendingCount++;
+        pendingNames[i] = fieldName;
+        pendingRecords[i] = record;
+        pendingBounds[i * 2] = start;
+        pendingBounds[i * 2 + 1] = end;
+        pendingRepeating[i] = repeating;
+    }
+    
+    /**
+     * Copies field text that was set using a region of a record.
+     */
+    private void resolveFieldText() {
+        int count = pendingCount;
+        pendingCount = 0;
+        for (int i=0; i<count; i++) {
+            putFieldText(pendingNames[i], 
+                pendingRecords[i].substring(pendingBounds[i * 2], pendingBounds[i * 2 + 1]),
+                pendingRepeating[i]);
+            pendingRecords[i] = null;
+        }
+    }
+    
+    private void putFieldText(String fieldName, String text, boolean repeating) {
         if (fieldTextMap == null) {
             fieldTextMap = new HashMap<String,String>();
         }
@@ -225,6 +315,9 @@ public class ErrorContext implements RecordContext, Cloneable {
      * @see org.beanio.RecordContext#getFieldCount(java.lang.String)
      */
     public int getFieldCount(String fieldName) {
+        if (pendingCount > 0) {
+            resolveFieldText();
+        }
         if (fieldTextMap == null) {
             return 0;
         }
@@ -252,6 +345,9 @@ public class ErrorContext implements RecordContext, Cloneable {
      * @see org.beanio.BeanReaderContext#getFieldText(java.lang.String, int)
      */
     public String getFieldText(String fieldName, int index) {
+        if (pendingCount > 0) {
+            resolveFieldText();
+        }
         if (fieldTextMap == null) {
             return null;
         }
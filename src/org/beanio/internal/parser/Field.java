@@ -43,6 +43,8 @@ public class Field extends ParserComponent implements Property {
         Settings.getInstance().getBoolean(Settings.DEFAULT_MARSHALLING_ENABLED);
     
     private ParserLocal<Object> value = new ParserLocal<Object>(Value.MISSING);
+    // a regular expression matcher reused by each parsing context
+    private ParserLocal<Matcher> regexMatcher = new ParserLocal<Matcher>();
     
     private boolean bound;
     private boolean identifier;
@@ -55,6 +57,7 @@ public class Field extends ParserComponent implements Property {
     private int maxLength = Integer.MAX_VALUE;
     private String literal = null;
     private Pattern regex = null;
+    private TextMatcher regexTextMatcher = null;
     private Object defaultValue;
     
     /* 
@@ -64,6 +67,8 @@ public class Field extends ParserComponent implements Property {
      */
     private Class<?> propertyType;
     private TypeHandler handler;
+    // whether the type handler can parse a region of the record
+    private boolean regionParsing;
     private PropertyAccessor accessor;
     private FieldFormat format;
     
@@ -122,7 +127,7 @@ public class Field extends ParserComponent implements Property {
             return false;
         }
         
-        return isMatch(formatValue(value));
+        return isMatch(null, formatValue(value));
     }
         
     /**
@@ -133,7 +138,7 @@ public class Field extends ParserComponent implements Property {
      */
     public boolean matches(UnmarshallingContext context) {
         if (isIdentifier()) {
-            return isMatch(format.extract(context, false));
+            return isMatch(context, format.extract(context, false));
         }
         else {
             return true;
@@ -148,6 +153,10 @@ public class Field extends ParserComponent implements Property {
      *   or <tt>false</tt> if the field text is null or does not match
      */
     protected boolean isMatch(String text) {
+        return isMatch(null, text);
+    }
+    
+    private boolean isMatch(ParsingContext context, String text) {
         if (text == null)
             return false;
         if (text == Value.INVALID)
@@ -156,11 +165,41 @@ public class Field extends ParserComponent implements Property {
             return false;
         if (literal != null && !literal.equals(text))
             return false;
-        if (regex != null && !regex.matcher(text).matches())
+        if (regex != null && !isRegexMatch(context, text, 0, text.length()))
             return false;
         
         return true;
     }
+    
+    /**
+     * Tests whether a region of field text matches the regular expression of this field.
+     * Simple expressions are tested without using <tt>java.util.regex</tt>, otherwise
+     * a {@link Matcher} is reused for each parsing context.
+     * @param context the {@link ParsingContext}, or null if not available
+     * @param text the character sequence containing the field text
+     * @param start the index of the first character of the field text
+     * @param end the index after the last character of the field text
+     * @return <tt>true</tt> if the field text matches the regular expression
+     */
+    private boolean isRegexMatch(ParsingContext context, CharSequence text, int start, int end) {
+        int result = regexTextMatcher.match(text, start, end);
+        if (result != TextMatcher.UNKNOWN) {
+            return result == TextMatcher.MATCH;
+        }
+        
+        if (context == null) {
+            return regex.matcher(text).region(start, end).matches();
+        }
+        Matcher matcher = regexMatcher.get(context);
+        if (matcher == null) {
+            matcher = regex.matcher(text);
+            regexMatcher.set(context, matcher);
+        }
+        else {
+            matcher.reset(text);
+        }
+        return matcher.region(start, end).matches();
+    }
 
     /*
      * (non-Javadoc)
@@ -211,6 +250,14 @@ public class Field extends ParserComponent implements Property {
      * @see org.beanio.parser2.Unmarshaller#unmarshal(org.beanio.parser2.UnmarshallingContext)
      */
     public boolean unmarshal(UnmarshallingContext context) {
+        // locate the field text without creating a String if supported by the format
+        if (format instanceof CharSequenceFieldFormat && 
+            ((CharSequenceFieldFormat)format).extractRegion(context)) {
+            this.value.set(context, parseValue(context, context.getFieldRegionText(),
+                context.getFieldRegionStart(), context.getFieldRegionEnd()));
+            return true;
+        }
+        
         String text = format.extract(context, true);
         if (text == null) {
             // minOccurs is validated at the segment level
@@ -231,6 +278,108 @@ public class Field extends ParserComponent implements Property {
         return true;
     }
     
+    /**
+     * Parses and validates a field property value from field text located in a region 
+     * of a record.  The field text is only copied into a <tt>String</tt> if required 
+     * for validation or type conversion.
+     * @param context the {@link UnmarshallingContext} to report field errors to
+     * @param record the record text
+     * @param start the index of the first character of the field text
+     * @param end the index after the last character of the field text
+     * @return the parsed field value, or {@link Value#INVALID} if the field was invalid
+     * @since 2.1.1
+     */
+    protected Object parseValue(UnmarshallingContext context, CharSequence record, int start, int end) {
+        // type conversion requires a String
+        if (!regionParsing) {
+            return parseValue(context, record.subSequence(start, end).toString());
+        }
+        
+        int s = start;
+        int e = end;
+        // trim before validation if configured
+        if (trim) {
+            while (s < e && record.charAt(s) <= ' ') {
+                ++s;
+            }
+            while (e > s && record.charAt(e - 1) <= ' ') {
+                --e;
+            }
+        }
+        
+        boolean valid = true;
+        if (s == e) {
+            // validation for required fields
+            if (required) {
+                context.addFieldError(getName(), record.subSequence(start, end).toString(), "required");
+                valid = false;
+            }
+            // return the default value if set
+            else if (defaultValue != null) {
+                return defaultValue;
+            }
+        }
+        else {
+            // validate constant fields
+            if (literal != null && !StringUtil.regionEquals(literal, record, s, e, false)) {
+                context.addFieldError(getName(), record.subSequence(start, end).toString(), 
+                    "literal", literal);
+                valid = false;
+            }
+            // validate minimum length
+            if (e - s < minLength) {
+                context.addFieldError(getName(), record.subSequence(start, end).toString(), 
+                    "minLength", minLength, maxLength);
+                valid = false;
+            }
+            // validate maximum length
+            if (e - s > maxLength) {
+                context.addFieldError(getName(), record.subSequence(start, end).toString(), 
+                    "maxLength", minLength, maxLength);
+                valid = false;
+            }
+            // validate the regular expression
+            if (regex != null && !isRegexMatch(context, record, s, e)) {
+                context.addFieldError(getName(), record.subSequence(start, end).toString(), 
+                    "regex", regex.pattern());
+                valid = false;
+            }
+        }
+        
+        // type conversion is skipped if the text does not pass other validations
+        if (!valid) {
+            return Value.INVALID;
+        }
+        
+        // perform type conversion and return the result
+        try {
+            Object value;
+            if (lazy && s == e) {
+                value = handler.parse(null);
+            }
+            else {
+                value = ((CharSequenceTypeHandler)handler).parse(record, s, e);
+            }
+            
+            // validate primitive values are not null
+            if (value == null && ERROR_IF_NULL_PRIMITIVE && propertyType != null && propertyType.isPrimitive()) {
+                context.addFieldError(getName(), record.subSequence(start, end).toString(), "type",
+                    "Primitive property values cannot be null");
+                return Value.INVALID;
+            }
+            
+            return value;
+        }
+        catch (TypeConversionException ex) {
+            context.addFieldError(getName(), record.subSequence(start, end).toString(), "type", ex.getMessage());
+            return Value.INVALID;
+        }
+        catch (Exception ex) {
+            throw new BeanReaderException("Type conversion failed for field '" + getName() + 
+                "' while parsing text '" + record.subSequence(start, end) + "'", ex);
+        }
+    }
+    
     /**
      * Parses and validates a field property value from the given field text.
      * @param context the {@link UnmarshallingContext} to report field errors to
@@ -307,7 +456,7 @@ public class Field extends ParserComponent implements Property {
                 valid = false;
             }
             // validate the regular expression
-            if (regex != null && !regex.matcher(text).matches()) {
+            if (regex != null && !isRegexMatch(context, text, 0, text.length())) {
                 context.addFieldError(getName(), fieldText, "regex", regex.pattern());
                 valid = false;
             }
@@ -426,9 +575,9 @@ public class Field extends ParserComponent implements Property {
      */
     public void setRegex(String pattern) throws PatternSyntaxException {
         if (pattern == null)
-            this.regex = null;
+            setRegex((Pattern) null);
         else
-            this.regex = Pattern.compile(pattern);
+            setRegex(Pattern.compile(pattern));
     }
 
     /**
@@ -443,6 +592,7 @@ public class Field extends ParserComponent implements Property {
     @Override
     public void registerLocals(Set<ParserLocal<? extends Object>> locals) {
         if (locals.add(value)) {
+            locals.add(regexMatcher);
             super.registerLocals(locals);
         }
     }
@@ -523,8 +673,15 @@ public class Field extends ParserComponent implements Property {
         this.maxLength = maxLength;
     }
 
+    /**
+     * Sets the regular expression the field text parsed by this field
+     * definition must match.  Simple expressions are compiled into a
+     * {@link TextMatcher} that does not require <tt>java.util.regex</tt>.
+     * @param regex the regular expression
+     */
     public void setRegex(Pattern regex) {
         this.regex = regex;
+        this.regexTextMatcher = regex == null ? null : TextMatcher.compile(regex);
     }
 
     public void setType(Class<?> type) {
@@ -563,6 +720,32 @@ public class Field extends ParserComponent implements Property {
 
     public void setHandler(TypeHandler handler) {
         this.handler = handler;
+        this.regionParsing = handler instanceof CharSequenceTypeHandler && 
+            !overridesParse(handler.getClass());
+    }
+    
+    /**
+     * Returns whether a subclass of a <tt>CharSequenceTypeHandler</tt> overrides
+     * <tt>parse(String)</tt> but not <tt>parse(CharSequence, int, int)</tt>, in which
+     * case field text must not be parsed from a region of the record.
+     * @param type the type handler class
+     * @return true if only <tt>parse(String)</tt> is overridden
+     * @since 2.1.1
+     */
+    private static boolean overridesParse(Class<?> type) {
+        for (; type != null; type = type.getSuperclass()) {
+            try {
+                type.getDeclaredMethod("parse", CharSequence.class, int.class, int.class);
+                return false;
+            }
+            catch (NoSuchMethodException ex) { }
+            try {
+                type.getDeclaredMethod("parse", String.class);
+                return true;
+            }
+            catch (NoSuchMethodException ex) { }
+        }
+        return false;
     }
     
     protected void toParamString(StringBuilder s) {
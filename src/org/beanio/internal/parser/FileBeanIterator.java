@@ -0,0 +1,308 @@
+/*
+ * Copyright 2013 Kevin Seim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.beanio.internal.parser;
+
+import java.io.*;
+import java.nio.charset.Charset;
+import java.util.*;
+
+import org.beanio.*;
+import org.beanio.internal.parser.ParallelBeanReader.*;
+import org.beanio.internal.util.UnsynchronizedBufferedReader;
+import org.beanio.stream.RecordReader;
+
+/**
+ * A {@link BeanIterator} implementation that reads bean objects from a file.
+ * <p>
+ * If the stream supports parallel reading (see {@link ParallelBeanReader}), the
+ * iterator may be split into byte ranges of the file that start and end on a record
+ * boundary.  Line numbers reported by a split iterator are relative to the start of
+ * the file, and the lines preceding its byte range are counted when it is first read.
+ * Otherwise the iterator cannot be split, and the file is read sequentially.
+ *
+ * @author Kevin Seim
+ * @since 2.1.1
+ * @param <T> the bean object type
+ */
+public class FileBeanIterator<T> implements BeanIterator<T> {
+
+    // the record terminator value used if the file cannot be split
+    private static final int NOT_SPLITTABLE = -2;
+
+    private Stream stream;
+    private File file;
+    private Charset charset;
+    private Locale locale;
+    private Class<T> type;
+    private int recordTerminator;
+    private long length;
+    private long start;
+    private long end;
+    private LineOffset lineOffset;
+    private BeanReaderErrorHandler errorHandler;
+
+    private transient BeanReader reader;
+    private transient T next;
+    private transient boolean done;
+
+    /**
+     * Constructs a new <tt>FileBeanIterator</tt>.
+     * @param stream the {@link Stream} to read
+     * @param file the file to read from
+     * @param charset the character set the file is encoded with
+     * @param locale the locale to use for rendering error messages
+     * @param type the bean object type
+     */
+    public FileBeanIterator(Stream stream, File file, Charset charset, Locale locale, Class<T> type) {
+        this.stream = stream;
+        this.file = file;
+        this.charset = charset;
+        this.locale = locale;
+        this.type = type;
+        this.length = file.length();
+        this.end = length;
+
+        int terminator = NOT_SPLITTABLE;
+        try {
+            ParallelBeanReader.validateLayout(stream);
+            terminator = ParallelBeanReader.encode(
+                ParallelBeanReader.getRecordTerminator(stream.getFormat()), charset);
+        }
+        catch (IllegalArgumentException ex) {
+            // the file is read sequentially
+        }
+        this.recordTerminator = terminator;
+    }
+
+    /**
+     * Constructs a new <tt>FileBeanIterator</tt> split from another.
+     * @param parent the iterator that was split
+     * @param start the file position of the first record
+     * @param end the file position after the last record
+     */
+    private FileBeanIterator(FileBeanIterator<T> parent, long start, long end) {
+        this.stream = parent.stream;
+        this.file = parent.file;
+        this.charset = parent.charset;
+        this.locale = parent.locale;
+        this.type = parent.type;
+        this.recordTerminator = parent.recordTerminator;
+        this.length = parent.length;
+        this.start = start;
+        this.end = end;
+        this.lineOffset = parent.lineOffset;
+        this.errorHandler = parent.errorHandler;
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see org.beanio.BeanIterator#trySplit()
+     */
+    public BeanIterator<T> trySplit() {
+        if (recordTerminator == NOT_SPLITTABLE || reader != null || done) {
+            return null;
+        }
+
+        long mid = start + (end - start) / 2;
+        if (mid <= start) {
+            return null;
+        }
+
+        RandomAccessFile in = null;
+        try {
+            in = new RandomAccessFile(file, "r");
+            mid = ParallelBeanReader.findRecordStart(in, mid, recordTerminator);
+        }
+        catch (IOException ex) {
+            throw new BeanReaderIOException("Failed to split file '" + file + "'", ex);
+        }
+        finally {
+            if (in != null) {
+                try {
+                    in.close();
+                }
+                catch (IOException ex) { }
+            }
+        }
+        if (mid >= end) {
+            return null;
+        }
+
+        FileBeanIterator<T> prefix = new FileBeanIterator<T>(this, start, mid);
+        if (recordTerminator < 0) {
+            lineOffset = new LineOffset(lineOffset, start, mid);
+        }
+        start = mid;
+        return prefix;
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see java.util.Iterator#hasNext()
+     */
+    public boolean hasNext() {
+        if (next != null) {
+            return true;
+        }
+        if (done) {
+            return false;
+        }
+
+        if (reader == null) {
+            try {
+                reader = open();
+            }
+            catch (IOException ex) {
+                done = true;
+                throw new BeanReaderIOException("Failed to open file '" + file + "' for reading", ex);
+            }
+        }
+
+        Object bean;
+        try {
+            bean = reader.read();
+        }
+        catch (BeanReaderIOException ex) {
+            close();
+            throw ex;
+        }
+        if (bean == null) {
+            close();
+            return false;
+        }
+
+        next = type.cast(bean);
+        return true;
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see java.util.Iterator#next()
+     */
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        T bean = next;
+        next = null;
+        return bean;
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see java.util.Iterator#remove()
+     */
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see org.beanio.BeanIterator#estimateSize()
+     */
+    public long estimateSize() {
+        return done ? 0 : end - start;
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see org.beanio.BeanIterator#setErrorHandler(org.beanio.BeanReaderErrorHandler)
+     */
+    public void setErrorHandler(BeanReaderErrorHandler errorHandler) {
+        this.errorHandler = errorHandler;
+        if (reader != null) {
+            reader.setErrorHandler(errorHandler);
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see org.beanio.BeanIterator#close()
+     */
+    public void close() throws BeanReaderIOException {
+        done = true;
+        next = null;
+        if (reader != null) {
+            try {
+                reader.close();
+            }
+            finally {
+                reader = null;
+            }
+        }
+    }
+
+    /**
+     * Creates the bean reader for the byte range of the file read by this iterator.
+     * @return the new {@link BeanReader}
+     * @throws IOException if an I/O error occurs
+     */
+    private BeanReader open() throws IOException {
+        BeanReader reader;
+        if (start == 0 && end == length) {
+            reader = stream.createBeanReader(file, charset, locale);
+        }
+        else {
+            int offset = lineOffset == null ? 0 : lineOffset.get();
+
+            Reader in = new UnsynchronizedBufferedReader(new InputStreamReader(
+                new RangeInputStream(file, start, end), charset));
+            RecordReader recordReader;
+            try {
+                recordReader = stream.getFormat().createRecordReader(in);
+            }
+            catch (RuntimeException ex) {
+                in.close();
+                throw ex;
+            }
+            reader = stream.createBeanReader(new OffsetRecordReader(recordReader, offset), locale);
+        }
+        reader.setErrorHandler(errorHandler);
+        return reader;
+    }
+
+    /**
+     * The number of lines preceding a file position, which is counted once by
+     * the first iterator that needs it.
+     */
+    private class LineOffset {
+        private LineOffset previous;
+        private long start;
+        private long end;
+        private int count = -1;
+
+        /**
+         * Constructs a new <tt>LineOffset</tt>.
+         * @param previous the number of lines preceding <tt>start</tt>, or null if
+         *   <tt>start</tt> is the beginning of the file
+         * @param start the file position to start counting lines from
+         * @param end the file position to stop counting lines at
+         */
+        public LineOffset(LineOffset previous, long start, long end) {
+            this.previous = previous;
+            this.start = start;
+            this.end = end;
+        }
+
+        public synchronized int get() throws IOException {
+            if (count < 0) {
+                count = (previous == null ? 0 : previous.get()) +
+                    ParallelBeanReader.countLines(file, start, end);
+            }
+            return count;
+        }
+    }
+}
@@ -39,9 +39,11 @@ public class Group extends ParserComponent implements Selector {
     private int order = 1;
     private Property property = null;
     // the current group count
-    private ParserLocal<Integer> count = new ParserLocal<Integer>(0);
+    private ParserLocalInt count = new ParserLocalInt();
     // the last matched child
     private ParserLocal<Selector> lastMatched = new ParserLocal<Selector>();
+    // dispatch table for identifying records, may be null
+    private RecordIdentifierIndex identifierIndex;
     
     /**
      * Constructs a new <tt>Group</tt>.
@@ -236,9 +238,10 @@ public class Group extends ParserComponent implements Selector {
         //System.out.println("Group '" + getName() + "', lastMatched=" +
         //    (last == null ? "null" : last.getName()) + ", count=" + getCount(context));
         
-        Selector match = matchCurrent(context);
+        boolean[] candidates = getCandidates(context);
+        Selector match = matchCurrent(context, candidates);
         if (match == null && maxOccurs > 1) {
-            match = matchAgain(context);
+            match = matchAgain(context, candidates);
         }
         if (match != null) {
             return property != null ? this : match;
@@ -252,6 +255,10 @@ public class Group extends ParserComponent implements Selector {
      * @throws UnsatisfiedNodeException
      */
     private Selector matchCurrent(ParsingContext context) throws UnsatisfiedNodeException {
+        return matchCurrent(context, getCandidates(context));
+    }
+    
+    private Selector matchCurrent(ParsingContext context, boolean[] candidates) throws UnsatisfiedNodeException {
         Selector match = null;
         Selector lastMatch = this.lastMatched.get(context);
         Selector unsatisfied = null;
@@ -259,7 +266,7 @@ public class Group extends ParserComponent implements Selector {
         // check the last matching node - do not check records where the max occurs
         // has already been reached
         if (lastMatch != null && !(lastMatch.isMaxOccursReached(context))) {
-            match = matchNext(context, lastMatch);
+            match = matchNext(context, lastMatch, candidates);
             if (match != null) {
                 return match;
             }
@@ -308,11 +315,11 @@ public class Group extends ParserComponent implements Selector {
             }
             
             // search the child node for a match
-            match = matchNext(context, node);
+            match = matchNext(context, node, candidates);
             if (match != null) {
                 // the group count is incremented only when first invoked
                 if (lastMatch == null) {
-                	count.set(context, count.get(context) + 1);
+                	count.increment(context);
                 }
                 // reset the last group when a new record or group is found
                 // at the same level (this has no effect for a record)
@@ -339,7 +346,7 @@ public class Group extends ParserComponent implements Selector {
      * 
      * @return
      */
-    private Selector matchAgain(ParsingContext context) {
+    private Selector matchAgain(ParsingContext context, boolean[] candidates) {
 
         Selector match = null;
         Selector unsatisfied = null;
@@ -373,7 +380,7 @@ public class Group extends ParserComponent implements Selector {
                     }
                 }
 
-                match = matchNext(context, node);
+                match = matchNext(context, node, candidates);
                 if (match != null) {
                     // this is different than reset() because we reset every node
                     // except the one that matched...
@@ -386,7 +393,7 @@ public class Group extends ParserComponent implements Selector {
                         sel.reset(context);
                     }
                     
-                    count.set(context, count.get(context) + 1);
+                    count.increment(context);
                     node.setCount(context, 1);
                     lastMatched.set(context, node);
                     
@@ -398,6 +405,33 @@ public class Group extends ParserComponent implements Selector {
         return null;
     }
     
+    /**
+     * Returns the children that may match the record being unmarshalled.
+     * @param context the parsing context
+     * @return the candidate children, or null if all children must be tested
+     */
+    private boolean[] getCandidates(ParsingContext context) {
+        if (identifierIndex == null || context.getMode() != ParsingContext.UNMARSHALLING) {
+            return null;
+        }
+        return identifierIndex.getCandidates((UnmarshallingContext) context);
+    }
+    
+    /**
+     * Matches the next record or bean, skipping children that cannot match 
+     * the record according to the identifier index.
+     * @param context the parsing context
+     * @param child the child Selector to invoke
+     * @param candidates the candidate children, or null if all children must be tested
+     * @return the matched Selector
+     */
+    private Selector matchNext(ParsingContext context, Selector child, boolean[] candidates) {
+        if (candidates != null && !identifierIndex.isCandidate(candidates, child)) {
+            return null;
+        }
+        return matchNext(context, child);
+    }
+    
     /**
      * Matches the next record or bean depending on the type of parsing context.
      * @param context the parsing context
@@ -511,7 +545,7 @@ public class Group extends ParserComponent implements Selector {
      * @since 1.2
      */
     public void updateState(ParsingContext context, String namespace, Map<String, Object> state) {
-        state.put(getKey(namespace, COUNT_KEY), count.get(context));
+        state.put(getKey(namespace, COUNT_KEY), count.getInt(context));
         
         String lastMatchedChildName = "";
         Selector lastMatch = lastMatched.get(context);
@@ -539,7 +573,7 @@ public class Group extends ParserComponent implements Selector {
         if (n == null) {
             throw new IllegalStateException("Missing state information for key '" + key + "'");
         }
-        this.count.set(context, n);
+        this.count.setInt(context, n);
         
         // determine the last matched child
         key = getKey(namespace, LAST_MATCHED_KEY);
@@ -600,12 +634,30 @@ public class Group extends ParserComponent implements Selector {
         this.order = order;
     }
     
+    /**
+     * Returns the dispatch table used to identify records.
+     * @return the {@link RecordIdentifierIndex}, or null if not indexed
+     * @since 2.1.1
+     */
+    public RecordIdentifierIndex getIdentifierIndex() {
+        return identifierIndex;
+    }
+
+    /**
+     * Sets the dispatch table used to identify records.
+     * @param identifierIndex the {@link RecordIdentifierIndex}, or null to test each child in turn
+     * @since 2.1.1
+     */
+    public void setIdentifierIndex(RecordIdentifierIndex identifierIndex) {
+        this.identifierIndex = identifierIndex;
+    }
+    
     /*
      * (non-Javadoc)
      * @see org.beanio.internal.parser.Selector#getCount()
      */
     public int getCount(ParsingContext context) {
-        return count.get(context);
+        return count.getInt(context);
     }
     
     /*
@@ -613,7 +665,7 @@ public class Group extends ParserComponent implements Selector {
      * @see org.beanio.internal.parser.Selector#setCount(int)
      */
     public void setCount(ParsingContext context, int count) {
-        this.count.set(context, count);
+        this.count.setInt(context, count);
     }
     
     /*
@@ -127,6 +127,15 @@ public class MarshallerImpl implements Marshaller {
      * @see java.lang.Object#toString()
      */
     public String toString() {
+        return toString(recordValue);
+    }
+    
+    /**
+     * Formats a record value as text.
+     * @param recordValue the record value to format
+     * @return the record text, or null if <tt>recordValue</tt> is null
+     */
+    String toString(Object recordValue) {
         return (recordValue == null) ? null : recordMarshaller.marshal(recordValue);
     }
 
@@ -135,6 +144,16 @@ public class MarshallerImpl implements Marshaller {
      * @see org.beanio.Marshaller#toArray()
      */
     public String[] toArray() throws BeanWriterException {
+        return toArray(recordValue);
+    }
+    
+    /**
+     * Converts a record value to a <tt>String</tt> array.
+     * @param recordValue the record value to convert
+     * @return the <tt>String</tt> array
+     * @throws BeanWriterException if not supported by the stream format
+     */
+    String[] toArray(Object recordValue) throws BeanWriterException {
         String[] array = context.toArray(recordValue);
         if (array == null) {
             throw new BeanWriterException("toArray() not supported by stream format");
@@ -147,6 +166,16 @@ public class MarshallerImpl implements Marshaller {
      * @see org.beanio.Marshaller#toList()
      */
     public List<String> toList() throws BeanWriterException {
+        return toList(recordValue);
+    }
+    
+    /**
+     * Converts a record value to a <tt>List</tt>.
+     * @param recordValue the record value to convert
+     * @return the <tt>List</tt>
+     * @throws BeanWriterException if not supported by the stream format
+     */
+    List<String> toList(Object recordValue) throws BeanWriterException {
         List<String> list = context.toList(recordValue);
         if (list == null) {
             throw new BeanWriterException("toList() not supported by stream format");
@@ -159,6 +188,16 @@ public class MarshallerImpl implements Marshaller {
      * @see org.beanio.Marshaller#toDocument()
      */
     public Document toDocument() throws BeanWriterException {
+        return toDocument(recordValue);
+    }
+    
+    /**
+     * Converts a record value to a DOM <tt>Document</tt>.
+     * @param recordValue the record value to convert
+     * @return the <tt>Document</tt>
+     * @throws BeanWriterException if not supported by the stream format
+     */
+    Document toDocument(Object recordValue) throws BeanWriterException {
         Document document = context.toDocument(recordValue);
         if (document == null) {
             throw new BeanWriterException("toNode() not supported by stream format");
@@ -174,6 +213,14 @@ public class MarshallerImpl implements Marshaller {
         return recordValue;
     }
     
+    /**
+     * Returns the marshalling context.
+     * @return the {@link MarshallingContext}
+     */
+    MarshallingContext getContext() {
+        return context;
+    }
+    
     public void debug() {
         debug(System.out);
     }
@@ -61,10 +61,21 @@ public abstract class MarshallingContext extends ParsingContext {
      * @throws IOException if an I/O error occurs
      */
     public void writeRecord() throws IOException {
-        recordWriter.write(getRecordObject());
+        writeRecord(recordWriter);
         super.clear();
     }
     
+    /**
+     * Writes the current record to a record writer.  By default, the record
+     * object returned by {@link #getRecordObject()} is written.
+     * @param out the {@link RecordWriter} to write to
+     * @throws IOException if an I/O error occurs
+     * @since 2.1.1
+     */
+    protected void writeRecord(RecordWriter out) throws IOException {
+        out.write(getRecordObject());
+    }
+    
     /**
      * Returns the record object to pass to the {@link RecordWriter} when
      * {@link #writeRecord()} is called.
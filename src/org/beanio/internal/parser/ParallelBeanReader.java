@@ -0,0 +1,761 @@
+/*
+ * Copyright 2013 Kevin Seim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.beanio.internal.parser;
+
+import java.io.*;
+import java.nio.charset.Charset;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.beanio.*;
+import org.beanio.internal.util.UnsynchronizedBufferedReader;
+import org.beanio.stream.*;
+import org.beanio.stream.csv.CsvParserConfiguration;
+import org.beanio.stream.delimited.DelimitedParserConfiguration;
+import org.beanio.stream.fixedlength.*;
+
+/**
+ * A {@link BeanReader} implementation that reads a single flat file using multiple threads.
+ * <p>
+ * The file is split into byte ranges, or chunks, and the start of each chunk is moved
+ * forward to the first byte following a record terminator.  Each chunk is then read
+ * by a worker thread using its own {@link BeanReaderImpl}, and the unmarshalled bean
+ * objects are returned by {@link #read()} either in the order they appear in the file,
+ * or in the order they are unmarshalled.
+ * <p>
+ * Because records are identified independently in each chunk, a stream layout may only
+ * contain records (no groups) that are unordered and may occur any number of times.
+ * Records cannot span multiple lines, so line continuation and multiline CSV fields
+ * are not supported, and the character set must encode record terminators using a
+ * single byte that cannot appear inside a multi-byte character.
+ * <p>
+ * Unlike other bean readers, a registered {@link BeanReaderErrorHandler} is always
+ * invoked from the thread calling {@link #read()}.
+ *
+ * @author Kevin Seim
+ * @since 2.1.1
+ */
+public class ParallelBeanReader implements BatchBeanReader {
+
+    /** The default number of bytes in a chunk */
+    public static final long DEFAULT_CHUNK_SIZE = 4 * 1024 * 1024;
+
+    private static final int QUEUE_CAPACITY = 1024;
+    private static final Result END = new Result();
+    private static final AtomicInteger threadCount = new AtomicInteger();
+
+    private Stream stream;
+    private File file;
+    private Charset charset;
+    private Locale locale;
+    private int threads;
+    private boolean ordered;
+    private long chunkSize = DEFAULT_CHUNK_SIZE;
+    private int recordTerminator;
+    private BeanReaderErrorHandler errorHandler;
+
+    private transient ExecutorService executor;
+    private transient List<Chunk> chunks;
+    private transient BlockingQueue<Result> queue;
+    private transient int current;
+    private transient Result last;
+    private transient volatile boolean closed;
+
+    /**
+     * Constructs a new <tt>ParallelBeanReader</tt>.
+     * @param stream the {@link Stream} to read
+     * @param file the file to read from
+     * @param charset the character set the file is encoded with
+     * @param locale the locale to use for rendering error messages
+     * @param threads the number of worker threads
+     * @param ordered whether to return bean objects in the order they appear in the file
+     * @throws IllegalArgumentException if the stream or character set does not support
+     *   parallel reading
+     */
+    public ParallelBeanReader(Stream stream, File file, Charset charset, Locale locale, int threads, boolean ordered)
+        throws IllegalArgumentException {
+
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Thread count must be greater than 0");
+        }
+
+        this.stream = stream;
+        this.file = file;
+        this.charset = charset;
+        this.locale = locale;
+        this.threads = threads;
+        this.ordered = ordered;
+
+        validateLayout(stream);
+        this.recordTerminator = encode(getRecordTerminator(stream.getFormat()), charset);
+    }
+
+    /**
+     * Validates the stream layout does not impose record ordering or occurrence
+     * constraints that span chunks.
+     * @param stream the {@link Stream} to validate
+     * @throws IllegalArgumentException if the layout is not supported
+     */
+    static void validateLayout(Stream stream) throws IllegalArgumentException {
+        Integer order = null;
+        for (Component child : ((Component) stream.getLayout()).getChildren()) {
+            Selector selector = (Selector) child;
+            if (!(child instanceof Record) || selector.getMinOccurs() > 0 ||
+                selector.getMaxOccurs() != Integer.MAX_VALUE ||
+                (order != null && order != selector.getOrder())) {
+                throw new IllegalArgumentException("Parallel reading not supported for stream '" +
+                    stream.getName() + "': record '" + child.getName() + "' is ordered or has occurrence constraints");
+            }
+            order = selector.getOrder();
+        }
+    }
+
+    /**
+     * Returns the record terminator configured for the stream's record reader.
+     * @param format the {@link StreamFormat}
+     * @return the record terminator, or 0 if records are terminated by CR, LF or CRLF
+     * @throws IllegalArgumentException if the record reader is not supported
+     */
+    static char getRecordTerminator(StreamFormat format) throws IllegalArgumentException {
+        RecordParserFactory factory = null;
+        if (format instanceof StreamFormatSupport) {
+            factory = ((StreamFormatSupport) format).getRecordParserFactory();
+        }
+
+        String terminator;
+        if (factory instanceof DelimitedParserConfiguration) {
+            DelimitedParserConfiguration config = (DelimitedParserConfiguration) factory;
+            if (config.isLineContinationEnabled()) {
+                throw new IllegalArgumentException("Parallel reading not supported when line continuation is enabled");
+            }
+            terminator = config.getRecordTerminator();
+        }
+        else if (factory instanceof FixedLengthParserConfiguration) {
+            FixedLengthParserConfiguration config = (FixedLengthParserConfiguration) factory;
+            if (config.isLineContinationEnabled()) {
+                throw new IllegalArgumentException("Parallel reading not supported when line continuation is enabled");
+            }
+            terminator = config.getRecordTerminator();
+        }
+        else if (factory instanceof CsvParserConfiguration) {
+            if (((CsvParserConfiguration) factory).isMultilineEnabled()) {
+                throw new IllegalArgumentException("Parallel reading not supported when multiline records are enabled");
+            }
+            terminator = null;
+        }
+        else {
+            throw new IllegalArgumentException("Parallel reading not supported for stream '" +
+                format.getName() + "'");
+        }
+
+        if (terminator == null || terminator.length() == 0 || "\r\n".equals(terminator)) {
+            return 0;
+        }
+        return terminator.charAt(0);
+    }
+
+    /**
+     * Encodes a record terminator using the configured character set.
+     * @param c the record terminator, or 0 for CR, LF or CRLF
+     * @param charset the character set
+     * @return the encoded byte, or -1 for CR, LF or CRLF
+     * @throws IllegalArgumentException if the record terminator cannot be encoded
+     *   as a byte that is safe to scan for
+     */
+    static int encode(char c, Charset charset) throws IllegalArgumentException {
+        String name = charset.name();
+        if (!"UTF-8".equals(name) && !"US-ASCII".equals(name) &&
+            !MappedFixedLengthReader.isSupported(charset)) {
+            throw new IllegalArgumentException("Parallel reading not supported for character set '" + name + "'");
+        }
+        if (c == 0) {
+            if (encodeByte('\r', charset) != '\r' || encodeByte('\n', charset) != '\n') {
+                throw new IllegalArgumentException("Parallel reading not supported for character set '" + name + "'");
+            }
+            return -1;
+        }
+        int b = encodeByte(c, charset);
+        if (b < 0) {
+            throw new IllegalArgumentException("Record terminator cannot be encoded as a single byte " +
+                "using character set '" + name + "'");
+        }
+        return b;
+    }
+
+    private static int encodeByte(char c, Charset charset) {
+        try {
+            byte[] b = String.valueOf(c).getBytes(charset.name());
+            return b.length == 1 ? b[0] & 0xFF : -1;
+        }
+        catch (UnsupportedEncodingException ex) {
+            return -1;
+        }
+    }
+
+    /**
+     * Returns the number of bytes in a chunk.
+     * @return the chunk size
+     */
+    public long getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * Sets the number of bytes in a chunk.  The actual chunk size may vary to align
+     * chunks with record boundaries.  Must be set before the first bean is read.
+     * @param chunkSize the chunk size
+     */
+    public void setChunkSize(long chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be greater than 0");
+        }
+        this.chunkSize = chunkSize;
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see org.beanio.BeanReader#read()
+     */
+    public Object read() {
+        ensureOpen();
+
+        while (true) {
+            Result result = next();
+            if (result == null) {
+                return null;
+            }
+            if (result.error != null) {
+                handleError(result.error);
+                continue;
+            }
+            return result.bean;
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see org.beanio.BatchBeanReader#read(java.util.List, int)
+     */
+    public int read(List<Object> beans, int max) {
+        ensureOpen();
+
+        int n = 0;
+        while (n < max) {
+            Result result = next();
+            if (result == null) {
+                break;
+            }
+            if (result.error != null) {
+                handleError(result.error);
+                continue;
+            }
+            beans.add(result.bean);
+            ++n;
+        }
+        return n;
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see org.beanio.BeanReader#skip(int)
+     */
+    public int skip(int count) throws BeanReaderIOException, MalformedRecordException,
+        UnidentifiedRecordException, UnexpectedRecordException {
+
+        ensureOpen();
+
+        int n = 0;
+        while (n < count) {
+            Result result = next();
+            if (result == null) {
+                break;
+            }
+            if (result.error != null && !(result.error instanceof InvalidRecordException)) {
+                throw result.error;
+            }
+            ++n;
+        }
+        return n;
+    }
+
+    /**
+     * Returns the next result, starting the worker threads if needed.
+     * @return the next {@link Result}, or <tt>null</tt> if all chunks have been read
+     */
+    private Result next() {
+        if (chunks == null) {
+            start();
+        }
+
+        try {
+            while (current < chunks.size()) {
+                Result result = ordered ? chunks.get(current).queue.take() : queue.take();
+                if (result == END) {
+                    ++current;
+                    continue;
+                }
+                last = result;
+                return result;
+            }
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new BeanReaderException("Interrupted while waiting for next record", ex);
+        }
+
+        last = null;
+        return null;
+    }
+
+    /**
+     * Splits the file into chunks and submits them to the worker threads.
+     */
+    private void start() {
+        List<Chunk> list = new ArrayList<Chunk>();
+        RandomAccessFile in = null;
+        try {
+            in = new RandomAccessFile(file, "r");
+            long size = in.length();
+            long start = 0;
+            while (start < size) {
+                long end = start + chunkSize;
+                end = end >= size ? size : findRecordStart(in, end, recordTerminator);
+                list.add(new Chunk(start, end));
+                start = end;
+            }
+        }
+        catch (IOException ex) {
+            throw new BeanReaderIOException("Failed to split file '" + file + "'", ex);
+        }
+        finally {
+            if (in != null) {
+                try {
+                    in.close();
+                }
+                catch (IOException ex) { }
+            }
+        }
+
+        if (!ordered) {
+            queue = new ArrayBlockingQueue<Result>(QUEUE_CAPACITY * threads);
+        }
+        for (Chunk chunk : list) {
+            chunk.queue = ordered ? new ArrayBlockingQueue<Result>(QUEUE_CAPACITY) : queue;
+        }
+
+        executor = Executors.newFixedThreadPool(Math.min(threads, Math.max(1, list.size())), new ThreadFactory() {
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "beanio-parallel-reader-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+
+        // line numbers are counted first so that each chunk can report
+        // line numbers relative to the start of the file
+        if (recordTerminator < 0) {
+            for (final Chunk chunk : list) {
+                chunk.lineCount = executor.submit(new Callable<Integer>() {
+                    public Integer call() throws IOException {
+                        return countLines(file, chunk.start, chunk.end);
+                    }
+                });
+            }
+        }
+        for (int i=0; i<list.size(); i++) {
+            final List<Chunk> previous = list.subList(0, i);
+            final Chunk chunk = list.get(i);
+            executor.submit(new Runnable() {
+                public void run() {
+                    readChunk(chunk, previous);
+                }
+            });
+        }
+
+        chunks = list;
+    }
+
+    /**
+     * Returns the file position of the first record starting at or after the
+     * given position.
+     * @param in the file
+     * @param pos the file position
+     * @param recordTerminator the encoded record terminator, or -1 for CR, LF or CRLF
+     * @return the file position of the next record, or the file size if there is
+     *   no record terminator following the position
+     * @throws IOException if an I/O error occurs
+     */
+    static long findRecordStart(RandomAccessFile in, long pos, int recordTerminator) throws IOException {
+        byte[] buf = new byte[8192];
+
+        // the byte before the given position may be the end of the previous record
+        in.seek(pos - 1);
+        long offset = pos - 1;
+        boolean cr = false;
+        int n;
+        while ((n = in.read(buf)) != -1) {
+            for (int i=0; i<n; i++) {
+                int b = buf[i] & 0xFF;
+                if (cr) {
+                    return b == '\n' ? offset + i + 1 : offset + i;
+                }
+                if (recordTerminator < 0) {
+                    if (b == '\n') {
+                        return offset + i + 1;
+                    }
+                    cr = b == '\r';
+                }
+                else if (b == recordTerminator) {
+                    return offset + i + 1;
+                }
+            }
+            offset += n;
+        }
+        return in.length();
+    }
+
+    /**
+     * Counts the number of lines in a byte range of a file.
+     * @param file the file
+     * @param start the file position to start counting from
+     * @param end the file position to stop counting at
+     * @return the number of lines
+     * @throws IOException if an I/O error occurs
+     */
+    static int countLines(File file, long start, long end) throws IOException {
+        InputStream in = new RangeInputStream(file, start, end);
+        try {
+            byte[] buf = new byte[8192];
+            int count = 0;
+            int prev = -1;
+            int n;
+            while ((n = in.read(buf)) != -1) {
+                for (int i=0; i<n; i++) {
+                    int b = buf[i];
+                    if (b == '\r' || (b == '\n' && prev != '\r')) {
+                        ++count;
+                    }
+                    prev = b;
+                }
+            }
+            return count;
+        }
+        finally {
+            in.close();
+        }
+    }
+
+    /**
+     * Reads a chunk and adds each bean object or error to the chunk's queue.  This
+     * method is invoked by a worker thread.
+     * @param chunk the {@link Chunk} to read
+     * @param previous the chunks preceding the chunk being read
+     */
+    private void readChunk(Chunk chunk, List<Chunk> previous) {
+        BeanReaderImpl reader = null;
+        try {
+            int lineOffset = 0;
+            if (recordTerminator < 0) {
+                for (Chunk c : previous) {
+                    lineOffset += c.lineCount.get();
+                }
+            }
+
+            Reader in = new UnsynchronizedBufferedReader(new InputStreamReader(
+                new RangeInputStream(file, chunk.start, chunk.end), charset));
+            RecordReader recordReader;
+            try {
+                recordReader = stream.getFormat().createRecordReader(in);
+            }
+            catch (RuntimeException ex) {
+                in.close();
+                throw ex;
+            }
+            reader = stream.createBeanReader(new OffsetRecordReader(recordReader, lineOffset), locale);
+
+            while (!closed) {
+                Result result = new Result();
+                try {
+                    result.bean = reader.read();
+                    if (result.bean == null) {
+                        break;
+                    }
+                }
+                catch (BeanReaderIOException ex) {
+                    result.error = ex;
+                    chunk.queue.put(result);
+                    break;
+                }
+                catch (BeanReaderException ex) {
+                    result.error = ex;
+                }
+
+                result.recordName = reader.getRecordName();
+                result.lineNumber = reader.getLineNumber();
+                int count = reader.getRecordCount();
+                if (count > 0) {
+                    result.recordContexts = new RecordContext[count];
+                    for (int i=0; i<count; i++) {
+                        result.recordContexts[i] = reader.getRecordContext(i);
+                    }
+                }
+                chunk.queue.put(result);
+            }
+        }
+        catch (InterruptedException ex) {
+            return;
+        }
+        catch (Exception ex) {
+            Result result = new Result();
+            if (ex instanceof ExecutionException && ex.getCause() instanceof IOException) {
+                ex = (IOException) ex.getCause();
+            }
+            if (ex instanceof IOException) {
+                result.error = new BeanReaderIOException("Failed to read file '" + file + "'", (IOException) ex);
+            }
+            else {
+                result.error = new BeanReaderException("Fatal exception caught", ex);
+            }
+            try {
+                chunk.queue.put(result);
+            }
+            catch (InterruptedException e) {
+                return;
+            }
+        }
+        finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                }
+                catch (BeanReaderIOException ex) { }
+            }
+        }
+
+        try {
+            chunk.queue.put(END);
+        }
+        catch (InterruptedException ex) { }
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see org.beanio.BeanReader#getRecordName()
+     */
+    public String getRecordName() {
+        return last == null ? null : last.recordName;
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see org.beanio.BeanReader#getLineNumber()
+     */
+    public int getLineNumber() {
+        return last == null ? -1 : last.lineNumber;
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see org.beanio.BeanReader#getRecordCount()
+     */
+    public int getRecordCount() {
+        return last == null || last.recordContexts == null ? 0 : last.recordContexts.length;
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see org.beanio.BeanReader#getRecordContext(int)
+     */
+    public RecordContext getRecordContext(int index) throws IndexOutOfBoundsException {
+        if (last == null || last.recordContexts == null) {
+            throw new IndexOutOfBoundsException();
+        }
+        return last.recordContexts[index];
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see org.beanio.BeanReader#close()
+     */
+    public void close() throws BeanReaderIOException {
+        ensureOpen();
+
+        closed = true;
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        chunks = Collections.emptyList();
+        queue = null;
+        last = null;
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see org.beanio.BeanReader#setErrorHandler(org.beanio.BeanReaderErrorHandler)
+     */
+    public void setErrorHandler(BeanReaderErrorHandler errorHandler) {
+        this.errorHandler = errorHandler;
+    }
+
+    /*
+     * Throws an exception if the stream has already been closed.
+     */
+    private void ensureOpen() {
+        if (closed) {
+            throw new BeanReaderIOException("Stream closed");
+        }
+    }
+
+    private void handleError(BeanReaderException ex) {
+        if (errorHandler == null) {
+            throw ex;
+        }
+        else {
+            try {
+                errorHandler.handleError(ex);
+            }
+            catch (BeanReaderException e) {
+                throw e;
+            }
+            catch (Exception e) {
+                throw new BeanReaderException("Exception thrown by error handler", e);
+            }
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see org.beanio.internal.util.Debuggable#debug()
+     */
+    public void debug() {
+        debug(System.out);
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see org.beanio.internal.util.Debuggable#debug(java.io.PrintStream)
+     */
+    public void debug(PrintStream out) {
+        ((Component) stream.getLayout()).print(out);
+    }
+
+    /**
+     * A byte range of the file that starts and ends on a record boundary.
+     */
+    private static class Chunk {
+        private final long start;
+        private final long end;
+        private BlockingQueue<Result> queue;
+        private Future<Integer> lineCount;
+
+        public Chunk(long start, long end) {
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    /**
+     * A bean object or error read by a worker thread.
+     */
+    private static class Result {
+        private Object bean;
+        private BeanReaderException error;
+        private String recordName;
+        private int lineNumber;
+        private RecordContext[] recordContexts;
+    }
+
+    /**
+     * An <tt>InputStream</tt> for reading a byte range of a file.
+     */
+    static class RangeInputStream extends InputStream {
+        private RandomAccessFile in;
+        private long remaining;
+
+        public RangeInputStream(File file, long start, long end) throws IOException {
+            this.in = new RandomAccessFile(file, "r");
+            this.remaining = end - start;
+            try {
+                in.seek(start);
+            }
+            catch (IOException ex) {
+                in.close();
+                throw ex;
+            }
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int b = in.read();
+            if (b >= 0) {
+                --remaining;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int n = in.read(b, off, (int) Math.min(len, remaining));
+            if (n > 0) {
+                remaining -= n;
+            }
+            return n;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+    /**
+     * A {@link RecordReader} that adds an offset to the line numbers reported by
+     * another record reader.
+     */
+    static class OffsetRecordReader implements RecordReader {
+        private RecordReader in;
+        private int lineOffset;
+
+        public OffsetRecordReader(RecordReader in, int lineOffset) {
+            this.in = in;
+            this.lineOffset = lineOffset;
+        }
+
+        public Object read() throws IOException, RecordIOException {
+            return in.read();
+        }
+
+        public void close() throws IOException {
+            in.close();
+        }
+
+        public int getRecordLineNumber() {
+            int n = in.getRecordLineNumber();
+            return n > 0 ? n + lineOffset : n;
+        }
+
+        public String getRecordText() {
+            return in.getRecordText();
+        }
+    }
+}
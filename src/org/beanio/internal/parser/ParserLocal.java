@@ -68,7 +68,7 @@ public class ParserLocal<T> {
      * @return the value
      */
     @SuppressWarnings("unchecked")
-    public final T get(ParsingContext context) {
+    public T get(ParsingContext context) {
         return (T) context.getLocal(index);
     }
     
@@ -77,7 +77,16 @@ public class ParserLocal<T> {
      * @param context the {@link ParsingContext} to set the value on
      * @param obj the value
      */
-    public final void set(ParsingContext context, T obj) {
+    public void set(ParsingContext context, T obj) {
        context.setLocal(index, obj);
     }
+    
+    /**
+     * Returns the index of the variable in the heap.
+     * @return the heap index
+     * @since 2.1.1
+     */
+    protected final int getIndex() {
+        return index;
+    }
 }
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2013 Kevin Seim
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.beanio.internal.parser;
+
+/**
+ * A {@link ParserLocal} for an <tt>int</tt> variable, which is stored in a 
+ * separate <tt>int</tt> heap of the {@link ParsingContext} so that counters 
+ * updated while matching records are not boxed.
+ * 
+ * @author Kevin Seim
+ * @since 2.1.1
+ */
+public class ParserLocalInt extends ParserLocal<Integer> {
+
+    private int defaultValue;
+    
+    /**
+     * Constructs a new <tt>ParserLocalInt</tt> with a default value of 0.
+     */
+    public ParserLocalInt() {
+        this(0);
+    }
+    
+    /**
+     * Constructs a new <tt>ParserLocalInt</tt>.
+     * @param defaultValue the default value
+     */
+    public ParserLocalInt(int defaultValue) {
+        super(defaultValue);
+        this.defaultValue = defaultValue;
+    }
+    
+    /**
+     * Gets the value.
+     * @param context the {@link ParsingContext} to get the value from
+     * @return the value
+     */
+    public final int getInt(ParsingContext context) {
+        return context.getLocalInt(getIndex());
+    }
+    
+    /**
+     * Sets the value.
+     * @param context the {@link ParsingContext} to set the value on
+     * @param value the value
+     */
+    public final void setInt(ParsingContext context, int value) {
+        context.setLocalInt(getIndex(), value);
+    }
+    
+    /**
+     * Increments the value.
+     * @param context the {@link ParsingContext} to update
+     * @return the incremented value
+     */
+    public final int increment(ParsingContext context) {
+        return context.incrementLocalInt(getIndex());
+    }
+    
+    /*
+     * (non-Javadoc)
+     * @see org.beanio.internal.parser.ParserLocal#get(org.beanio.internal.parser.ParsingContext)
+     */
+    @Override
+    public Integer get(ParsingContext context) {
+        return getInt(context);
+    }
+    
+    /*
+     * (non-Javadoc)
+     * @see org.beanio.internal.parser.ParserLocal#set(org.beanio.internal.parser.ParsingContext, java.lang.Object)
+     */
+    @Override
+    public void set(ParsingContext context, Integer value) {
+        setInt(context, value == null ? defaultValue : value);
+    }
+}
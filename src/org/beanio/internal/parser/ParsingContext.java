@@ -17,6 +17,8 @@ package org.beanio.internal.parser;
 
 import java.util.ArrayList;
 
+import org.beanio.StreamListener;
+
 /**
  * Base class for the parsing context- marshalling or unmarshaling.
  * 
@@ -32,7 +34,10 @@ public abstract class ParsingContext {
     
     private int fieldOffset = 0;
     private Object[] localHeap;
+    private int[] localIntHeap;
     private ArrayList<Iteration> iterationStack = new ArrayList<Iteration>();
+    private String streamName;
+    private StreamListener streamListener;
     
     /**
      * Constructs a new <tt>ParsingContext</tt>.
@@ -106,7 +111,18 @@ public abstract class ParsingContext {
     }
     
     public final void createHeap(int size) {
+        createHeap(size, 0);
+    }
+    
+    /**
+     * Allocates the heaps used to store parser local variables.
+     * @param size the number of object variables
+     * @param intSize the number of <tt>int</tt> variables
+     * @since 2.1.1
+     */
+    public final void createHeap(int size, int intSize) {
         localHeap = new Object[size];
+        localIntHeap = new int[intSize];
     }
     
     public final Object getLocal(int index) {
@@ -116,4 +132,46 @@ public abstract class ParsingContext {
     public final void setLocal(int index, Object obj) {
         localHeap[index] = obj;
     }
+    
+    public final int getLocalInt(int index) {
+        return localIntHeap[index];
+    }
+    
+    public final void setLocalInt(int index, int value) {
+        localIntHeap[index] = value;
+    }
+    
+    public final int incrementLocalInt(int index) {
+        return ++localIntHeap[index];
+    }
+    
+    /**
+     * Sets the listener to notify of parsing events.
+     * @param streamName the name of the stream passed to the listener
+     * @param streamListener the {@link StreamListener}, or <tt>null</tt> to disable
+     *   notifications
+     * @since 2.1.1
+     */
+    public void setStreamListener(String streamName, StreamListener streamListener) {
+        this.streamName = streamName;
+        this.streamListener = streamListener;
+    }
+    
+    /**
+     * Returns the listener to notify of parsing events.
+     * @return the {@link StreamListener}, or <tt>null</tt> if not set
+     * @since 2.1.1
+     */
+    public final StreamListener getStreamListener() {
+        return streamListener;
+    }
+    
+    /**
+     * Returns the name of the stream passed to the listener.
+     * @return the stream name
+     * @since 2.1.1
+     */
+    public final String getStreamName() {
+        return streamName;
+    }
 }
@@ -0,0 +1,602 @@
+/*
+ * Copyright 2013 Kevin Seim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.beanio.internal.parser;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.beanio.*;
+import org.beanio.internal.util.RecordTextProvider;
+import org.beanio.stream.*;
+
+/**
+ * A {@link BeanReader} implementation that unmarshals records using a pipeline of threads.
+ * <p>
+ * A single reader thread reads records from the {@link RecordReader} and identifies
+ * them using the stream layout, so that record ordering and occurrences are validated
+ * exactly as they are by a {@link BeanReaderImpl}.  Each identified record is then
+ * handed off to a pool of worker threads for field extraction, type conversion,
+ * validation and bean population.  Bean objects are returned by {@link #read()} in
+ * the order their records were read.
+ * <p>
+ * A bean object that spans a group of records is unmarshalled by the reader thread,
+ * since its records cannot be identified until the group is complete.
+ * <p>
+ * A registered {@link BeanReaderErrorHandler} is always invoked from the thread
+ * calling {@link #read()}.
+ *
+ * @author Kevin Seim
+ * @since 2.1.1
+ */
+public class PipelinedBeanReader implements BatchBeanReader {
+
+    private static final int QUEUE_CAPACITY = 1024;
+    private static final Work END = new Work();
+    private static final AtomicInteger threadCount = new AtomicInteger();
+
+    private Stream stream;
+    private Locale locale;
+    private int threads;
+    private BeanReaderImpl reader;
+    private BeanReaderErrorHandler errorHandler;
+
+    private transient ExecutorService executor;
+    private transient BlockingQueue<Work> pending;
+    private transient BlockingQueue<Work> tasks;
+    private transient CapturingRecordReader capture;
+    private transient Work last;
+    private transient boolean eof;
+    private transient volatile boolean closed;
+
+    /**
+     * Constructs a new <tt>PipelinedBeanReader</tt>.
+     * @param stream the {@link Stream} to read
+     * @param recordReader the {@link RecordReader} to read from
+     * @param locale the locale to use for rendering error messages
+     * @param threads the number of worker threads
+     * @throws IllegalArgumentException if the thread count is invalid
+     */
+    public PipelinedBeanReader(Stream stream, RecordReader recordReader, Locale locale, int threads)
+        throws IllegalArgumentException {
+
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Thread count must be greater than 0");
+        }
+
+        this.stream = stream;
+        this.locale = locale;
+        this.threads = threads;
+        this.capture = new CapturingRecordReader(recordReader);
+        this.reader = stream.createBeanReader(capture, locale);
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see org.beanio.BeanReader#read()
+     */
+    public Object read() {
+        ensureOpen();
+
+        while (true) {
+            Work work = next();
+            if (work == null) {
+                return null;
+            }
+            if (work.error != null) {
+                if (work.error instanceof BeanReaderException) {
+                    handleError((BeanReaderException) work.error);
+                    continue;
+                }
+                throw work.error;
+            }
+            if (work.bean != null) {
+                return work.bean;
+            }
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see org.beanio.BatchBeanReader#read(java.util.List, int)
+     */
+    public int read(List<Object> beans, int max) {
+        ensureOpen();
+
+        int n = 0;
+        while (n < max) {
+            Work work = next();
+            if (work == null) {
+                break;
+            }
+            if (work.error != null) {
+                if (work.error instanceof BeanReaderException) {
+                    handleError((BeanReaderException) work.error);
+                    continue;
+                }
+                throw work.error;
+            }
+            if (work.bean != null) {
+                beans.add(work.bean);
+                ++n;
+            }
+        }
+        return n;
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see org.beanio.BeanReader#skip(int)
+     */
+    public int skip(int count) throws BeanReaderIOException, MalformedRecordException,
+        UnidentifiedRecordException, UnexpectedRecordException {
+
+        ensureOpen();
+
+        int n = 0;
+        while (n < count) {
+            Work work = next();
+            if (work == null) {
+                break;
+            }
+            if (work.error != null && !(work.error instanceof InvalidRecordException)) {
+                throw work.error;
+            }
+            if (work.recordName != null && work.property) {
+                ++n;
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Returns the next unit of work once it has been completed, starting the
+     * pipeline threads if needed.
+     * @return the next {@link Work}, or <tt>null</tt> if the end of the stream was reached
+     */
+    private Work next() {
+        if (eof) {
+            last = null;
+            return null;
+        }
+        if (executor == null) {
+            start();
+        }
+
+        try {
+            Work work = pending.take();
+            if (work == END) {
+                eof = true;
+                last = null;
+                return null;
+            }
+            work.await();
+            last = work;
+            return work;
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new BeanReaderException("Interrupted while waiting for next record", ex);
+        }
+    }
+
+    /**
+     * Starts the reader and worker threads.
+     */
+    private void start() {
+        pending = new ArrayBlockingQueue<Work>(QUEUE_CAPACITY);
+        tasks = new ArrayBlockingQueue<Work>(QUEUE_CAPACITY);
+
+        executor = Executors.newFixedThreadPool(threads + 1, new ThreadFactory() {
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "beanio-pipelined-reader-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+
+        executor.execute(new Runnable() {
+            public void run() {
+                readRecords();
+            }
+        });
+        for (int i=0; i<threads; i++) {
+            executor.execute(new Runnable() {
+                public void run() {
+                    unmarshalRecords();
+                }
+            });
+        }
+    }
+
+    /**
+     * Reads and identifies records, and queues them for the worker threads.  This
+     * method is invoked by the reader thread.
+     */
+    private void readRecords() {
+        try {
+            while (!closed) {
+                Work work = new Work();
+                try {
+                    Selector parser = reader.nextRecord();
+                    if (parser == null) {
+                        break;
+                    }
+                    work.recordName = parser.getName();
+                    work.lineNumber = reader.getLineNumber();
+                    work.property = parser.getProperty() != null;
+
+                    if (parser.isRecordGroup()) {
+                        // record groups read ahead, so they must be unmarshalled here
+                        queue(work);
+                        try {
+                            work.bean = reader.unmarshal(parser);
+                        }
+                        finally {
+                            work.setRecordContexts(reader);
+                        }
+                        work.complete();
+                    }
+                    else {
+                        work.parser = parser;
+                        work.record = capture.record;
+                        work.text = capture.getRecordTextSequence();
+                        work.recordLineNumber = capture.getRecordLineNumber();
+                        reader.getContext().recordSkipped();
+                        queue(work);
+                        tasks.put(work);
+                    }
+                }
+                catch (BeanReaderIOException ex) {
+                    complete(work, ex);
+                    break;
+                }
+                catch (BeanReaderException ex) {
+                    complete(work, ex);
+                }
+                catch (BeanIOException ex) {
+                    complete(work, new BeanReaderException("Fatal BeanIOException caught", ex));
+                }
+                catch (RuntimeException ex) {
+                    complete(work, ex);
+                    break;
+                }
+                
+                // an exception may be thrown after the end of the stream is reached
+                // if the layout is not satisfied
+                if (reader.getContext().isEOF()) {
+                    break;
+                }
+            }
+
+            pending.put(END);
+        }
+        catch (InterruptedException ex) {
+            return;
+        }
+        finally {
+            for (int i=0; i<threads; i++) {
+                tasks.offer(END);
+            }
+        }
+    }
+
+    /**
+     * Adds a unit of work to the queue of results returned by {@link #read()}.
+     * @param work the {@link Work} to queue
+     * @throws InterruptedException if interrupted while queueing
+     */
+    private void queue(Work work) throws InterruptedException {
+        work.queued = true;
+        pending.put(work);
+    }
+
+    /**
+     * Completes a unit of work with an error, queueing it if it has not already
+     * been queued.
+     * @param work the {@link Work}
+     * @param error the error
+     * @throws InterruptedException if interrupted while queueing
+     */
+    private void complete(Work work, RuntimeException error) throws InterruptedException {
+        work.error = error;
+        if (work.recordName == null) {
+            work.recordName = reader.getRecordName();
+            work.lineNumber = reader.getLineNumber();
+        }
+        if (!work.queued) {
+            queue(work);
+        }
+        work.complete();
+    }
+
+    /**
+     * Unmarshals identified records.  This method is invoked by each worker thread.
+     */
+    private void unmarshalRecords() {
+        HandoffRecordReader handoff = new HandoffRecordReader();
+        BeanReaderImpl worker = stream.createBeanReader(handoff, locale);
+        UnmarshallingContext context = worker.getContext();
+
+        try {
+            while (!closed) {
+                Work work = tasks.take();
+                if (work == END) {
+                    // stop the next worker thread too, in case the reader thread
+                    // was interrupted before it could queue one for each worker
+                    tasks.offer(END);
+                    break;
+                }
+
+                try {
+                    handoff.next = work;
+                    context.recordSkipped();
+                    context.nextRecord();
+                    work.bean = worker.unmarshal(work.parser);
+                }
+                catch (BeanReaderException ex) {
+                    work.error = ex;
+                }
+                catch (BeanIOException ex) {
+                    work.error = new BeanReaderException("Fatal BeanIOException caught", ex);
+                }
+                catch (RuntimeException ex) {
+                    work.error = ex;
+                }
+                finally {
+                    work.setRecordContexts(worker);
+                    work.record = null;
+                    work.complete();
+                }
+            }
+        }
+        catch (InterruptedException ex) { }
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see org.beanio.BeanReader#getRecordName()
+     */
+    public String getRecordName() {
+        return last == null ? null : last.recordName;
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see org.beanio.BeanReader#getLineNumber()
+     */
+    public int getLineNumber() {
+        return last == null ? -1 : last.lineNumber;
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see org.beanio.BeanReader#getRecordCount()
+     */
+    public int getRecordCount() {
+        return last == null || last.recordContexts == null ? 0 : last.recordContexts.length;
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see org.beanio.BeanReader#getRecordContext(int)
+     */
+    public RecordContext getRecordContext(int index) throws IndexOutOfBoundsException {
+        if (last == null || last.recordContexts == null) {
+            throw new IndexOutOfBoundsException();
+        }
+        return last.recordContexts[index];
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see org.beanio.BeanReader#close()
+     */
+    public void close() throws BeanReaderIOException {
+        ensureOpen();
+
+        closed = true;
+        if (executor != null) {
+            executor.shutdownNow();
+            try {
+                // the reader thread must stop before the record reader is closed
+                executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+            }
+            catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        last = null;
+        reader.close();
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see org.beanio.BeanReader#setErrorHandler(org.beanio.BeanReaderErrorHandler)
+     */
+    public void setErrorHandler(BeanReaderErrorHandler errorHandler) {
+        this.errorHandler = errorHandler;
+    }
+
+    /*
+     * Throws an exception if the stream has already been closed.
+     */
+    private void ensureOpen() {
+        if (closed) {
+            throw new BeanReaderIOException("Stream closed");
+        }
+    }
+
+    private void handleError(BeanReaderException ex) {
+        if (errorHandler == null) {
+            throw ex;
+        }
+        else {
+            try {
+                errorHandler.handleError(ex);
+            }
+            catch (BeanReaderException e) {
+                throw e;
+            }
+            catch (Exception e) {
+                throw new BeanReaderException("Exception thrown by error handler", e);
+            }
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see org.beanio.internal.util.Debuggable#debug()
+     */
+    public void debug() {
+        debug(System.out);
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see org.beanio.internal.util.Debuggable#debug(java.io.PrintStream)
+     */
+    public void debug(PrintStream out) {
+        ((Component) stream.getLayout()).print(out);
+    }
+
+    /**
+     * A record identified by the reader thread, and the result of unmarshalling it.
+     */
+    private static class Work {
+        private Selector parser;
+        private Object record;
+        // the record text, which is only converted to a String if requested
+        private CharSequence text;
+        private int recordLineNumber;
+
+        private String recordName;
+        private int lineNumber;
+        private boolean property;
+        private Object bean;
+        private RuntimeException error;
+        private RecordContext[] recordContexts;
+
+        private boolean queued;
+        private boolean completed;
+
+        public void setRecordContexts(BeanReaderImpl reader) {
+            int count = reader.getRecordCount();
+            if (count > 0) {
+                recordContexts = new RecordContext[count];
+                for (int i=0; i<count; i++) {
+                    recordContexts[i] = reader.getRecordContext(i);
+                }
+            }
+        }
+
+        public synchronized void complete() {
+            completed = true;
+            notifyAll();
+        }
+
+        public synchronized void await() throws InterruptedException {
+            while (!completed) {
+                wait();
+            }
+        }
+    }
+
+    /**
+     * A {@link RecordReader} that remembers the last record read from another record reader.
+     */
+    private static class CapturingRecordReader implements RecordReader, RecordTextProvider {
+        private RecordReader in;
+        private Object record;
+
+        public CapturingRecordReader(RecordReader in) {
+            this.in = in;
+        }
+
+        public Object read() throws IOException, RecordIOException {
+            record = null;
+            record = in.read();
+            return record;
+        }
+
+        public void close() throws IOException {
+            in.close();
+        }
+
+        public int getRecordLineNumber() {
+            return in.getRecordLineNumber();
+        }
+
+        public String getRecordText() {
+            return in.getRecordText();
+        }
+
+        public int getRecordTextLength() {
+            if (in instanceof RecordTextProvider) {
+                return ((RecordTextProvider) in).getRecordTextLength();
+            }
+            String text = in.getRecordText();
+            return text == null ? -1 : text.length();
+        }
+
+        public CharSequence getRecordTextSequence() {
+            if (in instanceof RecordTextProvider) {
+                return ((RecordTextProvider) in).getRecordTextSequence();
+            }
+            return in.getRecordText();
+        }
+    }
+
+    /**
+     * A {@link RecordReader} used by a worker thread to read the record handed off by
+     * the reader thread.  The record is not returned until {@link #read()} is called,
+     * so that the record text of the previous record remains available until then.
+     */
+    private static class HandoffRecordReader implements RecordReader, RecordTextProvider {
+        private Work next;
+        private Work current;
+
+        public Object read() {
+            current = next;
+            next = null;
+            return current == null ? null : current.record;
+        }
+
+        public void close() { }
+
+        public int getRecordLineNumber() {
+            return current == null ? -1 : current.recordLineNumber;
+        }
+
+        public String getRecordText() {
+            if (current == null || current.text == null) {
+                return null;
+            }
+            String text = current.text.toString();
+            current.text = text;
+            return text;
+        }
+
+        public int getRecordTextLength() {
+            return current == null || current.text == null ? -1 : current.text.length();
+        }
+
+        public CharSequence getRecordTextSequence() {
+            return current == null ? null : current.text;
+        }
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright 2013 Kevin Seim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.beanio.internal.parser;
+
+import java.io.PrintStream;
+import java.util.List;
+import java.util.concurrent.*;
+
+import org.beanio.*;
+import org.w3c.dom.Document;
+
+/**
+ * A thread safe {@link Marshaller} that borrows a {@link MarshallerImpl}
+ * from a bounded pool for each call.
+ * 
+ * <p>When a marshaller is returned to the pool, its parser local variables are
+ * reset in place, so every bean is marshalled from the same initial state.  A new
+ * marshaller is created when the pool is empty, and discarded when returned to a
+ * full pool, so callers never block waiting for one.  The record value of the last bean
+ * marshalled by a thread is retained for that thread only, so <tt>toString()</tt>,
+ * <tt>toArray()</tt>, <tt>toList()</tt> and <tt>toDocument()</tt> must be called
+ * from the same thread that called <tt>marshal()</tt>.</p>
+ * 
+ * <p>Pooled marshallers are created from the same {@link Stream} and share its
+ * type handlers, which must therefore be thread safe.  Included type handlers
+ * keep a separate <tt>DecimalFormat</tt> or <tt>SimpleDateFormat</tt> per thread.</p>
+ * 
+ * @author Kevin Seim
+ * @since 2.1.1
+ */
+public class PooledMarshaller implements Marshaller {
+
+    private Stream stream;
+    private BlockingQueue<MarshallerImpl> pool;
+    
+    private ThreadLocal<Object> lastRecordValue = new ThreadLocal<Object>();
+    
+    /**
+     * Constructs a new <tt>PooledMarshaller</tt>.
+     * @param stream the {@link Stream} to create marshallers from
+     * @param poolSize the maximum number of idle marshallers to retain
+     */
+    public PooledMarshaller(Stream stream, int poolSize) {
+        if (poolSize < 1) {
+            throw new IllegalArgumentException("Invalid pool size: " + poolSize);
+        }
+        this.stream = stream;
+        this.pool = new ArrayBlockingQueue<MarshallerImpl>(poolSize);
+    }
+    
+    /*
+     * (non-Javadoc)
+     * @see org.beanio.Marshaller#marshal(java.lang.Object)
+     */
+    public Marshaller marshal(Object bean) throws BeanWriterException {
+        return marshal(null, bean);
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see org.beanio.Marshaller#marshal(java.lang.String, java.lang.Object)
+     */
+    public Marshaller marshal(String recordName, Object bean) throws BeanWriterException {
+        lastRecordValue.remove();
+        
+        MarshallerImpl marshaller = borrow();
+        try {
+            marshaller.marshal(recordName, bean);
+            lastRecordValue.set(marshaller.getRecordValue());
+            return this;
+        }
+        finally {
+            release(marshaller);
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see java.lang.Object#toString()
+     */
+    public String toString() {
+        Object recordValue = lastRecordValue.get();
+        if (recordValue == null) {
+            return null;
+        }
+        
+        MarshallerImpl marshaller = borrow();
+        try {
+            return marshaller.toString(recordValue);
+        }
+        finally {
+            pool.offer(marshaller);
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see org.beanio.Marshaller#toArray()
+     */
+    public String[] toArray() throws BeanWriterException {
+        MarshallerImpl marshaller = borrow();
+        try {
+            return marshaller.toArray(lastRecordValue.get());
+        }
+        finally {
+            pool.offer(marshaller);
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see org.beanio.Marshaller#toList()
+     */
+    public List<String> toList() throws BeanWriterException {
+        MarshallerImpl marshaller = borrow();
+        try {
+            return marshaller.toList(lastRecordValue.get());
+        }
+        finally {
+            pool.offer(marshaller);
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see org.beanio.Marshaller#toDocument()
+     */
+    public Document toDocument() throws BeanWriterException {
+        MarshallerImpl marshaller = borrow();
+        try {
+            return marshaller.toDocument(lastRecordValue.get());
+        }
+        finally {
+            pool.offer(marshaller);
+        }
+    }
+    
+    /**
+     * Returns the number of idle marshallers in the pool.
+     * @return the number of idle marshallers
+     */
+    public int getIdleCount() {
+        return pool.size();
+    }
+    
+    public void debug() {
+        debug(System.out);
+    }
+    public void debug(PrintStream out) {
+        ((Component)stream.getLayout()).print(out);
+    }
+    
+    private MarshallerImpl borrow() {
+        MarshallerImpl marshaller = pool.poll();
+        if (marshaller == null) {
+            marshaller = (MarshallerImpl) stream.createMarshaller();
+        }
+        return marshaller;
+    }
+    
+    private void release(MarshallerImpl marshaller) {
+        stream.resetContext(marshaller.getContext());
+        pool.offer(marshaller);
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2013 Kevin Seim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.beanio.internal.parser;
+
+import java.io.PrintStream;
+import java.util.*;
+import java.util.concurrent.*;
+
+import org.beanio.*;
+import org.w3c.dom.Node;
+
+/**
+ * A thread safe {@link Unmarshaller} that borrows an {@link UnmarshallerImpl}
+ * from a bounded pool for each call.
+ * 
+ * <p>When an unmarshaller is returned to the pool, its parser local variables are
+ * reset in place, so every call is unmarshalled from the same initial state regardless
+ * of which pooled unmarshaller is used.  A new unmarshaller is created when the pool is
+ * empty, and discarded when returned to a full pool, so callers never block waiting
+ * for one.  Nothing is bound to the calling thread other than the name and context
+ * of its last unmarshalled record, so the pool can be shared by any number of 
+ * (including virtual) threads.</p>
+ * 
+ * <p>Pooled unmarshallers are created from the same {@link Stream} and share its
+ * type handlers, which must therefore be thread safe.  Included type handlers
+ * keep a separate <tt>DecimalFormat</tt> or <tt>SimpleDateFormat</tt> per thread.</p>
+ * 
+ * @author Kevin Seim
+ * @since 2.1.1
+ */
+public class PooledUnmarshaller implements Unmarshaller {
+
+    private Stream stream;
+    private Locale locale;
+    private BlockingQueue<UnmarshallerImpl> pool;
+    
+    private ThreadLocal<String> lastRecordName = new ThreadLocal<String>();
+    private ThreadLocal<RecordContext> lastRecordContext = new ThreadLocal<RecordContext>();
+    
+    /**
+     * Constructs a new <tt>PooledUnmarshaller</tt>.
+     * @param stream the {@link Stream} to create unmarshallers from
+     * @param locale the {@link Locale} to use for rendering error messages
+     * @param poolSize the maximum number of idle unmarshallers to retain
+     */
+    public PooledUnmarshaller(Stream stream, Locale locale, int poolSize) {
+        if (poolSize < 1) {
+            throw new IllegalArgumentException("Invalid pool size: " + poolSize);
+        }
+        this.stream = stream;
+        this.locale = locale;
+        this.pool = new ArrayBlockingQueue<UnmarshallerImpl>(poolSize);
+    }
+    
+    /*
+     * (non-Javadoc)
+     * @see org.beanio.Unmarshaller#unmarshal(java.lang.String)
+     */
+    public Object unmarshal(String text) throws MalformedRecordException, UnidentifiedRecordException,
+        UnexpectedRecordException, InvalidRecordException {
+        UnmarshallerImpl unmarshaller = borrow();
+        try {
+            return unmarshaller.unmarshal(text);
+        }
+        finally {
+            release(unmarshaller);
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see org.beanio.Unmarshaller#unmarshal(java.util.List)
+     */
+    public Object unmarshal(List<String> list) throws BeanReaderException, UnidentifiedRecordException,
+        UnexpectedRecordException, InvalidRecordException {
+        UnmarshallerImpl unmarshaller = borrow();
+        try {
+            return unmarshaller.unmarshal(list);
+        }
+        finally {
+            release(unmarshaller);
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see org.beanio.Unmarshaller#unmarshal(java.lang.String[])
+     */
+    public Object unmarshal(String[] array) throws BeanReaderException, UnidentifiedRecordException,
+        UnexpectedRecordException, InvalidRecordException {
+        UnmarshallerImpl unmarshaller = borrow();
+        try {
+            return unmarshaller.unmarshal(array);
+        }
+        finally {
+            release(unmarshaller);
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see org.beanio.Unmarshaller#unmarshal(org.w3c.dom.Node)
+     */
+    public Object unmarshal(Node node) throws BeanReaderException, UnidentifiedRecordException,
+        UnexpectedRecordException, InvalidRecordException {
+        UnmarshallerImpl unmarshaller = borrow();
+        try {
+            return unmarshaller.unmarshal(node);
+        }
+        finally {
+            release(unmarshaller);
+        }
+    }
+
+    /**
+     * Returns the record or group name of the most recent record unmarshalled
+     * by the calling thread.
+     * @return the record or group name
+     */
+    public String getRecordName() {
+        return lastRecordName.get();
+    }
+
+    /**
+     * Returns record information for the most recent record unmarshalled
+     * by the calling thread.
+     * @return the {@link RecordContext}
+     */
+    public RecordContext getRecordContext() {
+        return lastRecordContext.get();
+    }
+    
+    /**
+     * Returns the number of idle unmarshallers in the pool.
+     * @return the number of idle unmarshallers
+     */
+    public int getIdleCount() {
+        return pool.size();
+    }
+    
+    public void debug() {
+        debug(System.out);
+    }
+    public void debug(PrintStream out) {
+        ((Component)stream.getLayout()).print(out);
+    }
+    
+    private UnmarshallerImpl borrow() {
+        UnmarshallerImpl unmarshaller = pool.poll();
+        if (unmarshaller == null) {
+            unmarshaller = (UnmarshallerImpl) stream.createUnmarshaller(locale);
+        }
+        return unmarshaller;
+    }
+    
+    private void release(UnmarshallerImpl unmarshaller) {
+        UnmarshallingContext context = unmarshaller.getContext();
+        lastRecordName.set(unmarshaller.getRecordName());
+        lastRecordContext.set(context.getRecordCount() > 0 ? context.getRecordContext(0) : null);
+        stream.resetContext(context);
+        pool.offer(unmarshaller);
+    }
+}
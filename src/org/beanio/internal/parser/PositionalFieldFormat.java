@@ -0,0 +1,37 @@
+/*
+ * Copyright 2013 Kevin Seim
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.beanio.internal.parser;
+
+/**
+ * A {@link FieldFormat} that extracts field text from a fixed position in a record,
+ * such that the text of a field can be extracted once and compared against the
+ * literal values of other fields at the same position.
+ * 
+ * @author Kevin Seim
+ * @since 2.1.1
+ * @see RecordIdentifierIndex
+ */
+public interface PositionalFieldFormat extends FieldFormat {
+
+    /**
+     * Returns a key that describes how field text is extracted from a record.  If two
+     * field formats return equal keys, {@link #extract(UnmarshallingContext, boolean)} must
+     * return the same text for both formats given the same record.
+     * @return the extraction key
+     */
+    public Object getExtractionKey();
+    
+}
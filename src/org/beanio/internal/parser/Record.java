@@ -36,7 +36,7 @@ public class Record extends Segment implements Selector {
     // the record format
     private RecordFormat format;
     // current record count
-    private ParserLocal<Integer> count = new ParserLocal<Integer>(0);
+    private ParserLocalInt count = new ParserLocalInt();
 
     /**
      * Constructs a new <tt>Record</tt>.
@@ -180,7 +180,7 @@ public class Record extends Segment implements Selector {
      * @since 1.2
      */
     public void updateState(ParsingContext context, String namespace, Map<String, Object> state) {
-        state.put(getKey(namespace, COUNT_KEY), count.get(context));
+        state.put(getKey(namespace, COUNT_KEY), count.getInt(context));
     }
 
     /**
@@ -196,7 +196,7 @@ public class Record extends Segment implements Selector {
         if (n == null) {
             throw new IllegalStateException("Missing state information for key '" + key + "'");
         }
-        count.set(context, n);
+        count.setInt(context, n);
     }
     
     /**
@@ -236,10 +236,10 @@ public class Record extends Segment implements Selector {
         this.order = order;
     }
     public int getCount(ParsingContext context) {
-        return count.get(context);
+        return count.getInt(context);
     }
     public void setCount(ParsingContext context, int count) {
-        this.count.set(context, count);
+        this.count.setInt(context, count);
     }
     public RecordFormat getFormat() {
         return format;
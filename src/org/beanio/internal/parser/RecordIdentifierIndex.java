@@ -0,0 +1,202 @@
+/*
+ * Copyright 2013 Kevin Seim
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.beanio.internal.parser;
+
+import java.util.*;
+
+/**
+ * A dispatch table used by a {@link Group} to quickly determine which of its
+ * children may match the record being unmarshalled.
+ * 
+ * <p>A child record is indexed by the first record identifying field that has a literal
+ * value and a {@link PositionalFieldFormat}.  Fields with equal extraction keys share a
+ * slot, and the field text for each slot is extracted only once per record and
+ * used to look up the children identified by that text.  Children that cannot be 
+ * indexed, such as groups or records without a literal identifier, are always 
+ * candidates.  Candidates must still be matched as usual, since a record may
+ * have other identifying fields or record length constraints.</p>
+ * 
+ * <p>Once created, a <tt>RecordIdentifierIndex</tt> is thread-safe.</p>
+ * 
+ * @author Kevin Seim
+ * @since 2.1.1
+ */
+public class RecordIdentifierIndex {
+
+    private Slot[] slots;
+    private boolean[] unindexed;
+    private Map<Selector, Integer> ordinals = new IdentityHashMap<Selector, Integer>();
+    
+    private RecordIdentifierIndex() { }
+    
+    /**
+     * Creates a <tt>RecordIdentifierIndex</tt> for the children of a group.
+     * @param group the {@link Group} to index
+     * @return the new index, or null if no child of the group could be indexed
+     */
+    public static RecordIdentifierIndex create(Group group) {
+        List<Component> children = group.getChildren();
+        
+        RecordIdentifierIndex index = new RecordIdentifierIndex();
+        index.unindexed = new boolean[children.size()];
+        
+        Map<Object, Slot> slotMap = new LinkedHashMap<Object, Slot>();
+        for (int i=0; i<children.size(); i++) {
+            Selector child = (Selector) children.get(i);
+            index.ordinals.put(child, i);
+            
+            Field field = findIdentifier(child);
+            if (field == null) {
+                index.unindexed[i] = true;
+                continue;
+            }
+            
+            PositionalFieldFormat format = (PositionalFieldFormat) field.getFormat();
+            Object key = format.getExtractionKey();
+            Slot slot = slotMap.get(key);
+            if (slot == null) {
+                slot = new Slot(format);
+                slotMap.put(key, slot);
+            }
+            
+            boolean[] mask = slot.masks.get(field.getLiteral());
+            if (mask == null) {
+                mask = new boolean[children.size()];
+                slot.masks.put(field.getLiteral(), mask);
+            }
+            mask[i] = true;
+        }
+        
+        if (slotMap.isEmpty()) {
+            return null;
+        }
+        
+        index.slots = slotMap.values().toArray(new Slot[slotMap.size()]);
+        
+        // with a single slot, the unindexed children are merged into each mask so
+        // that no array is created while looking up candidates
+        if (index.slots.length == 1) {
+            for (boolean[] mask : index.slots[0].masks.values()) {
+                for (int i=0; i<mask.length; i++) {
+                    mask[i] |= index.unindexed[i];
+                }
+            }
+        }
+        
+        return index;
+    }
+    
+    /**
+     * Returns the children of the group that may match the current record.
+     * @param context the {@link UnmarshallingContext}
+     * @return an array indexed by child position, where true indicates the
+     *   child may match the record
+     */
+    public boolean[] getCandidates(UnmarshallingContext context) {
+        if (slots.length == 1) {
+            boolean[] mask = slots[0].lookup(context);
+            return mask == null ? unindexed : mask;
+        }
+        
+        boolean[] candidates = unindexed.clone();
+        for (Slot slot : slots) {
+            boolean[] mask = slot.lookup(context);
+            if (mask != null) {
+                for (int i=0; i<mask.length; i++) {
+                    candidates[i] |= mask[i];
+                }
+            }
+        }
+        return candidates;
+    }
+    
+    /**
+     * Returns whether a child may match the current record.
+     * @param candidates the candidates returned by {@link #getCandidates(UnmarshallingContext)}
+     * @param child the child {@link Selector} of the indexed group
+     * @return true if the child may match the record, false if it cannot
+     */
+    public boolean isCandidate(boolean[] candidates, Selector child) {
+        Integer i = ordinals.get(child);
+        return i == null || candidates[i];
+    }
+    
+    /**
+     * Returns the number of distinct field positions used to identify records.
+     * @return the number of slots
+     */
+    public int getSlotCount() {
+        return slots.length;
+    }
+    
+    /*
+     * Returns the field used to index a child record, or null if the child cannot be indexed.
+     */
+    private static Field findIdentifier(Selector child) {
+        if (child instanceof RecordAggregation) {
+            child = ((RecordAggregation) child).getSelector();
+        }
+        if (!(child instanceof Record)) {
+            return null;
+        }
+        return findIdentifier((Segment) child);
+    }
+    
+    private static Field findIdentifier(Segment segment) {
+        if (!segment.isIdentifier()) {
+            return null;
+        }
+        
+        for (Component node : segment.getChildren()) {
+            if (node instanceof Field) {
+                Field field = (Field) node;
+                if (field.isIdentifier() && field.getLiteral() != null && 
+                    field.getFormat() instanceof PositionalFieldFormat) {
+                    return field;
+                }
+            }
+            // segments nested in an aggregation are skipped, since their 
+            // field positions are relative to the current iteration
+            else if (node instanceof Segment) {
+                Field field = findIdentifier((Segment) node);
+                if (field != null) {
+                    return field;
+                }
+            }
+        }
+        return null;
+    }
+    
+    /*
+     * A field position shared by one or more indexed records.
+     */
+    private static class Slot {
+        private FieldFormat format;
+        private Map<String, boolean[]> masks = new HashMap<String, boolean[]>();
+        
+        public Slot(FieldFormat format) {
+            this.format = format;
+        }
+        
+        public boolean[] lookup(UnmarshallingContext context) {
+            String text = format.extract(context, false);
+            if (text == null || text == Value.INVALID || text == Value.NIL) {
+                return null;
+            }
+            return masks.get(text);
+        }
+    }
+}
@@ -16,9 +16,11 @@
 package org.beanio.internal.parser;
 
 import java.io.*;
+import java.nio.charset.Charset;
 import java.util.*;
 
 import org.beanio.*;
+import org.beanio.internal.parser.format.xml.XmlStreamFormat;
 import org.beanio.stream.*;
 
 /**
@@ -40,8 +42,10 @@ public class Stream {
     private Selector layout;
     private MessageFactory messageFactory;
     private boolean ignoreUnidentifiedRecords;
+    private volatile StreamListener streamListener;
     
     private Set<ParserLocal<?>> locals;
+    private int intLocalCount;
     
     /**
      * Constructs a new <tt>Stream</tt>.
@@ -60,6 +64,13 @@ public class Stream {
         
         Component parser = ((Component)layout);
         parser.registerLocals(locals);
+        
+        intLocalCount = 0;
+        for (ParserLocal<?> local : locals) {
+            if (local instanceof ParserLocalInt) {
+                ++intLocalCount;
+            }
+        }
     }
     
     /**
@@ -81,11 +92,112 @@ public class Stream {
             throw new NullPointerException("null reader");
         }
         
+        return createBeanReader(format.createRecordReader(in), locale);
+    }
+    
+    /**
+     * Creates a new {@link BeanReader} for reading from the given file.
+     * @param file the file to read from
+     * @param charset the character set the file is encoded with
+     * @param locale the locale to use for rendering error messages
+     * @return the new {@link BeanReader}
+     * @throws IOException if the file cannot be opened
+     * @since 2.1.1
+     */
+    public BeanReader createBeanReader(File file, Charset charset, Locale locale) throws IOException {
+        if (file == null) {
+            throw new NullPointerException("null file");
+        }
+        if (charset == null) {
+            throw new NullPointerException("null charset");
+        }
+        
+        return createBeanReader(format.createRecordReader(file, charset), locale);
+    }
+    
+    /**
+     * Creates a new {@link BeanIterator} for reading from the given file.
+     * @param file the file to read from
+     * @param charset the character set the file is encoded with
+     * @param locale the locale to use for rendering error messages
+     * @param type the bean object type
+     * @return the new {@link FileBeanIterator}
+     * @since 2.1.1
+     */
+    public <T> FileBeanIterator<T> createBeanIterator(File file, Charset charset, Locale locale, Class<T> type) {
+        if (file == null) {
+            throw new NullPointerException("null file");
+        }
+        if (charset == null) {
+            throw new NullPointerException("null charset");
+        }
+        if (type == null) {
+            throw new NullPointerException("null type");
+        }
+        
+        return new FileBeanIterator<T>(this, file, charset, locale, type);
+    }
+    
+    /**
+     * Creates a new {@link BeanReader} for reading from the given file using multiple threads.
+     * @param file the file to read from
+     * @param charset the character set the file is encoded with
+     * @param locale the locale to use for rendering error messages
+     * @param threads the number of threads to use
+     * @param ordered whether bean objects are returned in the order they appear in the file
+     * @return the new {@link ParallelBeanReader}
+     * @throws IllegalArgumentException if this stream does not support parallel reading
+     * @since 2.1.1
+     */
+    public ParallelBeanReader createParallelBeanReader(File file, Charset charset, Locale locale, 
+        int threads, boolean ordered) throws IllegalArgumentException {
+        if (file == null) {
+            throw new NullPointerException("null file");
+        }
+        if (charset == null) {
+            throw new NullPointerException("null charset");
+        }
+        
+        ParallelBeanReader reader = new ParallelBeanReader(this, file, charset, locale, threads, ordered);
+        return reader;
+    }
+    
+    /**
+     * Creates a new {@link BeanReader} for reading from the given input stream, where
+     * records are read and identified by one thread and unmarshalled by a pool of 
+     * worker threads.
+     * @param in the input stream to read from
+     * @param locale the locale to use for rendering error messages
+     * @param threads the number of worker threads
+     * @return the new {@link PipelinedBeanReader}
+     * @throws IllegalArgumentException if this stream does not support pipelined reading
+     * @since 2.1.1
+     */
+    public PipelinedBeanReader createPipelinedBeanReader(Reader in, Locale locale, int threads) 
+        throws IllegalArgumentException {
+        if (in == null) {
+            throw new NullPointerException("null reader");
+        }
+        if (format instanceof XmlStreamFormat) {
+            throw new IllegalArgumentException("Pipelined reading not supported for XML streams");
+        }
+        
+        return new PipelinedBeanReader(this, format.createRecordReader(in), locale, threads);
+    }
+    
+    /**
+     * Creates a new {@link BeanReaderImpl} for reading from the given record reader.
+     * @param recordReader the {@link RecordReader} to read from
+     * @param locale the locale to use for rendering error messages
+     * @return the new {@link BeanReaderImpl}
+     */
+    BeanReaderImpl createBeanReader(RecordReader recordReader, Locale locale) {
         UnmarshallingContext context = format.createUnmarshallingContext();
         initContext(context);
         context.setMessageFactory(messageFactory);
         context.setLocale(locale);
-        context.setRecordReader(format.createRecordReader(in));
+        context.setRecordReader(recordReader);
+        context.setStreamListener(getName(), streamListener);
         
         BeanReaderImpl reader = new BeanReaderImpl(context, layout);
         reader.setIgnoreUnidentifiedRecords(ignoreUnidentifiedRecords);
@@ -125,6 +237,7 @@ public class Stream {
         MarshallingContext context = format.createMarshallingContext(true);
         initContext(context);
         context.setRecordWriter(format.createRecordWriter(out));
+        context.setStreamListener(getName(), streamListener);
 
         BeanWriterImpl writer = new BeanWriterImpl(context, layout);
         return writer;
@@ -146,14 +259,76 @@ public class Stream {
         return new MarshallerImpl(context, layout, recordMarshaller);
     }
     
+    /**
+     * Creates a new {@link Unmarshaller} that may be shared by multiple threads.
+     * @param locale the {@link Locale} to use for rendering error messages
+     * @param poolSize the maximum number of idle unmarshallers to retain
+     * @return the new {@link PooledUnmarshaller}
+     * @since 2.1.1
+     */
+    public PooledUnmarshaller createPooledUnmarshaller(Locale locale, int poolSize) {
+        if (format.createRecordUnmarshaller() == null) {
+            throw new IllegalArgumentException("Unmarshaller not supported for stream format");
+        }
+        return new PooledUnmarshaller(this, locale, poolSize);
+    }
+    
+    /**
+     * Creates a new {@link Marshaller} that may be shared by multiple threads.
+     * @param poolSize the maximum number of idle marshallers to retain
+     * @return the new {@link PooledMarshaller}
+     * @since 2.1.1
+     */
+    public PooledMarshaller createPooledMarshaller(int poolSize) {
+        if (format.createRecordMarshaller() == null) {
+            throw new IllegalArgumentException("Marshaller not supported for stream format");
+        }
+        return new PooledMarshaller(this, poolSize);
+    }
+    
     private void initContext(ParsingContext context) {
-        context.createHeap(locals.size());
-        int i=0;
+        context.createHeap(locals.size() - intLocalCount, intLocalCount);
+        resetContext(context);
+    }
+    
+    /**
+     * Restores the default value of each parser local variable in the existing
+     * heap of a context, so that it can be reused without reallocating it.
+     * @param context the {@link ParsingContext} to reset
+     */
+    void resetContext(ParsingContext context) {
+        int i=0, n=0;
         for (ParserLocal<?> local : locals) {
-            local.init(i++, context);
+            if (local instanceof ParserLocalInt) {
+                local.init(n++, context);
+            }
+            else {
+                local.init(i++, context);
+            }
         }
     }
     
+    /**
+     * Returns the listener notified of events raised by bean readers and writers
+     * created for this stream.
+     * @return the {@link StreamListener}, or <tt>null</tt> if not set
+     * @since 2.1.1
+     */
+    public StreamListener getStreamListener() {
+        return streamListener;
+    }
+
+    /**
+     * Sets the listener to notify of events raised by bean readers and writers
+     * created for this stream.
+     * @param streamListener the {@link StreamListener}, or <tt>null</tt> to disable
+     *   notifications
+     * @since 2.1.1
+     */
+    public void setStreamListener(StreamListener streamListener) {
+        this.streamListener = streamListener;
+    }
+    
     /**
      * Returns the allowed mode of operation for this stream configuration. 
      * @return {@link #READ_WRITE_MODE} if reading and writing from a stream is allowed,
@@ -16,6 +16,7 @@
 package org.beanio.internal.parser;
 
 import java.io.*;
+import java.nio.charset.Charset;
 
 import org.beanio.stream.*;
 
@@ -67,6 +68,16 @@ public interface StreamFormat {
      */
     public RecordReader createRecordReader(Reader in);
     
+    /**
+     * Creates a new record reader for reading from a file.
+     * @param file the file to read records from
+     * @param charset the character set the file is encoded with
+     * @return the new {@link RecordReader}
+     * @throws IOException if the file cannot be opened
+     * @since 2.1.1
+     */
+    public RecordReader createRecordReader(File file, Charset charset) throws IOException;
+    
     /**
      * Creates a new record writer.
      * @param out the {@link Writer} to write records to
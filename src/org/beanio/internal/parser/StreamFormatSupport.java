@@ -16,7 +16,9 @@
 package org.beanio.internal.parser;
 
 import java.io.*;
+import java.nio.charset.Charset;
 
+import org.beanio.internal.util.IOUtil;
 import org.beanio.stream.*;
 
 /**
@@ -61,6 +63,27 @@ public abstract class StreamFormatSupport implements StreamFormat {
         return recordParserFactory.createReader(in);
     }
 
+    /**
+     * Creates a new <tt>RecordReader</tt> for reading from the given file.
+     * By default, the file is opened using {@link IOUtil#openReader(File, Charset)} and
+     * passed to {@link #createRecordReader(Reader)}.
+     * @param file the file to read from
+     * @param charset the character set the file is encoded with
+     * @return a new <tt>RecordReader</tt>
+     * @throws IOException if the file cannot be opened
+     * @since 2.1.1
+     */
+    public RecordReader createRecordReader(File file, Charset charset) throws IOException {
+        Reader in = IOUtil.openReader(file, charset);
+        try {
+            return createRecordReader(in);
+        }
+        catch (RuntimeException ex) {
+            in.close();
+            throw ex;
+        }
+    }
+
     /**
      * Creates a new <tt>RecordWriter</tt> for writing to the given output stream.
      * This method delegates to the configured record parser factory.
@@ -229,6 +229,14 @@ public class UnmarshallerImpl implements Unmarshaller {
         return context.getRecordContext(0);
     }
     
+    /**
+     * Returns the unmarshalling context.
+     * @return the {@link UnmarshallingContext}
+     */
+    UnmarshallingContext getContext() {
+        return context;
+    }
+    
     public void debug() {
         debug(System.out);
     }
@@ -20,6 +20,7 @@ import java.text.MessageFormat;
 import java.util.*;
 
 import org.beanio.*;
+import org.beanio.internal.util.*;
 import org.beanio.stream.*;
 import org.w3c.dom.Node;
 
@@ -36,6 +37,8 @@ import org.w3c.dom.Node;
  */
 public abstract class UnmarshallingContext extends ParsingContext {
 
+    private static final boolean LAZY_RECORD_TEXT = Settings.getInstance().getBoolean(Settings.LAZY_RECORD_TEXT);
+    
     private Locale locale;
     private MessageFactory messageFactory;
     private RecordReader recordReader;
@@ -58,6 +61,14 @@ public abstract class UnmarshallingContext extends ParsingContext {
     private boolean dirty;
     // a list of record contexts (for parsing record groups)
     private List<ErrorContext> recordList = new ArrayList<ErrorContext>();
+    // whether record text is only requested from the record reader when needed
+    private boolean lazyRecordText = LAZY_RECORD_TEXT;
+    // the last record context that may still request its record text from the record reader
+    private ErrorContext pendingTextContext;
+    // the field text located by the last call to CharSequenceFieldFormat.extractRegion()
+    private CharSequence regionText;
+    private int regionStart;
+    private int regionEnd;
     
     /**
      * Constructs a new <tt>UnmarshallingContext</tt>.
@@ -140,7 +151,13 @@ public abstract class UnmarshallingContext extends ParsingContext {
         
         recordContext.setRecordName(recordName);
         recordContext.setLineNumber(getLineNumber());
-        recordContext.setRecordText(getRecordReader().getRecordText());
+        if (lazyRecordText) {
+            recordContext.setRecordTextSource(getRecordReader());
+            pendingTextContext = recordContext;
+        }
+        else {
+            recordContext.setRecordText(getRecordReader().getRecordText());
+        }
     }
     
     /**
@@ -240,6 +257,65 @@ public abstract class UnmarshallingContext extends ParsingContext {
         recordContext.setFieldText(fieldName, text, isRepeating());
     }
     
+    /**
+     * Sets the raw field text for a named field using a region of the record being 
+     * unmarshalled.  If the record is a <tt>String</tt>, the field text is not copied
+     * until it is requested from the record context.
+     * @param fieldName the name of the field
+     * @param record the record text
+     * @param start the index of the first character of the field text
+     * @param end the index after the last character of the field text
+     * @since 2.1.1
+     */
+    public final void setFieldText(String fieldName, CharSequence record, int start, int end) {
+        if (record instanceof String) {
+            recordContext.setFieldText(fieldName, (String) record, start, end, isRepeating());
+        }
+        else {
+            recordContext.setFieldText(fieldName, record.subSequence(start, end).toString(), isRepeating());
+        }
+    }
+    
+    /**
+     * Sets the field text located by {@link CharSequenceFieldFormat#extractRegion(UnmarshallingContext)}.
+     * @param text the character sequence containing the field text
+     * @param start the index of the first character of the field text
+     * @param end the index after the last character of the field text
+     * @since 2.1.1
+     */
+    public final void setFieldRegion(CharSequence text, int start, int end) {
+        this.regionText = text;
+        this.regionStart = start;
+        this.regionEnd = end;
+    }
+    
+    /**
+     * Returns the character sequence containing the last located field text.
+     * @return the character sequence
+     * @since 2.1.1
+     */
+    public final CharSequence getFieldRegionText() {
+        return regionText;
+    }
+    
+    /**
+     * Returns the index of the first character of the last located field text.
+     * @return the start index
+     * @since 2.1.1
+     */
+    public final int getFieldRegionStart() {
+        return regionStart;
+    }
+    
+    /**
+     * Returns the index after the last character of the last located field text.
+     * @return the end index
+     * @since 2.1.1
+     */
+    public final int getFieldRegionEnd() {
+        return regionEnd;
+    }
+    
     /**
      * Returns <tt>true</tt> if a field error was reported while parsing
      * this record.
@@ -294,6 +370,11 @@ public abstract class UnmarshallingContext extends ParsingContext {
         MessageFormat mf = new MessageFormat(pattern, locale);
         String message = mf.format(messageParams);
         recordContext.addFieldError(fieldName, message);
+        
+        StreamListener listener = getStreamListener();
+        if (listener != null && "type".equals(rule)) {
+            listener.typeConversionFailed(getStreamName(), recordName, fieldName);
+        }
         return message;
     }
     
@@ -417,15 +498,34 @@ public abstract class UnmarshallingContext extends ParsingContext {
         // reset the processed flag
         processed = false;
         
+        // a lazy record context must copy its record text before the record reader
+        // is advanced if it may be accessed after the next record is read
+        if (pendingTextContext != null) {
+            if (dirty || isRecordGroup) {
+                pendingTextContext.getRecordText();
+            }
+            else {
+                pendingTextContext.setRecordText(null);
+            }
+            pendingTextContext = null;
+        }
+        
         // read the next record
+        StreamListener listener = getStreamListener();
         Object recordValue;
         try {
+            long start = (listener == null) ? 0 : System.nanoTime();
             recordValue = recordReader.read();
             if (recordValue == null) {
                 eof = true;
                 lineNumber++;
             }
             else {
+                if (listener != null) {
+                    long nanos = System.nanoTime() - start;
+                    listener.recordRead(getStreamName(), getRecordTextLength(), nanos);
+                }
+                
                 // set the value of the record (which is implementation specific) on the record
                 setRecordValue(recordValue);
                 lineNumber = recordReader.getRecordLineNumber();
@@ -440,6 +540,22 @@ public abstract class UnmarshallingContext extends ParsingContext {
         }
     }    
     
+    /**
+     * Returns the length of the raw text of the current record, without creating
+     * a <tt>String</tt> for it unless the record text is copied for every record anyway.
+     * @return the length of the record text, or -1 if not known
+     */
+    private int getRecordTextLength() {
+        if (recordReader instanceof RecordTextProvider) {
+            return ((RecordTextProvider) recordReader).getRecordTextLength();
+        }
+        if (lazyRecordText) {
+            return -1;
+        }
+        String text = recordReader.getRecordText();
+        return text == null ? -1 : text.length();
+    }
+    
     /**
      * Returns the last line number read from the input stream.  If the end of stream
      * was reached, the line number is still incremented so that this method returns
@@ -476,6 +592,30 @@ public abstract class UnmarshallingContext extends ParsingContext {
         this.recordReader = recordReader;
     }
     
+    /**
+     * Returns whether the raw record text is only requested from the record reader
+     * when needed for an error message or a record context.
+     * @return <tt>true</tt> if record text is lazily requested
+     * @since 2.1.1
+     */
+    public boolean isLazyRecordText() {
+        return lazyRecordText;
+    }
+
+    /**
+     * Sets whether the raw record text is only requested from the record reader
+     * when needed for an error message or a record context.  If the record reader
+     * creates its record text on demand (as all default flat record readers do),
+     * enabling this setting avoids creating a <tt>String</tt> for the text of every
+     * record read.  Defaults to the value of the <tt>org.beanio.lazyRecordText</tt>
+     * configuration setting.
+     * @param lazyRecordText <tt>true</tt> to lazily request record text
+     * @since 2.1.1
+     */
+    public void setLazyRecordText(boolean lazyRecordText) {
+        this.lazyRecordText = lazyRecordText;
+    }
+    
     /**
      * Returns the {@link MessageFactory} for formatting error messages.
      * @return the {@link MessageFactory}
@@ -15,6 +15,8 @@
  */
 package org.beanio.internal.parser.format;
 
+import java.util.Arrays;
+
 import org.beanio.internal.util.TypeUtil;
 
 /**
@@ -122,6 +124,74 @@ public class FieldPadding {
         return s.toString();
     }
     
+    /**
+     * Returns the length of field text after it is formatted by {@link #pad(String)}.
+     * @param text the field text to format
+     * @return the formatted length
+     * @since 2.1.1
+     */
+    public int getPaddedLength(String text) {
+        if (text == null) {
+            if (optional) {
+                return paddedNull.length();
+            }
+            return Math.max(length, 0);
+        }
+        return length < 0 ? text.length() : length;
+    }
+    
+    /**
+     * Formats field text into a character array, exactly as {@link #pad(String)},
+     * without creating a new <tt>String</tt>.
+     * @param text the field text to format
+     * @param buf the array to write the formatted text to, which must have room
+     *   for {@link #getPaddedLength(String)} characters starting at <tt>offset</tt>
+     * @param offset the array offset to write the formatted text
+     * @return the number of characters written
+     * @since 2.1.1
+     */
+    public int pad(String text, char[] buf, int offset) {
+        int currentLength;
+        if (text == null) {
+            // optional fields are padded with spaces
+            if (optional) {
+                currentLength = paddedNull.length();
+                paddedNull.getChars(0, currentLength, buf, offset);
+                return currentLength;
+            }
+            
+            text = "";
+            currentLength = 0;
+        }
+        else if (length < 0) {
+            currentLength = text.length();
+            text.getChars(0, currentLength, buf, offset);
+            return currentLength;
+        }
+        else {
+            currentLength = text.length();
+            if (currentLength >= length) {
+                text.getChars(0, length, buf, offset);
+                return length;
+            }
+        }
+        
+        if (length <= 0) {
+            return 0;
+        }
+        
+        int remaining = length - currentLength;
+        if (justify == FieldPadding.LEFT) {
+            text.getChars(0, currentLength, buf, offset);
+            Arrays.fill(buf, offset + currentLength, offset + length, filler);
+        }
+        else {
+            Arrays.fill(buf, offset, offset + remaining, filler);
+            text.getChars(0, currentLength, buf, offset + remaining);
+        }
+        return length;
+    }
+    
     /**
      * Removes padding from the field text.
      * @param fieldText the field text to remove padding
@@ -160,6 +230,57 @@ public class FieldPadding {
             return defaultText;
         }
     }
+    
+    /**
+     * Removes padding from field text in a region of a character sequence, without
+     * creating a <tt>String</tt>.  Only one end of the region is changed by removing
+     * padding: the end of the region if the field is left justified, or the start of 
+     * the region if the field is right justified.
+     * @param text the character sequence containing the field text
+     * @param start the index of the first character of the field text
+     * @param end the index after the last character of the field text
+     * @return the new end index of the region if left justified, or the new start 
+     *   index if right justified, or -1 if the unpadded text cannot be represented
+     *   by a region of <tt>text</tt>
+     * @since 2.1.1
+     */
+    public int unpad(CharSequence text, int start, int end) {
+        if (justify == FieldPadding.LEFT) {
+            for (int index = end - 1; index >= start; index--) {
+                if (text.charAt(index) != filler) {
+                    return index + 1;
+                }
+            }
+            return unpaddedDefault(start, end, start);
+        }
+        else {
+            for (int index = start; index < end; index++) {
+                if (text.charAt(index) != filler) {
+                    return index;
+                }
+            }
+            return unpaddedDefault(start, end, end);
+        }
+    }
+    
+    /**
+     * Returns the region bound for the default text of a field made up entirely
+     * of filler characters.
+     * @param start the index of the first character of the field text
+     * @param end the index after the last character of the field text
+     * @param empty the region bound for empty text
+     * @return the new region bound, or -1 if not possible
+     */
+    private int unpaddedDefault(int start, int end, int empty) {
+        if (defaultText.length() == 0) {
+            return empty;
+        }
+        // the default text is the filler character
+        if (defaultText.length() == 1 && defaultText.charAt(0) == filler && start < end) {
+            return justify == FieldPadding.LEFT ? start + 1 : end - 1;
+        }
+        return -1;
+    }
         
     /**
      * Returns the character used to pad field text.
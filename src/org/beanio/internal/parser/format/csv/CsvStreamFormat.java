@@ -15,8 +15,13 @@
  */
 package org.beanio.internal.parser.format.csv;
 
+import java.io.*;
+import java.nio.charset.Charset;
+
 import org.beanio.internal.parser.StreamFormatSupport;
 import org.beanio.internal.parser.format.delimited.DelimitedStreamFormat;
+import org.beanio.stream.*;
+import org.beanio.stream.csv.CsvRecordParserFactory;
 
 /**
  * A {@link StreamFormatSupport} implementation for the CSV format.
@@ -31,4 +36,23 @@ public class CsvStreamFormat extends DelimitedStreamFormat {
      */
     public CsvStreamFormat() { }
     
+    /**
+     * Creates a new <tt>RecordReader</tt> for reading from the given file.  If the default
+     * record parser factory is used, the file may be parsed without decoding it one
+     * character at a time.
+     * @param file the file to read from
+     * @param charset the character set the file is encoded with
+     * @return a new <tt>RecordReader</tt>
+     * @throws IOException if the file cannot be opened
+     * @since 2.1.1
+     * @see CsvRecordParserFactory#createReader(File, Charset)
+     */
+    @Override
+    public RecordReader createRecordReader(File file, Charset charset) throws IOException {
+        RecordParserFactory factory = getRecordParserFactory();
+        if (factory instanceof CsvRecordParserFactory) {
+            return ((CsvRecordParserFactory) factory).createReader(file, charset);
+        }
+        return super.createRecordReader(file, charset);
+    }
 }
@@ -15,6 +15,8 @@
  */
 package org.beanio.internal.parser.format.fixedlength;
 
+import java.util.List;
+
 import org.beanio.internal.parser.*;
 import org.beanio.internal.parser.format.FieldPadding;
 import org.beanio.internal.parser.format.flat.FlatFieldFormatSupport;
@@ -25,7 +27,7 @@ import org.beanio.internal.parser.format.flat.FlatFieldFormatSupport;
  * @author Kevin Seim
  * @since 2.0
  */
-public class FixedLengthFieldFormat extends FlatFieldFormatSupport implements FieldFormat {
+public class FixedLengthFieldFormat extends FlatFieldFormatSupport implements CharSequenceFieldFormat {
     
     private boolean keepPadding;
     private boolean lenientPadding;
@@ -65,12 +67,73 @@ public class FixedLengthFieldFormat extends FlatFieldFormatSupport implements Fi
         }
     }
     
+    /*
+     * (non-Javadoc)
+     * @see org.beanio.internal.parser.CharSequenceFieldFormat#extractRegion(org.beanio.internal.parser.UnmarshallingContext)
+     */
+    public boolean extractRegion(UnmarshallingContext context) {
+        if (keepPadding) {
+            return false;
+        }
+        
+        FixedLengthUnmarshallingContext ctx = ((FixedLengthUnmarshallingContext)context);
+        if (!ctx.locateFieldText(getPosition(), getSize(), getUntil())) {
+            return false;
+        }
+        
+        CharSequence text = ctx.getFieldRegionText();
+        int start = ctx.getFieldRegionStart();
+        int end = ctx.getFieldRegionEnd();
+        
+        FieldPadding padding = getPadding();
+        if (padding.getLength() >= 0 && end - start != padding.getLength() && !lenientPadding) {
+            return false;
+        }
+        
+        int n = padding.unpad(text, start, end);
+        if (n < 0) {
+            return false;
+        }
+        
+        ctx.setFieldText(getName(), text, start, end);
+        if (padding.getJustify() == FieldPadding.LEFT) {
+            ctx.setFieldRegion(text, start, n);
+        }
+        else {
+            ctx.setFieldRegion(text, n, end);
+        }
+        return true;
+    }
+    
+    @Override
+    @SuppressWarnings("unchecked")
+    public Object getExtractionKey() {
+        List<Object> key = (List<Object>) super.getExtractionKey();
+        key.add(keepPadding);
+        key.add(lenientPadding);
+        return key;
+    }
+    
     @Override
     public String extractFieldText(UnmarshallingContext context, boolean reporting) {
         FixedLengthUnmarshallingContext ctx = ((FixedLengthUnmarshallingContext)context);
         return ctx.getFieldText(getName(), getPosition(), getSize(), getUntil());
     }
 
+    /**
+     * Inserts field text into a record.  The text is padded directly into
+     * the record buffer when the record is written.
+     * @param context the {@link MarshallingContext} holding the record
+     * @param text the field text to insert into the record
+     */
+    @Override
+    public void insertField(MarshallingContext context, String text) {
+        boolean commit = text != null || !isLazy();
+        
+        FixedLengthMarshallingContext ctx = ((FixedLengthMarshallingContext)context);
+        ctx.setFieldText(getPosition(), text, getPadding(), commit);
+    }
+
     @Override
     public void insertFieldText(MarshallingContext context, String fieldText, boolean commit) {
         FixedLengthMarshallingContext ctx = ((FixedLengthMarshallingContext)context);
@@ -57,9 +57,22 @@ public class FixedLengthFieldPadding extends FieldPadding {
         
         return super.unpad(fieldText);
     }
+    
+    @Override
+    public int unpad(CharSequence text, int start, int end) {
+        if (isOptional() && isBlank(text, start, end)) {
+            return getJustify() == LEFT ? start : end;
+        }
+        
+        return super.unpad(text, start, end);
+    }
 
     private boolean isBlank(String s) {
-        for (int i=0,j=s.length(); i<j; i++) {
+        return isBlank(s, 0, s.length());
+    }
+    
+    private boolean isBlank(CharSequence s, int start, int end) {
+        for (int i=start; i<end; i++) {
             if (s.charAt(i) != ' ') {
                 return false;
             }
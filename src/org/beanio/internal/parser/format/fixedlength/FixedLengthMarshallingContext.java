@@ -15,13 +15,20 @@
  */
 package org.beanio.internal.parser.format.fixedlength;
 
-import java.util.*;
+import java.io.IOException;
 
 import org.beanio.internal.parser.MarshallingContext;
+import org.beanio.internal.parser.format.FieldPadding;
+import org.beanio.stream.RecordWriter;
+import org.beanio.stream.fixedlength.FixedLengthWriter;
 
 /**
  * A {@link MarshallingContext} for a fixed length formatted stream.
  * 
+ * <p>Field text is padded directly into a character buffer that is reused for
+ * each record.  If the configured {@link RecordWriter} is a {@link FixedLengthWriter},
+ * the buffer is passed to the writer without creating a <tt>String</tt>.
+ * 
  * @author Kevin Seim
  * @since 2.0
  */
@@ -32,8 +39,15 @@ public class FixedLengthMarshallingContext extends MarshallingContext {
     // the committed length of the record, aka the size of the record after
     // appending the last required field
     private int committed = 0;
-    // the list of entries for creating the record (may be unordered)
-    private ArrayList<Entry> entries = new ArrayList<Entry>();
+    // the entries for creating the record (may be unordered)
+    private int size = 0;
+    private int[] positions = new int[16];
+    private String[] texts = new String[16];
+    private FieldPadding[] paddings = new FieldPadding[16];
+    // the indexes of committed entries, sorted by position
+    private int[] sorted = new int[16];
+    // the record buffer
+    private char[] record = new char[256];
     
     /**
      * Constructs a new <tt>FixedLengthMarshallingContext</tt>.
@@ -44,8 +58,12 @@ public class FixedLengthMarshallingContext extends MarshallingContext {
     public void clear() {
         super.clear();
         
+        for (int i=0; i<size; i++) {
+            texts[i] = null;
+            paddings[i] = null;
+        }
         committed = 0;
-        entries.clear();
+        size = 0;
     }
     
     /**
@@ -57,88 +75,140 @@ public class FixedLengthMarshallingContext extends MarshallingContext {
      *   unless a subsequent field is appended to the record 
      */
     public void setFieldText(int position, String text, boolean commit) {
+        setFieldText(position, text, null, commit);
+    }
+    
+    /**
+     * Inserts field text into the record being marshalled.  The text is formatted
+     * using the given padding when the record is written.
+     * @param position the position of the field in the record
+     * @param text the unpadded field text to insert, may be null
+     * @param padding the field padding, or null if the text is inserted as is
+     * @param commit true to commit the current field length, or false
+     *   if the field is optional and should not extend the record length
+     *   unless a subsequent field is appended to the record 
+     * @since 2.1.1
+     */
+    public void setFieldText(int position, String text, FieldPadding padding, boolean commit) {
+        if (size == positions.length) {
+            int n = size * 2;
+            positions = copyOf(positions, n);
+            sorted = new int[n];
+            String[] t = new String[n];
+            System.arraycopy(texts, 0, t, 0, size);
+            texts = t;
+            FieldPadding[] p = new FieldPadding[n];
+            System.arraycopy(paddings, 0, p, 0, size);
+            paddings = p;
+        }
         
-        int index = getAdjustedFieldPosition(position);
-        
-        Entry entry = new Entry(index, text);
-        entries.add(entry);
+        positions[size] = getAdjustedFieldPosition(position);
+        texts[size] = text;
+        paddings[size] = padding;
+        ++size;
         
         if (commit) {
-            committed = entries.size();
+            committed = size;
         }
     }
     
     @Override
     public Object getRecordObject() {
-        
-        StringBuilder record = new StringBuilder();
-        
-        List<Entry> committedEntries;
-        if (committed < entries.size()) {
-            committedEntries = entries.subList(0, committed);
+        return new String(record, 0, format());
+    }
+    
+    @Override
+    protected void writeRecord(RecordWriter out) throws IOException {
+        if (out instanceof FixedLengthWriter) {
+            ((FixedLengthWriter) out).write(record, 0, format());
         }
         else {
-            committedEntries = entries;
+            super.writeRecord(out);
         }
+    }
+    
+    /**
+     * Formats the committed fields into the record buffer.
+     * @return the record length
+     */
+    private int format() {
+        int n = committed;
         
-        Collections.sort(committedEntries);
+        // sort committed entries by position, keeping entries with the same
+        // position in the order they were added
+        for (int i=0; i<n; i++) {
+            int order = order(positions[i]);
+            int j = i;
+            while (j > 0 && order(positions[sorted[j - 1]]) > order) {
+                sorted[j] = sorted[j - 1];
+                --j;
+            }
+            sorted[j] = i;
+        }
         
         // the current index to write out
-        int size = 0;
+        int length = 0;
         // the offset for positions relative to the end of the record
         int offset = -1;
         
-        for (Entry entry : committedEntries) {
+        for (int k=0; k<n; k++) {
+            int entry = sorted[k];
             
-            int index = entry.position;
+            int index = positions[entry];
             if (index < 0) {
                 // the offset is calculated the first time we encounter
                 // a position relative to the end of the record
                 if (offset == -1) {
-                    offset = size + Math.abs(index);
-                    index = size;
+                    offset = length + Math.abs(index);
+                    index = length;
                 }
                 else {
                     index += offset;
                 }
             }
             
-            if (index < size) {
-                record.replace(index, index + entry.text.length(), entry.text);
-                size = record.length();
+            String text = texts[entry];
+            FieldPadding padding = paddings[entry];
+            int textLength;
+            if (padding != null) {
+                textLength = padding.getPaddedLength(text);
             }
             else {
-                while (index > size) {
-                    record.append(filler);
-                    ++size;
-                }
-                
-                record.append(entry.text);
-                size += entry.text.length();
+                textLength = text == null ? 0 : text.length();
+            }
+            
+            ensureCapacity(index + textLength);
+            while (length < index) {
+                record[length++] = filler;
+            }
+            
+            if (padding != null) {
+                padding.pad(text, record, index);
+            }
+            else if (text != null) {
+                text.getChars(0, textLength, record, index);
             }
+            length = Math.max(length, index + textLength);
         }
         
-        return record.toString();
+        return length;
     }
     
-    private static class Entry implements Comparable<Entry> {
-        int position;
-        int order;
-        String text;
-        
-        public Entry(int position, String text) {
-            this.position = position;
-            this.order = position < 0 ? position + Integer.MAX_VALUE : position;
-            this.text = text;
-        }
-        
-        public int compareTo(Entry o) {
-            return new Integer(this.order).compareTo(o.order);
-        }
-        
-        @Override
-        public String toString() {
-            return order + ":" + text;
+    private void ensureCapacity(int capacity) {
+        if (capacity > record.length) {
+            char[] b = new char[Math.max(capacity, record.length * 2)];
+            System.arraycopy(record, 0, b, 0, record.length);
+            record = b;
         }
     }
+    
+    private static int order(int position) {
+        return position < 0 ? position + Integer.MAX_VALUE : position;
+    }
+    
+    private static int[] copyOf(int[] array, int length) {
+        int[] copy = new int[length];
+        System.arraycopy(array, 0, copy, 0, array.length);
+        return copy;
+    }
 }
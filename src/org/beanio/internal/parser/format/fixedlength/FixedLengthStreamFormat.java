@@ -16,6 +16,7 @@
 package org.beanio.internal.parser.format.fixedlength;
 
 import java.io.*;
+import java.nio.charset.Charset;
 
 import org.beanio.internal.parser.*;
 import org.beanio.stream.*;
@@ -50,6 +51,25 @@ public class FixedLengthStreamFormat extends StreamFormatSupport {
         return new FixedLengthMarshallingContext();
     }
 
+    /**
+     * Creates a new <tt>RecordReader</tt> for reading from the given file.  If the default
+     * record parser factory is used, the file may be memory mapped.
+     * @param file the file to read from
+     * @param charset the character set the file is encoded with
+     * @return a new <tt>RecordReader</tt>
+     * @throws IOException if the file cannot be opened
+     * @since 2.1.1
+     * @see FixedLengthRecordParserFactory#createReader(File, Charset)
+     */
+    @Override
+    public RecordReader createRecordReader(File file, Charset charset) throws IOException {
+        RecordParserFactory factory = getRecordParserFactory();
+        if (factory instanceof FixedLengthRecordParserFactory) {
+            return ((FixedLengthRecordParserFactory) factory).createReader(file, charset);
+        }
+        return super.createRecordReader(file, charset);
+    }
+
     /*
      * (non-Javadoc)
      * @see org.beanio.internal.parser.StreamFormatSupport#createDefaultReader(java.io.Reader)
@@ -25,7 +25,7 @@ import org.beanio.internal.parser.UnmarshallingContext;
  */
 public class FixedLengthUnmarshallingContext extends UnmarshallingContext {
 
-    private String record;
+    private CharSequence record;
     private int recordLength;
     
     /**
@@ -35,7 +35,7 @@ public class FixedLengthUnmarshallingContext extends UnmarshallingContext {
 
     @Override
     public void setRecordValue(Object value) {
-        this.record = (String) value;
+        this.record = (CharSequence) value;
         this.recordLength = value == null ? 0 : record.length();
     }
     
@@ -79,12 +79,50 @@ public class FixedLengthUnmarshallingContext extends UnmarshallingContext {
         
         String text;
         if (length < 0) {
-            text = record.substring(position, max);
+            text = record.subSequence(position, max).toString();
         }
         else {
-            text = record.substring(position, Math.min(max, position + length));
+            text = record.subSequence(position, Math.min(max, position + length)).toString();
         }
         setFieldText(name, text);
         return text;
     }
+    
+    /**
+     * Locates the field text at the given position in the record, without creating
+     * a <tt>String</tt>.  If found, the field text region is set using 
+     * {@link #setFieldRegion(CharSequence, int, int)}.  Unlike {@link #getFieldText(String, int, int, int)},
+     * the field text is not recorded for error reporting.
+     * @param position the position of the field in the record
+     * @param length the field length, or -1 if the field is at the end of the
+     *   record and unbounded
+     * @param until the maximum position of the field as an offset
+     *   of the field count
+     * @return true if found, or false if the record length is less than
+     *   the position of the field
+     * @since 2.1.1
+     * @see #getFieldText(String, int, int, int)
+     */
+    public boolean locateFieldText(int position, int length, int until) {
+        int max = recordLength + until;
+        
+        if (position < 0) {
+            position = recordLength + position;
+            
+            position = getAdjustedFieldPosition(position);
+            if (position < 0) {
+                return false;
+            }
+        }
+        else {
+            position = getAdjustedFieldPosition(position);
+            if (position >= max) {
+                return false;
+            }
+        }
+        
+        int end = length < 0 ? max : Math.min(max, position + length);
+        setFieldRegion(record, position, end);
+        return true;
+    }
 }
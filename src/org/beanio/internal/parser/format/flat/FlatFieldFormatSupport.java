@@ -15,6 +15,8 @@
  */
 package org.beanio.internal.parser.format.flat;
 
+import java.util.*;
+
 import org.beanio.internal.parser.*;
 import org.beanio.internal.parser.format.FieldPadding;
 import org.beanio.internal.util.DebugUtil;
@@ -25,7 +27,7 @@ import org.beanio.internal.util.DebugUtil;
  * @author Kevin Seim
  * @since 2.0
  */
-public abstract class FlatFieldFormatSupport implements FlatFieldFormat {
+public abstract class FlatFieldFormatSupport implements FlatFieldFormat, PositionalFieldFormat {
 
     private String name;
     // measured in fields / characters from the beginning of the record (starting at 0)
@@ -96,6 +98,27 @@ public abstract class FlatFieldFormatSupport implements FlatFieldFormat {
     
     protected abstract String extractFieldText(UnmarshallingContext context, boolean reporting);
     
+    /*
+     * (non-Javadoc)
+     * @see org.beanio.internal.parser.PositionalFieldFormat#getExtractionKey()
+     */
+    public Object getExtractionKey() {
+        List<Object> key = new ArrayList<Object>();
+        key.add(getClass());
+        key.add(position);
+        key.add(until);
+        key.add(getSize());
+        if (padding != null) {
+            key.add(padding.getClass());
+            key.add(padding.getFiller());
+            key.add(padding.getJustify());
+            key.add(padding.getLength());
+            key.add(padding.isOptional());
+            key.add(padding.getPropertyType());
+        }
+        return key;
+    }
+    
     /**
      * Returns the field name.
      * @return the field name
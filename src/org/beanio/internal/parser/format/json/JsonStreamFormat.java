@@ -15,7 +15,11 @@
  */
 package org.beanio.internal.parser.format.json;
 
+import java.io.Reader;
+
 import org.beanio.internal.parser.*;
+import org.beanio.stream.RecordReader;
+import org.beanio.stream.json.*;
 
 /**
  * A {@link StreamFormatSupport} implementation for the JSON stream format.
@@ -26,6 +30,7 @@ import org.beanio.internal.parser.*;
 public class JsonStreamFormat extends StreamFormatSupport implements StreamFormat {
 
     private int maxDepth;
+    private JsonProjection projection;
     
     /**
      * Constructs a new <tt>JsonStreamFormat</tt>.
@@ -48,6 +53,19 @@ public class JsonStreamFormat extends StreamFormatSupport implements StreamForma
         return new JsonMarshallingContext(maxDepth);
     }
 
+    /*
+     * (non-Javadoc)
+     * @see org.beanio.internal.parser.StreamFormatSupport#createRecordReader(java.io.Reader)
+     */
+    @Override
+    public RecordReader createRecordReader(Reader in) {
+        RecordReader reader = super.createRecordReader(in);
+        if (projection != null && reader instanceof JsonReader) {
+            ((JsonReader) reader).setProjection(projection);
+        }
+        return reader;
+    }
+    
     /**
      * Returns the maximum depth of the all {@link JsonWrapper} components in the parser tree layout. 
      * @return the maximum depth
@@ -63,4 +81,23 @@ public class JsonStreamFormat extends StreamFormatSupport implements StreamForma
     public void setMaxDepth(int maxDepth) {
         this.maxDepth = maxDepth;
     }
+
+    /**
+     * Returns the projection of JSON fields referenced by the stream layout.
+     * @return the {@link JsonProjection}, or <tt>null</tt> if all fields are read
+     * @since 2.1.1
+     */
+    public JsonProjection getProjection() {
+        return projection;
+    }
+
+    /**
+     * Sets the projection of JSON fields referenced by the stream layout, which
+     * is used to skip unmapped fields when reading a JSON stream.
+     * @param projection the {@link JsonProjection}, or <tt>null</tt> to read all fields
+     * @since 2.1.1
+     */
+    public void setProjection(JsonProjection projection) {
+        this.projection = projection;
+    }
 }
@@ -15,9 +15,11 @@
  */
 package org.beanio.internal.parser.format.xml;
 
+import java.io.Reader;
+
 import org.beanio.internal.parser.*;
 import org.beanio.internal.util.DomUtil;
-import org.beanio.stream.RecordParserFactory;
+import org.beanio.stream.*;
 import org.beanio.stream.xml.*;
 import org.w3c.dom.Document;
 
@@ -37,6 +39,8 @@ public class XmlStreamFormat extends StreamFormatSupport {
     private Selector layout;
     // the maximum depth of a group component in the parser tree 
     private int groupDepth;
+    // the projection of elements referenced by the layout
+    private XmlProjection projection;
     
     /**
      * Constructs a new <tt>XmlStreamFormat</tt>.
@@ -104,4 +108,36 @@ public class XmlStreamFormat extends StreamFormatSupport {
     public void setGroupDepth(int groupDepth) {
         this.groupDepth = groupDepth;
     }
+    
+    /*
+     * (non-Javadoc)
+     * @see org.beanio.internal.parser.StreamFormatSupport#createRecordReader(java.io.Reader)
+     */
+    @Override
+    public RecordReader createRecordReader(Reader in) {
+        RecordReader reader = super.createRecordReader(in);
+        if (projection != null && reader instanceof XmlReader) {
+            ((XmlReader) reader).setProjection(projection);
+        }
+        return reader;
+    }
+
+    /**
+     * Returns the projection of XML elements referenced by the stream layout.
+     * @return the {@link XmlProjection}, or <tt>null</tt> if all elements are read
+     * @since 2.1.1
+     */
+    public XmlProjection getProjection() {
+        return projection;
+    }
+
+    /**
+     * Sets the projection of XML elements referenced by the stream layout, which
+     * is used to skip unmapped elements when reading a XML stream.
+     * @param projection the {@link XmlProjection}, or <tt>null</tt> to read all elements
+     * @since 2.1.1
+     */
+    public void setProjection(XmlProjection projection) {
+        this.projection = projection;
+    }
 }
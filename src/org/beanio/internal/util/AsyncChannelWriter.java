@@ -0,0 +1,393 @@
+/*
+ * Copyright 2013 Kevin Seim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.beanio.internal.util;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A <tt>Writer</tt> that encodes and writes characters to a channel using a
+ * background thread, so that formatting records and writing them overlap.
+ * <p>
+ * Characters are copied into one of a fixed number of buffers.  When a buffer is
+ * full, it is passed to the background thread, which encodes it, writes it to the
+ * channel and returns it for reuse.  If every buffer is waiting to be written, the
+ * writing thread blocks until one is returned.  Buffers are written in the order
+ * they are filled.
+ * <p>
+ * An exception or error thrown by the background thread is wrapped in an
+ * <tt>IOException</tt> and thrown from the next call to <tt>write</tt>, <tt>flush()</tt>
+ * or <tt>close()</tt>, and any remaining output is discarded.  <tt>flush()</tt> waits until all buffered characters have been written
+ * to the channel.  <tt>close()</tt> also stops the background thread and closes the
+ * channel.  Like other BeanIO writers, this class is not thread safe.
+ *
+ * @author Kevin Seim
+ * @since 2.1.1
+ */
+public class AsyncChannelWriter extends Writer {
+
+    /** The default number of characters held by each buffer */
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+    /** The default number of buffers */
+    public static final int DEFAULT_BUFFER_COUNT = 4;
+
+    // marks the end of the output
+    private static final Buffer END = new Buffer(0);
+    private static final AtomicInteger threadCount = new AtomicInteger();
+
+    private WritableByteChannel channel;
+    private CharsetEncoder encoder;
+    private int bufferCount;
+    private BlockingQueue<Buffer> free;
+    private BlockingQueue<Buffer> filled;
+    private Thread thread;
+    private volatile Throwable error;
+
+    private Buffer current;
+    private boolean closed;
+
+    /**
+     * Constructs a new <tt>AsyncChannelWriter</tt> using the default buffer size
+     * and number of buffers.
+     * @param channel the channel to write to
+     * @param charset the character set to encode characters with
+     */
+    public AsyncChannelWriter(WritableByteChannel channel, Charset charset) {
+        this(channel, charset, DEFAULT_BUFFER_SIZE, DEFAULT_BUFFER_COUNT);
+    }
+
+    /**
+     * Constructs a new <tt>AsyncChannelWriter</tt>.
+     * @param channel the channel to write to
+     * @param charset the character set to encode characters with
+     * @param bufferSize the number of characters held by each buffer
+     * @param bufferCount the number of buffers, which must be at least 2
+     */
+    public AsyncChannelWriter(WritableByteChannel channel, Charset charset, int bufferSize, int bufferCount) {
+        if (channel == null) {
+            throw new NullPointerException("null channel");
+        }
+        if (bufferSize < 2) {
+            throw new IllegalArgumentException("Buffer size must be at least 2");
+        }
+        if (bufferCount < 2) {
+            throw new IllegalArgumentException("Buffer count must be at least 2");
+        }
+
+        this.channel = channel;
+        this.encoder = charset.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.bufferCount = bufferCount;
+
+        // one extra slot so that END can always be queued
+        this.free = new ArrayBlockingQueue<Buffer>(bufferCount);
+        this.filled = new ArrayBlockingQueue<Buffer>(bufferCount + 1);
+        for (int i=1; i<bufferCount; i++) {
+            free.add(new Buffer(bufferSize));
+        }
+        this.current = new Buffer(bufferSize);
+
+        final int byteCount = Math.max(64, (int) Math.ceil(bufferSize * encoder.maxBytesPerChar()));
+        thread = new Thread(new Runnable() {
+            public void run() {
+                writeBuffers(ByteBuffer.allocate(byteCount));
+            }
+        }, "beanio-async-writer-" + threadCount.incrementAndGet());
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see java.io.Writer#write(int)
+     */
+    @Override
+    public void write(int c) throws IOException {
+        ensureOpen();
+        current.chars[current.length++] = (char) c;
+        if (current.length == current.chars.length) {
+            submit(false);
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see java.io.Writer#write(char[], int, int)
+     */
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException {
+        if (off < 0 || len < 0 || off + len > cbuf.length) {
+            throw new IndexOutOfBoundsException();
+        }
+        ensureOpen();
+        while (len > 0) {
+            int n = Math.min(len, current.chars.length - current.length);
+            System.arraycopy(cbuf, off, current.chars, current.length, n);
+            current.length += n;
+            off += n;
+            len -= n;
+            if (current.length == current.chars.length) {
+                submit(false);
+            }
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see java.io.Writer#write(java.lang.String, int, int)
+     */
+    @Override
+    public void write(String str, int off, int len) throws IOException {
+        if (off < 0 || len < 0 || off + len > str.length()) {
+            throw new IndexOutOfBoundsException();
+        }
+        ensureOpen();
+        while (len > 0) {
+            int n = Math.min(len, current.chars.length - current.length);
+            str.getChars(off, off + n, current.chars, current.length);
+            current.length += n;
+            off += n;
+            len -= n;
+            if (current.length == current.chars.length) {
+                submit(false);
+            }
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see java.io.Writer#flush()
+     */
+    @Override
+    public void flush() throws IOException {
+        ensureOpen();
+        submit(false);
+        drain();
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see java.io.Writer#close()
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        try {
+            submit(true);
+            drain();
+        }
+        finally {
+            filled.offer(END);
+            try {
+                thread.join();
+            }
+            catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            finally {
+                channel.close();
+            }
+        }
+        checkError();
+    }
+
+    /**
+     * Passes the current buffer to the background thread, if not empty, and takes
+     * the next free buffer.  Unless this is the last buffer, a trailing high surrogate
+     * is moved to the next buffer so that a surrogate pair is encoded together.
+     * @param last true if no more characters will be written
+     * @throws IOException if the background thread failed or the thread is interrupted
+     */
+    private void submit(boolean last) throws IOException {
+        checkError();
+
+        Buffer buffer = current;
+        boolean hold = !last && buffer.length > 0 &&
+            Character.isHighSurrogate(buffer.chars[buffer.length - 1]);
+        if (buffer.length == (hold ? 1 : 0)) {
+            return;
+        }
+        char held = 0;
+        if (hold) {
+            held = buffer.chars[--buffer.length];
+        }
+
+        try {
+            filled.put(buffer);
+            current = free.take();
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        }
+
+        current.length = 0;
+        if (hold) {
+            current.chars[current.length++] = held;
+        }
+    }
+
+    /**
+     * Waits until every submitted buffer has been written.
+     * @throws IOException if the background thread failed or the thread is interrupted
+     */
+    private void drain() throws IOException {
+        Buffer[] buffers = new Buffer[bufferCount - 1];
+        try {
+            for (int i=0; i<buffers.length; i++) {
+                buffers[i] = free.take();
+            }
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        }
+        finally {
+            for (Buffer b : buffers) {
+                if (b != null) {
+                    free.add(b);
+                }
+            }
+        }
+        checkError();
+    }
+
+    /**
+     * Encodes and writes filled buffers until the end of the output is reached.
+     * Runs on the background thread.
+     * @param bytes the byte buffer to encode into
+     */
+    private void writeBuffers(ByteBuffer bytes) {
+        // characters the encoder did not consume from the previous buffer, such as
+        // a trailing high surrogate
+        CharBuffer pending = null;
+        try {
+            while (true) {
+                Buffer buffer = filled.take();
+                if (error == null) {
+                    try {
+                        CharBuffer in = CharBuffer.wrap(buffer.chars, 0, buffer.length);
+                        if (pending != null) {
+                            CharBuffer cb = CharBuffer.allocate(pending.remaining() + buffer.length);
+                            cb.put(pending).put(in);
+                            cb.flip();
+                            in = cb;
+                            pending = null;
+                        }
+                        
+                        encode(in, bytes, buffer == END);
+                        
+                        // copy the remaining characters before the buffer is reused
+                        if (in.hasRemaining()) {
+                            pending = CharBuffer.allocate(in.remaining());
+                            pending.put(in);
+                            pending.flip();
+                        }
+                    }
+                    catch (Throwable ex) {
+                        // buffers are still returned so that the writing thread
+                        // is not blocked and the error is reported to it
+                        error = ex;
+                    }
+                }
+                if (buffer == END) {
+                    return;
+                }
+                free.put(buffer);
+            }
+        }
+        catch (InterruptedException ex) {
+            // the writer was abandoned
+        }
+    }
+
+    /**
+     * Encodes characters and writes them to the channel.
+     * @param in the characters to encode
+     * @param bytes the byte buffer to encode into
+     * @param endOfInput true if there are no more characters to encode
+     * @throws IOException if an I/O error occurs
+     */
+    private void encode(CharBuffer in, ByteBuffer bytes, boolean endOfInput) throws IOException {
+        while (true) {
+            CoderResult result = encoder.encode(in, bytes, endOfInput);
+            if (result.isOverflow()) {
+                writeBytes(bytes);
+            }
+            else if (result.isUnderflow()) {
+                break;
+            }
+            else {
+                result.throwException();
+            }
+        }
+        if (endOfInput) {
+            while (encoder.flush(bytes).isOverflow()) {
+                writeBytes(bytes);
+            }
+        }
+        writeBytes(bytes);
+    }
+
+    private void writeBytes(ByteBuffer bytes) throws IOException {
+        bytes.flip();
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+        bytes.clear();
+    }
+
+    /**
+     * Throws an exception if the background thread failed.
+     * @throws IOException if the background thread failed
+     */
+    private void checkError() throws IOException {
+        Throwable ex = error;
+        if (ex != null) {
+            IOException e = new IOException("Failed to write to channel: " + ex.getMessage());
+            e.initCause(ex);
+            throw e;
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+        checkError();
+    }
+
+    /**
+     * A character buffer.
+     */
+    private static class Buffer {
+        private char[] chars;
+        private int length;
+
+        public Buffer(int size) {
+            this.chars = new char[size];
+        }
+    }
+}
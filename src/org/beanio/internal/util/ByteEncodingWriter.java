@@ -0,0 +1,302 @@
+/*
+ * Copyright 2013 Kevin Seim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.beanio.internal.util;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+
+/**
+ * A <tt>Writer</tt> that encodes characters directly into a reusable byte buffer
+ * for writing to an output stream or channel, in place of an <tt>OutputStreamWriter</tt>.
+ * Only UTF-8, US-ASCII and ISO-8859-1 are supported.
+ * <p>
+ * Runs of ASCII characters are copied to the byte buffer by a simple loop, and other
+ * characters are encoded one at a time.  Like an <tt>OutputStreamWriter</tt>, a
+ * character that cannot be encoded, or an unpaired surrogate, is replaced with
+ * <tt>'?'</tt>.  Unlike an <tt>OutputStreamWriter</tt>, this class is not thread safe.
+ *
+ * @author Kevin Seim
+ * @since 2.1.1
+ */
+public class ByteEncodingWriter extends Writer {
+
+    /** The default byte buffer size */
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    private static final byte REPLACEMENT = '?';
+
+    private OutputStream out;
+    private WritableByteChannel channel;
+    private ByteBuffer buffer;
+    // the largest character encoded as a single byte, or 0 for UTF-8
+    private char maxChar;
+    private byte[] buf;
+    private int pos;
+    private char[] chars;
+    // an unpaired high surrogate from a previous write
+    private char high;
+    private boolean closed;
+
+    /**
+     * Constructs a new <tt>ByteEncodingWriter</tt> for writing to an output stream.
+     * @param out the output stream to write to
+     * @param charset the character set to encode characters with
+     * @throws IllegalArgumentException if the character set is not supported
+     */
+    public ByteEncodingWriter(OutputStream out, Charset charset) throws IllegalArgumentException {
+        this(charset);
+        if (out == null) {
+            throw new NullPointerException("null output stream");
+        }
+        this.out = out;
+    }
+
+    /**
+     * Constructs a new <tt>ByteEncodingWriter</tt> for writing to a channel.
+     * @param channel the channel to write to
+     * @param charset the character set to encode characters with
+     * @throws IllegalArgumentException if the character set is not supported
+     */
+    public ByteEncodingWriter(WritableByteChannel channel, Charset charset) throws IllegalArgumentException {
+        this(charset);
+        if (channel == null) {
+            throw new NullPointerException("null channel");
+        }
+        this.channel = channel;
+        this.buffer = ByteBuffer.wrap(buf);
+    }
+
+    private ByteEncodingWriter(Charset charset) {
+        if (!isSupported(charset)) {
+            throw new IllegalArgumentException("Character set '" + charset.name() + "' is not supported");
+        }
+        String name = charset.name();
+        if ("US-ASCII".equals(name)) {
+            maxChar = 0x7F;
+        }
+        else if ("ISO-8859-1".equals(name)) {
+            maxChar = 0xFF;
+        }
+        buf = new byte[DEFAULT_BUFFER_SIZE];
+    }
+
+    /**
+     * Returns whether a character set is supported by this writer.
+     * @param charset the character set
+     * @return <tt>true</tt> if the character set is UTF-8, US-ASCII or ISO-8859-1
+     */
+    public static boolean isSupported(Charset charset) {
+        String name = charset.name();
+        return "UTF-8".equals(name) || "US-ASCII".equals(name) || "ISO-8859-1".equals(name);
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see java.io.Writer#write(int)
+     */
+    @Override
+    public void write(int c) throws IOException {
+        ensureOpen();
+        encode((char) c);
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see java.io.Writer#write(char[], int, int)
+     */
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException {
+        if (off < 0 || len < 0 || off + len > cbuf.length) {
+            throw new IndexOutOfBoundsException();
+        }
+        ensureOpen();
+
+        int end = off + len;
+        while (off < end) {
+            if (high != 0) {
+                encode(cbuf[off++]);
+                continue;
+            }
+
+            // copy a run of ASCII characters
+            int stop = off + Math.min(end - off, buf.length - pos);
+            int p = pos;
+            while (off < stop) {
+                char c = cbuf[off];
+                if (c >= 0x80) {
+                    break;
+                }
+                buf[p++] = (byte) c;
+                ++off;
+            }
+            pos = p;
+
+            if (off < stop) {
+                encode(cbuf[off++]);
+            }
+            else if (pos == buf.length) {
+                flushBuffer();
+            }
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see java.io.Writer#write(java.lang.String, int, int)
+     */
+    @Override
+    public void write(String str, int off, int len) throws IOException {
+        if (off < 0 || len < 0 || off + len > str.length()) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (chars == null) {
+            chars = new char[256];
+        }
+        while (len > 0) {
+            int n = Math.min(len, chars.length);
+            str.getChars(off, off + n, chars, 0);
+            write(chars, 0, n);
+            off += n;
+            len -= n;
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see java.io.Writer#flush()
+     */
+    @Override
+    public void flush() throws IOException {
+        ensureOpen();
+        flushBuffer();
+        if (out != null) {
+            out.flush();
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see java.io.Writer#close()
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        try {
+            if (high != 0) {
+                high = 0;
+                ensureCapacity(1);
+                buf[pos++] = REPLACEMENT;
+            }
+            flushBuffer();
+        }
+        finally {
+            closed = true;
+            if (out != null) {
+                out.close();
+            }
+            else {
+                channel.close();
+            }
+        }
+    }
+
+    /**
+     * Encodes a single character.
+     * @param c the character to encode
+     * @throws IOException if an I/O error occurs
+     */
+    private void encode(char c) throws IOException {
+        ensureCapacity(4);
+
+        if (high != 0) {
+            char h = high;
+            high = 0;
+            if (Character.isLowSurrogate(c)) {
+                if (maxChar == 0) {
+                    int cp = Character.toCodePoint(h, c);
+                    buf[pos++] = (byte) (0xF0 | (cp >> 18));
+                    buf[pos++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                    buf[pos++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                    buf[pos++] = (byte) (0x80 | (cp & 0x3F));
+                }
+                else {
+                    buf[pos++] = REPLACEMENT;
+                }
+                return;
+            }
+            buf[pos++] = REPLACEMENT;
+        }
+
+        if (c < 0x80) {
+            buf[pos++] = (byte) c;
+        }
+        else if (Character.isHighSurrogate(c)) {
+            high = c;
+        }
+        else if (Character.isLowSurrogate(c)) {
+            buf[pos++] = REPLACEMENT;
+        }
+        else if (maxChar != 0) {
+            buf[pos++] = c <= maxChar ? (byte) c : REPLACEMENT;
+        }
+        else if (c < 0x800) {
+            buf[pos++] = (byte) (0xC0 | (c >> 6));
+            buf[pos++] = (byte) (0x80 | (c & 0x3F));
+        }
+        else {
+            buf[pos++] = (byte) (0xE0 | (c >> 12));
+            buf[pos++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+            buf[pos++] = (byte) (0x80 | (c & 0x3F));
+        }
+    }
+
+    private void ensureCapacity(int n) throws IOException {
+        if (buf.length - pos < n) {
+            flushBuffer();
+        }
+    }
+
+    /**
+     * Writes the byte buffer to the output stream or channel.
+     * @throws IOException if an I/O error occurs
+     */
+    private void flushBuffer() throws IOException {
+        if (pos == 0) {
+            return;
+        }
+        if (out != null) {
+            out.write(buf, 0, pos);
+        }
+        else {
+            buffer.clear();
+            buffer.limit(pos);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        pos = 0;
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+    }
+}
@@ -10,9 +10,10 @@ import org.beanio.types.*;
  * @since 2.0.1
  */
 @SuppressWarnings({"unchecked", "rawtypes"})
-public class EnumTypeHandler implements TypeHandler {
+public class EnumTypeHandler implements CharSequenceTypeHandler {
 
     private Class<Enum> type;
+    private Enum[] values;
     
     /**
      * Constructs a new <tt>EnumTypeHandler</tt>.
@@ -20,6 +21,7 @@ public class EnumTypeHandler implements TypeHandler {
      */
     public EnumTypeHandler(Class<Enum> type) {
         this.type = type;
+        this.values = type.getEnumConstants();
     }
     
     /*
@@ -38,6 +40,22 @@ public class EnumTypeHandler implements TypeHandler {
                 " enum value '" + text + "'", ex);
         }
     }
+    
+    /*
+     * (non-Javadoc)
+     * @see org.beanio.types.CharSequenceTypeHandler#parse(java.lang.CharSequence, int, int)
+     */
+    public Object parse(CharSequence text, int start, int end) throws TypeConversionException {
+        if (start == end) {
+            return null;
+        }
+        for (Enum value : values) {
+            if (StringUtil.regionEquals(value.name(), text, start, end, false)) {
+                return value;
+            }
+        }
+        return parse(text.subSequence(start, end).toString());
+    }
 
     /*
      * (non-Javadoc)
@@ -0,0 +1,388 @@
+/*
+ * Copyright 2013 Kevin Seim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.beanio.internal.util;
+
+import java.text.DecimalFormatSymbols;
+import java.util.*;
+
+/**
+ * An immutable, thread safe date format for <tt>SimpleDateFormat</tt> patterns made up
+ * of fixed width numeric fields and literals, such as <tt>yyyyMMdd</tt> or
+ * <tt>yyyy-MM-dd'T'HH:mm:ss</tt>.  Supported fields are <tt>yyyy</tt>, <tt>MM</tt>,
+ * <tt>dd</tt>, <tt>HH</tt>, <tt>mm</tt>, <tt>ss</tt> and <tt>SSS</tt>.
+ * <p>
+ * Dates are parsed and formatted by hand, without a <tt>Calendar</tt>.  A result is only
+ * returned when it is certain to match a non-lenient <tt>SimpleDateFormat</tt> using the
+ * same pattern, locale and time zone.  Otherwise, including for text that does not match
+ * the fixed width layout, dates near a time zone offset transition, or years before
+ * 1583, <tt>null</tt> is returned and the caller must fall back to a <tt>SimpleDateFormat</tt>.
+ *
+ * @author Kevin Seim
+ * @since 2.1.1
+ */
+public final class FixedDateFormat {
+
+    private static final int YEAR = 0;
+    private static final int MONTH = 1;
+    private static final int DAY = 2;
+    private static final int HOUR = 3;
+    private static final int MINUTE = 4;
+    private static final int SECOND = 5;
+    private static final int MILLISECOND = 6;
+
+    private static final String[] FIELD_PATTERNS = { "yyyy", "MM", "dd", "HH", "mm", "ss", "SSS" };
+
+    private static final long DAY_MILLIS = 24 * 60 * 60 * 1000L;
+    // the earliest and latest supported dates, 1583-01-01 and 9999-12-31 in UTC
+    private static final long MIN_MILLIS = -12212553600000L;
+    private static final long MAX_MILLIS = 253402300799999L;
+
+    // parsed and formatted dates must not be within this many milliseconds of a
+    // time zone offset transition (the largest known backward shift is one day)
+    private static final long TRANSITION_WINDOW = DAY_MILLIS;
+
+    private final String pattern;
+    private final Locale locale;
+    private final TimeZone timeZone;
+    private final boolean lenient;
+    private final boolean supported;
+
+    private final TimeZone zone;
+    private final char[] template;
+    private final int[] fields;
+    private final int[] offsets;
+
+    /**
+     * Constructs a new <tt>FixedDateFormat</tt>.
+     * @param pattern the <tt>SimpleDateFormat</tt> pattern
+     * @param locale the locale
+     * @param timeZone the time zone, or <tt>null</tt> to use the default time zone
+     * @param lenient whether the date format is lenient
+     * @param supported whether the pattern and locale may be supported
+     */
+    private FixedDateFormat(String pattern, Locale locale, TimeZone timeZone, boolean lenient, boolean supported) {
+        this.pattern = pattern;
+        this.locale = locale;
+        this.timeZone = timeZone;
+        this.lenient = lenient;
+        this.zone = timeZone != null ? timeZone : TimeZone.getDefault();
+
+        StringBuilder template = new StringBuilder();
+        List<Integer> fields = new ArrayList<Integer>();
+        List<Integer> offsets = new ArrayList<Integer>();
+        if (supported) {
+            supported = parsePattern(pattern, template, fields, offsets);
+        }
+
+        this.supported = supported;
+        this.template = template.toString().toCharArray();
+        this.fields = toArray(fields);
+        this.offsets = toArray(offsets);
+    }
+
+    /**
+     * Creates a new <tt>FixedDateFormat</tt>.
+     * @param pattern the <tt>SimpleDateFormat</tt> pattern, may be <tt>null</tt>
+     * @param locale the locale
+     * @param timeZone the time zone, or <tt>null</tt> to use the default time zone
+     * @param lenient whether the date format is lenient
+     * @return the new <tt>FixedDateFormat</tt>, which may not be supported
+     * @see #isSupported()
+     */
+    public static FixedDateFormat compile(String pattern, Locale locale, TimeZone timeZone, boolean lenient) {
+        // a SimpleDateFormat uses the calendar and digits of its locale
+        boolean supported = pattern != null && !lenient &&
+            Calendar.getInstance(locale) instanceof GregorianCalendar &&
+            new DecimalFormatSymbols(locale).getZeroDigit() == '0';
+        return new FixedDateFormat(pattern, locale, timeZone, lenient, supported);
+    }
+
+    /**
+     * Returns whether the pattern can be parsed and formatted by this class.
+     * @return <tt>true</tt> if supported
+     */
+    public boolean isSupported() {
+        return supported;
+    }
+
+    /**
+     * Returns whether this date format was compiled using the given settings.
+     * @param pattern the <tt>SimpleDateFormat</tt> pattern
+     * @param locale the locale
+     * @param timeZone the time zone, or <tt>null</tt> for the default time zone
+     * @param lenient whether the date format is lenient
+     * @return <tt>true</tt> if compiled using the same settings
+     */
+    public boolean isFor(String pattern, Locale locale, TimeZone timeZone, boolean lenient) {
+        return (this.pattern == null ? pattern == null : this.pattern.equals(pattern)) &&
+            this.locale.equals(locale) &&
+            this.timeZone == timeZone &&
+            this.lenient == lenient;
+    }
+
+    /**
+     * Parses text into a date.
+     * @param text the text to parse
+     * @return the parsed date, or <tt>null</tt> if the text must be parsed
+     *   using a <tt>SimpleDateFormat</tt>
+     */
+    public Date parse(String text) {
+        if (!supported || text.length() != template.length) {
+            return null;
+        }
+
+        int year = 1970;
+        int month = 1;
+        int day = 1;
+        int hour = 0;
+        int minute = 0;
+        int second = 0;
+        int millis = 0;
+
+        int pos = 0;
+        for (int i=0; i<fields.length; i++) {
+            int offset = offsets[i];
+
+            // validate literals preceding the field
+            for (; pos < offset; pos++) {
+                if (text.charAt(pos) != template[pos]) {
+                    return null;
+                }
+            }
+
+            int field = fields[i];
+            int end = offset + FIELD_PATTERNS[field].length();
+            int value = 0;
+            for (; pos < end; pos++) {
+                int digit = text.charAt(pos) - '0';
+                if (digit < 0 || digit > 9) {
+                    return null;
+                }
+                value = value * 10 + digit;
+            }
+
+            switch (field) {
+            case YEAR: year = value; break;
+            case MONTH: month = value; break;
+            case DAY: day = value; break;
+            case HOUR: hour = value; break;
+            case MINUTE: minute = value; break;
+            case SECOND: second = value; break;
+            case MILLISECOND: millis = value; break;
+            }
+        }
+        for (; pos < template.length; pos++) {
+            if (text.charAt(pos) != template[pos]) {
+                return null;
+            }
+        }
+
+        if (year < 1583 || month < 1 || month > 12 || day < 1 || day > daysInMonth(year, month) ||
+            hour > 23 || minute > 59 || second > 59) {
+            return null;
+        }
+
+        long local = toEpochDay(year, month, day) * DAY_MILLIS +
+            ((hour * 60 + minute) * 60 + second) * 1000L + millis;
+
+        // find the offset for the local time, and make sure the local time is
+        // not skipped or repeated by a nearby offset transition
+        int offset = zone.getOffset(local - zone.getRawOffset());
+        long time = local - offset;
+        if (zone.getOffset(time) != offset || !isStable(time, offset)) {
+            return null;
+        }
+        return new Date(time);
+    }
+
+    /**
+     * Formats a date.
+     * @param date the date to format
+     * @return the formatted text, or <tt>null</tt> if the date must be formatted
+     *   using a <tt>SimpleDateFormat</tt>
+     */
+    public String format(Date date) {
+        if (!supported) {
+            return null;
+        }
+
+        long time = date.getTime();
+        if (time < MIN_MILLIS + DAY_MILLIS || time > MAX_MILLIS - DAY_MILLIS) {
+            return null;
+        }
+
+        long local = time + zone.getOffset(time);
+        long epochDay = floorDiv(local, DAY_MILLIS);
+        int millisOfDay = (int) (local - epochDay * DAY_MILLIS);
+
+        // convert the epoch day to a civil date
+        long z = epochDay + 719468;
+        long era = floorDiv(z, 146097);
+        int doe = (int) (z - era * 146097);
+        int yoe = (doe - doe / 1460 + doe / 36524 - doe / 146096) / 365;
+        int doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+        int mp = (5 * doy + 2) / 153;
+        int day = doy - (153 * mp + 2) / 5 + 1;
+        int month = mp < 10 ? mp + 3 : mp - 9;
+        int year = (int) (yoe + era * 400) + (month <= 2 ? 1 : 0);
+        if (year < 1583) {
+            return null;
+        }
+
+        char[] text = template.clone();
+        for (int i=0; i<fields.length; i++) {
+            int field = fields[i];
+            int value;
+            switch (field) {
+            case YEAR: value = year; break;
+            case MONTH: value = month; break;
+            case DAY: value = day; break;
+            case HOUR: value = millisOfDay / 3600000; break;
+            case MINUTE: value = millisOfDay / 60000 % 60; break;
+            case SECOND: value = millisOfDay / 1000 % 60; break;
+            default: value = millisOfDay % 1000; break;
+            }
+            for (int pos = offsets[i] + FIELD_PATTERNS[field].length() - 1; pos >= offsets[i]; pos--) {
+                text[pos] = (char) ('0' + value % 10);
+                value /= 10;
+            }
+        }
+        return new String(text);
+    }
+
+    /*
+     * Returns whether there is no time zone offset transition near the given time.
+     */
+    private boolean isStable(long time, int offset) {
+        return zone.getOffset(time - TRANSITION_WINDOW) == offset &&
+            zone.getOffset(time + TRANSITION_WINDOW) == offset;
+    }
+
+    /*
+     * Parses the pattern into a template and the fields it contains, returning false
+     * if the pattern is not supported.
+     */
+    private static boolean parsePattern(String pattern, StringBuilder template, List<Integer> fields, List<Integer> offsets) {
+        boolean[] found = new boolean[FIELD_PATTERNS.length];
+        int i = 0;
+        int n = pattern.length();
+        while (i < n) {
+            char c = pattern.charAt(i);
+            if (c == '\'') {
+                // quoted literal, where '' is a single quote
+                int end = pattern.indexOf('\'', i + 1);
+                if (end < 0) {
+                    return false;
+                }
+                if (end == i + 1) {
+                    template.append('\'');
+                }
+                else {
+                    template.append(pattern, i + 1, end);
+                    // a quote inside a quoted literal
+                    while (end + 1 < n && pattern.charAt(end + 1) == '\'') {
+                        int next = pattern.indexOf('\'', end + 2);
+                        if (next < 0) {
+                            return false;
+                        }
+                        template.append('\'').append(pattern, end + 2, next);
+                        end = next;
+                    }
+                }
+                i = end + 1;
+            }
+            else if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z')) {
+                int end = i;
+                while (end < n && pattern.charAt(end) == c) {
+                    ++end;
+                }
+                int field = Arrays.asList(FIELD_PATTERNS).indexOf(pattern.substring(i, end));
+                if (field < 0 || found[field]) {
+                    return false;
+                }
+                found[field] = true;
+                fields.add(field);
+                offsets.add(template.length());
+                for (int j=i; j<end; j++) {
+                    template.append('0');
+                }
+                i = end;
+            }
+            else {
+                template.append(c);
+                ++i;
+            }
+        }
+
+        // literal digits could be parsed as part of a field
+        for (int j=0, k=0; j<template.length(); j++) {
+            if (k < offsets.size() && j == offsets.get(k)) {
+                j += FIELD_PATTERNS[fields.get(k++)].length() - 1;
+            }
+            else if (Character.isDigit(template.charAt(j))) {
+                return false;
+            }
+        }
+        return !fields.isEmpty();
+    }
+
+    private static int daysInMonth(int year, int month) {
+        switch (month) {
+        case 2:
+            return (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+        case 4:
+        case 6:
+        case 9:
+        case 11:
+            return 30;
+        default:
+            return 31;
+        }
+    }
+
+    /*
+     * Returns the number of days since 1970-01-01 for a proleptic Gregorian date.
+     */
+    private static long toEpochDay(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = y / 400;
+        int yoe = y - era * 400;
+        int doy = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        int doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+        return era * 146097L + doe - 719468;
+    }
+
+    private static long floorDiv(long x, long y) {
+        long q = x / y;
+        if ((x % y != 0) && ((x < 0) != (y < 0))) {
+            --q;
+        }
+        return q;
+    }
+
+    private static int[] toArray(List<Integer> list) {
+        int[] array = new int[list.size()];
+        for (int i=0; i<array.length; i++) {
+            array[i] = list.get(i);
+        }
+        return array;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "[pattern=" + pattern + ", supported=" + supported + "]";
+    }
+}
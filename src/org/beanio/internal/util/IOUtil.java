@@ -17,6 +17,8 @@ package org.beanio.internal.util;
 
 import java.io.*;
 import java.net.URL;
+import java.nio.*;
+import java.nio.charset.Charset;
 
 /**
  * Utility class for manipulating streams.
@@ -26,7 +28,55 @@ import java.net.URL;
  */
 public class IOUtil {
 
+    /** Files up to this size are read into memory by {@link #openReader(File, Charset)} */
+    public static final int SMALL_FILE_SIZE = 64 * 1024;
+    
     private IOUtil() { }
+    
+    /**
+     * Opens a file for reading characters.  A file no larger than {@link #SMALL_FILE_SIZE}
+     * bytes is read and decoded in full, and closed before this method returns, so that
+     * parsing many small files at once holds neither a file descriptor nor a thread
+     * blocked on I/O for each file.  Larger files are read through an
+     * {@link UnsynchronizedBufferedReader}.
+     * @param file the file to read
+     * @param charset the character set the file is encoded with
+     * @return the new <tt>Reader</tt>, which supports marking
+     * @throws IOException if the file cannot be opened or read
+     * @since 2.1.1
+     */
+    public static Reader openReader(File file, Charset charset) throws IOException {
+        InputStream in = new FileInputStream(file);
+        try {
+            long length = file.length();
+            if (length > SMALL_FILE_SIZE) {
+                Reader reader = new UnsynchronizedBufferedReader(new InputStreamReader(in, charset));
+                in = null;
+                return reader;
+            }
+            
+            // one extra byte detects a file that grew after its length was checked
+            byte[] bytes = new byte[(int) length + 1];
+            int n = 0;
+            int count;
+            while (n < bytes.length && (count = in.read(bytes, n, bytes.length - n)) != -1) {
+                n += count;
+            }
+            if (n == bytes.length) {
+                Reader reader = new UnsynchronizedBufferedReader(new InputStreamReader(
+                    new SequenceInputStream(new ByteArrayInputStream(bytes), in), charset));
+                in = null;
+                return reader;
+            }
+            
+            CharBuffer chars = charset.decode(ByteBuffer.wrap(bytes, 0, n));
+            return new UnsynchronizedBufferedReader(chars.array(), 
+                chars.arrayOffset() + chars.position(), chars.remaining());
+        }
+        finally {
+            closeQuietly(in);
+        }
+    }
    
     /**
      * Closes an input stream and quietly ignores any exception.
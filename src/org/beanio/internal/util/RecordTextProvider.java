@@ -0,0 +1,41 @@
+/*
+ * Copyright 2013 Kevin Seim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.beanio.internal.util;
+
+/**
+ * A {@link org.beanio.stream.RecordReader} that can provide the raw text of the last 
+ * record read without creating a <tt>String</tt> for it.
+ *
+ * @author Kevin Seim
+ * @since 2.1.1
+ */
+public interface RecordTextProvider {
+
+    /**
+     * Returns the length of the raw text of the last record read.
+     * @return the length of the record text, or -1 if there is no current record
+     */
+    public int getRecordTextLength();
+    
+    /**
+     * Returns the raw text of the last record read.  The returned character sequence 
+     * is not modified when another record is read, so that it may be converted to a
+     * <tt>String</tt> later, only if needed.
+     * @return the record text, or null if there is no current record
+     */
+    public CharSequence getRecordTextSequence();
+    
+}
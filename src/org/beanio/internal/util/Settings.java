@@ -125,6 +125,12 @@ public class Settings {
      * Whether non-public fields and methods may be made accessible.
      */
     public static final String ALLOW_PROTECTED_PROPERTY_ACCESS = "org.beanio.allowProtectedAccess";
+    /**
+     * Whether the raw record text is only requested from a record reader when needed
+     * for an error message or record context, rather than for every record read.
+     * @since 2.1.1
+     */
+    public static final String LAZY_RECORD_TEXT = "org.beanio.lazyRecordText";
     
     private static final String DEFAULT_CONFIGURATION_PATH = "org/beanio/internal/config/beanio.properties";
     private static final String DEFAULT_CONFIGURATION_FILENAME = "beanio.properties";
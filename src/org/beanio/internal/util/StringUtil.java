@@ -164,6 +164,68 @@ public final class StringUtil {
         }
     }
     
+    /**
+     * Returns whether a region of a character sequence is equal to a string.
+     * @param s the string to compare
+     * @param text the character sequence
+     * @param start the index of the first character in the region
+     * @param end the index after the last character in the region
+     * @param ignoreCase <tt>true</tt> to ignore case as {@link String#equalsIgnoreCase(String)} 
+     * @return <tt>true</tt> if equal
+     * @since 2.1.1
+     */
+    public static boolean regionEquals(String s, CharSequence text, int start, int end, boolean ignoreCase) {
+        if (s.length() != end - start) {
+            return false;
+        }
+        for (int i=0; i<s.length(); i++) {
+            char c1 = s.charAt(i);
+            char c2 = text.charAt(start + i);
+            if (c1 == c2) {
+                continue;
+            }
+            if (ignoreCase) {
+                char u1 = Character.toUpperCase(c1);
+                char u2 = Character.toUpperCase(c2);
+                if (u1 == u2 || Character.toLowerCase(u1) == Character.toLowerCase(u2)) {
+                    continue;
+                }
+            }
+            return false;
+        }
+        return true;
+    }
+    
+    /**
+     * Parses a <tt>long</tt> from a region of a character sequence made up of an 
+     * optional minus sign followed by up to 18 ASCII digits.
+     * @param text the character sequence
+     * @param start the index of the first character in the region
+     * @param end the index after the last character in the region
+     * @return the parsed value, or {@link Long#MIN_VALUE} if the region is empty or
+     *   not in the expected form
+     * @since 2.1.1
+     */
+    public static long parseLong(CharSequence text, int start, int end) {
+        boolean negative = start < end && text.charAt(start) == '-';
+        if (negative) {
+            ++start;
+        }
+        if (start == end || end - start > 18) {
+            return Long.MIN_VALUE;
+        }
+        
+        long value = 0;
+        for (int i=start; i<end; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return Long.MIN_VALUE;
+            }
+            value = value * 10 + digit;
+        }
+        return negative ? -value : value;
+    }
+    
     /**
      * A source of property values.
      */
@@ -0,0 +1,541 @@
+/*
+ * Copyright 2013 Kevin Seim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.beanio.internal.util;
+
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * A <tt>TextMatcher</tt> tests whether text matches a regular expression without
+ * using <tt>java.util.regex</tt> when the expression is simple enough.
+ * <p>
+ * Two kinds of expressions are compiled into specialized matchers:
+ * <ul>
+ * <li>A sequence of character classes, escapes (<tt>\d</tt>, <tt>\w</tt>, <tt>\s</tt>),
+ *   <tt>.</tt> and literal characters, each with an optional greedy quantifier, where
+ *   at most one element has a variable length, for example <tt>[0-9]+</tt>,
+ *   <tt>[A-Z]{3}</tt> or <tt>\d{3}-\d{4}</tt>.</li>
+ * <li>An alternation of literal strings, optionally grouped, for example
+ *   <tt>(A|B|C)</tt>.</li>
+ * </ul>
+ * Any other expression, or any pattern compiled with flags, is matched using its
+ * <tt>Pattern</tt>.
+ * <p>
+ * Instances are immutable and thread safe.
+ *
+ * @author Kevin Seim
+ * @since 2.1.1
+ */
+public abstract class TextMatcher {
+
+    /** Returned by {@link #match(CharSequence, int, int)} if the text matches */
+    public static final int MATCH = 1;
+    /** Returned by {@link #match(CharSequence, int, int)} if the text does not match */
+    public static final int NO_MATCH = 0;
+    /**
+     * Returned by {@link #match(CharSequence, int, int)} if the text must be matched
+     * using the regular expression {@link #getPattern() pattern}
+     */
+    public static final int UNKNOWN = -1;
+
+    private Pattern pattern;
+
+    /**
+     * Constructs a new <tt>TextMatcher</tt>.
+     * @param pattern the regular expression pattern
+     */
+    TextMatcher(Pattern pattern) {
+        this.pattern = pattern;
+    }
+
+    /**
+     * Compiles a regular expression pattern into a <tt>TextMatcher</tt>.
+     * @param pattern the regular expression pattern
+     * @return the new <tt>TextMatcher</tt>
+     */
+    public static TextMatcher compile(Pattern pattern) {
+        TextMatcher matcher = null;
+        if (pattern.flags() == 0) {
+            String regex = pattern.pattern();
+            matcher = LiteralSetMatcher.compile(pattern, regex);
+            if (matcher == null) {
+                matcher = SequenceMatcher.compile(pattern, regex);
+            }
+        }
+        return matcher != null ? matcher : new RegexMatcher(pattern);
+    }
+
+    /**
+     * Tests whether a region of a character sequence matches the entire regular expression.
+     * @param text the character sequence
+     * @param start the index of the first character in the region
+     * @param end the index after the last character in the region
+     * @return {@link #MATCH}, {@link #NO_MATCH}, or {@link #UNKNOWN} if the text
+     *   must be matched using the regular expression {@link #getPattern() pattern}
+     */
+    public abstract int match(CharSequence text, int start, int end);
+
+    /**
+     * Returns the regular expression pattern.
+     * @return the {@link Pattern}
+     */
+    public Pattern getPattern() {
+        return pattern;
+    }
+
+    /**
+     * Returns whether this matcher always requires the regular expression pattern.
+     * @return <tt>true</tt> if {@link #match(CharSequence, int, int)} always
+     *   returns {@link #UNKNOWN}
+     */
+    public boolean isRegex() {
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "[" + pattern.pattern() + "]";
+    }
+
+    private static boolean isSurrogate(char c) {
+        return c >= '\uD800' && c <= '\uDFFF';
+    }
+
+    /**
+     * A matcher that always defers to the regular expression.
+     */
+    private static final class RegexMatcher extends TextMatcher {
+        RegexMatcher(Pattern pattern) {
+            super(pattern);
+        }
+
+        @Override
+        public int match(CharSequence text, int start, int end) {
+            return UNKNOWN;
+        }
+
+        @Override
+        public boolean isRegex() {
+            return true;
+        }
+    }
+
+    /**
+     * A matcher for a set of literal strings.
+     */
+    private static final class LiteralSetMatcher extends TextMatcher {
+
+        private String[] values;
+
+        private LiteralSetMatcher(Pattern pattern, String[] values) {
+            super(pattern);
+            this.values = values;
+        }
+
+        /*
+         * Returns a new matcher if the expression is a (optionally grouped) alternation
+         * of literal strings, or null otherwise.
+         */
+        static LiteralSetMatcher compile(Pattern pattern, String regex) {
+            String body = regex;
+            if (body.startsWith("(?:") && body.endsWith(")")) {
+                body = body.substring(3, body.length() - 1);
+            }
+            else if (body.startsWith("(") && body.endsWith(")")) {
+                body = body.substring(1, body.length() - 1);
+            }
+            else if (body.indexOf('|') < 0) {
+                // a single literal is handled by the sequence matcher
+                return null;
+            }
+
+            Set<String> values = new LinkedHashSet<String>();
+            StringBuilder value = new StringBuilder();
+            for (int i=0, n=body.length(); i<n; i++) {
+                char c = body.charAt(i);
+                if (c == '|') {
+                    values.add(value.toString());
+                    value.setLength(0);
+                }
+                else if (c == '\\') {
+                    if (++i == n) {
+                        return null;
+                    }
+                    c = body.charAt(i);
+                    if (Character.isLetterOrDigit(c) || c > 127) {
+                        return null;
+                    }
+                    value.append(c);
+                }
+                else if ("^$.?*+()[]{}".indexOf(c) >= 0 || isSurrogate(c)) {
+                    return null;
+                }
+                else {
+                    value.append(c);
+                }
+            }
+            values.add(value.toString());
+
+            return new LiteralSetMatcher(pattern, values.toArray(new String[values.size()]));
+        }
+
+        @Override
+        public int match(CharSequence text, int start, int end) {
+            for (String value : values) {
+                if (StringUtil.regionEquals(value, text, start, end, false)) {
+                    return MATCH;
+                }
+            }
+            return NO_MATCH;
+        }
+    }
+
+    /**
+     * A matcher for a sequence of quantified character sets, where only one
+     * element of the sequence has a variable length.
+     */
+    private static final class SequenceMatcher extends TextMatcher {
+
+        private CharSet[] sets;
+        private int[] min;
+        private int[] max;
+        // the index of the variable length element, or -1
+        private int variable;
+        // the total length of all fixed length elements
+        private int fixedLength;
+        // whether any element is a negated character set
+        private boolean negated;
+
+        private SequenceMatcher(Pattern pattern, List<CharSet> sets, List<int[]> bounds) {
+            super(pattern);
+            int n = sets.size();
+            this.sets = sets.toArray(new CharSet[n]);
+            this.min = new int[n];
+            this.max = new int[n];
+            this.variable = -1;
+            for (int i=0; i<n; i++) {
+                min[i] = bounds.get(i)[0];
+                max[i] = bounds.get(i)[1];
+                if (min[i] == max[i]) {
+                    fixedLength += min[i];
+                }
+                else {
+                    variable = i;
+                }
+                negated |= this.sets[i].negated;
+            }
+        }
+
+        /*
+         * Returns a new matcher if the expression is a supported sequence, or null otherwise.
+         */
+        static SequenceMatcher compile(Pattern pattern, String regex) {
+            int pos = 0;
+            int n = regex.length();
+            if (regex.startsWith("^")) {
+                ++pos;
+            }
+            if (n > pos && regex.charAt(n - 1) == '$' && (n < 2 || regex.charAt(n - 2) != '\\')) {
+                --n;
+            }
+
+            List<CharSet> sets = new ArrayList<CharSet>();
+            List<int[]> bounds = new ArrayList<int[]>();
+            int variableCount = 0;
+            long fixedLength = 0;
+            while (pos < n) {
+                CharSet set = new CharSet();
+                char c = regex.charAt(pos++);
+                if (c == '[') {
+                    pos = set.parseClass(regex, pos, n);
+                }
+                else if (c == '\\') {
+                    if (pos == n) {
+                        return null;
+                    }
+                    pos = set.parseEscape(regex, pos, false);
+                }
+                else if (c == '.') {
+                    // any character except a line terminator
+                    set.addRange('\n', '\n');
+                    set.addRange('\r', '\r');
+                    set.addRange('\u0085', '\u0085');
+                    set.addRange('\u2028', '\u2029');
+                    set.negated = true;
+                }
+                else if ("^$|?*+()[]{}".indexOf(c) >= 0 || isSurrogate(c)) {
+                    return null;
+                }
+                else {
+                    set.addRange(c, c);
+                }
+                if (pos < 0) {
+                    return null;
+                }
+
+                // parse the quantifier
+                int[] b = { 1, 1 };
+                if (pos < n) {
+                    int quantifier = pos;
+                    c = regex.charAt(pos);
+                    if (c == '?' || c == '*' || c == '+') {
+                        b[0] = c == '+' ? 1 : 0;
+                        b[1] = c == '?' ? 1 : Integer.MAX_VALUE;
+                        ++pos;
+                    }
+                    else if (c == '{') {
+                        int close = regex.indexOf('}', pos);
+                        if (close < 0 || close >= n) {
+                            return null;
+                        }
+                        try {
+                            String q = regex.substring(pos + 1, close);
+                            int comma = q.indexOf(',');
+                            if (comma < 0) {
+                                b[0] = b[1] = Integer.parseInt(q);
+                            }
+                            else {
+                                b[0] = Integer.parseInt(q.substring(0, comma));
+                                b[1] = comma == q.length() - 1 ? Integer.MAX_VALUE :
+                                    Integer.parseInt(q.substring(comma + 1));
+                            }
+                        }
+                        catch (NumberFormatException ex) {
+                            return null;
+                        }
+                        if (b[0] < 0 || b[1] < b[0]) {
+                            return null;
+                        }
+                        pos = close + 1;
+                    }
+                    // reluctant and possessive quantifiers are not supported
+                    if (pos > quantifier && pos < n &&
+                        (regex.charAt(pos) == '?' || regex.charAt(pos) == '+')) {
+                        return null;
+                    }
+                }
+                if (b[0] != b[1] && ++variableCount > 1) {
+                    return null;
+                }
+                fixedLength += b[0] == b[1] ? b[0] : 0;
+                if (fixedLength > Integer.MAX_VALUE / 2) {
+                    return null;
+                }
+
+                sets.add(set);
+                bounds.add(b);
+            }
+            if (sets.isEmpty()) {
+                return null;
+            }
+            return new SequenceMatcher(pattern, sets, bounds);
+        }
+
+        @Override
+        public int match(CharSequence text, int start, int end) {
+            // a surrogate pair is a single character to a regular expression, and
+            // may be matched by a negated character set
+            if (negated) {
+                for (int i=start; i<end; i++) {
+                    if (isSurrogate(text.charAt(i))) {
+                        return UNKNOWN;
+                    }
+                }
+            }
+            
+            int length = end - start;
+            int variableLength = length - fixedLength;
+            if (variable < 0 ? variableLength != 0 :
+                (variableLength < min[variable] || variableLength > max[variable])) {
+                return NO_MATCH;
+            }
+
+            int pos = start;
+            for (int i=0; i<sets.length; i++) {
+                CharSet set = sets[i];
+                int count = (i == variable) ? variableLength : min[i];
+                for (int j=0; j<count; j++) {
+                    if (!set.contains(text.charAt(pos++))) {
+                        return NO_MATCH;
+                    }
+                }
+            }
+            return MATCH;
+        }
+    }
+
+    /**
+     * A set of characters parsed from a regular expression character class or escape.
+     */
+    private static final class CharSet {
+
+        private long low;
+        private long high;
+        private char[] ranges = new char[0];
+        private boolean negated;
+
+        void addRange(char from, char to) {
+            for (char c = from; c <= to && c < 128; c++) {
+                if (c < 64) {
+                    low |= 1L << c;
+                }
+                else {
+                    high |= 1L << (c - 64);
+                }
+            }
+            if (to >= 128) {
+                char[] r = new char[ranges.length + 2];
+                System.arraycopy(ranges, 0, r, 0, ranges.length);
+                r[ranges.length] = from < 128 ? 128 : from;
+                r[ranges.length + 1] = to;
+                ranges = r;
+            }
+        }
+
+        boolean contains(char c) {
+            boolean found;
+            if (c < 64) {
+                found = (low & (1L << c)) != 0;
+            }
+            else if (c < 128) {
+                found = (high & (1L << (c - 64))) != 0;
+            }
+            else {
+                found = false;
+                for (int i=0; i<ranges.length; i+=2) {
+                    if (c >= ranges[i] && c <= ranges[i + 1]) {
+                        found = true;
+                        break;
+                    }
+                }
+            }
+            return found != negated;
+        }
+
+        /*
+         * Parses an escape sequence starting after the backslash, returning the position
+         * after the escape, or -1 if not supported.
+         */
+        int parseEscape(String regex, int pos, boolean inClass) {
+            char c = regex.charAt(pos++);
+            switch (c) {
+            case 'd':
+                addRange('0', '9');
+                break;
+            case 'w':
+                addRange('a', 'z');
+                addRange('A', 'Z');
+                addRange('0', '9');
+                addRange('_', '_');
+                break;
+            case 's':
+                addRange(' ', ' ');
+                addRange('\t', '\r');
+                break;
+            case 'D':
+            case 'W':
+            case 'S':
+                // negated escapes are only supported outside of a character class
+                if (inClass) {
+                    return -1;
+                }
+                parseEscape(String.valueOf(Character.toLowerCase(c)), 0, false);
+                negated = true;
+                break;
+            case 't':
+                addRange('\t', '\t');
+                break;
+            case 'n':
+                addRange('\n', '\n');
+                break;
+            case 'r':
+                addRange('\r', '\r');
+                break;
+            case 'f':
+                addRange('\f', '\f');
+                break;
+            default:
+                if (Character.isLetterOrDigit(c) || c > 127) {
+                    return -1;
+                }
+                addRange(c, c);
+            }
+            return pos;
+        }
+
+        /*
+         * Parses a character class starting after the opening bracket, returning the
+         * position after the closing bracket, or -1 if not supported.
+         */
+        int parseClass(String regex, int pos, int n) {
+            if (pos < n && regex.charAt(pos) == '^') {
+                negated = true;
+                ++pos;
+            }
+            if (pos < n && regex.charAt(pos) == ']') {
+                return -1;
+            }
+
+            while (pos < n) {
+                char c = regex.charAt(pos++);
+                if (c == ']') {
+                    return pos;
+                }
+                else if (c == '[' || c == '&' || isSurrogate(c)) {
+                    return -1;
+                }
+
+                char from;
+                if (c == '\\') {
+                    if (pos == n) {
+                        return -1;
+                    }
+                    char e = regex.charAt(pos);
+                    if (Character.isLetterOrDigit(e)) {
+                        // a class escape such as \d, which may not start a range
+                        pos = parseEscape(regex, pos, true);
+                        if (pos < 0 || (pos < n && regex.charAt(pos) == '-' &&
+                            pos + 1 < n && regex.charAt(pos + 1) != ']')) {
+                            return -1;
+                        }
+                        continue;
+                    }
+                    if (e > 127) {
+                        return -1;
+                    }
+                    from = e;
+                    ++pos;
+                }
+                else {
+                    from = c;
+                }
+
+                // parse a range
+                char to = from;
+                if (pos + 1 < n && regex.charAt(pos) == '-' && regex.charAt(pos + 1) != ']') {
+                    to = regex.charAt(pos + 1);
+                    pos += 2;
+                    if (to == '\\' || to == '[' || to == '&' || to < from ||
+                        (from <= '\uDFFF' && to >= '\uD800')) {
+                        return -1;
+                    }
+                }
+                addRange(from, to);
+            }
+            return -1;
+        }
+    }
+}
@@ -12,7 +12,7 @@ import org.beanio.types.*;
  * @since 2.0.1
  */
 @SuppressWarnings({"rawtypes"})
-public class ToStringEnumTypeHandler implements TypeHandler {
+public class ToStringEnumTypeHandler implements CharSequenceTypeHandler {
 
     private Class<Enum> type;
     private Map<String,Enum> map;
@@ -48,6 +48,22 @@ public class ToStringEnumTypeHandler implements TypeHandler {
         }
         return value;
     }
+    
+    /*
+     * (non-Javadoc)
+     * @see org.beanio.types.CharSequenceTypeHandler#parse(java.lang.CharSequence, int, int)
+     */
+    public Object parse(CharSequence text, int start, int end) throws TypeConversionException {
+        if (start == end) {
+            return null;
+        }
+        for (Map.Entry<String,Enum> entry : map.entrySet()) {
+            if (StringUtil.regionEquals(entry.getKey(), text, start, end, false)) {
+                return entry.getValue();
+            }
+        }
+        return parse(text.subSequence(start, end).toString());
+    }
 
     /*
      * (non-Javadoc)
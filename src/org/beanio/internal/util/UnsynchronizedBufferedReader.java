@@ -0,0 +1,272 @@
+/*
+ * Copyright 2013 Kevin Seim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.beanio.internal.util;
+
+import java.io.*;
+
+/**
+ * A buffered <tt>Reader</tt> that supports marking, like <tt>java.io.BufferedReader</tt>,
+ * but does not lock the stream for each method call.
+ * <p>
+ * Record readers read input one character at a time, so a lock acquired for every
+ * character is a significant cost, and blocks the carrier of a virtual thread when
+ * the underlying stream is read while holding it.  Like other BeanIO readers, this
+ * class is not thread safe.
+ * <p>
+ * A reader may also be constructed from characters already in memory, in which case
+ * there is no underlying stream.
+ *
+ * @author Kevin Seim
+ * @since 2.1.1
+ */
+public class UnsynchronizedBufferedReader extends Reader {
+
+    /** The default buffer size */
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    private Reader in;
+    private char[] buf;
+    private int pos;
+    private int limit;
+    private int markPos = -1;
+    private int markLimit;
+    private boolean closed;
+
+    /**
+     * Constructs a new <tt>UnsynchronizedBufferedReader</tt> using the default buffer size.
+     * @param in the input stream to read from
+     */
+    public UnsynchronizedBufferedReader(Reader in) {
+        this(in, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Constructs a new <tt>UnsynchronizedBufferedReader</tt>.
+     * @param in the input stream to read from
+     * @param size the buffer size
+     */
+    public UnsynchronizedBufferedReader(Reader in, int size) {
+        if (in == null) {
+            throw new NullPointerException("null reader");
+        }
+        if (size <= 0) {
+            throw new IllegalArgumentException("Buffer size must be greater than 0");
+        }
+        this.in = in;
+        this.buf = new char[size];
+    }
+
+    /**
+     * Constructs a new <tt>UnsynchronizedBufferedReader</tt> for reading characters
+     * from an array.  The array is not copied.
+     * @param chars the characters to read
+     * @param offset the position of the first character to read
+     * @param length the number of characters to read
+     */
+    public UnsynchronizedBufferedReader(char[] chars, int offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > chars.length) {
+            throw new IndexOutOfBoundsException();
+        }
+        this.buf = chars;
+        this.pos = offset;
+        this.limit = offset + length;
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see java.io.Reader#read()
+     */
+    @Override
+    public int read() throws IOException {
+        if (pos >= limit && fill() < 0) {
+            return -1;
+        }
+        return buf[pos++];
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see java.io.Reader#read(char[], int, int)
+     */
+    @Override
+    public int read(char[] cbuf, int off, int len) throws IOException {
+        if (off < 0 || len < 0 || off + len > cbuf.length) {
+            throw new IndexOutOfBoundsException();
+        }
+        ensureOpen();
+        if (len == 0) {
+            return 0;
+        }
+
+        int n = 0;
+        while (n < len) {
+            if (pos >= limit) {
+                // like BufferedReader, only block once
+                if (n > 0 && (in == null || !in.ready())) {
+                    break;
+                }
+                if (fill() < 0) {
+                    break;
+                }
+            }
+            int count = Math.min(len - n, limit - pos);
+            System.arraycopy(buf, pos, cbuf, off + n, count);
+            pos += count;
+            n += count;
+        }
+        return n == 0 ? -1 : n;
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see java.io.Reader#skip(long)
+     */
+    @Override
+    public long skip(long n) throws IOException {
+        if (n < 0) {
+            throw new IllegalArgumentException("skip value is negative");
+        }
+        ensureOpen();
+
+        long remaining = n;
+        while (remaining > 0) {
+            if (pos >= limit && fill() < 0) {
+                break;
+            }
+            int count = (int) Math.min(remaining, limit - pos);
+            pos += count;
+            remaining -= count;
+        }
+        return n - remaining;
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see java.io.Reader#ready()
+     */
+    @Override
+    public boolean ready() throws IOException {
+        ensureOpen();
+        return pos < limit || (in != null && in.ready());
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see java.io.Reader#markSupported()
+     */
+    @Override
+    public boolean markSupported() {
+        return true;
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see java.io.Reader#mark(int)
+     */
+    @Override
+    public void mark(int readAheadLimit) throws IOException {
+        if (readAheadLimit < 0) {
+            throw new IllegalArgumentException("Read-ahead limit < 0");
+        }
+        ensureOpen();
+        markPos = pos;
+        markLimit = readAheadLimit;
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see java.io.Reader#reset()
+     */
+    @Override
+    public void reset() throws IOException {
+        ensureOpen();
+        if (markPos < 0) {
+            throw new IOException("Stream not marked");
+        }
+        pos = markPos;
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see java.io.Reader#close()
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        buf = null;
+        pos = limit = 0;
+        if (in != null) {
+            in.close();
+        }
+    }
+
+    /**
+     * Reads more characters from the underlying stream into the buffer, keeping
+     * the characters read since the mark if still valid.
+     * @return the number of characters read, or -1 if the end of the stream was reached
+     * @throws IOException if an I/O error occurs
+     */
+    private int fill() throws IOException {
+        ensureOpen();
+        if (in == null) {
+            return -1;
+        }
+
+        if (markPos < 0) {
+            pos = limit = 0;
+        }
+        else {
+            int marked = limit - markPos;
+            if (marked >= markLimit) {
+                // the read-ahead limit was exceeded
+                markPos = -1;
+                pos = limit = 0;
+            }
+            else {
+                if (markLimit > buf.length) {
+                    char[] newBuf = new char[markLimit];
+                    System.arraycopy(buf, markPos, newBuf, 0, marked);
+                    buf = newBuf;
+                }
+                else {
+                    System.arraycopy(buf, markPos, buf, 0, marked);
+                }
+                markPos = 0;
+                pos = limit = marked;
+            }
+        }
+
+        int n;
+        do {
+            n = in.read(buf, limit, buf.length - limit);
+        }
+        while (n == 0);
+
+        if (n > 0) {
+            limit += n;
+        }
+        return n;
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+    }
+}
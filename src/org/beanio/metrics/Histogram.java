@@ -0,0 +1,188 @@
+/*
+ * Copyright 2013 Kevin Seim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.beanio.metrics;
+
+import java.util.concurrent.atomic.*;
+
+/**
+ * A thread safe histogram of non-negative <tt>long</tt> values, typically elapsed
+ * times in nanoseconds.
+ * <p>
+ * Values are counted in buckets by powers of 2, where bucket 0 holds the value 0 and
+ * bucket <tt>i</tt> holds values from <tt>2<sup>i-1</sup></tt> to <tt>2<sup>i</sup>-1</tt>.
+ * Percentiles are therefore approximate, but recording a value never allocates
+ * and never blocks.
+ *
+ * @author Kevin Seim
+ * @since 2.1.1
+ */
+public class Histogram {
+
+    /** The number of buckets in a histogram */
+    public static final int BUCKET_COUNT = 64;
+
+    private AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private AtomicLong count = new AtomicLong();
+    private AtomicLong sum = new AtomicLong();
+    private AtomicLong max = new AtomicLong();
+
+    /**
+     * Constructs a new <tt>Histogram</tt>.
+     */
+    public Histogram() { }
+
+    /**
+     * Records a value.  Negative values are recorded as 0.
+     * @param value the value to record
+     */
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+
+        buckets.incrementAndGet(getBucket(value));
+        count.incrementAndGet();
+        sum.addAndGet(value);
+
+        long m;
+        while (value > (m = max.get())) {
+            if (max.compareAndSet(m, value)) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of recorded values.
+     * @return the number of recorded values
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * Returns the sum of all recorded values.
+     * @return the sum of all recorded values
+     */
+    public long getSum() {
+        return sum.get();
+    }
+
+    /**
+     * Returns the largest recorded value.
+     * @return the largest recorded value, or 0 if no values were recorded
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Returns the mean of all recorded values.
+     * @return the mean, or 0 if no values were recorded
+     */
+    public double getMean() {
+        long n = count.get();
+        return n == 0 ? 0 : (double) sum.get() / n;
+    }
+
+    /**
+     * Returns an approximation of the given percentile, which is the upper bound of
+     * the bucket containing the percentile value, or the largest recorded value if less.
+     * @param percentile the percentile from 0 to 100
+     * @return the approximate percentile value, or 0 if no values were recorded
+     */
+    public long getPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Invalid percentile: " + percentile);
+        }
+
+        long[] counts = getBucketCounts();
+        long total = 0;
+        for (long n : counts) {
+            total += n;
+        }
+        if (total == 0) {
+            return 0;
+        }
+
+        long rank = (long) Math.ceil(total * percentile / 100);
+        if (rank < 1) {
+            rank = 1;
+        }
+
+        long seen = 0;
+        for (int i=0; i<BUCKET_COUNT; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(getBucketUpperBound(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    /**
+     * Returns a snapshot of the number of values counted in each bucket.
+     * @return the bucket counts, indexed by bucket
+     */
+    public long[] getBucketCounts() {
+        long[] counts = new long[BUCKET_COUNT];
+        for (int i=0; i<BUCKET_COUNT; i++) {
+            counts[i] = buckets.get(i);
+        }
+        return counts;
+    }
+
+    /**
+     * Clears all recorded values.
+     */
+    public void reset() {
+        for (int i=0; i<BUCKET_COUNT; i++) {
+            buckets.set(i, 0);
+        }
+        count.set(0);
+        sum.set(0);
+        max.set(0);
+    }
+
+    /**
+     * Returns the largest value counted in a bucket.
+     * @param bucket the bucket index
+     * @return the largest value counted in the bucket
+     */
+    public static long getBucketUpperBound(int bucket) {
+        if (bucket < 0 || bucket >= BUCKET_COUNT) {
+            throw new IndexOutOfBoundsException("Invalid bucket: " + bucket);
+        }
+        return bucket == BUCKET_COUNT - 1 ? Long.MAX_VALUE : (1L << bucket) - 1;
+    }
+
+    /*
+     * Returns the bucket index for a non-negative value.
+     */
+    private static int getBucket(long value) {
+        return Math.min(64 - Long.numberOfLeadingZeros(value), BUCKET_COUNT - 1);
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "count=" + getCount() + ", mean=" + (long) getMean() +
+            ", p50=" + getPercentile(50) + ", p99=" + getPercentile(99) + ", max=" + getMax();
+    }
+}
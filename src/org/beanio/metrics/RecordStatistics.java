@@ -0,0 +1,123 @@
+/*
+ * Copyright 2013 Kevin Seim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.beanio.metrics;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Metrics gathered by {@link StreamMetrics} for a single record or group.
+ *
+ * @author Kevin Seim
+ * @since 2.1.1
+ */
+public class RecordStatistics {
+
+    private String name;
+    private Histogram unmarshalTime = new Histogram();
+    private Histogram writeTime = new Histogram();
+    private AtomicLong typeConversionFailures = new AtomicLong();
+    private ConcurrentMap<String, AtomicLong> fieldFailures = new ConcurrentHashMap<String, AtomicLong>();
+
+    /**
+     * Constructs a new <tt>RecordStatistics</tt>.
+     * @param name the record or group name
+     */
+    RecordStatistics(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Returns the record or group name.
+     * @return the record or group name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the time spent unmarshalling this record or group.  The histogram count
+     * is the number of times the record or group was unmarshalled.
+     * @return the unmarshalling time {@link Histogram}
+     */
+    public Histogram getUnmarshalTime() {
+        return unmarshalTime;
+    }
+
+    /**
+     * Returns the time spent marshalling and writing this record or group.  The
+     * histogram count is the number of times the record or group was written.
+     * @return the write time {@link Histogram}
+     */
+    public Histogram getWriteTime() {
+        return writeTime;
+    }
+
+    /**
+     * Returns the number of field type conversion failures in this record.
+     * @return the number of type conversion failures
+     */
+    public long getTypeConversionFailures() {
+        return typeConversionFailures.get();
+    }
+
+    /**
+     * Returns the number of type conversion failures for a field in this record.
+     * @param fieldName the field name
+     * @return the number of type conversion failures
+     */
+    public long getTypeConversionFailures(String fieldName) {
+        AtomicLong n = fieldFailures.get(fieldName);
+        return n == null ? 0 : n.get();
+    }
+
+    /**
+     * Returns the names of fields that have failed type conversion.
+     * @return the set of field names
+     */
+    public Set<String> getFailedFieldNames() {
+        return Collections.unmodifiableSet(new TreeSet<String>(fieldFailures.keySet()));
+    }
+
+    /**
+     * Increments the type conversion failures for a field.
+     * @param fieldName the field name
+     */
+    void typeConversionFailed(String fieldName) {
+        typeConversionFailures.incrementAndGet();
+
+        AtomicLong n = fieldFailures.get(fieldName);
+        if (n == null) {
+            AtomicLong created = new AtomicLong();
+            n = fieldFailures.putIfAbsent(fieldName, created);
+            if (n == null) {
+                n = created;
+            }
+        }
+        n.incrementAndGet();
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return name + ": unmarshal[" + unmarshalTime + "], write[" + writeTime +
+            "], typeConversionFailures=" + getTypeConversionFailures();
+    }
+}
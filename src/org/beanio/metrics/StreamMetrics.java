@@ -0,0 +1,150 @@
+/*
+ * Copyright 2013 Kevin Seim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.beanio.metrics;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import org.beanio.*;
+
+/**
+ * A thread safe {@link StreamListener} that keeps metrics for each stream in memory.
+ * <p>
+ * For example:
+ * <pre>
+ * StreamMetrics metrics = new StreamMetrics();
+ * factory.setStreamListener(metrics);
+ * ...
+ * StreamStatistics stats = metrics.getStreamStatistics("orders");
+ * long records = stats.getReadTime().getCount();
+ * </pre>
+ *
+ * @author Kevin Seim
+ * @since 2.1.1
+ */
+public class StreamMetrics implements StreamListener {
+
+    private ConcurrentMap<String, StreamStatistics> streams = new ConcurrentHashMap<String, StreamStatistics>();
+
+    /**
+     * Constructs a new <tt>StreamMetrics</tt>.
+     */
+    public StreamMetrics() { }
+
+    /**
+     * Returns the names of streams for which metrics have been gathered.
+     * @return the set of stream names
+     */
+    public Set<String> getStreamNames() {
+        return Collections.unmodifiableSet(new TreeSet<String>(streams.keySet()));
+    }
+
+    /**
+     * Returns the metrics for a stream.
+     * @param streamName the stream name
+     * @return the {@link StreamStatistics}, or <tt>null</tt> if no metrics have been
+     *   gathered for the stream
+     */
+    public StreamStatistics getStreamStatistics(String streamName) {
+        return streams.get(streamName);
+    }
+
+    /**
+     * Discards all gathered metrics.
+     */
+    public void reset() {
+        streams.clear();
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see org.beanio.StreamListener#recordRead(java.lang.String, int, long)
+     */
+    public void recordRead(String streamName, int length, long nanos) {
+        getStream(streamName).recordRead(length, nanos);
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see org.beanio.StreamListener#recordIdentified(java.lang.String, java.lang.String, long)
+     */
+    public void recordIdentified(String streamName, String recordName, long nanos) {
+        getStream(streamName).recordIdentified(recordName, nanos);
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see org.beanio.StreamListener#recordUnmarshalled(java.lang.String, java.lang.String, long)
+     */
+    public void recordUnmarshalled(String streamName, String recordName, long nanos) {
+        getStream(streamName).getOrCreateRecordStatistics(recordName).getUnmarshalTime().record(nanos);
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see org.beanio.StreamListener#typeConversionFailed(java.lang.String, java.lang.String, java.lang.String)
+     */
+    public void typeConversionFailed(String streamName, String recordName, String fieldName) {
+        getStream(streamName).getOrCreateRecordStatistics(recordName).typeConversionFailed(fieldName);
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see org.beanio.StreamListener#readError(java.lang.String, org.beanio.BeanReaderException)
+     */
+    public void readError(String streamName, BeanReaderException ex) {
+        getStream(streamName).readError(ex.getClass());
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see org.beanio.StreamListener#recordWritten(java.lang.String, java.lang.String, long)
+     */
+    public void recordWritten(String streamName, String recordName, long nanos) {
+        getStream(streamName).getOrCreateRecordStatistics(recordName).getWriteTime().record(nanos);
+    }
+
+    /*
+     * Returns the metrics for a stream, creating them if necessary.
+     */
+    private StreamStatistics getStream(String streamName) {
+        StreamStatistics stats = streams.get(streamName);
+        if (stats == null) {
+            StreamStatistics created = new StreamStatistics(streamName);
+            stats = streams.putIfAbsent(streamName, created);
+            if (stats == null) {
+                stats = created;
+            }
+        }
+        return stats;
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        StringBuilder s = new StringBuilder();
+        for (String name : getStreamNames()) {
+            if (s.length() > 0) {
+                s.append("\n");
+            }
+            s.append(streams.get(name));
+        }
+        return s.toString();
+    }
+}
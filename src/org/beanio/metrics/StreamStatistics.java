@@ -0,0 +1,191 @@
+/*
+ * Copyright 2013 Kevin Seim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.beanio.metrics;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Metrics gathered by {@link StreamMetrics} for a single stream.
+ *
+ * @author Kevin Seim
+ * @since 2.1.1
+ */
+public class StreamStatistics {
+
+    private String name;
+    private Histogram readTime = new Histogram();
+    private Histogram identificationTime = new Histogram();
+    private AtomicLong charactersRead = new AtomicLong();
+    private AtomicLong unidentifiedRecords = new AtomicLong();
+    private ConcurrentMap<String, AtomicLong> errors = new ConcurrentHashMap<String, AtomicLong>();
+    private ConcurrentMap<String, RecordStatistics> records = new ConcurrentHashMap<String, RecordStatistics>();
+
+    /**
+     * Constructs a new <tt>StreamStatistics</tt>.
+     * @param name the stream name
+     */
+    StreamStatistics(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Returns the stream name.
+     * @return the stream name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the time spent reading records from the input stream.  The histogram
+     * count is the number of records read.
+     * @return the read time {@link Histogram}
+     */
+    public Histogram getReadTime() {
+        return readTime;
+    }
+
+    /**
+     * Returns the time spent identifying records.
+     * @return the record identification time {@link Histogram}
+     */
+    public Histogram getIdentificationTime() {
+        return identificationTime;
+    }
+
+    /**
+     * Returns the number of characters read, excluding record terminators.  Characters
+     * are not counted for streams that do not support record text, such as XML.
+     * @return the number of characters read
+     */
+    public long getCharactersRead() {
+        return charactersRead.get();
+    }
+
+    /**
+     * Returns the number of records that could not be identified.
+     * @return the number of unidentified records
+     */
+    public long getUnidentifiedRecords() {
+        return unidentifiedRecords.get();
+    }
+
+    /**
+     * Returns the total number of read errors.
+     * @return the number of read errors
+     */
+    public long getErrors() {
+        long total = 0;
+        for (AtomicLong n : errors.values()) {
+            total += n.get();
+        }
+        return total;
+    }
+
+    /**
+     * Returns the number of read errors by exception class simple name,
+     * for example <tt>InvalidRecordException</tt>.
+     * @return the map of exception class names to error counts
+     */
+    public Map<String, Long> getErrorCounts() {
+        Map<String, Long> map = new TreeMap<String, Long>();
+        for (Map.Entry<String, AtomicLong> entry : errors.entrySet()) {
+            map.put(entry.getKey(), entry.getValue().get());
+        }
+        return map;
+    }
+
+    /**
+     * Returns the names of records and groups that have been read or written.
+     * @return the set of record and group names
+     */
+    public Set<String> getRecordNames() {
+        return Collections.unmodifiableSet(new TreeSet<String>(records.keySet()));
+    }
+
+    /**
+     * Returns the metrics for a record or group.
+     * @param recordName the record or group name
+     * @return the {@link RecordStatistics}, or <tt>null</tt> if the record or group
+     *   has not been read or written
+     */
+    public RecordStatistics getRecordStatistics(String recordName) {
+        return records.get(recordName);
+    }
+
+    /**
+     * Returns the metrics for a record or group, creating them if necessary.
+     * @param recordName the record or group name
+     * @return the {@link RecordStatistics}
+     */
+    RecordStatistics getOrCreateRecordStatistics(String recordName) {
+        RecordStatistics stats = records.get(recordName);
+        if (stats == null) {
+            RecordStatistics created = new RecordStatistics(recordName);
+            stats = records.putIfAbsent(recordName, created);
+            if (stats == null) {
+                stats = created;
+            }
+        }
+        return stats;
+    }
+
+    void recordRead(int length, long nanos) {
+        readTime.record(nanos);
+        if (length > 0) {
+            charactersRead.addAndGet(length);
+        }
+    }
+
+    void recordIdentified(String recordName, long nanos) {
+        identificationTime.record(nanos);
+        if (recordName == null) {
+            unidentifiedRecords.incrementAndGet();
+        }
+    }
+
+    void readError(Class<?> type) {
+        String key = type.getSimpleName();
+        AtomicLong n = errors.get(key);
+        if (n == null) {
+            AtomicLong created = new AtomicLong();
+            n = errors.putIfAbsent(key, created);
+            if (n == null) {
+                n = created;
+            }
+        }
+        n.incrementAndGet();
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        StringBuilder s = new StringBuilder();
+        s.append(name).append(": read[").append(readTime).append("], identify[").append(identificationTime)
+            .append("], charactersRead=").append(getCharactersRead())
+            .append(", unidentifiedRecords=").append(getUnidentifiedRecords())
+            .append(", errors=").append(getErrorCounts());
+        for (String recordName : getRecordNames()) {
+            s.append("\n  ").append(records.get(recordName));
+        }
+        return s.toString();
+    }
+}
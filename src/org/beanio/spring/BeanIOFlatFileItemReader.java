@@ -17,10 +17,11 @@ package org.beanio.spring;
 
 import java.io.*;
 import java.nio.charset.Charset;
-import java.util.Locale;
+import java.util.*;
 
 import org.beanio.*;
 import org.beanio.internal.util.IOUtil;
+import org.springframework.batch.item.*;
 import org.springframework.batch.item.file.*;
 import org.springframework.batch.item.support.AbstractItemCountingItemStreamItemReader;
 import org.springframework.beans.factory.InitializingBean;
@@ -54,6 +55,7 @@ public class BeanIOFlatFileItemReader<T> extends AbstractItemCountingItemStreamI
     
     private BeanReader reader;
     private BeanReaderErrorHandler errorHandler;
+    private int maxItemCount = Integer.MAX_VALUE;
     
     /**
      * Constructs a new <tt>BeanIOFlatFileItemReader</tt>.
@@ -85,22 +87,102 @@ public class BeanIOFlatFileItemReader<T> extends AbstractItemCountingItemStreamI
             throw ex.getCause();
         }
         catch (BeanReaderException ex) {
-            if (useSpringExceptions) {
-                RecordContext ctx = ex.getRecordContext();
-                if (ctx != null) {
-                    throw new FlatFileParseException(ex.getMessage(), ex, 
-                        ctx.getRecordText(), ctx.getLineNumber());
-                }
-                else {
-                    throw new FlatFileParseException(ex.getMessage(), ex, null, 0);
-                }
+            throw convertException(ex);
+        }
+    }
+    
+    /**
+     * Reads up to <tt>max</tt> items and adds them to the given list, so that a chunk
+     * of items can be read in a single call.  Items are counted as if read one at a 
+     * time using {@link #read()}, so that restart and the maximum item count 
+     * are honored.  If an exception is thrown, items read before the exception
+     * remain in the list.
+     * @param items the list to add the items read to
+     * @param max the maximum number of items to read
+     * @return the number of items added to the list, which is less than <tt>max</tt>
+     *   only if the end of the stream or the maximum item count was reached
+     * @throws Exception if an item could not be read
+     * @since 2.1.1
+     */
+    @SuppressWarnings("unchecked")
+    public int read(List<? super T> items, int max) throws Exception {
+        int count = getCurrentItemCount();
+        int n = Math.min(max, maxItemCount - count);
+        if (reader == null || n <= 0) {
+            return 0;
+        }
+        
+        List<Object> beans = (List<Object>) items;
+        int size = beans.size();
+        try {
+            if (reader instanceof BatchBeanReader) {
+                n = ((BatchBeanReader) reader).read(beans, n);
             }
             else {
-                throw ex;
+                n = readBeans(beans, n);
             }
+            setCurrentItemCount(count + n);
+            return n;
+        }
+        catch (BeanReaderIOException ex) {
+            // the failed item is counted the same as if read() was called
+            setCurrentItemCount(count + beans.size() - size + 1);
+            throw ex.getCause();
+        }
+        catch (BeanReaderException ex) {
+            setCurrentItemCount(count + beans.size() - size + 1);
+            throw convertException(ex);
+        }
+    }
+    
+    /*
+     * Reads up to max beans one at a time from a BeanReader that does not
+     * support reading them in batches.
+     */
+    private int readBeans(List<Object> beans, int max) {
+        int n = 0;
+        Object bean;
+        while (n < max && (bean = reader.read()) != null) {
+            beans.add(bean);
+            ++n;
+        }
+        return n;
+    }
+    
+    /*
+     * Converts a BeanReaderException to a Spring exception if configured.
+     */
+    private Exception convertException(BeanReaderException ex) {
+        if (useSpringExceptions) {
+            RecordContext ctx = ex.getRecordContext();
+            if (ctx != null) {
+                return new FlatFileParseException(ex.getMessage(), ex, 
+                    ctx.getRecordText(), ctx.getLineNumber());
+            }
+            else {
+                return new FlatFileParseException(ex.getMessage(), ex, null, 0);
+            }
+        }
+        else {
+            return ex;
         }
     }
 
+    /*
+     * (non-Javadoc)
+     * @see org.springframework.batch.item.support.AbstractItemCountingItemStreamItemReader#open(org.springframework.batch.item.ExecutionContext)
+     */
+    @Override
+    public void open(ExecutionContext executionContext) throws ItemStreamException {
+        super.open(executionContext);
+        
+        // the maximum item count is also restored by the superclass on restart
+        String key = getExecutionContextUserSupport().getKey("read.count.max");
+        if (isSaveState() && executionContext.containsKey(key)) {
+            maxItemCount = executionContext.getInt(key);
+        }
+    }
+    
     @Override
     protected void doOpen() throws Exception {
         Assert.notNull(resource, "Input resource must be set");
@@ -249,6 +331,16 @@ public class BeanIOFlatFileItemReader<T> extends AbstractItemCountingItemStreamI
         this.resource = resource;
     }
 
+    /*
+     * (non-Javadoc)
+     * @see org.springframework.batch.item.support.AbstractItemCountingItemStreamItemReader#setMaxItemCount(int)
+     */
+    @Override
+    public void setMaxItemCount(int count) {
+        super.setMaxItemCount(count);
+        this.maxItemCount = count;
+    }
+
     /**
      * In strict mode this reader will throw an exception if the input resource does
      * not exist when opened.  Defaults to <tt>true</tt>.
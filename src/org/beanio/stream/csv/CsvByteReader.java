@@ -0,0 +1,674 @@
+/*
+ * Copyright 2013 Kevin Seim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.beanio.stream.csv;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.charset.Charset;
+import java.util.*;
+
+import org.beanio.stream.*;
+
+/**
+ * A <tt>CsvByteReader</tt> parses CSV formatted input streams encoded using UTF-8,
+ * US-ASCII or ISO-8859-1 into records of <tt>String</tt> arrays.
+ * <p>
+ * Unlike a {@link CsvReader}, the input stream is not decoded one character at a time.
+ * Bytes are read into a buffer and scanned eight at a time for the delimiter, quotation
+ * mark, escape character and line terminators, and only the bytes that make up a field
+ * value are decoded.  Because these characters must be ASCII, they can never match part
+ * of a multi-byte UTF-8 sequence.
+ * <p>
+ * Records are parsed exactly the same way as a {@link CsvReader} configured with the
+ * same settings, including comments.
+ *
+ * @author Kevin Seim
+ * @since 2.1.1
+ * @see CsvReader
+ */
+public class CsvByteReader implements RecordReader {
+
+    /** The default size of the input buffer */
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    private static final byte CR = '\r';
+    private static final byte LF = '\n';
+    private static final byte SPACE = ' ';
+    private static final long ONES = 0x0101010101010101L;
+    private static final long HIGHS = 0x8080808080808080L;
+    private static final long CR_PATTERN = CR * ONES;
+    private static final long LF_PATTERN = LF * ONES;
+
+    private byte delim = ',';
+    private byte quote = '"';
+    private byte escapeChar = '"';
+    private boolean escapeEnabled = true;
+    private boolean multilineEnabled = false;
+    private boolean whitespaceAllowed = false;
+    private boolean unquotedQuotesAllowed = false;
+    private byte[][] comments = null;
+    private String charsetName;
+    private boolean latin1;
+
+    /* byte patterns used to scan unquoted and quoted fields */
+    private long delimPattern;
+    private long quotePattern;
+    private long escapePattern;
+
+    private transient InputStream in;
+    private transient byte[] buf;
+    private transient ByteBuffer words;
+    private transient int pos;
+    private transient int limit;
+    private transient int mark;
+    private transient int start;
+    private transient boolean eof;
+    private transient byte[] fieldBuf = new byte[64];
+    private transient int fieldLen;
+    private transient char[] chars = new char[64];
+    private transient String recordText;
+    private transient int textStart;
+    private transient int textEnd = -1;
+    private transient int recordLineNumber;
+    private transient int lineNumber = 0;
+    private transient boolean skipLF = false;
+    private transient List<String> fieldList = new ArrayList<String>();
+
+    /**
+     * Constructs a new <tt>CsvByteReader</tt>.
+     * @param in the input stream to read from
+     * @param charset the character set the input stream is encoded with
+     * @param config the reader configuration settings or <tt>null</tt> to accept defaults
+     * @throws IllegalArgumentException if the character set is not supported, or
+     *   if a configuration setting is invalid
+     */
+    public CsvByteReader(InputStream in, Charset charset, CsvParserConfiguration config) throws IllegalArgumentException {
+        this(in, charset, config, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Constructs a new <tt>CsvByteReader</tt>.
+     * @param in the input stream to read from
+     * @param charset the character set the input stream is encoded with
+     * @param config the reader configuration settings or <tt>null</tt> to accept defaults
+     * @param bufferSize the initial size of the input buffer, which is increased as
+     *   necessary to hold the longest record
+     * @throws IllegalArgumentException if the character set is not supported, or
+     *   if a configuration setting is invalid
+     */
+    public CsvByteReader(InputStream in, Charset charset, CsvParserConfiguration config, int bufferSize)
+        throws IllegalArgumentException {
+
+        if (config == null) {
+            config = new CsvParserConfiguration();
+        }
+        if (!isSupported(charset)) {
+            throw new IllegalArgumentException("Character set '" + charset.name() + "' is not supported");
+        }
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("Buffer size must be greater than 0");
+        }
+
+        this.in = in;
+        this.charsetName = charset.name();
+        this.latin1 = "ISO-8859-1".equals(charsetName);
+
+        if (config.getDelimiter() == ' ') {
+            throw new IllegalArgumentException("The CSV field delimiter '" + config.getDelimiter() +
+                "' is not supported");
+        }
+        this.delim = toByte(config.getDelimiter(), "field delimiter");
+        this.quote = toByte(config.getQuote(), "quotation mark");
+        if (this.quote == this.delim) {
+            throw new IllegalArgumentException("The CSV field delimiter cannot " +
+                "match the character used for the quotation mark.");
+        }
+        this.multilineEnabled = config.isMultilineEnabled();
+        this.whitespaceAllowed = config.isWhitespaceAllowed();
+        this.unquotedQuotesAllowed = config.isUnquotedQuotesAllowed();
+        if (config.getEscape() != null) {
+            this.escapeEnabled = true;
+            this.escapeChar = toByte(config.getEscape(), "escape character");
+            if (this.escapeChar == this.delim) {
+                throw new IllegalArgumentException(
+                    "The CSV field delimiter cannot match the escape character.");
+            }
+        }
+        else {
+            this.escapeEnabled = false;
+        }
+
+        if (config.isCommentEnabled()) {
+            String[] prefixes = config.getComments();
+            comments = new byte[prefixes.length][];
+            for (int i=0; i<prefixes.length; i++) {
+                if (prefixes[i] == null || prefixes[i].length() == 0) {
+                    throw new IllegalArgumentException("Comment value cannot be null or empty string");
+                }
+                try {
+                    comments[i] = prefixes[i].getBytes(charsetName);
+                }
+                catch (UnsupportedEncodingException ex) {
+                    throw new IllegalArgumentException(ex);
+                }
+            }
+        }
+
+        this.delimPattern = delim * ONES;
+        this.quotePattern = quote * ONES;
+        this.escapePattern = (escapeEnabled ? escapeChar : quote) * ONES;
+
+        this.buf = new byte[bufferSize];
+        this.words = ByteBuffer.wrap(buf).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Returns whether a character set is supported by this reader.
+     * @param charset the character set to test
+     * @return <tt>true</tt> if the character set is UTF-8, US-ASCII or ISO-8859-1
+     */
+    public static boolean isSupported(Charset charset) {
+        String name = charset.name();
+        return "UTF-8".equals(name) || "US-ASCII".equals(name) || "ISO-8859-1".equals(name);
+    }
+
+    /**
+     * Returns whether a <tt>CsvByteReader</tt> can be used to read an input stream
+     * encoded with the given character set and configuration settings.  The
+     * delimiter, quotation mark and escape characters must be ASCII.
+     * @param charset the character set of the input stream
+     * @param config the reader configuration settings
+     * @return <tt>true</tt> if supported
+     */
+    public static boolean isSupported(Charset charset, CsvParserConfiguration config) {
+        return isSupported(charset) &&
+            config.getDelimiter() < 0x80 &&
+            config.getQuote() < 0x80 &&
+            (config.getEscape() == null || config.getEscape() < 0x80);
+    }
+
+    private static byte toByte(char c, String name) {
+        if (c >= 0x80) {
+            throw new IllegalArgumentException("The CSV " + name + " must be an ASCII character");
+        }
+        return (byte) c;
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see org.beanio.stream.RecordReader#getRecordLineNumber()
+     */
+    public int getRecordLineNumber() {
+        return recordLineNumber;
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see org.beanio.stream.RecordReader#getRecordText()
+     */
+    public String getRecordText() {
+        if (recordText == null && textEnd >= 0) {
+            recordText = decode(buf, textStart, textEnd - textStart);
+        }
+        return recordText;
+    }
+
+    /**
+     * Sets the raw text of the last record read.  The text is not decoded
+     * until {@link #getRecordText()} is called.
+     * @param end the end position of the record text in the buffer, or -1 if there
+     *   is no current record
+     */
+    private void setRecordText(int end) {
+        this.textStart = mark;
+        this.textEnd = end;
+        this.recordText = null;
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see org.beanio.stream.RecordReader#read()
+     */
+    public String[] read() throws IOException, RecordIOException {
+        // fieldList is set to null when the end of stream is reached
+        if (fieldList == null) {
+            setRecordText(-1);
+            recordLineNumber = -1;
+            return null;
+        }
+
+        ++lineNumber;
+
+        mark = pos;
+        if (skipLF) {
+            skipLF = false;
+            if ((pos < limit || fill()) && buf[pos] == LF) {
+                mark = ++pos;
+            }
+        }
+
+        // skip commented lines
+        if (comments != null) {
+            while (isComment()) {
+                if (!skipLine()) {
+                    fieldList = null;
+                    setRecordText(-1);
+                    recordLineNumber = -1;
+                    return null;
+                }
+                ++lineNumber;
+                mark = pos;
+            }
+        }
+
+        // the record line number is set to the first line of the record
+        recordLineNumber = lineNumber;
+
+        // clear the field list
+        fieldList.clear();
+
+        int state = 0; // current state
+        int whitespace = 0;
+        boolean escaped = false; // last byte read matched the escape char
+        start = pos;
+
+        while (pos < limit || fill()) {
+            byte c = buf[pos];
+
+            switch (state) {
+            case 0: // initial state (beginning of line, or next value)
+                if (c == delim) {
+                    fieldList.add(createWhitespace(whitespace));
+                    whitespace = 0;
+                    start = ++pos;
+                }
+                else if (c == quote) {
+                    whitespace = 0;
+                    fieldLen = 0;
+                    start = ++pos;
+                    state = 1; // look for trailing quote
+                }
+                else if (c == SPACE) {
+                    if (!whitespaceAllowed) {
+                        state = 2; // look for next delimiter
+                    }
+                    else {
+                        ++whitespace;
+                    }
+                    ++pos;
+                }
+                else if (c == CR || c == LF) {
+                    fieldList.add("");
+                    return endRecord(c);
+                }
+                else {
+                    // leading whitespace is already part of the field
+                    whitespace = 0;
+                    ++pos;
+                    state = 2; // look for next delimiter
+                }
+                break;
+
+            case 1: // quoted field, look for trailing quote at end of field
+                pos = scan(quotePattern, escapePattern, CR_PATTERN, LF_PATTERN, pos, limit);
+                if (pos == limit) {
+                    break;
+                }
+                c = buf[pos];
+                if (escapeEnabled && c == escapeChar) {
+                    appendField(start, pos);
+                    if (++pos == limit && !fill()) {
+                        escaped = true;
+                        break;
+                    }
+                    // an escape character can be used to escape itself or an end quote
+                    c = buf[pos];
+                    if (c == quote || c == escapeChar) {
+                        appendField(pos, pos + 1);
+                        start = ++pos;
+                    }
+                    else if (escapeChar == quote) {
+                        fieldList.add(decode(fieldBuf, 0, fieldLen));
+                        state = 10;
+                    }
+                    else {
+                        // the escape character is dropped
+                        start = pos;
+                    }
+                }
+                else if (c == quote) {
+                    fieldList.add(fieldValue(start, pos));
+                    ++pos;
+                    state = 10; // look for next delimiter
+                }
+                else if (multilineEnabled) {
+                    ++lineNumber;
+                    ++pos;
+                    if (c == CR && (pos < limit || fill()) && buf[pos] == LF) {
+                        ++pos;
+                    }
+                }
+                else {
+                    ++pos;
+                    setRecordText(pos - 1);
+                    throw new RecordIOException(
+                        "Expected end quotation character '" + (char) quote + "' before end of line "
+                            + lineNumber);
+                }
+                break;
+
+            case 2: // unquoted field, look for next delimiter
+                pos = unquotedQuotesAllowed ?
+                    scan(delimPattern, CR_PATTERN, CR_PATTERN, LF_PATTERN, pos, limit) :
+                    scan(delimPattern, quotePattern, CR_PATTERN, LF_PATTERN, pos, limit);
+                if (pos == limit) {
+                    break;
+                }
+                c = buf[pos];
+                if (c == delim) {
+                    fieldList.add(decode(buf, start, pos - start));
+                    start = ++pos;
+                    state = 0;
+                }
+                else if (c == CR || c == LF) {
+                    fieldList.add(decode(buf, start, pos - start));
+                    return endRecord(c);
+                }
+                else {
+                    ++pos;
+                    recover();
+                    throw new RecordIOException(
+                        "Quotation character '" + (char) quote + "' must be quoted at line " + lineNumber);
+                }
+                break;
+
+            case 10: // quoted field, after final quote read
+                if (c == SPACE) {
+                    ++pos;
+                    if (!whitespaceAllowed) {
+                        recover();
+                        throw new RecordIOException(
+                            "Invalid whitespace found outside of quoted field at line " + lineNumber);
+                    }
+                }
+                else if (c == delim) {
+                    start = ++pos;
+                    state = 0;
+                }
+                else if (c == CR || c == LF) {
+                    return endRecord(c);
+                }
+                else {
+                    ++pos;
+                    recover();
+                    throw new RecordIOException(
+                        "Invalid character found outside of quoted field at line " + lineNumber);
+                }
+                break;
+            }
+        }
+
+        // the end of the stream was reached, further validation is needed
+
+        // handle escaped mode
+        if (escaped && escapeChar == quote) {
+            fieldList.add(decode(fieldBuf, 0, fieldLen));
+            state = 10;
+        }
+
+        // validate current state...
+        switch (state) {
+        case 0:
+            // do not create an empty field if we've reached the end of the file and no
+            // characters were read on the last line
+            if (whitespace > 0 || fieldList.size() > 0)
+                fieldList.add(createWhitespace(whitespace));
+            break;
+        case 1:
+            fieldList = null;
+            setRecordText(-1);
+            recordLineNumber = -1;
+            throw new RecordIOException(
+                "Expected end quote before end of line at line " + lineNumber);
+        case 2:
+            fieldList.add(decode(buf, start, limit - start));
+            break;
+        case 10:
+            break;
+        }
+
+        if (fieldList.isEmpty()) {
+            fieldList = null;
+            setRecordText(-1);
+            recordLineNumber = -1;
+            return null;
+        }
+        else {
+            String[] record = new String[fieldList.size()];
+            record = fieldList.toArray(record);
+            setRecordText(limit);
+            fieldList = null;
+            return record;
+        }
+    }
+
+    /**
+     * Completes a record terminated by a line terminator at the current position.
+     * @param c the line terminator
+     * @return the parsed record
+     */
+    private String[] endRecord(byte c) {
+        setRecordText(pos);
+        skipLF = (c == CR);
+        ++pos;
+        String[] record = new String[fieldList.size()];
+        return fieldList.toArray(record);
+    }
+
+    /**
+     * Advances the input stream to the end of the record so that subsequent reads
+     * might be possible.
+     * @throws IOException
+     */
+    private void recover() throws IOException {
+        while (pos < limit || fill()) {
+            pos = scan(CR_PATTERN, CR_PATTERN, LF_PATTERN, LF_PATTERN, pos, limit);
+            if (pos < limit) {
+                endRecord(buf[pos]);
+                return;
+            }
+        }
+
+        // end of file reached...
+        setRecordText(limit);
+        fieldList = null;
+    }
+
+    /**
+     * Returns whether the line at the current position starts with a comment.
+     * @return <tt>true</tt> if the line is commented
+     * @throws IOException
+     */
+    private boolean isComment() throws IOException {
+        for (byte[] comment : comments) {
+            while (limit - pos < comment.length && fill()) { }
+            if (limit - pos >= comment.length) {
+                int i = 0;
+                while (i < comment.length && buf[pos + i] == comment[i]) {
+                    ++i;
+                }
+                if (i == comment.length) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Skips the line at the current position, including its line terminator.
+     * @return <tt>false</tt> if the end of the stream was reached
+     * @throws IOException
+     */
+    private boolean skipLine() throws IOException {
+        while (pos < limit || fill()) {
+            pos = scan(CR_PATTERN, CR_PATTERN, LF_PATTERN, LF_PATTERN, pos, limit);
+            if (pos < limit) {
+                if (buf[pos++] == CR && (pos < limit || fill()) && buf[pos] == LF) {
+                    ++pos;
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the position of the first byte matching any of the given byte patterns,
+     * or <tt>end</tt> if not found.  Each pattern repeats a single byte eight times.
+     * Whole words are tested using the well known "has zero byte" expression, which
+     * may flag bytes after the first match, but never before it.
+     */
+    private int scan(long a, long b, long c, long d, int i, int end) {
+        for (int n = end - 8; i <= n; i += 8) {
+            long word = words.getLong(i);
+            long match = zero(word ^ a) | zero(word ^ b) | zero(word ^ c) | zero(word ^ d);
+            if (match != 0) {
+                return i + (Long.numberOfTrailingZeros(match) >>> 3);
+            }
+        }
+        for (; i < end; i++) {
+            byte x = buf[i];
+            if (x == (byte) a || x == (byte) b || x == (byte) c || x == (byte) d) {
+                return i;
+            }
+        }
+        return end;
+    }
+
+    private static long zero(long x) {
+        return (x - ONES) & ~x & HIGHS;
+    }
+
+    /**
+     * Reads more bytes into the buffer.  Bytes before the start of the current record
+     * are discarded, or if there are none, the buffer is enlarged.
+     * @return <tt>false</tt> if the end of the stream was reached
+     * @throws IOException
+     */
+    private boolean fill() throws IOException {
+        if (eof) {
+            return false;
+        }
+        if (limit == buf.length) {
+            if (mark > 0) {
+                System.arraycopy(buf, mark, buf, 0, limit - mark);
+                limit -= mark;
+                pos -= mark;
+                start -= mark;
+                mark = 0;
+            }
+            else {
+                byte[] b = new byte[buf.length * 2];
+                System.arraycopy(buf, 0, b, 0, limit);
+                buf = b;
+                words = ByteBuffer.wrap(buf).order(ByteOrder.LITTLE_ENDIAN);
+            }
+        }
+
+        int n;
+        while ((n = in.read(buf, limit, buf.length - limit)) == 0) { }
+        if (n < 0) {
+            eof = true;
+            return false;
+        }
+        limit += n;
+        return true;
+    }
+
+    /**
+     * Returns the value of a quoted field ending at the given position.
+     */
+    private String fieldValue(int from, int to) {
+        if (fieldLen == 0) {
+            return decode(buf, from, to - from);
+        }
+        appendField(from, to);
+        return decode(fieldBuf, 0, fieldLen);
+    }
+
+    /**
+     * Appends a range of the input buffer to the current quoted field value.
+     */
+    private void appendField(int from, int to) {
+        int len = to - from;
+        if (fieldLen + len > fieldBuf.length) {
+            byte[] b = new byte[Math.max(fieldBuf.length * 2, fieldLen + len)];
+            System.arraycopy(fieldBuf, 0, b, 0, fieldLen);
+            fieldBuf = b;
+        }
+        System.arraycopy(buf, from, fieldBuf, fieldLen, len);
+        fieldLen += len;
+    }
+
+    /**
+     * Decodes a range of bytes.  ASCII bytes are copied directly, otherwise the
+     * bytes are decoded using the configured character set.
+     */
+    private String decode(byte[] b, int off, int len) {
+        if (len == 0) {
+            return "";
+        }
+        if (chars.length < len) {
+            chars = new char[Math.max(chars.length * 2, len)];
+        }
+        char[] c = chars;
+        for (int i=0; i<len; i++) {
+            int x = b[off + i];
+            if (x < 0) {
+                if (!latin1) {
+                    try {
+                        return new String(b, off, len, charsetName);
+                    }
+                    catch (UnsupportedEncodingException ex) {
+                        throw new IllegalStateException(ex);
+                    }
+                }
+                x &= 0xFF;
+            }
+            c[i] = (char) x;
+        }
+        return new String(c, 0, len);
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see org.beanio.stream.RecordReader#close()
+     */
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private String createWhitespace(int size) {
+        if (size == 0)
+            return "";
+
+        StringBuilder b = new StringBuilder(size);
+        for (int i = 0; i < size; i++)
+            b.append(' ');
+        return b.toString();
+    }
+}
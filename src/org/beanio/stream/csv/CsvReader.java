@@ -18,6 +18,7 @@ package org.beanio.stream.csv;
 import java.io.*;
 import java.util.*;
 
+import org.beanio.internal.util.RecordTextProvider;
 import org.beanio.stream.*;
 import org.beanio.stream.util.CommentReader;
 
@@ -45,7 +46,7 @@ import org.beanio.stream.util.CommentReader;
  * @author Kevin Seim
  * @since 1.0
  */
-public class CsvReader implements RecordReader {
+public class CsvReader implements RecordReader, RecordTextProvider {
 
     private char delim = ',';
     private char quote = '"';
@@ -59,6 +60,7 @@ public class CsvReader implements RecordReader {
     
     private transient Reader in;
     private transient String recordText;
+    private transient StringBuilder recordTextBuilder;
     private transient int recordLineNumber;
     private transient int lineNumber = 0;
     private transient boolean skipLF = false;
@@ -131,9 +133,41 @@ public class CsvReader implements RecordReader {
      * @return the raw text of the last record
      */
     public String getRecordText() {
+        if (recordText == null && recordTextBuilder != null) {
+            recordText = recordTextBuilder.toString();
+        }
         return recordText;
     }
 
+    /**
+     * Sets the raw text of the last record read.  The text is not converted
+     * to a <tt>String</tt> until {@link #getRecordText()} is called.
+     * @param text the record text, or <tt>null</tt> if there is no current record
+     */
+    private void setRecordText(StringBuilder text) {
+        this.recordTextBuilder = text;
+        this.recordText = null;
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see org.beanio.internal.util.RecordTextProvider#getRecordTextLength()
+     */
+    public int getRecordTextLength() {
+        if (recordText != null) {
+            return recordText.length();
+        }
+        return recordTextBuilder == null ? -1 : recordTextBuilder.length();
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see org.beanio.internal.util.RecordTextProvider#getRecordTextSequence()
+     */
+    public CharSequence getRecordTextSequence() {
+        return recordText != null ? recordText : recordTextBuilder;
+    }
+
     /**
      * Reads the next record from this input stream.
      * @return the array of field values that make up the next record
@@ -143,7 +177,7 @@ public class CsvReader implements RecordReader {
     public String[] read() throws IOException, RecordIOException {
         // fieldList is set to null when the end of stream is reached
         if (fieldList == null) {
-            recordText = null;
+            setRecordText(null);
             recordLineNumber = -1;
             return null;
         }
@@ -156,7 +190,7 @@ public class CsvReader implements RecordReader {
             if (lines > 0) {
                 if (commentReader.isEOF()) {
                     fieldList = null;
-                    recordText = null;
+                    setRecordText(null);
                     recordLineNumber = -1;
                     return null;
                 }
@@ -344,7 +378,7 @@ public class CsvReader implements RecordReader {
         // if eol is true, we're done; if not, then the end of file was reached 
         // and further validation is needed
         if (eol) {
-            recordText = text.toString();
+            setRecordText(text);
             String[] record = new String[fieldList.size()];
             return fieldList.toArray(record);
         }
@@ -370,7 +404,7 @@ public class CsvReader implements RecordReader {
             break;
         case 1:
             fieldList = null;
-            recordText = null;
+            setRecordText(null);
             recordLineNumber = -1;
             throw new RecordIOException(
                 "Expected end quote before end of line at line " + lineNumber);
@@ -383,14 +417,14 @@ public class CsvReader implements RecordReader {
 
         if (fieldList.isEmpty()) {
             fieldList = null;
-            recordText = null;
+            setRecordText(null);
             recordLineNumber = -1;
             return null;
         }
         else {
             String[] record = new String[fieldList.size()];
             record = fieldList.toArray(record);
-            recordText = text.toString();
+            setRecordText(text);
             fieldList = null;
             return record;
         }
@@ -408,12 +442,12 @@ public class CsvReader implements RecordReader {
         while ((n = in.read()) != -1) {
             char c = (char) n;
             if (c == '\n') {
-                recordText = text.toString();
+                setRecordText(text);
                 return;
             }
             else if (c == '\r') {
                 skipLF = true;
-                recordText = text.toString();
+                setRecordText(text);
                 return;
             }
             else {
@@ -422,7 +456,7 @@ public class CsvReader implements RecordReader {
         }
 
         // end of file reached...
-        recordText = text.toString();
+        setRecordText(text);
         fieldList = null;
     }
 
@@ -16,7 +16,9 @@
 package org.beanio.stream.csv;
 
 import java.io.*;
+import java.nio.charset.Charset;
 
+import org.beanio.internal.util.UnsynchronizedBufferedReader;
 import org.beanio.stream.*;
 
 /**
@@ -57,6 +59,45 @@ public class CsvRecordParserFactory extends CsvParserConfiguration implements Re
         return new CsvReader(in, this);
     }
 
+    /**
+     * Creates a new <tt>RecordReader</tt> for reading from an input stream.  If the
+     * character set is UTF-8, US-ASCII or ISO-8859-1, and the delimiter, quotation mark
+     * and escape characters are ASCII, a {@link CsvByteReader} is returned.  Otherwise,
+     * a {@link CsvReader} is returned.
+     * @param in the input stream to read from
+     * @param charset the character set the input stream is encoded with
+     * @return the new <tt>RecordReader</tt>
+     * @throws IllegalArgumentException if a configuration setting is invalid
+     * @since 2.1.1
+     */
+    public RecordReader createReader(InputStream in, Charset charset) throws IllegalArgumentException {
+        if (CsvByteReader.isSupported(charset, this)) {
+            return new CsvByteReader(in, charset, this);
+        }
+        return createReader(new UnsynchronizedBufferedReader(new InputStreamReader(in, charset)));
+    }
+
+    /**
+     * Creates a new <tt>RecordReader</tt> for reading from a file.
+     * @param file the file to read from
+     * @param charset the character set the file is encoded with
+     * @return the new <tt>RecordReader</tt>
+     * @throws IOException if the file cannot be opened
+     * @throws IllegalArgumentException if a configuration setting is invalid
+     * @since 2.1.1
+     * @see #createReader(InputStream, Charset)
+     */
+    public RecordReader createReader(File file, Charset charset) throws IOException, IllegalArgumentException {
+        InputStream in = new FileInputStream(file);
+        try {
+            return createReader(in, charset);
+        }
+        catch (RuntimeException ex) {
+            in.close();
+            throw ex;
+        }
+    }
+
     /*
      * (non-Javadoc)
      * @see org.beanio.stream.RecordWriterFactory#createWriter(java.io.Writer)
@@ -33,6 +33,9 @@ import org.beanio.stream.RecordWriter;
  *   field is only quoted if it contains a quotation mark, delimiter, 
  *   line feed or carriage return.</li>
  * </ul>
+ * <p>
+ * Each record is formatted into a reusable character buffer and written to the
+ * output stream using a single call to {@link Writer#write(char[], int, int)}.
  * 
  * @author Kevin Seim
  * @since 1.0
@@ -48,6 +51,7 @@ public class CsvWriter implements RecordWriter {
     
     private transient Writer out;
     private transient int lineNumber;
+    private transient char[] buf = new char[256];
     
     /**
      * Constructs a new <tt>CsvWriter</tt> using default settings.
@@ -107,27 +111,44 @@ public class CsvWriter implements RecordWriter {
         ++lineNumber;
         
         int pos = 0;
-        for (String field : record) {
-            if (pos++ > 0)
-                out.write(delim);
+        for (int i=0; i<record.length; i++) {
+            String field = record[i];
+            int len = field.length();
             
-            boolean skipLF = false;
-            char [] cs = field.toCharArray();
+            // worst case, every character is escaped
+            ensureCapacity(pos + 2 * len + 3);
             
-            boolean quoted = alwaysQuote || mustQuote(cs);
-            if (quoted) {
-                out.write(quote);
+            if (i > 0) {
+                buf[pos++] = delim;
+            }
+            
+            int start = pos;
+            if (alwaysQuote) {
+                buf[pos++] = quote;
             }
             
-            for (char c : cs) {
+            // copy the field as is and check whether it must be quoted or escaped
+            field.getChars(0, len, buf, pos);
+            boolean skipLF = false;
+            boolean quoted = alwaysQuote;
+            boolean escaped = false;
+            for (int j=pos, end=pos+len; j<end; j++) {
+                char c = buf[j];
                 if (c == endQuote || c == escapeChar) {
-                    out.write(escapeChar);
+                    escaped = true;
+                    quoted |= (c == quote);
+                }
+                else if (c == delim) {
+                    quoted = true;
+                    skipLF = false;
                 }
                 else if (c == '\r') {
+                    quoted = true;
                     skipLF = true;
                     ++lineNumber;
                 }
                 else if (c == '\n') {
+                    quoted = true;
                     if (skipLF) {
                         skipLF = false;
                     }
@@ -138,34 +159,46 @@ public class CsvWriter implements RecordWriter {
                 else {
                     skipLF = false;
                 }
-                
-                out.write(c);
+            }
+            
+            if (!escaped && quoted == alwaysQuote) {
+                pos += len;
+            }
+            else {
+                pos = start;
+                if (quoted) {
+                    buf[pos++] = quote;
+                }
+                for (int j=0; j<len; j++) {
+                    char c = field.charAt(j);
+                    if (c == endQuote || c == escapeChar) {
+                        buf[pos++] = escapeChar;
+                    }
+                    buf[pos++] = c;
+                }
             }
             
             if (quoted) {
-                out.write(endQuote);
+                buf[pos++] = endQuote;
             }
         }
-        out.write(lineSeparator);
+        
+        int len = lineSeparator.length();
+        ensureCapacity(pos + len);
+        lineSeparator.getChars(0, len, buf, pos);
+        out.write(buf, 0, pos + len);
     }
     
     /**
-     * Returns <tt>true</tt> if the given field must be quoted.
-     * @param cs the field to test
-     * @return <tt>true</tt> if the given field must be quoted
+     * Enlarges the record buffer, if necessary, to hold the given number of characters.
+     * @param size the required buffer size
      */
-    private boolean mustQuote(char [] cs) {
-        for (char c : cs) {
-            if (c == delim)
-                return true;
-            if (c == quote)
-                return true;
-            if (c == '\n')
-                return true;
-            if (c == '\r')
-                return true;
+    private void ensureCapacity(int size) {
+        if (size > buf.length) {
+            char[] b = new char[Math.max(size, buf.length * 2)];
+            System.arraycopy(buf, 0, b, 0, buf.length);
+            buf = b;
         }
-        return false;
     }
     
     /*
@@ -0,0 +1,696 @@
+/*
+ * Copyright 2014 Kevin Seim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.beanio.stream.delimited;
+
+import java.io.*;
+
+import org.beanio.internal.util.RecordTextProvider;
+import org.beanio.stream.*;
+
+/**
+ * A <tt>DelimitedBufferedReader</tt> parses delimited flat files into records of
+ * <tt>String</tt> arrays exactly like {@link DelimitedReader}, but instead of reading
+ * the input stream one character at a time, characters are read in blocks into an
+ * internal buffer which is then scanned for delimiters, escape characters and record
+ * terminators.
+ * <p>
+ * While a record is being read, its fields are tracked as offsets into the buffer,
+ * and a field value is only copied when the record is complete.  A field is only
+ * copied into a separate <tt>StringBuilder</tt> if its text was modified by an escape
+ * or line continuation character.  The raw record text is not created until requested
+ * by {@link #getRecordText()}.
+ * <p>
+ * The buffer always holds the entire record being read, and grows if a record
+ * exceeds the configured buffer size.  Because characters are read ahead of the
+ * current record, the underlying input stream should not be read by any other
+ * object once this reader is created.
+ *
+ * @author Kevin Seim
+ * @since 2.1.1
+ * @see DelimitedReader
+ */
+public class DelimitedBufferedReader implements RecordReader, RecordTextProvider {
+
+    /** The default buffer size */
+    public static final int DEFAULT_BUFFER_SIZE = 65536;
+
+    private char delim = '\t';
+    private char escapeChar = '\\';
+    private char lineContinuationChar = '\\';
+    private char recordTerminator = 0;
+    private boolean multilineEnabled = false;
+    private boolean escapeEnabled = false;
+    private String[] comments = null;
+    private int maxCommentLength = 0;
+
+    private transient Reader in;
+    private transient char[] buf;
+    // the position of the next character to read from the buffer
+    private transient int pos = 0;
+    // the number of valid characters in the buffer
+    private transient int limit = 0;
+    // the buffer position of the first character of the current record
+    private transient int recordStart = 0;
+    // the length of the current record text, or -1 if there is no current record
+    private transient int recordLength = -1;
+    // the buffer position of the current field, and the end of its unmodified text
+    private transient int fieldStart = 0;
+    private transient int fieldEnd = 0;
+    // set to true once a field has been copied into the field builder
+    private transient boolean fieldCopied = false;
+    private transient StringBuilder fieldBuilder = new StringBuilder();
+    // field offsets relative to the start of the record, stored in start/end pairs
+    private transient int[] fieldOffsets = new int[32];
+    // field values copied because they were modified by escape or continuation characters
+    private transient String[] copiedFields = new String[16];
+    private transient int fieldCount = 0;
+    // offsets (relative to the record start) of line feeds not included in the record text
+    private transient int[] skippedOffsets = new int[4];
+    private transient int skippedCount = 0;
+
+    private transient String recordText;
+    private transient int recordLineNumber;
+    private transient int lineNumber = 0;
+    private transient boolean skipLF = false;
+    private transient boolean eof = false;
+    private transient boolean endOfInput = false;
+
+    /**
+     * Constructs a new <tt>DelimitedBufferedReader</tt> using a tab character for
+     * the field delimiter.  Escaping and line continuation characters are disabled.
+     * @param in the input stream to read from
+     */
+    public DelimitedBufferedReader(Reader in) {
+        this(in, null);
+    }
+
+    /**
+     * Constructs a new <tt>DelimitedBufferedReader</tt>.
+     * @param in the input stream to read from
+     * @param config the reader configuration settings or <tt>null</tt> to use default values
+     * @throws IllegalArgumentException if the delimiter matches the escape character or
+     *   or the line continuation character
+     */
+    public DelimitedBufferedReader(Reader in, DelimitedParserConfiguration config) {
+        if (config == null) {
+            config = new DelimitedParserConfiguration();
+        }
+
+        this.in = in;
+        this.delim = config.getDelimiter();
+
+        if (config.getEscape() != null) {
+            this.escapeEnabled = true;
+            this.escapeChar = config.getEscape();
+
+            if (delim == escapeChar) {
+                throw new IllegalArgumentException("The field delimiter canot match the escape character");
+            }
+        }
+
+        if (config.getLineContinuationCharacter() != null) {
+            this.multilineEnabled = true;
+            this.lineContinuationChar = config.getLineContinuationCharacter();
+
+            if (delim == lineContinuationChar) {
+                throw new IllegalArgumentException("The field delimiter cannot match the line continuation character");
+            }
+        }
+
+        if (config.getRecordTerminator() != null) {
+            String s = config.getRecordTerminator();
+
+            if ("\r\n".equals(s)) {
+                // use default
+            }
+            else if (s.length() == 1) {
+                this.recordTerminator = s.charAt(0);
+            }
+            else if (s.length() > 1) {
+                throw new IllegalArgumentException("Record terminator must be a single character");
+            }
+
+            if (recordTerminator == delim) {
+                throw new IllegalArgumentException("The record delimiter and record terminator characters cannot match");
+            }
+            if (multilineEnabled && recordTerminator == lineContinuationChar) {
+                throw new IllegalArgumentException("The line continuation character and record terminator cannot match");
+            }
+        }
+
+        if (config.isCommentEnabled()) {
+            this.comments = config.getComments();
+            for (String s : comments) {
+                if (s == null || s.length() == 0) {
+                    throw new IllegalArgumentException("Comment value cannot be null or empty string");
+                }
+                maxCommentLength = Math.max(maxCommentLength, s.length());
+            }
+        }
+
+        int size = DEFAULT_BUFFER_SIZE;
+        if (config.getBufferSize() != null) {
+            size = config.getBufferSize();
+            if (size <= 0) {
+                throw new IllegalArgumentException("Buffer size must be greater than 0");
+            }
+        }
+        this.buf = new char[Math.max(size, maxCommentLength)];
+    }
+
+    /**
+     * Returns the starting line number of the last record record.  A value of
+     * -1 is returned if the end of the stream was reached, or 0 if records are
+     * not terminated by new line characters.
+     * @return the starting line number of the last record
+     */
+    public int getRecordLineNumber() {
+        if (recordLineNumber < 0)
+            return -1;
+        else
+            return recordTerminator == 0 ? recordLineNumber : 0;
+    }
+
+    /**
+     * Returns the raw text of the last record read or null if the end of the
+     * stream was reached.  The text is copied from the internal buffer the
+     * first time this method is called for a record.
+     * @return the raw text of the last record
+     */
+    public String getRecordText() {
+        if (recordText == null && recordLength >= 0) {
+            if (skippedCount == 0) {
+                recordText = new String(buf, recordStart, recordLength);
+            }
+            else {
+                StringBuilder text = new StringBuilder(recordLength);
+                int from = 0;
+                for (int i = 0; i < skippedCount; i++) {
+                    text.append(buf, recordStart + from, skippedOffsets[i] - from);
+                    from = skippedOffsets[i] + 1;
+                }
+                text.append(buf, recordStart + from, recordLength - from);
+                recordText = text.toString();
+            }
+        }
+        return recordText;
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see org.beanio.internal.util.RecordTextProvider#getRecordTextLength()
+     */
+    public int getRecordTextLength() {
+        return recordLength < 0 ? -1 : recordLength - skippedCount;
+    }
+
+    /**
+     * Returns the raw text of the last record read.  Because the internal buffer is
+     * reused, the text is always copied into a <tt>String</tt>.
+     * @return the raw text of the last record
+     */
+    public CharSequence getRecordTextSequence() {
+        return getRecordText();
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see org.beanio.stream.RecordReader#read()
+     */
+    public String[] read() throws IOException {
+        recordText = null;
+        recordLength = -1;
+
+        if (eof) {
+            recordLineNumber = -1;
+            return null;
+        }
+
+        ++lineNumber;
+
+        // skip commented lines
+        if (comments != null) {
+            int lines = skipComments();
+            if (lines > 0) {
+                if (eof) {
+                    recordLineNumber = -1;
+                    return null;
+                }
+                else {
+                    lineNumber += lines;
+                }
+            }
+        }
+
+        int lineOffset = 0;
+
+        // skip '\n' after a '\r' from the previous record
+        if (skipLF) {
+            if (pos < limit || fill()) {
+                if (buf[pos] == '\n') {
+                    ++pos;
+                }
+                skipLF = false;
+            }
+        }
+
+        recordStart = pos;
+        fieldCount = 0;
+        skippedCount = 0;
+        startField();
+
+        boolean continued = false; // line continuation
+        boolean escaped = false; // last character read matched the escape char
+        boolean eol = false; // end of record flag
+
+        // the fast path: without escaping or line continuation, the buffer
+        // can be scanned for delimiters and record terminators in bulk
+        if (!escapeEnabled && !multilineEnabled) {
+            char[] b = buf;
+            while (!eol) {
+                if (pos == limit) {
+                    if (!fill()) {
+                        break;
+                    }
+                    b = buf;
+                }
+
+                int i = pos;
+                int n = limit;
+                if (recordTerminator == 0) {
+                    for (; i < n; i++) {
+                        char c = b[i];
+                        if (c == delim) {
+                            fieldEnd = i;
+                            endField();
+                            fieldStart = fieldEnd = i + 1;
+                        }
+                        else if (c == '\n' || c == '\r') {
+                            skipLF = (c == '\r');
+                            eol = true;
+                            break;
+                        }
+                    }
+                }
+                else {
+                    for (; i < n; i++) {
+                        char c = b[i];
+                        if (c == delim) {
+                            fieldEnd = i;
+                            endField();
+                            fieldStart = fieldEnd = i + 1;
+                        }
+                        else if (c == recordTerminator) {
+                            eol = true;
+                            break;
+                        }
+                    }
+                }
+
+                if (eol) {
+                    fieldEnd = i;
+                    endField();
+                    pos = i + 1;
+                }
+                else {
+                    fieldEnd = i;
+                    pos = i;
+                }
+            }
+
+            if (eol) {
+                recordLength = pos - 1 - recordStart;
+            }
+            else {
+                recordLength = pos - recordStart;
+            }
+        }
+        else {
+            while (!eol) {
+                if (pos == limit && !fill()) {
+                    break;
+                }
+
+                char c = buf[pos++];
+
+                // skip '\n' after a '\r'
+                if (skipLF) {
+                    skipLF = false;
+                    if (c == '\n') {
+                        markSkipped(pos - 1);
+                        continue;
+                    }
+                }
+
+                // handle line continuation
+                if (continued) {
+                    continued = false;
+
+                    if (endOfRecord(c, true)) {
+                        escaped = false;
+                        ++lineNumber;
+                        ++lineOffset;
+                        continue;
+                    }
+                    else if (!escaped) {
+                        append(lineContinuationChar);
+                    }
+                }
+
+                // handle escaped characters
+                if (escaped) {
+                    escaped = false;
+
+                    // an escape character can be used to escape itself or an end quote
+                    if (c == delim) {
+                        append(c);
+                        continue;
+                    }
+                    else if (c == escapeChar) {
+                        append(escapeChar);
+                        continue;
+                    }
+                    else {
+                        append(escapeChar);
+                    }
+                }
+
+                // default handling
+                if (escapeEnabled && c == escapeChar) {
+                    escaped = true;
+                    if (multilineEnabled && c == lineContinuationChar) {
+                        continued = true;
+                    }
+                }
+                else if (multilineEnabled && c == lineContinuationChar) {
+                    continued = true;
+                }
+                else if (c == delim) {
+                    endField();
+                    startField();
+                }
+                else if (endOfRecord(c, true)) {
+                    endField();
+                    eol = true;
+                }
+                else {
+                    append(c);
+                }
+            }
+
+            if (eol) {
+                recordLength = pos - 1 - recordStart;
+            }
+            else {
+                recordLength = pos - recordStart;
+            }
+        }
+
+        // update the record line number
+        recordLineNumber = lineNumber - lineOffset;
+
+        // if eol is true, we're done; if not, then the end of file was reached
+        // and further validation is needed
+        if (eol) {
+            return createRecord();
+        }
+
+        eof = true;
+
+        if (continued) {
+            recordLength = -1;
+            recordLineNumber = -1;
+            throw new RecordIOException("Unexpected end of stream after line continuation at line " + lineNumber);
+        }
+
+        // handle last escaped char
+        if (escaped) {
+            append(escapeChar);
+        }
+
+        if (recordLength - skippedCount > 0) {
+            endField();
+            return createRecord();
+        }
+        else {
+            recordLength = -1;
+            recordLineNumber = -1;
+            return null;
+        }
+    }
+
+    /**
+     * Skips commented lines and returns the number of lines skipped.
+     * @return the number of skipped lines
+     * @throws IOException if an I/O error occurs
+     */
+    private int skipComments() throws IOException {
+        int lines = 0;
+        while (true) {
+            recordStart = pos;
+
+            // make sure the longest comment (and a possible leading line feed) fits in the buffer
+            int required = maxCommentLength + (skipLF ? 1 : 0);
+            while (limit - pos < required) {
+                if (!fill()) {
+                    break;
+                }
+            }
+            if (pos == limit) {
+                break;
+            }
+
+            int start = pos;
+            if (skipLF && buf[start] == '\n') {
+                ++start;
+            }
+
+            // determine if the line prefix matches a configured comment
+            boolean commentFound = false;
+            for (String s : comments) {
+                if (startsWith(start, s)) {
+                    commentFound = true;
+                    ++lines;
+                    break;
+                }
+            }
+
+            // if no comment was found, break out
+            if (!commentFound) {
+                break;
+            }
+
+            // finish reading the entire line
+            pos = start;
+            skipLF = false;
+            while (true) {
+                if (pos == limit) {
+                    recordStart = pos;
+                    if (!fill()) {
+                        eof = true;
+                        return lines;
+                    }
+                }
+
+                char c = buf[pos++];
+                if (recordTerminator == 0) {
+                    if (c == '\n') {
+                        break;
+                    }
+                    else if (c == '\r') {
+                        skipLF = true;
+                        break;
+                    }
+                }
+                else if (c == recordTerminator) {
+                    break;
+                }
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * Returns whether the buffer at the given position starts with the given text.
+     * @param start the buffer position
+     * @param s the text to test
+     * @return <tt>true</tt> if the buffer contains the text at the given position
+     */
+    private boolean startsWith(int start, String s) {
+        int n = s.length();
+        if (limit - start < n) {
+            return false;
+        }
+        for (int i = 0; i < n; i++) {
+            if (buf[start + i] != s.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reads more characters from the input stream into the buffer.  If the buffer
+     * is full, the current record is either shifted to the start of the buffer, or
+     * if the record already starts at the beginning of the buffer, the buffer is grown.
+     * @return <tt>false</tt> if the end of the input stream was reached
+     * @throws IOException if an I/O error occurs
+     */
+    private boolean fill() throws IOException {
+        if (endOfInput) {
+            return false;
+        }
+
+        if (limit == buf.length) {
+            if (recordStart > 0) {
+                int shift = recordStart;
+                System.arraycopy(buf, shift, buf, 0, limit - shift);
+                limit -= shift;
+                pos -= shift;
+                fieldStart -= shift;
+                fieldEnd -= shift;
+                recordStart = 0;
+            }
+            else {
+                char[] b = new char[buf.length * 2];
+                System.arraycopy(buf, 0, b, 0, limit);
+                buf = b;
+            }
+        }
+
+        int n = in.read(buf, limit, buf.length - limit);
+        if (n < 0) {
+            endOfInput = true;
+            return false;
+        }
+        limit += n;
+        return true;
+    }
+
+    /**
+     * Starts a new field at the current buffer position.
+     */
+    private void startField() {
+        fieldStart = fieldEnd = pos;
+        fieldCopied = false;
+    }
+
+    /**
+     * Appends a character to the current field.  As long as the field text matches
+     * the text in the buffer, only the end offset of the field is updated.
+     * @param c the character to append
+     */
+    private void append(char c) {
+        if (!fieldCopied) {
+            if (fieldEnd < pos && buf[fieldEnd] == c) {
+                ++fieldEnd;
+                return;
+            }
+            fieldBuilder.setLength(0);
+            fieldBuilder.append(buf, fieldStart, fieldEnd - fieldStart);
+            fieldCopied = true;
+        }
+        fieldBuilder.append(c);
+    }
+
+    /**
+     * Adds the current field to the record.
+     */
+    private void endField() {
+        if (fieldCount == copiedFields.length) {
+            String[] s = new String[fieldCount * 2];
+            System.arraycopy(copiedFields, 0, s, 0, fieldCount);
+            copiedFields = s;
+
+            int[] o = new int[fieldCount * 4];
+            System.arraycopy(fieldOffsets, 0, o, 0, fieldCount * 2);
+            fieldOffsets = o;
+        }
+
+        if (fieldCopied) {
+            copiedFields[fieldCount] = fieldBuilder.toString();
+        }
+        else {
+            fieldOffsets[fieldCount * 2] = fieldStart - recordStart;
+            fieldOffsets[fieldCount * 2 + 1] = fieldEnd - recordStart;
+        }
+        ++fieldCount;
+    }
+
+    /**
+     * Records the buffer position of a line feed that is not part of the record text.
+     * @param index the buffer position of the skipped character
+     */
+    private void markSkipped(int index) {
+        if (skippedCount == skippedOffsets.length) {
+            int[] s = new int[skippedCount * 2];
+            System.arraycopy(skippedOffsets, 0, s, 0, skippedCount);
+            skippedOffsets = s;
+        }
+        skippedOffsets[skippedCount++] = index - recordStart;
+    }
+
+    /**
+     * Creates the record from the field offsets and copied field values.
+     * @return the record
+     */
+    private String[] createRecord() {
+        String[] record = new String[fieldCount];
+        for (int i = 0; i < fieldCount; i++) {
+            String s = copiedFields[i];
+            if (s == null) {
+                int start = fieldOffsets[i * 2];
+                record[i] = new String(buf, recordStart + start, fieldOffsets[i * 2 + 1] - start);
+            }
+            else {
+                record[i] = s;
+                copiedFields[i] = null;
+            }
+        }
+        return record;
+    }
+
+    /**
+     * Returns <tt>true</tt> if the given character matches the record separator.  This
+     * method also updates the internal <tt>skipLF</tt> flag.
+     * @param c the character to test
+     * @param skipLF the value to set <tt>skipLF</tt> if the character is a carriage return
+     * @return <tt>true</tt> if the character signifies the end of the record
+     */
+    private boolean endOfRecord(char c, boolean skipLF) {
+        if (recordTerminator == 0) {
+            if (c == '\r') {
+                this.skipLF = skipLF;
+                return true;
+            }
+            else if (c == '\n') {
+                return true;
+            }
+            return false;
+        }
+        else {
+            return c == recordTerminator;
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see org.beanio.stream.RecordReader#close()
+     */
+    public void close() throws IOException {
+        in.close();
+    }
+}
@@ -28,6 +28,7 @@ public class DelimitedParserConfiguration {
     private Character lineContinuationCharacter = null;
     private String recordTerminator = null;
     private String[] comments;
+    private Integer bufferSize = null;
     
     /**
      * Constructs a new <tt>DelimitedParserConfiguration</tt>.
@@ -155,4 +156,28 @@ public class DelimitedParserConfiguration {
     public boolean isCommentEnabled() {
         return comments != null && comments.length > 0;
     }
+
+    /**
+     * Returns the size of the character buffer used to read records in bulk, or
+     * <tt>null</tt> if records are read one character at a time.  By default,
+     * records are read one character at a time.
+     * @return the buffer size, or <tt>null</tt> if block reading is disabled
+     * @since 2.1.1
+     * @see DelimitedBufferedReader
+     */
+    public Integer getBufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * Sets the size of the character buffer used to read records in bulk.  If set,
+     * records are read using a {@link DelimitedBufferedReader}, which scans an internal
+     * buffer for delimiters and record terminators instead of reading the input stream
+     * one character at a time.  May be set to <tt>null</tt> to disable block reading.
+     * @param bufferSize the buffer size, or <tt>null</tt> to disable block reading
+     * @since 2.1.1
+     */
+    public void setBufferSize(Integer bufferSize) {
+        this.bufferSize = bufferSize;
+    }
 }
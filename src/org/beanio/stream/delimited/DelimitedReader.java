@@ -18,6 +18,7 @@ package org.beanio.stream.delimited;
 import java.io.*;
 import java.util.*;
 
+import org.beanio.internal.util.RecordTextProvider;
 import org.beanio.stream.*;
 import org.beanio.stream.util.CommentReader;
 
@@ -53,7 +54,7 @@ import org.beanio.stream.util.CommentReader;
  * @author Kevin Seim
  * @since 1.0
  */
-public class DelimitedReader implements RecordReader {
+public class DelimitedReader implements RecordReader, RecordTextProvider {
 
     private char delim = '\t';
     private char escapeChar = '\\';
@@ -65,6 +66,7 @@ public class DelimitedReader implements RecordReader {
     
     private transient Reader in;
     private transient String recordText;
+    private transient StringBuilder recordTextBuilder;
     private transient int recordLineNumber;
     private transient int lineNumber = 0;
     private transient boolean skipLF = false;
@@ -169,9 +171,41 @@ public class DelimitedReader implements RecordReader {
      * @return the raw text of the last record
      */
     public String getRecordText() {
+        if (recordText == null && recordTextBuilder != null) {
+            recordText = recordTextBuilder.toString();
+        }
         return recordText;
     }
 
+    /**
+     * Sets the raw text of the last record read.  The text is not converted
+     * to a <tt>String</tt> until {@link #getRecordText()} is called.
+     * @param text the record text, or <tt>null</tt> if there is no current record
+     */
+    private void setRecordText(StringBuilder text) {
+        this.recordTextBuilder = text;
+        this.recordText = null;
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see org.beanio.internal.util.RecordTextProvider#getRecordTextLength()
+     */
+    public int getRecordTextLength() {
+        if (recordText != null) {
+            return recordText.length();
+        }
+        return recordTextBuilder == null ? -1 : recordTextBuilder.length();
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see org.beanio.internal.util.RecordTextProvider#getRecordTextSequence()
+     */
+    public CharSequence getRecordTextSequence() {
+        return recordText != null ? recordText : recordTextBuilder;
+    }
+
     /*
      * (non-Javadoc)
      * @see org.beanio.stream.RecordReader#read()
@@ -179,7 +213,7 @@ public class DelimitedReader implements RecordReader {
     public String[] read() throws IOException {
         // fieldList is set to null when the end of stream is reached
         if (fieldList == null) {
-            recordText = null;
+            setRecordText(null);
             recordLineNumber = -1;
             return null;
         }
@@ -192,7 +226,7 @@ public class DelimitedReader implements RecordReader {
             if (lines > 0) {
                 if (commentReader.isEOF()) {
                     fieldList = null;
-                    recordText = null;
+                    setRecordText(null);
                     recordLineNumber = -1;
                     return null;
                 }
@@ -289,19 +323,18 @@ public class DelimitedReader implements RecordReader {
 
         // update the record line number
         recordLineNumber = lineNumber - lineOffset;
-        recordText = text.toString();
+        setRecordText(text);
 
         // if eol is true, we're done; if not, then the end of file was reached 
         // and further validation is needed
         if (eol) {
-            recordText = text.toString();
             String[] record = new String[fieldList.size()];
             return fieldList.toArray(record);
         }
 
         if (continued) {
             fieldList = null;
-            recordText = null;
+            setRecordText(null);
             recordLineNumber = -1;
             throw new RecordIOException("Unexpected end of stream after line continuation at line " + lineNumber);
         }
@@ -316,13 +349,13 @@ public class DelimitedReader implements RecordReader {
 
             String[] record = new String[fieldList.size()];
             record = fieldList.toArray(record);
-            recordText = text.toString();
+            setRecordText(text);
             fieldList = null;
             return record;
         }
         else {
             fieldList = null;
-            recordText = null;
+            setRecordText(null);
             recordLineNumber = -1;
             return null;
         }
@@ -45,7 +45,10 @@ public class DelimitedRecordParserFactory  extends DelimitedParserConfiguration
         if (getLineContinuationCharacter() != null && getLineContinuationCharacter() == getDelimiter()) {
             throw new IllegalArgumentException("The field delimiter cannot match the line continuation character");
         }
-        
+
+        if (getBufferSize() != null && getBufferSize() <= 0) {
+            throw new IllegalArgumentException("Buffer size must be greater than 0");
+        }
     }
     
     /*
@@ -53,6 +56,9 @@ public class DelimitedRecordParserFactory  extends DelimitedParserConfiguration
      * @see org.beanio.stream.RecordReaderFactory#createReader(java.io.Reader)
      */
     public RecordReader createReader(Reader in) throws IllegalArgumentException {
+        if (getBufferSize() != null) {
+            return new DelimitedBufferedReader(in, this);
+        }
         return new DelimitedReader(in, this);
     }
 
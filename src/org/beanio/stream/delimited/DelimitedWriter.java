@@ -36,6 +36,9 @@ import org.beanio.stream.*;
  * Note that no validation is performed when a record is written, so if an escape character
  * is not configured and a field contains a delimiting character, the generated
  * output may be invalid.
+ * <p>
+ * Each record is formatted into a reusable character buffer and written to the
+ * output stream using a single call to {@link Writer#write(char[], int, int)}.
  * 
  * @author Kevin Seim
  * @since 1.0
@@ -48,6 +51,7 @@ public class DelimitedWriter implements RecordWriter {
     private String recordTerminator;
 
     private Writer out;
+    private char[] buf = new char[256];
 
     /**
      * Constructs a new <tt>DelimitedWriter</tt>.
@@ -109,32 +113,66 @@ public class DelimitedWriter implements RecordWriter {
      * @throws IOException if an I/O error occurs
      */
     public void write(String[] record) throws IOException {
-        if (escapeEnabled) {
-            int pos = 0;
-            for (String field : record) {
-                if (pos++ > 0)
-                    out.write(delim);
-
-                char[] cs = field.toCharArray();
-                for (int i = 0, j = cs.length; i < j; i++) {
-                    if (cs[i] == delim || cs[i] == escapeChar) {
-                        out.write(escapeChar);
+        int pos = 0;
+        for (int i = 0; i < record.length; i++) {
+            String field = record[i];
+            int len = field.length();
+            
+            // worst case, every character is escaped
+            ensureCapacity(pos + (escapeEnabled ? 2 * len : len) + 1);
+            
+            if (i > 0) {
+                buf[pos++] = delim;
+            }
+            
+            field.getChars(0, len, buf, pos);
+            if (escapeEnabled && mustEscape(pos, pos + len)) {
+                for (int j = 0; j < len; j++) {
+                    char c = field.charAt(j);
+                    if (c == delim || c == escapeChar) {
+                        buf[pos++] = escapeChar;
                     }
-                    out.write(cs[i]);
+                    buf[pos++] = c;
                 }
             }
-        }
-        else {
-            int pos = 0;
-            for (String field : record) {
-                if (pos++ > 0) {
-                    out.write(delim);
-                }
-                out.write(field);
+            else {
+                pos += len;
             }
         }
 
-        out.write(recordTerminator);
+        int len = recordTerminator.length();
+        ensureCapacity(pos + len);
+        recordTerminator.getChars(0, len, buf, pos);
+        out.write(buf, 0, pos + len);
+    }
+    
+    /**
+     * Returns whether a field copied to the record buffer contains a character
+     * that must be escaped.
+     * @param from the buffer position of the first character of the field
+     * @param to the buffer position after the last character of the field
+     * @return <tt>true</tt> if the field must be escaped
+     */
+    private boolean mustEscape(int from, int to) {
+        for (int i = from; i < to; i++) {
+            char c = buf[i];
+            if (c == delim || c == escapeChar) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Enlarges the record buffer, if necessary, to hold the given number of characters.
+     * @param size the required buffer size
+     */
+    private void ensureCapacity(int size) {
+        if (size > buf.length) {
+            char[] b = new char[Math.max(size, buf.length * 2)];
+            System.arraycopy(buf, 0, b, 0, buf.length);
+            buf = b;
+        }
     }
 
     /*
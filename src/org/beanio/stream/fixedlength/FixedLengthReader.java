@@ -17,6 +17,7 @@ package org.beanio.stream.fixedlength;
 
 import java.io.*;
 
+import org.beanio.internal.util.RecordTextProvider;
 import org.beanio.stream.*;
 import org.beanio.stream.util.CommentReader;
 
@@ -35,7 +36,7 @@ import org.beanio.stream.util.CommentReader;
  * @author Kevin Seim
  * @since 1.0
  */
-public class FixedLengthReader implements RecordReader {
+public class FixedLengthReader implements RecordReader, RecordTextProvider {
 
     private char lineContinuationChar = '\\';
     private boolean multilineEnabled = false;
@@ -44,6 +45,7 @@ public class FixedLengthReader implements RecordReader {
     
     private transient Reader in;
     private transient String recordText;
+    private transient StringBuilder recordTextBuilder;
     private transient int recordLineNumber;
     private transient int lineNumber = 0;
     private transient boolean skipLF = false;
@@ -118,16 +120,48 @@ public class FixedLengthReader implements RecordReader {
      * @see org.beanio.line.RecordReader#getRecordText()
      */
     public String getRecordText() {
+        if (recordText == null && recordTextBuilder != null) {
+            recordText = recordTextBuilder.toString();
+        }
         return recordText;
     }
 
+    /**
+     * Sets the raw text of the last record read.  The text is not converted
+     * to a <tt>String</tt> until {@link #getRecordText()} is called.
+     * @param text the record text, or <tt>null</tt> if there is no current record
+     */
+    private void setRecordText(StringBuilder text) {
+        this.recordTextBuilder = text;
+        this.recordText = null;
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see org.beanio.internal.util.RecordTextProvider#getRecordTextLength()
+     */
+    public int getRecordTextLength() {
+        if (recordText != null) {
+            return recordText.length();
+        }
+        return recordTextBuilder == null ? -1 : recordTextBuilder.length();
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see org.beanio.internal.util.RecordTextProvider#getRecordTextSequence()
+     */
+    public CharSequence getRecordTextSequence() {
+        return recordText != null ? recordText : recordTextBuilder;
+    }
+
     /*
      * (non-Javadoc)
      * @see org.beanio.line.RecordReader#read()
      */
     public String read() throws IOException, RecordIOException {
         if (eof) {
-            recordText = null;
+            setRecordText(null);
             recordLineNumber = -1;
             return null;
         }
@@ -140,7 +174,7 @@ public class FixedLengthReader implements RecordReader {
             if (lines > 0) {
                 if (commentReader.isEOF()) {
                     eof = true;
-                    recordText = null;
+                    setRecordText(null);
                     recordLineNumber = -1;
                     return null;
                 }
@@ -200,7 +234,7 @@ public class FixedLengthReader implements RecordReader {
 
         // update the record line number
         recordLineNumber = lineNumber - lineOffset;
-        recordText = text.toString();
+        setRecordText(text);
 
         // if eol is true, we're done; if not, then the end of file was reached 
         // and further validation is needed
@@ -211,13 +245,13 @@ public class FixedLengthReader implements RecordReader {
         eof = true;
 
         if (continued) {
-            recordText = null;
+            setRecordText(null);
             recordLineNumber = -1;
             throw new RecordIOException("Unexpected end of stream after line continuation at line " + lineNumber);
         }
 
-        if (recordText.length() == 0) {
-            recordText = null;
+        if (text.length() == 0) {
+            setRecordText(null);
             recordLineNumber = -1;
             return null;
         }
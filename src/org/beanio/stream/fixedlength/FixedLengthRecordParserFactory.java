@@ -16,8 +16,10 @@
 package org.beanio.stream.fixedlength;
 
 import java.io.*;
+import java.nio.charset.Charset;
 
 import org.beanio.BeanIOConfigurationException;
+import org.beanio.internal.util.IOUtil;
 import org.beanio.stream.*;
 
 /**
@@ -51,6 +53,32 @@ public class FixedLengthRecordParserFactory extends FixedLengthParserConfigurati
         return new FixedLengthReader(in, this);
     }
 
+    /**
+     * Creates a new <tt>RecordReader</tt> for reading from a file.  If the character set is
+     * single-byte and line continuation is disabled, a {@link MappedFixedLengthReader} is
+     * returned.  Otherwise, a {@link FixedLengthReader} is returned.
+     * @param file the file to read from
+     * @param charset the character set the file is encoded with
+     * @return the new <tt>RecordReader</tt>
+     * @throws IOException if the file cannot be opened
+     * @throws IllegalArgumentException if a configuration setting is invalid
+     * @since 2.1.1
+     */
+    public RecordReader createReader(File file, Charset charset) throws IOException, IllegalArgumentException {
+        if (!isLineContinationEnabled() && MappedFixedLengthReader.isSupported(charset)) {
+            return new MappedFixedLengthReader(file, charset, this);
+        }
+        
+        Reader in = IOUtil.openReader(file, charset);
+        try {
+            return createReader(in);
+        }
+        catch (RuntimeException ex) {
+            in.close();
+            throw ex;
+        }
+    }
+
     /*
      * (non-Javadoc)
      * @see org.beanio.stream.RecordParserFactory#createWriter(java.io.Writer)
@@ -23,6 +23,9 @@ import org.beanio.stream.*;
  * A <tt>FixedLengthWriter</tt> is used to write records to fixed length
  * flat file or output stream.  A fixed length record is represented using 
  * the {@link String} class. 
+ * <p>
+ * A record and its terminator are written to the output stream using a single
+ * call to {@link Writer#write(char[], int, int)}.
  * 
  * @author Kevin Seim
  * @since 1.0
@@ -31,6 +34,7 @@ public class FixedLengthWriter implements RecordWriter {
 
 	private Writer out;
 	private String recordTerminator;
+	private char[] buf = new char[256];
 	
 	/**
 	 * Constructs a new <tt>FixedLegthWriter</tt>.
@@ -58,8 +62,40 @@ public class FixedLengthWriter implements RecordWriter {
 	 * @see org.beanio.line.RecordWriter#write(java.lang.Object)
 	 */
 	public void write(Object value) throws IOException, RecordIOException {
-		out.write(value.toString());
-		out.write(recordTerminator);
+		String record = value.toString();
+		int length = record.length();
+		ensureCapacity(length + recordTerminator.length());
+		record.getChars(0, length, buf, 0);
+		writeRecord(length);
+	}
+
+	/**
+	 * Writes a record from a character array.
+	 * @param record the character array holding the record
+	 * @param offset the offset of the record in the array
+	 * @param length the record length
+	 * @throws IOException if an I/O error occurs
+	 * @since 2.1.1
+	 */
+	public void write(char[] record, int offset, int length) throws IOException {
+		ensureCapacity(length + recordTerminator.length());
+		System.arraycopy(record, offset, buf, 0, length);
+		writeRecord(length);
+	}
+
+	/*
+	 * Appends the record terminator to the record in the buffer and writes it.
+	 */
+	private void writeRecord(int length) throws IOException {
+		int n = recordTerminator.length();
+		recordTerminator.getChars(0, n, buf, length);
+		out.write(buf, 0, length + n);
+	}
+
+	private void ensureCapacity(int size) {
+		if (size > buf.length) {
+			buf = new char[Math.max(size, buf.length * 2)];
+		}
 	}
 
 	/*
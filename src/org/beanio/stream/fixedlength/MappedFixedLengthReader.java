@@ -0,0 +1,461 @@
+/*
+ * Copyright 2013 Kevin Seim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.beanio.stream.fixedlength;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.FileChannel;
+import java.nio.charset.*;
+
+import org.beanio.internal.util.RecordTextProvider;
+import org.beanio.stream.*;
+
+/**
+ * A <tt>MappedFixedLengthReader</tt> reads fixed length records from a file
+ * encoded using a single-byte character set, such as US-ASCII, ISO-8859-1 or
+ * an EBCDIC code page.
+ * <p>
+ * The file is memory mapped in large windows and record boundaries are found by
+ * scanning bytes, rather than decoding the stream one character at a time.  Records
+ * are returned as a {@link CharSequence} backed by the mapped bytes, so that only
+ * the characters requested by {@link CharSequence#subSequence(int, int)} or
+ * {@link CharSequence#toString()} are ever decoded.  Returned records remain valid
+ * after subsequent records are read.
+ * <p>
+ * Records are terminated the same way as a {@link FixedLengthReader}, and comments
+ * are supported.  Line continuation is not supported.
+ *
+ * @author Kevin Seim
+ * @since 2.1.1
+ * @see FixedLengthReader
+ */
+public class MappedFixedLengthReader implements RecordReader, RecordTextProvider {
+
+    /** The default number of bytes mapped at a time */
+    public static final int DEFAULT_MAP_SIZE = 64 * 1024 * 1024;
+
+    private char[] decodeTable;
+    private int mapSize;
+    private int recordTerminator = -1;
+    private int cr;
+    private int lf;
+    private byte[][] comments;
+
+    private transient RandomAccessFile file;
+    private transient FileChannel channel;
+    private transient long fileSize;
+    private transient ByteBuffer window;
+    private transient long windowStart;
+    private transient long position;
+    private transient int lineNumber = 0;
+    private transient int recordLineNumber;
+    private transient MappedRecord record;
+
+    /**
+     * Constructs a new <tt>MappedFixedLengthReader</tt>.
+     * @param file the file to read
+     * @param charset the single-byte character set the file is encoded with
+     * @param config the reader configuration settings or <tt>null</tt> to accept defaults
+     * @throws IOException if the file cannot be opened
+     * @throws IllegalArgumentException if the character set is not supported, or
+     *   if a configuration setting is invalid
+     */
+    public MappedFixedLengthReader(File file, Charset charset, FixedLengthParserConfiguration config)
+        throws IOException, IllegalArgumentException {
+        this(file, charset, config, DEFAULT_MAP_SIZE);
+    }
+
+    /**
+     * Constructs a new <tt>MappedFixedLengthReader</tt>.
+     * @param file the file to read
+     * @param charset the single-byte character set the file is encoded with
+     * @param config the reader configuration settings or <tt>null</tt> to accept defaults
+     * @param mapSize the number of bytes to map at a time, which is increased as
+     *   necessary to hold the longest record
+     * @throws IOException if the file cannot be opened
+     * @throws IllegalArgumentException if the character set is not supported, or
+     *   if a configuration setting is invalid
+     */
+    public MappedFixedLengthReader(File file, Charset charset, FixedLengthParserConfiguration config, int mapSize)
+        throws IOException, IllegalArgumentException {
+
+        if (config == null) {
+            config = new FixedLengthParserConfiguration();
+        }
+        if (mapSize <= 0) {
+            throw new IllegalArgumentException("Map size must be greater than 0");
+        }
+
+        this.decodeTable = createDecodeTable(charset);
+        if (decodeTable == null) {
+            throw new IllegalArgumentException("Character set '" + charset.name() + "' is not a single-byte character set");
+        }
+        if (config.isLineContinationEnabled()) {
+            throw new IllegalArgumentException("Line continuation is not supported");
+        }
+
+        this.mapSize = mapSize;
+        this.cr = encode('\r');
+        this.lf = encode('\n');
+
+        String s = config.getRecordTerminator();
+        if (s != null && s.length() > 0 && !"\r\n".equals(s)) {
+            if (s.length() > 1) {
+                throw new IllegalArgumentException("Record terminator must be a single character");
+            }
+            recordTerminator = encode(s.charAt(0));
+            if (recordTerminator < 0) {
+                throw new IllegalArgumentException("Record terminator cannot be encoded using character set '" +
+                    charset.name() + "'");
+            }
+        }
+        else if (cr < 0 || lf < 0) {
+            throw new IllegalArgumentException("Character set '" + charset.name() + "' cannot encode CR and LF");
+        }
+
+        if (config.isCommentEnabled()) {
+            String[] prefixes = config.getComments();
+            comments = new byte[prefixes.length][];
+            for (int i=0; i<prefixes.length; i++) {
+                if (prefixes[i] == null || prefixes[i].length() == 0) {
+                    throw new IllegalArgumentException("Comment value cannot be null or empty string");
+                }
+                comments[i] = new byte[prefixes[i].length()];
+                for (int j=0; j<comments[i].length; j++) {
+                    int b = encode(prefixes[i].charAt(j));
+                    if (b < 0) {
+                        throw new IllegalArgumentException("Comment '" + prefixes[i] +
+                            "' cannot be encoded using character set '" + charset.name() + "'");
+                    }
+                    comments[i][j] = (byte) b;
+                }
+            }
+        }
+
+        this.file = new RandomAccessFile(file, "r");
+        try {
+            this.channel = this.file.getChannel();
+            this.fileSize = channel.size();
+        }
+        catch (IOException ex) {
+            this.file.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * Returns whether a character set is supported by this reader.  A character set
+     * is supported if every character is encoded using exactly one byte.
+     * @param charset the {@link Charset} to test
+     * @return <tt>true</tt> if the character set is supported
+     */
+    public static boolean isSupported(Charset charset) {
+        return createDecodeTable(charset) != null;
+    }
+
+    /**
+     * Returns a table for decoding each byte value to its character, or <tt>null</tt> if
+     * the character set is not single-byte.
+     * @param charset the {@link Charset}
+     * @return the decode table, or <tt>null</tt> if not supported
+     */
+    private static char[] createDecodeTable(Charset charset) {
+        if (!charset.canEncode() || charset.newEncoder().maxBytesPerChar() != 1f) {
+            return null;
+        }
+        CharsetDecoder decoder = charset.newDecoder();
+        if (decoder.maxCharsPerByte() != 1f) {
+            return null;
+        }
+
+        byte[] bytes = new byte[256];
+        for (int i=0; i<bytes.length; i++) {
+            bytes[i] = (byte) i;
+        }
+
+        try {
+            CharBuffer chars = decoder
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE)
+                .decode(ByteBuffer.wrap(bytes));
+            if (chars.remaining() != bytes.length) {
+                return null;
+            }
+            char[] table = new char[bytes.length];
+            chars.get(table);
+            return table;
+        }
+        catch (CharacterCodingException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the byte value that decodes to a given character.
+     * @param c the character to encode
+     * @return the byte value, or -1 if the character cannot be encoded
+     */
+    private int encode(char c) {
+        for (int i=0; i<decodeTable.length; i++) {
+            if (decodeTable[i] == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see org.beanio.stream.RecordReader#read()
+     */
+    public CharSequence read() throws IOException, RecordIOException {
+        if (channel == null) {
+            throw new IOException("Stream closed");
+        }
+
+        while (position < fileSize) {
+            ++lineNumber;
+
+            // locate the end of the record, which is guaranteed to be mapped
+            // in the same window as the start of the record
+            long start = position;
+            long end = findEndOfRecord(start);
+            ByteBuffer buf = window;
+            int offset = (int) (start - windowStart);
+            int length = (int) (end - start);
+
+            // skip the record terminator
+            position = end;
+            if (end < fileSize) {
+                int b = byteAt(end);
+                ++position;
+                if (recordTerminator < 0 && b == cr && position < fileSize && byteAt(position) == lf) {
+                    ++position;
+                }
+            }
+
+            if (comments != null && isComment(buf, offset, length)) {
+                continue;
+            }
+
+            recordLineNumber = lineNumber;
+            record = new MappedRecord(buf, offset, length, decodeTable);
+            return record;
+        }
+
+        record = null;
+        recordLineNumber = -1;
+        return null;
+    }
+
+    /**
+     * Returns the file position of the record terminator following a given position,
+     * or the file size if the record is not terminated.  The bytes from <tt>start</tt>
+     * to the returned position are guaranteed to be mapped by the current window.
+     * @param start the file position of the start of the record
+     * @return the file position of the end of the record
+     * @throws IOException if an I/O error occurs
+     */
+    private long findEndOfRecord(long start) throws IOException {
+        if (window == null || start >= windowStart + window.limit()) {
+            map(start, mapSize);
+        }
+
+        while (true) {
+            ByteBuffer buf = window;
+            int limit = buf.limit();
+            for (int i = (int) (start - windowStart); i < limit; i++) {
+                int b = buf.get(i) & 0xFF;
+                if (recordTerminator < 0 ? (b == cr || b == lf) : b == recordTerminator) {
+                    return windowStart + i;
+                }
+            }
+
+            if (windowStart + limit >= fileSize) {
+                return fileSize;
+            }
+
+            // remap starting from the beginning of the record, growing the window if
+            // the record is longer than the map size
+            long size = start > windowStart ? mapSize : (long) limit * 2;
+            if (size > Integer.MAX_VALUE) {
+                if (limit == Integer.MAX_VALUE) {
+                    throw new RecordIOException("Record length exceeds " + Integer.MAX_VALUE +
+                        " bytes at line " + lineNumber);
+                }
+                size = Integer.MAX_VALUE;
+            }
+            map(start, (int) size);
+        }
+    }
+
+    /**
+     * Maps a new window of the file.
+     * @param start the file position to start mapping from
+     * @param size the maximum number of bytes to map
+     * @throws IOException if an I/O error occurs
+     */
+    private void map(long start, int size) throws IOException {
+        long length = Math.min(size, fileSize - start);
+        window = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+        windowStart = start;
+    }
+
+    /**
+     * Returns the byte at the given file position, remapping the window if needed.
+     * @param pos the file position
+     * @return the unsigned byte value
+     * @throws IOException if an I/O error occurs
+     */
+    private int byteAt(long pos) throws IOException {
+        if (pos >= windowStart + window.limit()) {
+            map(pos, mapSize);
+        }
+        return window.get((int) (pos - windowStart)) & 0xFF;
+    }
+
+    /**
+     * Returns whether a record begins with a comment prefix.
+     * @param buf the window the record is mapped by
+     * @param offset the offset of the record in the window
+     * @param length the record length
+     * @return <tt>true</tt> if the record is commented
+     */
+    private boolean isComment(ByteBuffer buf, int offset, int length) {
+        for (byte[] prefix : comments) {
+            if (prefix.length > length) {
+                continue;
+            }
+            int i = 0;
+            while (i < prefix.length && buf.get(offset + i) == prefix[i]) {
+                ++i;
+            }
+            if (i == prefix.length) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see org.beanio.stream.RecordReader#getRecordLineNumber()
+     */
+    public int getRecordLineNumber() {
+        if (recordLineNumber < 0) {
+            return recordLineNumber;
+        }
+        return recordTerminator < 0 ? recordLineNumber : 0;
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see org.beanio.stream.RecordReader#getRecordText()
+     */
+    public String getRecordText() {
+        return record == null ? null : record.toString();
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see org.beanio.internal.util.RecordTextProvider#getRecordTextLength()
+     */
+    public int getRecordTextLength() {
+        return record == null ? -1 : record.length();
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see org.beanio.internal.util.RecordTextProvider#getRecordTextSequence()
+     */
+    public CharSequence getRecordTextSequence() {
+        return record;
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see org.beanio.stream.RecordReader#close()
+     */
+    public void close() throws IOException {
+        if (file != null) {
+            window = null;
+            record = null;
+            channel = null;
+            try {
+                file.close();
+            }
+            finally {
+                file = null;
+            }
+        }
+    }
+
+    /**
+     * A fixed length record backed by mapped bytes, which are decoded on demand.
+     */
+    private static final class MappedRecord implements CharSequence {
+
+        private final ByteBuffer buffer;
+        private final int offset;
+        private final int length;
+        private final char[] decodeTable;
+        private String text;
+
+        public MappedRecord(ByteBuffer buffer, int offset, int length, char[] decodeTable) {
+            this.buffer = buffer;
+            this.offset = offset;
+            this.length = length;
+            this.decodeTable = decodeTable;
+        }
+
+        public int length() {
+            return length;
+        }
+
+        public char charAt(int index) {
+            if (index < 0 || index >= length) {
+                throw new IndexOutOfBoundsException("Index: " + index);
+            }
+            return decodeTable[buffer.get(offset + index) & 0xFF];
+        }
+
+        public CharSequence subSequence(int start, int end) {
+            if (start < 0 || end > length || start > end) {
+                throw new IndexOutOfBoundsException("Start: " + start + ", End: " + end);
+            }
+            if (text != null) {
+                return text.substring(start, end);
+            }
+            return decode(start, end);
+        }
+
+        @Override
+        public String toString() {
+            if (text == null) {
+                text = decode(0, length);
+            }
+            return text;
+        }
+
+        private String decode(int start, int end) {
+            char[] chars = new char[end - start];
+            for (int i=0, j=offset + start; i<chars.length; i++, j++) {
+                chars[i] = decodeTable[buffer.get(j) & 0xFF];
+            }
+            return new String(chars);
+        }
+    }
+}
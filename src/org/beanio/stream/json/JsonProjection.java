@@ -0,0 +1,184 @@
+/*
+ * Copyright 2013 Kevin Seim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.beanio.stream.json;
+
+/**
+ * A <tt>JsonProjection</tt> selects the fields of a JSON object that are kept by
+ * a {@link JsonReader}.  Values of fields that are not selected are parsed
+ * and discarded without being stored.
+ * <p>
+ * A field may either be kept in full, or its value (if a JSON object or array) may
+ * be filtered by a nested projection.  When applied to a JSON array, a projection
+ * filters each object in the array.
+ * <p>
+ * A projection can be safely shared by multiple readers once it is fully
+ * constructed.
+ *
+ * @author Kevin Seim
+ * @since 2.1.1
+ */
+public class JsonProjection {
+
+    private String[] names = new String[8];
+    private JsonProjection[] children = new JsonProjection[8];
+    private int size;
+
+    /**
+     * Constructs a new <tt>JsonProjection</tt>.
+     */
+    public JsonProjection() { }
+
+    /**
+     * Selects a field whose value is kept in full.
+     * @param name the JSON field name
+     */
+    public void addValue(String name) {
+        int index = indexOf(name);
+        if (index < 0) {
+            put(name, null);
+        }
+        else {
+            children[index] = null;
+        }
+    }
+
+    /**
+     * Selects a field whose value, if a JSON object or array, is filtered by a
+     * nested projection.
+     * @param name the JSON field name
+     * @return the nested projection, or <tt>null</tt> if the field value has
+     *   already been selected in full
+     */
+    public JsonProjection addNode(String name) {
+        int index = indexOf(name);
+        if (index < 0) {
+            JsonProjection child = new JsonProjection();
+            put(name, child);
+            return child;
+        }
+        return children[index];
+    }
+
+    /**
+     * Returns the number of selected fields.
+     * @return the number of selected fields
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the index of a selected field.
+     * @param name the JSON field name
+     * @return the field index, or -1 if the field is not selected
+     */
+    int indexOf(CharSequence name) {
+        int mask = names.length - 1;
+        int i = hash(name) & mask;
+        String s;
+        while ((s = names[i]) != null) {
+            if (equals(s, name)) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the name of a selected field.
+     * @param index the field index
+     * @return the JSON field name
+     */
+    String getName(int index) {
+        return names[index];
+    }
+
+    /**
+     * Returns the nested projection for a selected field.
+     * @param index the field index
+     * @return the nested projection, or <tt>null</tt> if the field is kept in full
+     */
+    JsonProjection getChild(int index) {
+        return children[index];
+    }
+
+    private void put(String name, JsonProjection child) {
+        // keep the table at most half full
+        if ((size + 1) * 2 > names.length) {
+            String[] oldNames = names;
+            JsonProjection[] oldChildren = children;
+            names = new String[oldNames.length * 2];
+            children = new JsonProjection[oldNames.length * 2];
+            size = 0;
+            for (int i=0; i<oldNames.length; i++) {
+                if (oldNames[i] != null) {
+                    put(oldNames[i], oldChildren[i]);
+                }
+            }
+        }
+
+        int mask = names.length - 1;
+        int i = hash(name) & mask;
+        while (names[i] != null) {
+            i = (i + 1) & mask;
+        }
+        names[i] = name;
+        children[i] = child;
+        ++size;
+    }
+
+    /*
+     * Calculates the same hash code as String.hashCode() for any character sequence.
+     */
+    private static int hash(CharSequence s) {
+        int h = 0;
+        for (int i=0, n=s.length(); i<n; i++) {
+            h = 31 * h + s.charAt(i);
+        }
+        return h ^ (h >>> 16);
+    }
+
+    private static boolean equals(String s, CharSequence cs) {
+        int n = s.length();
+        if (n != cs.length()) {
+            return false;
+        }
+        for (int i=0; i<n; i++) {
+            if (s.charAt(i) != cs.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder s = new StringBuilder("{");
+        for (int i=0; i<names.length; i++) {
+            if (names[i] != null) {
+                if (s.length() > 1) {
+                    s.append(", ");
+                }
+                s.append(names[i]);
+                if (children[i] != null) {
+                    s.append("=").append(children[i]);
+                }
+            }
+        }
+        return s.append("}").toString();
+    }
+}
@@ -35,6 +35,7 @@ public class JsonReader extends JsonReaderSupport implements RecordReader {
     private RecordFilterReader filter;
     private String recordText;
     private int recordLineNumber;
+    private JsonProjection projection;
     
     /**
      * Constructs a new <tt>JsonReader</tt>.
@@ -61,7 +62,7 @@ public class JsonReader extends JsonReaderSupport implements RecordReader {
                 if (c == '{') {
                     recordLineNumber = filter.getLineNumber();
                     filter.recordStarted("{");
-                    Map<String,Object> value = readObject();
+                    Map<String,Object> value = readObject(projection);
                     recordText = filter.recordCompleted();
                     return value;
                 }
@@ -79,6 +80,17 @@ public class JsonReader extends JsonReaderSupport implements RecordReader {
         return null;
     }
     
+    /**
+     * Sets the projection used to select the fields kept from each JSON record.
+     * Values of fields that are not selected are parsed and discarded without
+     * being stored.
+     * @param projection the {@link JsonProjection}, or <tt>null</tt> to keep all fields
+     * @since 2.1.1
+     */
+    public void setProjection(JsonProjection projection) {
+        this.projection = projection;
+    }
+    
     /*
      * (non-Javadoc)
      * @see org.beanio.stream.RecordReader#close()
@@ -35,6 +35,9 @@ public abstract class JsonReaderSupport {
     /** Flag indicating the end of the stream was reached */
     protected boolean eof;
     
+    /* reusable buffer for field names and values that are not kept */
+    private StringBuilder buffer = new StringBuilder();
+    
     /**
      * Constructs a new <tt>JsonReaderSupport</tt>.
      */
@@ -54,10 +57,39 @@ public abstract class JsonReaderSupport {
      * @throws IOException
      */
     protected Map<String,Object> readObject() throws IOException {
+        return readObject(null, false);
+    }
+    
+    /**
+     * Reads the next JSON object from the stream, keeping only the fields selected
+     * by the given projection.
+     * @param projection the {@link JsonProjection}, or <tt>null</tt> to keep all fields
+     * @return the JSON object {@link Map}
+     * @throws IOException
+     * @since 2.1.1
+     */
+    protected Map<String,Object> readObject(JsonProjection projection) throws IOException {
+        return readObject(projection, false);
+    }
+    
+    /**
+     * Reads the next JSON object from the stream.
+     * @param projection the {@link JsonProjection}, or <tt>null</tt> to keep all fields
+     * @param discard true to parse the object without keeping any fields
+     * @return the JSON object {@link Map}, or <tt>null</tt> if discarded
+     * @throws IOException
+     */
+    private Map<String,Object> readObject(JsonProjection projection, boolean discard) throws IOException {
         String fieldName = null;
         StringBuilder text = null;
         
-        Map<String,Object> map = new HashMap<String,Object>();
+        // when filtering fields, 'skip' is set if the current field value is not kept
+        // and 'child' is set to the projection for the current field value
+        boolean filter = discard || projection != null;
+        boolean skip = discard;
+        JsonProjection child = null;
+        
+        Map<String,Object> map = discard ? null : new HashMap<String,Object>();
         
         int state = 0;
         
@@ -90,7 +122,21 @@ public abstract class JsonReaderSupport {
             // looking for " to start field name
             case 1:
                 if (c == '"') {
-                    fieldName = readString();
+                    if (filter) {
+                        StringBuilder name = readString(buffer());
+                        int index = discard ? -1 : projection.indexOf(name);
+                        if (index < 0) {
+                            skip = true;
+                        }
+                        else {
+                            skip = false;
+                            fieldName = projection.getName(index);
+                            child = projection.getChild(index);
+                        }
+                    }
+                    else {
+                        fieldName = readString();
+                    }
                     state = 2;
                 }
                 else if (!isWhitespace(c)) {
@@ -112,19 +158,30 @@ public abstract class JsonReaderSupport {
             // got ':' looking for field value
             case 3:
                 if (c == '"') {
-                    map.put(fieldName, readString());
+                    if (skip) {
+                        readString(buffer());
+                    }
+                    else {
+                        map.put(fieldName, readString());
+                    }
                     state = -1;
                 }
                 else if (c == '{') {
-                    map.put(fieldName, readObject());
+                    Map<String,Object> value = readObject(child, skip);
+                    if (!skip) {
+                        map.put(fieldName, value);
+                    }
                     state = -1;
                 }
                 else if (c == '[') {
-                    map.put(fieldName, readArray());
+                    List<Object> value = readArray(child, skip);
+                    if (!skip) {
+                        map.put(fieldName, value);
+                    }
                     state = -1;
                 }
                 else if (!isWhitespace(c)) {
-                    text = new StringBuilder();
+                    text = buffer();
                     text.append(c);
                     state = 4;
                 }
@@ -133,15 +190,15 @@ public abstract class JsonReaderSupport {
             // read field value (i.e. number, boolean or null)
             case 4:
                 if (c == ',') {
-                    map.put(fieldName, parseValue(text.toString()));
+                    putValue(map, fieldName, text, skip);
                     state = 1;
                 }
                 else if (c == '}') {
-                    map.put(fieldName, parseValue(text.toString()));
+                    putValue(map, fieldName, text, skip);
                     return map;
                 }
                 else if (isWhitespace(c)) {
-                    map.put(fieldName, parseValue(text.toString()));
+                    putValue(map, fieldName, text, skip);
                     state = -1;
                 }
                 else {
@@ -172,13 +229,39 @@ public abstract class JsonReaderSupport {
         }
     }
     
+    /*
+     * Puts a null, boolean or numeric value into a map, or validates the value
+     * if it is not kept.
+     */
+    private void putValue(Map<String,Object> map, String fieldName, StringBuilder text, boolean skip)
+        throws IOException {
+        if (skip) {
+            validateValue(text);
+        }
+        else {
+            map.put(fieldName, parseValue(text.toString()));
+        }
+    }
+    
     /**
      * Reads a JSON array from the input stream.
      * @return the parsed JSON array
      * @throws IOException
      */
     protected List<Object> readArray() throws IOException {
-        List<Object> list = new ArrayList<Object>();
+        return readArray(null, false);
+    }
+    
+    /**
+     * Reads a JSON array from the input stream.
+     * @param projection the {@link JsonProjection} applied to each object in the 
+     *   array, or <tt>null</tt> to keep all fields
+     * @param discard true to parse the array without keeping any values
+     * @return the parsed JSON array, or <tt>null</tt> if discarded
+     * @throws IOException
+     */
+    private List<Object> readArray(JsonProjection projection, boolean discard) throws IOException {
+        List<Object> list = discard ? null : new ArrayList<Object>();
         StringBuilder text = null;
         int state = 0;
         
@@ -211,19 +294,30 @@ public abstract class JsonReaderSupport {
             // looking for field name
             case 1:
                 if (c == '"') {
-                    list.add(readString());
+                    if (discard) {
+                        readString(buffer());
+                    }
+                    else {
+                        list.add(readString());
+                    }
                     state = -1;
                 }
                 else if (c == '{') {
-                    list.add(readObject());
+                    Map<String,Object> value = readObject(projection, discard);
+                    if (!discard) {
+                        list.add(value);
+                    }
                     state = -1;
                 }
                 else if (c == '[') {
-                    list.add(readArray());
+                    List<Object> value = readArray(projection, discard);
+                    if (!discard) {
+                        list.add(value);
+                    }
                     state = -1;
                 }
                 else if (!isWhitespace(c)) {
-                    text = new StringBuilder();
+                    text = buffer();
                     text.append(c);
                     state = 2;
                 }
@@ -232,15 +326,15 @@ public abstract class JsonReaderSupport {
             // read value
             case 2:
                 if (c == ',') {
-                    list.add(parseValue(text.toString()));
+                    addValue(list, text, discard);
                     state = 1;
                 }
                 else if (c == ']') {
-                    list.add(parseValue(text.toString()));
+                    addValue(list, text, discard);
                     return list;
                 }
                 else if (isWhitespace(c)) {
-                    list.add(parseValue(text.toString()));
+                    addValue(list, text, discard);
                     state = -1;
                 }
                 else {
@@ -263,6 +357,57 @@ public abstract class JsonReaderSupport {
         }
     }
     
+    /*
+     * Adds a null, boolean or numeric value to a list, or validates the value
+     * if it is not kept.
+     */
+    private void addValue(List<Object> list, StringBuilder text, boolean discard) throws IOException {
+        if (discard) {
+            validateValue(text);
+        }
+        else {
+            list.add(parseValue(text.toString()));
+        }
+    }
+    
+    /**
+     * Validates a null, boolean or numeric value that is not kept.  A value is valid
+     * if it can be parsed by {@link #parseValue(String)}.
+     * @param text the text to validate
+     * @throws IOException if the text is not a valid JSON value
+     */
+    private void validateValue(CharSequence text) throws IOException {
+        if (equals(text, "null") || equals(text, "true") || equals(text, "false")) {
+            return;
+        }
+        
+        // most skipped numbers are short integers, which are always valid
+        int n = text.length();
+        int i = (n > 0 && text.charAt(0) == '-') ? 1 : 0;
+        if (n > i && n - i <= 18) {
+            while (i < n && text.charAt(i) >= '0' && text.charAt(i) <= '9') {
+                ++i;
+            }
+            if (i == n) {
+                return;
+            }
+        }
+        parseValue(text.toString());
+    }
+    
+    private static boolean equals(CharSequence text, String s) {
+        int n = s.length();
+        if (text.length() != n) {
+            return false;
+        }
+        for (int i=0; i<n; i++) {
+            if (text.charAt(i) != s.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
     /**
      * Parses a null, boolean or numeric value from the given text.
      * @param text the text to parse
@@ -294,7 +439,16 @@ public abstract class JsonReaderSupport {
      * @throws IOException
      */
     protected String readString() throws IOException {
-        StringBuilder text = new StringBuilder();
+        return readString(new StringBuilder()).toString();
+    }
+    
+    /**
+     * Reads a JSON string value from the input stream.
+     * @param text the {@link StringBuilder} to append the string value to
+     * @return <tt>text</tt>
+     * @throws IOException
+     */
+    private StringBuilder readString(StringBuilder text) throws IOException {
         int state = 0;
         
         int n;
@@ -306,7 +460,7 @@ public abstract class JsonReaderSupport {
             // handle read value
             case 0:
                 if (c == '"') {
-                    return text.toString();
+                    return text;
                 }
                 else if (c == '\\') {
                     state = 1;
@@ -381,6 +535,14 @@ public abstract class JsonReaderSupport {
         }
     }
     
+    /*
+     * Returns the cleared reusable buffer.
+     */
+    private StringBuilder buffer() {
+        buffer.setLength(0);
+        return buffer;
+    }
+    
     /**
      * Returns whether the given character is whitespace.
      * @param c the character to test
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2013 Kevin Seim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.beanio.stream.xml;
+
+import java.util.*;
+
+/**
+ * A <tt>XmlProjection</tt> selects the child elements of a XML element that are
+ * added to a record by a {@link XmlReader}.  Elements that are not selected are
+ * parsed but skipped without creating DOM nodes.  Elements are selected by local
+ * name only, regardless of their namespace.
+ * <p>
+ * A selected element may either be added in full, or its child elements may be
+ * filtered by a nested projection.  Attributes are always added, while the text
+ * of a filtered element is only added if the projection is marked to keep text.
+ * <p>
+ * A projection can be safely shared by multiple readers once it is fully
+ * constructed.
+ *
+ * @author Kevin Seim
+ * @since 2.1.1
+ */
+public class XmlProjection {
+
+    /* marks an element that is added in full */
+    private static final XmlProjection ALL = new XmlProjection();
+
+    private Map<String, XmlProjection> elements = new HashMap<String, XmlProjection>();
+    private boolean text;
+
+    /**
+     * Constructs a new <tt>XmlProjection</tt>.
+     */
+    public XmlProjection() { }
+
+    /**
+     * Selects a child element that is added in full, including all of its descendants.
+     * @param localName the local name of the element
+     */
+    public void addElement(String localName) {
+        elements.put(localName, ALL);
+    }
+
+    /**
+     * Selects a child element whose children are filtered by a nested projection.
+     * @param localName the local name of the element
+     * @return the nested projection, or <tt>null</tt> if the element has already
+     *   been selected in full
+     */
+    public XmlProjection addNode(String localName) {
+        XmlProjection child = elements.get(localName);
+        if (child == null) {
+            child = new XmlProjection();
+            elements.put(localName, child);
+        }
+        return child == ALL ? null : child;
+    }
+
+    /**
+     * Returns whether a child element is selected.
+     * @param localName the local name of the element
+     * @return true if the element is selected
+     */
+    public boolean contains(String localName) {
+        return elements.containsKey(localName);
+    }
+
+    /**
+     * Returns the nested projection for a selected child element.
+     * @param localName the local name of the element
+     * @return the nested projection, or <tt>null</tt> if the element is added
+     *   in full or not selected
+     */
+    public XmlProjection getNode(String localName) {
+        XmlProjection child = elements.get(localName);
+        return child == ALL ? null : child;
+    }
+
+    /**
+     * Returns whether the text of a filtered element is added.
+     * @return true if text is added
+     */
+    public boolean isText() {
+        return text;
+    }
+
+    /**
+     * Sets whether the text of a filtered element is added.
+     * @param text true if text is added
+     */
+    public void setText(boolean text) {
+        this.text = text;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder s = new StringBuilder("<");
+        for (Map.Entry<String, XmlProjection> entry : new TreeMap<String, XmlProjection>(elements).entrySet()) {
+            if (s.length() > 1) {
+                s.append(", ");
+            }
+            s.append(entry.getKey());
+            if (entry.getValue() != ALL) {
+                s.append("=").append(entry.getValue());
+            }
+        }
+        if (text) {
+            s.append(s.length() > 1 ? ", " : "").append("#text");
+        }
+        return s.append(">").toString();
+    }
+}
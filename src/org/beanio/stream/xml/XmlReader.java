@@ -82,6 +82,10 @@ public class XmlReader implements RecordReader {
     /* set to true if the base document was null during construction and the XML input stream 
      * will be fully read */
     private boolean readFully = false;
+    /* the projection used to select the elements added to a record, or null to add all elements */
+    private XmlProjection projection;
+    /* the projection for each element in the record being read, indexed by depth */
+    private XmlProjection[] projectionStack;
     
     private transient int recordLineNumber = -1;
     private transient boolean eof = false;
@@ -128,6 +132,20 @@ public class XmlReader implements RecordReader {
         }
     }
     
+    /**
+     * Sets the projection used to select the elements added to each record.  The 
+     * root element of a record is selected from the projection by its local name,
+     * and if not found, the record is read in full.  A projection is not used if
+     * the XML document is fully read.
+     * @param projection the {@link XmlProjection}, or <tt>null</tt> to read
+     *   all elements
+     * @since 2.1.1
+     */
+    public void setProjection(XmlProjection projection) {
+        this.projection = projection;
+        this.projectionStack = projection == null ? null : new XmlProjection[8];
+    }
+    
     /*
      * (non-Javadoc)
      * @see org.beanio.stream.RecordReader#read()
@@ -167,6 +185,9 @@ public class XmlReader implements RecordReader {
         // the parent element to the node we are reading
         Node node = parentNode;
         
+        // whether elements are filtered using the projection
+        boolean filter = projection != null && !readFully;
+        
         while (in.hasNext()) {
             int event = in.next();
             
@@ -196,6 +217,25 @@ public class XmlReader implements RecordReader {
                     // if we find an element not included in the base document, this is the beginning of our record
                     recordLineNumber = in.getLocation().getLineNumber();
                     parentNode = node;
+                    
+                    if (filter) {
+                        // a record not found in the projection is read in full
+                        pushProjection(0, projection.getNode(in.getLocalName()));
+                    }
+                }
+                else if (filter) {
+                    XmlProjection parent = projectionStack[recordPosition];
+                    if (parent != null) {
+                        String name = in.getLocalName();
+                        if (!parent.contains(name)) {
+                            skipElement();
+                            continue;
+                        }
+                        pushProjection(recordPosition + 1, parent.getNode(name));
+                    }
+                    else {
+                        pushProjection(recordPosition + 1, null);
+                    }
                 }
                 
                 // create and append the new element to our Document
@@ -219,6 +259,12 @@ public class XmlReader implements RecordReader {
             
             case CHARACTERS:
                 if (recordPosition >= 0) {
+                    if (filter) {
+                        XmlProjection p = projectionStack[recordPosition];
+                        if (p != null && !p.isText()) {
+                            continue;
+                        }
+                    }
                     node.appendChild(document.createTextNode(in.getText()));
                 }
                 break;
@@ -251,6 +297,34 @@ public class XmlReader implements RecordReader {
         return readFully;
     }
     
+    /*
+     * Sets the projection for the element at a given depth in the current record.
+     */
+    private void pushProjection(int depth, XmlProjection p) {
+        if (depth == projectionStack.length) {
+            XmlProjection[] stack = new XmlProjection[depth * 2];
+            System.arraycopy(projectionStack, 0, stack, 0, depth);
+            projectionStack = stack;
+        }
+        projectionStack[depth] = p;
+    }
+    
+    /*
+     * Skips the current element and its descendants.
+     */
+    private void skipElement() throws XMLStreamException {
+        int depth = 1;
+        while (in.hasNext()) {
+            int event = in.next();
+            if (event == START_ELEMENT) {
+                ++depth;
+            }
+            else if (event == END_ELEMENT && --depth == 0) {
+                return;
+            }
+        }
+    }
+    
     /**
      * Searches a DOM element for a child element matching the given XML namespace
      * and local name. 
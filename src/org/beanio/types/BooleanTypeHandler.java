@@ -15,6 +15,8 @@
  */
 package org.beanio.types;
 
+import org.beanio.internal.util.StringUtil;
+
 /**
  * A type handler implementation for the <tt>Boolean</tt> class, that
  * simply delegate parsing to its constructor.
@@ -22,7 +24,7 @@ package org.beanio.types;
  * @author Kevin Seim
  * @since 1.0
  */
-public class BooleanTypeHandler implements TypeHandler {
+public class BooleanTypeHandler implements CharSequenceTypeHandler {
 
     /**
      * Parses a Boolean object from the given text.
@@ -35,6 +37,17 @@ public class BooleanTypeHandler implements TypeHandler {
 
         return new Boolean(text);
     }
+    
+    /*
+     * (non-Javadoc)
+     * @see org.beanio.types.CharSequenceTypeHandler#parse(java.lang.CharSequence, int, int)
+     */
+    public Boolean parse(CharSequence text, int start, int end) throws TypeConversionException {
+        if (start == end)
+            return null;
+        
+        return StringUtil.regionEquals("true", text, start, end, true) ? Boolean.TRUE : Boolean.FALSE;
+    }
 
     /**
      * Returns {@link Boolean#toString()}, or <tt>null</tt> if <tt>value</tt>
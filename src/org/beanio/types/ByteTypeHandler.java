@@ -18,6 +18,8 @@ package org.beanio.types;
 import java.math.*;
 import java.text.DecimalFormat;
 
+import org.beanio.internal.util.StringUtil;
+
 /**
  * A type handler implementation for the <tt>Byte</tt> class.    If <tt>pattern</tt>
  * is set, a <tt>DecimalFormat</tt> is used to parse and format the value.  Otherwise,
@@ -34,6 +36,15 @@ public class ByteTypeHandler extends NumberTypeHandler {
         return new Byte(text);
     }
 
+    @Override
+    protected Byte createNumber(CharSequence text, int start, int end) throws NumberFormatException {
+        long value = StringUtil.parseLong(text, start, end);
+        if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+            return Byte.valueOf((byte) value);
+        }
+        return createNumber(text.subSequence(start, end).toString());
+    }
+    
     @Override
     protected Byte createNumber(BigDecimal bg) throws ArithmeticException {
         return bg.byteValueExact();
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2013 Kevin Seim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.beanio.types;
+
+/**
+ * Interface for type handlers that can parse field text directly from a region of
+ * a <tt>CharSequence</tt>, such as a fixed length record, without first creating a
+ * <tt>String</tt> for the field.
+ * <p>
+ * Parsing a region must return the same result as parsing the same text using
+ * {@link #parse(String)}.
+ *
+ * @author Kevin Seim
+ * @since 2.1.1
+ */
+public interface CharSequenceTypeHandler extends TypeHandler {
+
+    /**
+     * Parses field text into a Java object.
+     * @param text the character sequence containing the field text
+     * @param start the index of the first character of the field text
+     * @param end the index after the last character of the field text
+     * @return the parsed Java object
+     * @throws TypeConversionException if the text cannot be parsed
+     */
+    public Object parse(CharSequence text, int start, int end) throws TypeConversionException;
+
+}
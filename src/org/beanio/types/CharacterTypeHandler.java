@@ -22,7 +22,7 @@ package org.beanio.types;
  * @author Kevin Seim
  * @since 1.0
  */
-public class CharacterTypeHandler implements TypeHandler {
+public class CharacterTypeHandler implements CharSequenceTypeHandler {
 
     /*
      * (non-Javadoc)
@@ -38,6 +38,21 @@ public class CharacterTypeHandler implements TypeHandler {
 
         return text.charAt(0);
     }
+    
+    /*
+     * (non-Javadoc)
+     * @see org.beanio.types.CharSequenceTypeHandler#parse(java.lang.CharSequence, int, int)
+     */
+    public Character parse(CharSequence text, int start, int end) throws TypeConversionException {
+        if (start == end)
+            return null;
+        
+        if (end - start > 1) {
+            throw new TypeConversionException("Invalid character");
+        }
+        
+        return text.charAt(start);
+    }
 
     /*
      * (non-Javadoc)
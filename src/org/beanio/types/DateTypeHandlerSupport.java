@@ -18,10 +18,16 @@ package org.beanio.types;
 import java.text.*;
 import java.util.*;
 
+import org.beanio.internal.util.FixedDateFormat;
+
 /**
  * This abstract type handler uses a <tt>SimpleDateFormat</tt> class to parse and format 
  * <tt>java.util.Date</tt> objects.  If no pattern is set, <tt>DateFormat.getInstance()</tt> 
  * is used to create a default date format.  By default, <tt>lenient</tt> is false.
+ * <p>
+ * If the pattern is made up of only fixed width numeric fields (such as <tt>yyyy-MM-dd</tt>),
+ * and <tt>lenient</tt> is false, dates are parsed and formatted without a <tt>SimpleDateFormat</tt>
+ * where possible.
  * 
  * @author Kevin Seim
  * @since 2.1.0
@@ -35,10 +41,13 @@ public abstract class DateTypeHandlerSupport extends LocaleSupport implements Co
     protected boolean lenient = false;
     protected TimeZone timeZone = null;
     
-    // the same format instance can be reused if this type handler is not shared
-    // by multiple unmarshallers/marshallers, this can lead to significant
-    // performance improvements when parsing many records
-    private transient DateFormat format;
+    // the same format instance is reused by each thread, which can lead to significant
+    // performance improvements when parsing many records (a SimpleDateFormat is not 
+    // thread safe, and a type handler may be shared by concurrent unmarshallers/marshallers)
+    private transient ThreadLocal<DateFormat> format;
+    // the fixed width date format, which is immutable and always thread safe
+    private transient volatile FixedDateFormat fixedFormat;
+    private transient Boolean fixedFormatAllowed;
     
     /**
      * Constructs a new AbstractDateTypeHandler.
@@ -63,6 +72,14 @@ public abstract class DateTypeHandlerSupport extends LocaleSupport implements Co
         if ("".equals(text))
             return null;
 
+        FixedDateFormat fixed = getFixedFormat();
+        if (fixed != null) {
+            Date date = fixed.parse(text);
+            if (date != null) {
+                return date;
+            }
+        }
+        
         ParsePosition pp = new ParsePosition(0);
         Date date = getFormat().parse(text, pp);
         if (pp.getErrorIndex() >= 0 || pp.getIndex() != text.length()) {
@@ -77,11 +94,67 @@ public abstract class DateTypeHandlerSupport extends LocaleSupport implements Co
      * @return the formatted text
      */
     protected String formatDate(Date date) {
-        return date == null ? null : getFormat().format(date);
+        if (date == null) {
+            return null;
+        }
+        
+        FixedDateFormat fixed = getFixedFormat();
+        if (fixed != null) {
+            String text = fixed.format(date);
+            if (text != null) {
+                return text;
+            }
+        }
+        return getFormat().format(date);
     }
     
     private DateFormat getFormat() {
-        return this.format != null ? this.format : createDateFormat();
+        if (format == null) {
+            return createDateFormat();
+        }
+        DateFormat df = format.get();
+        if (df == null) {
+            df = createDateFormat();
+            format.set(df);
+        }
+        return df;
+    }
+    
+    /**
+     * Returns the fixed width date format for the current settings, or <tt>null</tt>
+     * if the <tt>SimpleDateFormat</tt> must always be used.
+     * @return the {@link FixedDateFormat} or <tt>null</tt>
+     */
+    private FixedDateFormat getFixedFormat() {
+        if (pattern == null) {
+            return null;
+        }
+        
+        // a subclass that creates its own date format may not be bypassed
+        if (fixedFormatAllowed == null) {
+            fixedFormatAllowed = !overridesCreateDateFormat(getClass());
+        }
+        if (!fixedFormatAllowed) {
+            return null;
+        }
+        
+        FixedDateFormat fixed = this.fixedFormat;
+        if (fixed == null || !fixed.isFor(pattern, locale, timeZone, lenient)) {
+            fixed = FixedDateFormat.compile(pattern, locale, timeZone, lenient);
+            this.fixedFormat = fixed;
+        }
+        return fixed.isSupported() ? fixed : null;
+    }
+    
+    private static boolean overridesCreateDateFormat(Class<?> type) {
+        for (; type != DateTypeHandlerSupport.class; type = type.getSuperclass()) {
+            try {
+                type.getDeclaredMethod("createDateFormat");
+                return true;
+            }
+            catch (NoSuchMethodException ex) { }
+        }
+        return false;
     }
     
     /**
@@ -128,7 +201,7 @@ public abstract class DateTypeHandlerSupport extends LocaleSupport implements Co
             handler.setPattern(pattern);
             handler.lenient = this.lenient;
             handler.timeZone = this.timeZone;
-            handler.format = handler.createDateFormat();
+            handler.format = new ThreadLocal<DateFormat>();
             return handler;
         }
         catch (CloneNotSupportedException e) {
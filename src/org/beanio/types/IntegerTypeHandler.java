@@ -18,6 +18,8 @@ package org.beanio.types;
 import java.math.BigDecimal;
 import java.text.DecimalFormat;
 
+import org.beanio.internal.util.StringUtil;
+
 /**
  * A type handler implementation for the <tt>Integer</tt> class.  If <tt>pattern</tt>
  * is set, a <tt>DecimalFormat</tt> is used to parse and format the value.  Otherwise,
@@ -34,6 +36,15 @@ public class IntegerTypeHandler extends NumberTypeHandler {
         return new Integer(text);
     }
 
+    @Override
+    protected Integer createNumber(CharSequence text, int start, int end) throws NumberFormatException {
+        long value = StringUtil.parseLong(text, start, end);
+        if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+            return Integer.valueOf((int) value);
+        }
+        return createNumber(text.subSequence(start, end).toString());
+    }
+    
     @Override
     protected Integer createNumber(BigDecimal bg) throws ArithmeticException {
         return bg.intValueExact();
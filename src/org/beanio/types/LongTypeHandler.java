@@ -18,6 +18,8 @@ package org.beanio.types;
 import java.math.BigDecimal;
 import java.text.DecimalFormat;
 
+import org.beanio.internal.util.StringUtil;
+
 /**
  * A type handler implementation for the <tt>Long</tt> class.  If <tt>pattern</tt>
  * is set, a <tt>DecimalFormat</tt> is used to parse and format the value.  Otherwise,
@@ -34,6 +36,15 @@ public class LongTypeHandler extends NumberTypeHandler {
         return new Long(text);
     }
 
+    @Override
+    protected Long createNumber(CharSequence text, int start, int end) throws NumberFormatException {
+        long value = StringUtil.parseLong(text, start, end);
+        if (value != Long.MIN_VALUE) {
+            return Long.valueOf(value);
+        }
+        return createNumber(text.subSequence(start, end).toString());
+    }
+    
     @Override
     protected Long createNumber(BigDecimal bg) throws ArithmeticException {
         return bg.longValueExact();
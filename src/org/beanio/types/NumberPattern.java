@@ -0,0 +1,286 @@
+/*
+ * Copyright 2013 Kevin Seim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.beanio.types;
+
+import java.math.*;
+import java.text.*;
+import java.util.Locale;
+
+/**
+ * An immutable, thread safe number format compiled from a <tt>DecimalFormat</tt> with
+ * a simple pattern such as <tt>0</tt>, <tt>000</tt> or <tt>#0.00</tt>, where no grouping,
+ * prefix, suffix, multiplier or exponent is used.
+ * <p>
+ * Numbers are parsed and formatted directly from their characters using an unscaled
+ * <tt>long</tt> and a scale.  A result is only returned when it is identical to the
+ * <tt>DecimalFormat</tt> result.  Otherwise, <tt>null</tt> is returned and the caller
+ * must fall back to the <tt>DecimalFormat</tt>.
+ *
+ * @author Kevin Seim
+ * @since 2.1.1
+ */
+final class NumberPattern {
+
+    // the maximum number of digits that always fit in a long
+    private static final int MAX_DIGITS = 18;
+
+    private static final long[] POWERS_OF_TEN = new long[MAX_DIGITS + 1];
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i=1; i<POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private final String pattern;
+    private final Locale locale;
+    private final boolean supported;
+
+    private int minIntegerDigits;
+    private int minFractionDigits;
+    private int maxFractionDigits;
+    private char decimalSeparator;
+    private char minusSign;
+
+    /**
+     * Constructs a new <tt>NumberPattern</tt>.
+     * @param pattern the pattern
+     * @param locale the locale
+     * @param format the <tt>DecimalFormat</tt> created for the pattern and locale
+     */
+    private NumberPattern(String pattern, Locale locale, DecimalFormat format) {
+        this.pattern = pattern;
+        this.locale = locale;
+        this.supported = format != null && init(format);
+    }
+
+    /**
+     * Compiles a <tt>DecimalFormat</tt>.
+     * @param pattern the pattern used to create the <tt>DecimalFormat</tt>
+     * @param locale the locale used to create the <tt>DecimalFormat</tt>
+     * @param format the <tt>DecimalFormat</tt>, or <tt>null</tt> if not supported
+     * @return the new <tt>NumberPattern</tt>, which may not be supported
+     * @see #isSupported()
+     */
+    public static NumberPattern compile(String pattern, Locale locale, DecimalFormat format) {
+        return new NumberPattern(pattern, locale, format);
+    }
+
+    private boolean init(DecimalFormat format) {
+        DecimalFormatSymbols symbols = format.getDecimalFormatSymbols();
+        String negativePrefix = format.getNegativePrefix();
+
+        if (format.toPattern().indexOf('E') >= 0 ||
+            (format.isGroupingUsed() && format.getGroupingSize() > 0) ||
+            format.isDecimalSeparatorAlwaysShown() ||
+            format.isParseIntegerOnly() ||
+            format.getMultiplier() != 1 ||
+            format.getPositivePrefix().length() != 0 ||
+            format.getPositiveSuffix().length() != 0 ||
+            format.getNegativeSuffix().length() != 0 ||
+            negativePrefix.length() != 1 ||
+            symbols.getZeroDigit() != '0') {
+            return false;
+        }
+
+        minIntegerDigits = format.getMinimumIntegerDigits();
+        minFractionDigits = format.getMinimumFractionDigits();
+        maxFractionDigits = format.getMaximumFractionDigits();
+        decimalSeparator = symbols.getDecimalSeparator();
+        minusSign = negativePrefix.charAt(0);
+
+        return minIntegerDigits >= 1 && minIntegerDigits <= MAX_DIGITS &&
+            format.getMaximumIntegerDigits() > MAX_DIGITS &&
+            maxFractionDigits <= MAX_DIGITS &&
+            !isDigit(decimalSeparator) && !isDigit(minusSign) && decimalSeparator != minusSign;
+    }
+
+    /**
+     * Returns whether the <tt>DecimalFormat</tt> can be replaced by this class.
+     * @return <tt>true</tt> if supported
+     */
+    public boolean isSupported() {
+        return supported;
+    }
+
+    /**
+     * Returns whether this number pattern was compiled using the given pattern and locale.
+     * @param pattern the pattern
+     * @param locale the locale
+     * @return <tt>true</tt> if compiled using the same pattern and locale
+     */
+    public boolean isFor(String pattern, Locale locale) {
+        return this.pattern.equals(pattern) && this.locale.equals(locale);
+    }
+
+    /**
+     * Parses text into a <tt>BigDecimal</tt> with the same scale as the text.
+     * @param text the text to parse
+     * @return the parsed <tt>BigDecimal</tt>, or <tt>null</tt> if the text must be
+     *   parsed using the <tt>DecimalFormat</tt>
+     */
+    public BigDecimal parse(String text) {
+        return parse(text, 0, text.length());
+    }
+    
+    /**
+     * Parses a region of a character sequence into a <tt>BigDecimal</tt> with the 
+     * same scale as the text.
+     * @param text the character sequence containing the text to parse
+     * @param start the index of the first character to parse
+     * @param end the index after the last character to parse
+     * @return the parsed <tt>BigDecimal</tt>, or <tt>null</tt> if the text must be
+     *   parsed using the <tt>DecimalFormat</tt>
+     */
+    public BigDecimal parse(CharSequence text, int start, int end) {
+        int pos = start;
+        boolean negative = false;
+        if (pos < end && text.charAt(pos) == minusSign) {
+            negative = true;
+            ++pos;
+        }
+
+        long unscaled = 0;
+        int digits = 0;
+        int scale = -1;
+        for (; pos < end; pos++) {
+            char c = text.charAt(pos);
+            if (c >= '0' && c <= '9') {
+                unscaled = unscaled * 10 + (c - '0');
+                if (unscaled != 0 && ++digits > MAX_DIGITS) {
+                    return null;
+                }
+                if (scale >= 0 && ++scale > MAX_DIGITS) {
+                    return null;
+                }
+            }
+            else if (c == decimalSeparator && scale < 0) {
+                // require at least one digit on either side of the decimal separator
+                if (pos == start || pos + 1 == end || !isDigit(text.charAt(pos - 1))) {
+                    return null;
+                }
+                scale = 0;
+            }
+            else {
+                return null;
+            }
+        }
+        if (pos == start || (negative && end == start + 1)) {
+            return null;
+        }
+
+        return BigDecimal.valueOf(negative ? -unscaled : unscaled, scale < 0 ? 0 : scale);
+    }
+
+    /**
+     * Formats a number.
+     * @param value the number to format
+     * @return the formatted text, or <tt>null</tt> if the number must be formatted
+     *   using the <tt>DecimalFormat</tt>
+     */
+    public String format(Object value) {
+        long unscaled;
+        int scale = 0;
+        if (value instanceof Integer || value instanceof Long ||
+            value instanceof Short || value instanceof Byte) {
+            unscaled = ((Number) value).longValue();
+        }
+        else if (value instanceof BigDecimal) {
+            BigDecimal bd = (BigDecimal) value;
+            if (bd.precision() > MAX_DIGITS) {
+                return null;
+            }
+            unscaled = bd.unscaledValue().longValue();
+            scale = bd.scale();
+            if (scale < 0) {
+                if (bd.precision() - scale > MAX_DIGITS) {
+                    return null;
+                }
+                unscaled *= POWERS_OF_TEN[-scale];
+                scale = 0;
+            }
+            else if (scale > MAX_DIGITS) {
+                return null;
+            }
+        }
+        else {
+            return null;
+        }
+
+        boolean negative = unscaled < 0;
+        if (negative) {
+            if (unscaled == Long.MIN_VALUE) {
+                return null;
+            }
+            unscaled = -unscaled;
+        }
+
+        // drop trailing fraction zeros beyond the minimum fraction digits, the
+        // number would need rounding if any non-zero digits remain
+        while (scale > minFractionDigits && unscaled % 10 == 0) {
+            unscaled /= 10;
+            --scale;
+        }
+        if (scale > maxFractionDigits) {
+            return null;
+        }
+
+        long integer = unscaled / POWERS_OF_TEN[scale];
+        long fraction = unscaled - integer * POWERS_OF_TEN[scale];
+        int fractionDigits = Math.max(scale, minFractionDigits);
+
+        char[] buf = new char[(negative ? 1 : 0) + Math.max(digits(integer), minIntegerDigits) +
+            (fractionDigits > 0 ? fractionDigits + 1 : 0)];
+        int pos = buf.length;
+        if (fractionDigits > 0) {
+            for (int i=scale; i<fractionDigits; i++) {
+                buf[--pos] = '0';
+            }
+            for (int i=0; i<scale; i++) {
+                buf[--pos] = (char) ('0' + fraction % 10);
+                fraction /= 10;
+            }
+            buf[--pos] = decimalSeparator;
+        }
+        int end = negative ? 1 : 0;
+        do {
+            buf[--pos] = (char) ('0' + integer % 10);
+            integer /= 10;
+        } while (pos > end);
+        if (negative) {
+            buf[0] = minusSign;
+        }
+        return new String(buf);
+    }
+
+    private static int digits(long n) {
+        int digits = 1;
+        while (n >= 10) {
+            n /= 10;
+            ++digits;
+        }
+        return digits;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "[pattern=" + pattern + ", supported=" + supported + "]";
+    }
+}
@@ -24,19 +24,26 @@ import java.util.Properties;
  * <tt>pattern</tt> is set, a <tt>DecimalFormat</tt> is used to parse and format the value.  
  * Otherwise, the value is parsed and formatted using the <tt>Number</tt> subclass 
  * specific to this type handler.
+ * <p>
+ * Simple patterns that do not use grouping, such as <tt>#0.00</tt>, are parsed and
+ * formatted without a <tt>DecimalFormat</tt> where the result is the same.
  * 
  * @author Kevin Seim
  * @since 1.0
  * @see DecimalFormat
  */
-public abstract class NumberTypeHandler extends LocaleSupport implements ConfigurableTypeHandler, Cloneable {
+public abstract class NumberTypeHandler extends LocaleSupport implements ConfigurableTypeHandler, 
+    CharSequenceTypeHandler, Cloneable {
 
     private String pattern;
     
-    // the same format instance can be reused if this type handler is not shared
-    // by multiple unmarshallers/marshallers, this can lead to significant
-    // performance improvements if parsing thousands of records
-    private transient DecimalFormat format;
+    // the same format instance is reused by each thread, which can lead to significant
+    // performance improvements if parsing thousands of records (a DecimalFormat is not
+    // thread safe, and a type handler may be shared by concurrent unmarshallers/marshallers)
+    private transient ThreadLocal<DecimalFormat> format;
+    // the compiled pattern, which is immutable and always thread safe
+    private transient volatile NumberPattern numberPattern;
+    private transient Boolean regionAllowed;
     
     /**
      * Parses a <tt>Number</tt> from the given text.
@@ -46,50 +53,96 @@ public abstract class NumberTypeHandler extends LocaleSupport implements Configu
      * @throws TypeConversionException if the text is not a valid number
      */
     public final Number parse(String text) throws TypeConversionException {
-        if (text == null || "".equals(text)) {
+        if (text == null) {
+            return null;
+        }
+        return parse(text, 0, text.length());
+    }
+    
+    /**
+     * Parses a <tt>Number</tt> from a region of a character sequence.
+     * @param text the character sequence containing the text to parse
+     * @param start the index of the first character to parse
+     * @param end the index after the last character to parse
+     * @return the parsed Number, or null if the region is empty
+     * @throws TypeConversionException if the text is not a valid number
+     * @since 2.1.1
+     */
+    public final Number parse(CharSequence text, int start, int end) throws TypeConversionException {
+        if (start == end) {
             return null;
         }
 
         if (pattern == null) {
             
+            // a subclass that only overrides createNumber(String) may not be bypassed
+            if (regionAllowed == null) {
+                regionAllowed = !overridesCreateNumber(getClass());
+            }
             try {
-                return createNumber(text);
+                if (regionAllowed) {
+                    return createNumber(text, start, end);
+                }
+                return createNumber(text.subSequence(start, end).toString());
             }
             catch (NumberFormatException ex) {
                 throw new TypeConversionException("Invalid " + getType().getSimpleName() +
-                    " value '" + text + "'", ex);
+                    " value '" + text.subSequence(start, end) + "'", ex);
             }
             
         }
-        else {
-            // create a DecimaFormat for parsing the number
-            DecimalFormat df = format;
-            if (df == null) {
-                df = createDecimalFormat();
-                df.setParseBigDecimal(true);
-            }
-            
-            // parse the number using the DecimalFormat
-            ParsePosition pp = new ParsePosition(0);
-            Number number = df.parse(text, pp);
-            if (pp.getErrorIndex() >= 0 || 
-                pp.getIndex() != text.length() ||
-                !(number instanceof BigDecimal))
-            {
-                throw new TypeConversionException("Number value '" + text + 
-                    "' does not match pattern '" + pattern + "'");
+        
+        NumberPattern np = getNumberPattern();
+        if (np != null) {
+            BigDecimal number = np.parse(text, start, end);
+            if (number != null) {
+                try {
+                    return createNumber(number);
+                }
+                catch (ArithmeticException ex) {
+                    throw new TypeConversionException("Invalid " + getType().getSimpleName() + 
+                        " value '" + text.subSequence(start, end) + "'");
+                }
             }
-            
+        }
+        
+        String s = text.subSequence(start, end).toString();
+        
+        // parse the number using the DecimalFormat
+        ParsePosition pp = new ParsePosition(0);
+        Number number = getDecimalFormat().parse(s, pp);
+        if (pp.getErrorIndex() >= 0 || 
+            pp.getIndex() != s.length() ||
+            !(number instanceof BigDecimal))
+        {
+            throw new TypeConversionException("Number value '" + s + 
+                "' does not match pattern '" + pattern + "'");
+        }
+        
+        try {
+            // convert the BigDecimal to a number
+            return createNumber((BigDecimal)number);
+        }
+        catch (ArithmeticException ex) {
+            throw new TypeConversionException("Invalid " + getType().getSimpleName() + 
+                " value '" + s + "'");
+        }
+    }
+    
+    private static boolean overridesCreateNumber(Class<?> type) {
+        for (; type != NumberTypeHandler.class; type = type.getSuperclass()) {
             try {
-                // convert the BigDecimal to a number
-                return createNumber((BigDecimal)number);
+                type.getDeclaredMethod("createNumber", CharSequence.class, int.class, int.class);
+                return false;
             }
-            catch (ArithmeticException ex) {
-                throw new TypeConversionException("Invalid " + getType().getSimpleName() + 
-                    " value '" + text + "'");
+            catch (NoSuchMethodException ex) { }
+            try {
+                type.getDeclaredMethod("createNumber", String.class);
+                return true;
             }
-            
+            catch (NoSuchMethodException ex) { }
         }
+        return false;
     }
     
     /**
@@ -99,6 +152,22 @@ public abstract class NumberTypeHandler extends LocaleSupport implements Configu
      * @throws NumberFormatException if the text is not a valid number
      */
     protected abstract Number createNumber(String text) throws NumberFormatException;
+    
+    /**
+     * Parses a <tt>Number</tt> from a region of a character sequence.  By default, 
+     * the region is converted to a <tt>String</tt> and passed to {@link #createNumber(String)}.
+     * If a subclass overrides <tt>createNumber(String)</tt> but not this method, 
+     * <tt>createNumber(String)</tt> is called instead.
+     * @param text the character sequence containing the text to convert to a Number
+     * @param start the index of the first character to convert
+     * @param end the index after the last character to convert
+     * @return the parsed <tt>Number</tt>
+     * @throws NumberFormatException if the text is not a valid number
+     * @since 2.1.1
+     */
+    protected Number createNumber(CharSequence text, int start, int end) throws NumberFormatException {
+        return createNumber(text.subSequence(start, end).toString());
+    }
 
     /**
      * Parses a <tt>Number</tt> from a <tt>BigDecimal</tt>.
@@ -122,8 +191,7 @@ public abstract class NumberTypeHandler extends LocaleSupport implements Configu
         try {
             NumberTypeHandler handler = (NumberTypeHandler) this.clone();
             handler.setPattern(pattern);
-            handler.format = handler.createDecimalFormat();
-            handler.format.setParseBigDecimal(true);
+            handler.format = new ThreadLocal<DecimalFormat>();
             return handler;
         }
         catch (CloneNotSupportedException ex) {
@@ -139,6 +207,20 @@ public abstract class NumberTypeHandler extends LocaleSupport implements Configu
         return new DecimalFormat(pattern, DecimalFormatSymbols.getInstance(locale));
     }
     
+    /**
+     * Returns the compiled number pattern for the current pattern and locale, or
+     * <tt>null</tt> if the <tt>DecimalFormat</tt> must always be used.
+     * @return the {@link NumberPattern} or <tt>null</tt>
+     */
+    private NumberPattern getNumberPattern() {
+        NumberPattern np = this.numberPattern;
+        if (np == null || !np.isFor(pattern, locale)) {
+            np = NumberPattern.compile(pattern, locale, createDecimalFormat());
+            this.numberPattern = np;
+        }
+        return np.isSupported() ? np : null;
+    }
+    
     /**
      * Formats a <tt>Number</tt> by calling <tt>toString()</tt>.  If <tt>value</tt> is
      * null, <tt>null</tt> is returned.
@@ -150,10 +232,33 @@ public abstract class NumberTypeHandler extends LocaleSupport implements Configu
             return null;
         else if (pattern == null)
             return ((Number) value).toString();
-        else if (format != null) 
-            return format.format(value);
-        else
-            return createDecimalFormat().format(value);
+        
+        NumberPattern np = getNumberPattern();
+        if (np != null) {
+            String text = np.format(value);
+            if (text != null) {
+                return text;
+            }
+        }
+        
+        return getDecimalFormat().format(value);
+    }
+    
+    /**
+     * Returns the <tt>DecimalFormat</tt> for the current thread, which parses
+     * <tt>BigDecimal</tt> values.
+     * @return the <tt>DecimalFormat</tt>
+     */
+    private DecimalFormat getDecimalFormat() {
+        DecimalFormat df = format != null ? format.get() : null;
+        if (df == null) {
+            df = createDecimalFormat();
+            df.setParseBigDecimal(true);
+            if (format != null) {
+                format.set(df);
+            }
+        }
+        return df;
     }
 
     /**
@@ -18,6 +18,8 @@ package org.beanio.types;
 import java.math.BigDecimal;
 import java.text.DecimalFormat;
 
+import org.beanio.internal.util.StringUtil;
+
 /**
  * A type handler implementation for the <tt>Short</tt> class.  If <tt>pattern</tt>
  * is set, a <tt>DecimalFormat</tt> is used to parse and format the value.  Otherwise,
@@ -34,6 +36,15 @@ public class ShortTypeHandler extends NumberTypeHandler {
         return new Short(text);
     }
 
+    @Override
+    protected Short createNumber(CharSequence text, int start, int end) throws NumberFormatException {
+        long value = StringUtil.parseLong(text, start, end);
+        if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+            return Short.valueOf((short) value);
+        }
+        return createNumber(text.subSequence(start, end).toString());
+    }
+    
     @Override
     protected Short createNumber(BigDecimal bg) throws ArithmeticException {
         return bg.shortValueExact();
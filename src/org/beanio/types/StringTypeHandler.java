@@ -21,7 +21,7 @@ package org.beanio.types;
  * @author Kevin Seim
  * @since 1.0
  */
-public class StringTypeHandler implements TypeHandler {
+public class StringTypeHandler implements CharSequenceTypeHandler {
 
     private boolean trim = false;
     private boolean nullIfEmpty = false;
@@ -42,6 +42,14 @@ public class StringTypeHandler implements TypeHandler {
         }
         return text;
     }
+    
+    /*
+     * (non-Javadoc)
+     * @see org.beanio.types.CharSequenceTypeHandler#parse(java.lang.CharSequence, int, int)
+     */
+    public String parse(CharSequence text, int start, int end) {
+        return parse(text.subSequence(start, end).toString());
+    }
 
     /**
      * Formats the value by calling {@link Object#toString()}.
@@ -18,6 +18,7 @@ package org.beanio;
 import static org.junit.Assert.*;
 
 import java.io.*;
+import java.nio.charset.Charset;
 import java.util.Locale;
 
 import org.beanio.internal.DefaultStreamFactory;
@@ -113,4 +114,21 @@ public class StreamFactoryTest {
         out.flush();
         out.close();
     }
+    
+    @Test
+    public void testCreateWriterForOutputStream() throws IOException {
+        StreamFactory factory = StreamFactory.newInstance();
+        factory.loadResource("org/beanio/mapping.xml");
+        
+        for (String charset : new String[] { "UTF-8", "UTF-16" }) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            BeanWriter out = factory.createWriter("stream1", bytes, Charset.forName(charset));
+            out.write("header", null);
+            out.write("trailer", null);
+            out.close();
+            
+            String lineSeparator = System.getProperty("line.separator");
+            assertEquals("H" + lineSeparator + "T" + lineSeparator, new String(bytes.toByteArray(), charset));
+        }
+    }
 }
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2013 Kevin Seim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.beanio.parser.dispatch;
+
+import static org.junit.Assert.*;
+
+import java.io.StringReader;
+import java.util.*;
+
+import org.beanio.*;
+import org.beanio.parser.ParserTest;
+import org.junit.*;
+
+/**
+ * JUnit test cases for identifying records using a group's identifier index.
+ *
+ * @author Kevin Seim
+ * @since 2.1.1
+ */
+public class RecordDispatchTest extends ParserTest {
+
+    private StreamFactory factory;
+
+    @Before
+    public void setup() throws Exception {
+        factory = newStreamFactory("dispatch_mapping.xml");
+    }
+
+    @Test
+    @SuppressWarnings("rawtypes")
+    public void testFixedLength() {
+        BeanReader in = factory.createReader("d1", new StringReader(
+            "HDR00001\n" +
+            "AAAB0002\n" +
+            "AAA00003\n" +
+            "BH 00004\n" +
+            "BD 00005\n" +
+            "BD 00006\n" +
+            "12300007\n" +
+            "BBB00008\n" +
+            "XYZ0009Z\n" +
+            "BH 00010\n" +
+            "TRL00011\n"));
+        try {
+            List<String> names = new ArrayList<String>();
+            Map map;
+            while ((map = (Map) in.read()) != null) {
+                names.add(in.getRecordName());
+                if (in.getLineNumber() == 4) {
+                    assertEquals(2, ((List) map.get("batchDetail")).size());
+                }
+            }
+            assertEquals(Arrays.asList("header", "aab", "aaa", "batch", "numeric", 
+                "bbb", "alt", "batch", "trailer"), names);
+        }
+        finally {
+            in.close();
+        }
+    }
+
+    @Test
+    public void testUnexpectedRecord() {
+        BeanReader in = factory.createReader("d1", new StringReader(
+            "HDR00001\n" +
+            "TRL00002\n" +
+            "AAA00003\n"));
+        try {
+            assertNotNull(in.read());
+            assertNotNull(in.read());
+            in.read();
+            fail("Unexpected record expected");
+        }
+        catch (UnexpectedRecordException ex) {
+            assertEquals("aaa", ex.getRecordContext().getRecordName());
+        }
+        finally {
+            in.close();
+        }
+    }
+    
+    @Test
+    public void testUnidentifiedRecord() {
+        BeanReader in = factory.createReader("d1", new StringReader(
+            "HDR00001\n" +
+            "AA 00002\n"));
+        try {
+            assertNotNull(in.read());
+            in.read();
+            fail("Unidentified record expected");
+        }
+        catch (UnidentifiedRecordException ex) {
+            assertEquals(2, ex.getRecordContext().getLineNumber());
+        }
+        finally {
+            in.close();
+        }
+    }
+    
+    @Test
+    public void testUnindexedRecord() {
+        BeanReader in = factory.createReader("d2", new StringReader("B,1\nA,2\nC,3\n"));
+        try {
+            assertNotNull(in.read());
+            assertEquals("b", in.getRecordName());
+            assertNotNull(in.read());
+            assertEquals("a", in.getRecordName());
+            assertNotNull(in.read());
+            assertEquals("any", in.getRecordName());
+            assertNull(in.read());
+        }
+        finally {
+            in.close();
+        }
+    }
+}
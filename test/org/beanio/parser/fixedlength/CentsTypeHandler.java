@@ -0,0 +1,31 @@
+/*
+ * Copyright 2013 Kevin Seim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.beanio.parser.fixedlength;
+
+import org.beanio.types.IntegerTypeHandler;
+
+/**
+ * Custom Integer type handler for testing fixed length fields parsed by a subclass.
+ * @author Kevin Seim
+ * @since 2.1.1
+ */
+public class CentsTypeHandler extends IntegerTypeHandler {
+
+    @Override
+    protected Integer createNumber(String text) throws NumberFormatException {
+        return new Integer(text) * 100;
+    }
+}
@@ -18,6 +18,7 @@ package org.beanio.parser.fixedlength;
 import static org.junit.Assert.*;
 
 import java.io.*;
+import java.nio.charset.Charset;
 import java.util.*;
 
 import org.beanio.*;
@@ -64,6 +65,25 @@ public class FixedLengthParserTest extends ParserTest {
         }
     }
 
+    @Test
+    @SuppressWarnings("rawtypes")
+    public void testReadFileWithCharset() throws Exception {
+        File file = new File(getClass().getResource("f1_valid.txt").toURI());
+        BeanReader in = factory.createReader("f1", file, Charset.forName("ISO-8859-1"));
+        try {
+            Map map = (Map) in.read();
+            assertEquals(" value", map.get("default"));
+            assertEquals(12345, map.get("number"));
+            assertEquals("value", map.get("padx"));
+            assertEquals("value", map.get("pos40"));
+            assertEquals(1, in.getLineNumber());
+            assertNull(in.read());
+        }
+        finally {
+            in.close();
+        }
+    }
+
     @Test(expected = InvalidRecordException.class)
     public void testDefaultMinLengthValidation() {
         BeanReader in = factory.createReader("f1", new InputStreamReader(
@@ -276,4 +296,106 @@ public class FixedLengthParserTest extends ParserTest {
             "003LAUREN1\n" +
             "0005\n", output.toString());
     }
+    
+    @Test
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    public void testRecordBuffer() {
+        StringWriter output = new StringWriter();
+        BeanWriter out = factory.createWriter("f9", output);
+        Marshaller m = factory.createMarshaller("f9");
+        
+        Map map = new HashMap();
+        map.put("number", 42);
+        map.put("code", "AB");
+        map.put("name", "MARGARET");
+        out.write(map);
+        assertEquals("00042  AB MARGAR", m.marshal(map).toString());
+        
+        map.put("number", 123456);
+        map.put("name", null);
+        map.put("note", "x");
+        out.write(map);
+        assertEquals("12345  AB       x   ", m.marshal(map).toString());
+        
+        out.flush();
+        
+        assertEquals(
+            "00042  AB MARGAR\n" +
+            "12345  AB       x   \n", output.toString());
+    }
+    
+    @Test
+    @SuppressWarnings("rawtypes")
+    public void testFieldRegions() {
+        BeanReader in = factory.createReader("f10", new StringReader(
+            "00042-12345678901true X   12.50 12 ABC1 2 3 \n" +
+            "0004x          12FALSEY     1.5   7ABC3 \n" +
+            "00000           0xx   Z    0.00         "));
+        try {
+            Map map = (Map) in.read();
+            assertEquals(42, map.get("int"));
+            assertEquals(-12345678901L, map.get("long"));
+            assertEquals(Boolean.TRUE, map.get("bool"));
+            assertEquals('X', map.get("char"));
+            assertEquals(new java.math.BigDecimal("12.50"), map.get("decimal"));
+            assertEquals(12, map.get("trimmed"));
+            assertEquals("ABC", map.get("code"));
+            assertEquals(Arrays.asList(1, 2, 3), map.get("values"));
+            
+            RecordContext ctx = in.getRecordContext(0);
+            assertEquals(" 12 ", ctx.getFieldText("trimmed"));
+            assertEquals(3, ctx.getFieldCount("values"));
+            assertEquals("2 ", ctx.getFieldText("values", 1));
+            
+            try {
+                in.read();
+                fail("Record expected to fail validation");
+            }
+            catch (InvalidRecordException ex) {
+                ctx = ex.getRecordContext();
+                assertEquals("0004x", ctx.getFieldText("int"));
+                assertEquals(1, ctx.getFieldErrors("int").size());
+                assertEquals("          12", ctx.getFieldText("long"));
+                assertFalse(ctx.getFieldErrors().containsKey("long"));
+                assertEquals(1, ctx.getFieldCount("values"));
+            }
+            
+            map = (Map) in.read();
+            assertEquals(0, map.get("int"));
+            assertEquals(0L, map.get("long"));
+            assertEquals(Boolean.FALSE, map.get("bool"));
+            assertEquals('Z', map.get("char"));
+            assertEquals(new java.math.BigDecimal("0.00"), map.get("decimal"));
+            assertNull(map.get("trimmed"));
+            assertEquals("", map.get("code"));
+            assertEquals(Arrays.asList((Integer) null), map.get("values"));
+            
+            assertNull(in.read());
+        }
+        finally {
+            in.close();
+        }
+    }
+    
+    @Test
+    @SuppressWarnings("rawtypes")
+    public void testSubclassedHandlers() {
+        BeanReader in = factory.createReader("f11", new StringReader(
+            "Y  12\n" +
+            "N   7\n"));
+        try {
+            Map map = (Map) in.read();
+            assertEquals(Boolean.TRUE, map.get("bool"));
+            assertEquals(1200, map.get("amount"));
+            
+            map = (Map) in.read();
+            assertEquals(Boolean.FALSE, map.get("bool"));
+            assertEquals(700, map.get("amount"));
+            
+            assertNull(in.read());
+        }
+        finally {
+            in.close();
+        }
+    }
 }
@@ -0,0 +1,241 @@
+/*
+ * Copyright 2013 Kevin Seim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.beanio.parser.flow;
+
+import static org.junit.Assert.*;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+import org.beanio.*;
+import org.beanio.flow.*;
+import org.beanio.parser.ParserTest;
+import org.junit.*;
+
+/**
+ * JUnit test cases for publishing bean objects using a {@link BeanPublisher}.
+ *
+ * @author Kevin Seim
+ * @since 2.1.1
+ */
+public class FlowTest extends ParserTest {
+
+    // an executor that runs each task in the calling thread
+    private static final Executor DIRECT = new Executor() {
+        public void execute(Runnable task) {
+            task.run();
+        }
+    };
+
+    private StreamFactory factory;
+
+    @Before
+    public void setup() throws Exception {
+        factory = newStreamFactory("flow_mapping.xml");
+    }
+
+    @Test
+    public void testPublishToWriter() throws Exception {
+        StringBuilder s = new StringBuilder();
+        for (int i=1; i<=100; i++) {
+            s.append(i).append(",name").append(i).append("\n");
+        }
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            StringWriter out = new StringWriter();
+            BeanWriterSubscriber subscriber = new BeanWriterSubscriber(factory.createWriter("f1", out), 7);
+            BeanPublisher publisher = new BeanPublisher(
+                factory.createReader("f1", new StringReader(s.toString())), executor, 4);
+            publisher.subscribe(subscriber);
+
+            assertTrue(subscriber.await(10, TimeUnit.SECONDS));
+            assertNull(subscriber.getError());
+            assertEquals(s.toString(), out.toString().replace("\r\n", "\n"));
+        }
+        finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testDemand() {
+        TestSubscriber subscriber = new TestSubscriber();
+        BeanPublisher publisher = new BeanPublisher(
+            factory.createReader("f1", new StringReader("1,a\n2,b\n3,c\n4,d\n")), DIRECT, 1);
+        publisher.subscribe(subscriber);
+        assertEquals(0, subscriber.beans.size());
+
+        subscriber.subscription.request(2);
+        assertEquals(2, subscriber.beans.size());
+        assertFalse(subscriber.complete);
+
+        subscriber.subscription.request(Long.MAX_VALUE);
+        subscriber.subscription.request(Long.MAX_VALUE);
+        assertEquals(4, subscriber.beans.size());
+        assertTrue(subscriber.complete);
+        assertNull(subscriber.error);
+    }
+
+    @Test
+    public void testCancel() {
+        TestSubscriber subscriber = new TestSubscriber();
+        BeanPublisher publisher = new BeanPublisher(
+            factory.createReader("f1", new StringReader("1,a\n2,b\n3,c\n")), DIRECT);
+        publisher.subscribe(subscriber);
+        subscriber.subscription.request(1);
+        subscriber.subscription.cancel();
+        subscriber.subscription.request(1);
+        assertEquals(1, subscriber.beans.size());
+        assertFalse(subscriber.complete);
+        assertNull(subscriber.error);
+    }
+
+    @Test
+    public void testErrors() {
+        // errors handled by the error handler do not end the subscription
+        BeanReader in = factory.createReader("f1", new StringReader("1,a\nx,b\n3,c\nx,d\n"));
+        final List<BeanReaderException> handled = new ArrayList<BeanReaderException>();
+        in.setErrorHandler(new BeanReaderErrorHandler() {
+            public void handleError(BeanReaderException ex) throws Exception {
+                handled.add(ex);
+                if (handled.size() > 1) {
+                    throw ex;
+                }
+            }
+        });
+
+        TestSubscriber subscriber = new TestSubscriber();
+        new BeanPublisher(in, DIRECT, 8).subscribe(subscriber);
+        subscriber.subscription.request(10);
+
+        // the second error is sent after the bean objects read before it
+        assertEquals(2, handled.size());
+        assertEquals(2, subscriber.beans.size());
+        assertFalse(subscriber.complete);
+        assertTrue(subscriber.error instanceof InvalidRecordException);
+    }
+
+    @Test
+    public void testInvalidRequest() {
+        TestSubscriber subscriber = new TestSubscriber();
+        BeanPublisher publisher = new BeanPublisher(
+            factory.createReader("f1", new StringReader("1,a\n")), DIRECT);
+        publisher.subscribe(subscriber);
+        subscriber.subscription.request(0);
+        assertTrue(subscriber.error instanceof IllegalArgumentException);
+
+        // a publisher accepts a single subscriber
+        TestSubscriber other = new TestSubscriber();
+        publisher.subscribe(other);
+        assertTrue(other.error instanceof IllegalStateException);
+    }
+
+    @Test
+    public void testRejectedExecution() {
+        final RejectedExecutionException rejected = new RejectedExecutionException();
+        Executor executor = new Executor() {
+            public void execute(Runnable task) {
+                throw rejected;
+            }
+        };
+
+        TestSubscriber subscriber = new TestSubscriber();
+        BeanPublisher publisher = new BeanPublisher(
+            factory.createReader("f1", new StringReader("1,a\n")), executor);
+        publisher.subscribe(subscriber);
+        assertSame(rejected, subscriber.error);
+
+        subscriber.subscription.request(1);
+        assertEquals(0, subscriber.beans.size());
+    }
+
+    @Test
+    public void testSubscriberException() {
+        final RuntimeException thrown = new IllegalStateException();
+        TestSubscriber subscriber = new TestSubscriber() {
+            public void onNext(Object bean) {
+                super.onNext(bean);
+                throw thrown;
+            }
+        };
+        BeanPublisher publisher = new BeanPublisher(
+            factory.createReader("f1", new StringReader("1,a\n2,b\n3,c\n")), DIRECT);
+        publisher.subscribe(subscriber);
+        subscriber.subscription.request(3);
+
+        // the subscription is cancelled and the exception sent to the subscriber
+        assertEquals(1, subscriber.beans.size());
+        assertSame(thrown, subscriber.error);
+        subscriber.subscription.request(1);
+        assertEquals(1, subscriber.beans.size());
+    }
+
+    @Test
+    public void testFatalError() {
+        final Error fatal = new Error();
+        BeanReader in = factory.createReader("f1", new StringReader("1,a\nx,b\n3,c\n"));
+        in.setErrorHandler(new BeanReaderErrorHandler() {
+            public void handleError(BeanReaderException ex) throws Exception {
+                throw fatal;
+            }
+        });
+
+        TestSubscriber subscriber = new TestSubscriber();
+        new BeanPublisher(in, DIRECT, 1).subscribe(subscriber);
+        try {
+            subscriber.subscription.request(3);
+            fail("Error expected");
+        }
+        catch (Error ex) {
+            assertSame(fatal, ex);
+        }
+        assertEquals(1, subscriber.beans.size());
+
+        // the subscription does not stall after the error
+        subscriber.subscription.request(1);
+        assertEquals(2, subscriber.beans.size());
+        assertTrue(subscriber.complete);
+    }
+
+    private static class TestSubscriber implements BeanSubscriber {
+        private BeanSubscription subscription;
+        private List<Object> beans = new ArrayList<Object>();
+        private boolean complete;
+        private Throwable error;
+
+        public void onSubscribe(BeanSubscription subscription) {
+            this.subscription = subscription;
+        }
+
+        public void onNext(Object bean) {
+            beans.add(bean);
+        }
+
+        public void onError(Throwable error) {
+            assertNull(this.error);
+            assertFalse(complete);
+            this.error = error;
+        }
+
+        public void onComplete() {
+            assertNull(error);
+            assertFalse(complete);
+            complete = true;
+        }
+    }
+}
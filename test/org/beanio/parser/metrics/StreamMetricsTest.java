@@ -0,0 +1,147 @@
+/*
+ * Copyright 2013 Kevin Seim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.beanio.parser.metrics;
+
+import static org.junit.Assert.*;
+
+import java.io.*;
+import java.util.*;
+
+import org.beanio.*;
+import org.beanio.metrics.*;
+import org.beanio.parser.ParserTest;
+import org.junit.*;
+
+/**
+ * JUnit test cases for gathering stream metrics using a {@link StreamListener}.
+ *
+ * @author Kevin Seim
+ * @since 2.1.1
+ */
+public class StreamMetricsTest extends ParserTest {
+
+    private StreamFactory factory;
+    private StreamMetrics metrics;
+
+    @Before
+    public void setup() throws Exception {
+        factory = newStreamFactory("metrics_mapping.xml");
+        metrics = new StreamMetrics();
+        factory.setStreamListener(metrics);
+    }
+
+    @Test
+    public void testRead() {
+        final List<BeanReaderException> errors = new ArrayList<BeanReaderException>();
+        BeanReader in = factory.createReader("m1", new StringReader(
+            "H,2013-01-01\n" +
+            "D,1,10.00\n" +
+            "D,x,10.00\n" +
+            "X,3\n" +
+            "D,4,y\n"));
+        in.setErrorHandler(new BeanReaderErrorHandler() {
+            public void handleError(BeanReaderException ex) throws Exception {
+                errors.add(ex);
+            }
+        });
+        try {
+            int count = 0;
+            while (in.read() != null) {
+                ++count;
+            }
+            assertEquals(2, count);
+            assertEquals(3, errors.size());
+        }
+        finally {
+            in.close();
+        }
+
+        StreamStatistics stats = metrics.getStreamStatistics("m1");
+        assertEquals(5, stats.getReadTime().getCount());
+        assertEquals(12 + 9 + 9 + 3 + 5, stats.getCharactersRead());
+        assertEquals(5, stats.getIdentificationTime().getCount());
+        assertEquals(1, stats.getUnidentifiedRecords());
+        assertEquals(3, stats.getErrors());
+        assertEquals(Long.valueOf(2), stats.getErrorCounts().get("InvalidRecordException"));
+        assertEquals(Long.valueOf(1), stats.getErrorCounts().get("UnidentifiedRecordException"));
+        assertEquals(new TreeSet<String>(Arrays.asList("detail", "header")), stats.getRecordNames());
+
+        RecordStatistics header = stats.getRecordStatistics("header");
+        assertEquals(1, header.getUnmarshalTime().getCount());
+        assertEquals(0, header.getTypeConversionFailures());
+
+        RecordStatistics detail = stats.getRecordStatistics("detail");
+        assertEquals(3, detail.getUnmarshalTime().getCount());
+        assertEquals(2, detail.getTypeConversionFailures());
+        assertEquals(1, detail.getTypeConversionFailures("id"));
+        assertEquals(1, detail.getTypeConversionFailures("amount"));
+        assertEquals(0, detail.getWriteTime().getCount());
+    }
+
+    @Test
+    public void testWrite() {
+        Map<String, Object> map = new HashMap<String, Object>();
+        map.put("type", "D");
+        map.put("id", 1);
+
+        BeanWriter out = factory.createWriter("m1", new StringWriter());
+        try {
+            out.write("detail", map);
+            out.write("detail", map);
+        }
+        finally {
+            out.close();
+        }
+
+        RecordStatistics detail = metrics.getStreamStatistics("m1").getRecordStatistics("detail");
+        assertEquals(2, detail.getWriteTime().getCount());
+        assertEquals(0, detail.getUnmarshalTime().getCount());
+    }
+
+    @Test
+    public void testListenerRemoved() {
+        factory.setStreamListener(null);
+        BeanReader in = factory.createReader("m1", new StringReader("D,1,1\n"));
+        try {
+            assertNotNull(in.read());
+        }
+        finally {
+            in.close();
+        }
+        assertNull(metrics.getStreamStatistics("m1"));
+    }
+
+    @Test
+    public void testHistogram() {
+        Histogram h = new Histogram();
+        assertEquals(0, h.getPercentile(50));
+        for (int i=1; i<=100; i++) {
+            h.record(i);
+        }
+        assertEquals(100, h.getCount());
+        assertEquals(5050, h.getSum());
+        assertEquals(100, h.getMax());
+        assertEquals(50.5, h.getMean(), 0.001);
+        assertEquals(63, h.getPercentile(50));
+        assertEquals(100, h.getPercentile(99));
+        assertEquals(1, h.getBucketCounts()[1]);
+        assertEquals(2, h.getBucketCounts()[2]);
+
+        h.reset();
+        assertEquals(0, h.getCount());
+        assertEquals(0, h.getMax());
+    }
+}
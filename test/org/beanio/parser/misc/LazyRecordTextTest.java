@@ -0,0 +1,124 @@
+package org.beanio.parser.misc;
+
+import static org.junit.Assert.*;
+
+import java.io.*;
+
+import org.beanio.RecordContext;
+import org.beanio.internal.parser.UnmarshallingContext;
+import org.beanio.internal.parser.format.delimited.DelimitedUnmarshallingContext;
+import org.beanio.metrics.StreamMetrics;
+import org.beanio.stream.delimited.*;
+import org.junit.Test;
+
+/**
+ * JUnit test cases for lazily requesting record text from a record reader.
+ *
+ * @author Kevin Seim
+ * @since 2.1.1
+ */
+public class LazyRecordTextTest {
+
+    @Test
+    public void testRecord() {
+        UnmarshallingContext context = createContext("a,b\nc,d\n");
+
+        context.nextRecord();
+        context.prepare("record", false);
+        context.recordStarted("record");
+        context.recordCompleted();
+        RecordContext rc = context.getRecordContext(0);
+
+        context.nextRecord();
+        assertEquals("a,b", rc.getRecordText());
+
+        context.prepare("record", false);
+        context.recordStarted("record");
+        context.recordCompleted();
+        context.nextRecord();
+        assertTrue(context.isEOF());
+    }
+
+    @Test
+    public void testRecordGroup() {
+        UnmarshallingContext context = createContext("a,b\nc,d\ne,f\n");
+
+        context.nextRecord();
+        context.prepare("group", true);
+        context.recordStarted("record");
+        context.recordCompleted();
+        context.nextRecord();
+        context.recordStarted("record");
+        context.recordCompleted();
+        context.nextRecord();
+
+        assertEquals(2, context.getRecordCount());
+        assertEquals("a,b", context.getRecordContext(0).getRecordText());
+        assertEquals("c,d", context.getRecordContext(1).getRecordText());
+    }
+
+    @Test
+    public void testBufferedReader() {
+        DelimitedRecordParserFactory factory = new DelimitedRecordParserFactory();
+        factory.setDelimiter(',');
+        factory.setBufferSize(4);
+
+        UnmarshallingContext context = new DelimitedUnmarshallingContext();
+        context.setLazyRecordText(true);
+        context.setRecordReader(factory.createReader(new StringReader("a,b\nccc,ddd\n")));
+
+        context.nextRecord();
+        context.prepare("group", true);
+        context.recordStarted("record");
+        context.recordCompleted();
+        context.nextRecord();
+        context.recordStarted("record");
+        context.recordCompleted();
+        context.nextRecord();
+
+        assertEquals("a,b", context.getRecordContext(0).getRecordText());
+        assertEquals("ccc,ddd", context.getRecordContext(1).getRecordText());
+    }
+
+    @Test
+    public void testRecordTextSequence() throws IOException {
+        DelimitedReader in = new DelimitedReader(new StringReader("a,b\nccc,ddd\n"), ',');
+        in.read();
+        assertEquals(3, in.getRecordTextLength());
+        CharSequence text = in.getRecordTextSequence();
+        in.read();
+        assertEquals(7, in.getRecordTextLength());
+        assertEquals("a,b", text.toString());
+        assertEquals("ccc,ddd", in.getRecordTextSequence().toString());
+        in.read();
+        assertEquals(-1, in.getRecordTextLength());
+        assertNull(in.getRecordTextSequence());
+    }
+
+    @Test
+    public void testStreamListener() {
+        UnmarshallingContext context = new DelimitedUnmarshallingContext();
+        context.setLazyRecordText(true);
+        context.setRecordReader(new DelimitedReader(new StringReader("a,b\nccc,ddd\n"), ',') {
+            public String getRecordText() {
+                throw new IllegalStateException("record text requested");
+            }
+        });
+        StreamMetrics metrics = new StreamMetrics();
+        context.setStreamListener("s", metrics);
+        
+        context.nextRecord();
+        context.prepare("record", false);
+        context.recordStarted("record");
+        context.recordCompleted();
+        context.nextRecord();
+        assertEquals(10, metrics.getStreamStatistics("s").getCharactersRead());
+    }
+
+    private UnmarshallingContext createContext(String input) {
+        UnmarshallingContext context = new DelimitedUnmarshallingContext();
+        context.setLazyRecordText(true);
+        context.setRecordReader(new DelimitedReader(new StringReader(input), ','));
+        return context;
+    }
+}
@@ -0,0 +1,357 @@
+/*
+ * Copyright 2013 Kevin Seim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.beanio.parser.parallel;
+
+import static org.junit.Assert.*;
+
+import java.io.*;
+import java.nio.charset.Charset;
+import java.text.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+import org.beanio.*;
+import org.beanio.internal.parser.ParallelBeanReader;
+import org.beanio.parser.ParserTest;
+import org.junit.*;
+
+/**
+ * JUnit test cases for reading a file using multiple threads.
+ *
+ * @author Kevin Seim
+ * @since 2.1.1
+ */
+public class ParallelReaderTest extends ParserTest {
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private StreamFactory factory;
+    private File file;
+
+    @Before
+    public void setup() throws Exception {
+        factory = newStreamFactory("parallel_mapping.xml");
+        file = File.createTempFile("beanio", ".txt");
+    }
+
+    @After
+    public void teardown() {
+        file.delete();
+    }
+
+    @Test
+    @SuppressWarnings("rawtypes")
+    public void testOrdered() throws IOException {
+        StringBuilder s = new StringBuilder();
+        for (int i=1; i<=1000; i++) {
+            s.append(i).append(",name").append(i).append(i % 3 == 0 ? "\r\n" : "\n");
+        }
+        write(s.toString());
+
+        BeanReader in = createReader("p1", 4, 100, true);
+        try {
+            for (int i=1; i<=1000; i++) {
+                Map map = (Map) in.read();
+                assertEquals(i, map.get("id"));
+                assertEquals("name" + i, map.get("name"));
+                assertEquals("record", in.getRecordName());
+                assertEquals(i, in.getLineNumber());
+                assertEquals(1, in.getRecordCount());
+                assertEquals(i + ",name" + i, in.getRecordContext(0).getRecordText());
+            }
+            assertNull(in.read());
+            assertEquals(-1, in.getLineNumber());
+        }
+        finally {
+            in.close();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("rawtypes")
+    public void testUnordered() throws IOException {
+        StringBuilder s = new StringBuilder();
+        for (int i=1; i<=1000; i++) {
+            s.append(i % 2 == 0 ? "A" : "B").append(String.format("%05d", i)).append("\r");
+        }
+        write(s.toString());
+
+        Set<Integer> ids = new HashSet<Integer>();
+        BeanReader in = createReader("p2", 3, 64, false);
+        try {
+            Map map;
+            while ((map = (Map) in.read()) != null) {
+                Integer id = (Integer) map.get("id");
+                assertTrue(ids.add(id));
+                assertEquals(id.intValue(), in.getLineNumber());
+                assertEquals(id % 2 == 0 ? "a" : "b", in.getRecordName());
+            }
+        }
+        finally {
+            in.close();
+        }
+        assertEquals(1000, ids.size());
+    }
+
+    @Test
+    public void testErrorHandler() throws IOException {
+        write("1,a\n2,b\nx,c\n4,d\nbad,e\n");
+
+        final List<Integer> errors = new ArrayList<Integer>();
+        final Thread thread = Thread.currentThread();
+        BeanReader in = createReader("p1", 2, 4, true);
+        in.setErrorHandler(new BeanReaderErrorHandler() {
+            public void handleError(BeanReaderException ex) throws Exception {
+                assertSame(thread, Thread.currentThread());
+                assertTrue(ex instanceof InvalidRecordException);
+                errors.add(ex.getRecordContext().getLineNumber());
+            }
+        });
+        try {
+            int count = 0;
+            while (in.read() != null) {
+                ++count;
+            }
+            assertEquals(3, count);
+            assertEquals(Arrays.asList(3, 5), errors);
+        }
+        finally {
+            in.close();
+        }
+    }
+
+    @Test
+    public void testEmptyFile() throws IOException {
+        write("");
+        BeanReader in = createReader("p1", 2, 4, true);
+        assertNull(in.read());
+        in.close();
+    }
+
+    @Test
+    @SuppressWarnings("rawtypes")
+    public void testSplitIterator() throws Exception {
+        StringBuilder s = new StringBuilder();
+        for (int i=1; i<=500; i++) {
+            s.append(i % 50 == 0 ? "x" : String.valueOf(i)).append(",name").append(i).append(i % 3 == 0 ? "\r\n" : "\n");
+        }
+        write(s.toString());
+
+        // split the iterator into 8 byte ranges, in file order
+        BeanIterator<Map> root = factory.createIterator("p1", file, UTF8, Map.class);
+        long size = root.estimateSize();
+        List<BeanIterator<Map>> list = new ArrayList<BeanIterator<Map>>();
+        list.add(root);
+        while (list.size() < 8) {
+            List<BeanIterator<Map>> next = new ArrayList<BeanIterator<Map>>();
+            for (BeanIterator<Map> it : list) {
+                BeanIterator<Map> prefix = it.trySplit();
+                assertNotNull(prefix);
+                next.add(prefix);
+                next.add(it);
+            }
+            list = next;
+        }
+        long total = 0;
+        for (BeanIterator<Map> it : list) {
+            total += it.estimateSize();
+        }
+        assertEquals(size, total);
+
+        // read each iterator using its own thread
+        final List<Integer> errors = Collections.synchronizedList(new ArrayList<Integer>());
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<List<Object>>> results = new ArrayList<Future<List<Object>>>();
+        try {
+            for (final BeanIterator<Map> it : list) {
+                it.setErrorHandler(new BeanReaderErrorHandler() {
+                    public void handleError(BeanReaderException ex) throws Exception {
+                        errors.add(ex.getRecordContext().getLineNumber());
+                    }
+                });
+                results.add(executor.submit(new Callable<List<Object>>() {
+                    public List<Object> call() {
+                        List<Object> ids = new ArrayList<Object>();
+                        while (it.hasNext()) {
+                            ids.add(it.next().get("id"));
+                        }
+                        return ids;
+                    }
+                }));
+            }
+
+            int expected = 1;
+            for (Future<List<Object>> result : results) {
+                for (Object id : result.get()) {
+                    if (expected % 50 == 0) {
+                        ++expected;
+                    }
+                    assertEquals(expected++, id);
+                }
+            }
+            assertEquals(500, expected);
+        }
+        finally {
+            executor.shutdown();
+        }
+
+        Collections.sort(errors);
+        assertEquals(Arrays.asList(50, 100, 150, 200, 250, 300, 350, 400, 450, 500), errors);
+    }
+
+    @Test
+    public void testIteratorNotSplittable() throws IOException {
+        write("H\nD\nD\n");
+        BeanIterator<Object> it = factory.createIterator("p3", file, UTF8, Object.class);
+        assertNull(it.trySplit());
+        int count = 0;
+        while (it.hasNext()) {
+            assertNotNull(it.next());
+            ++count;
+        }
+        assertEquals(3, count);
+        assertEquals(0, it.estimateSize());
+        it.close();
+    }
+
+    @Test
+    public void testPatterns() throws Exception {
+        writePatterns(20000);
+
+        List<Object> expected = new ArrayList<Object>();
+        BeanReader in = factory.createReader("p5", file, UTF8);
+        try {
+            Object bean;
+            while ((bean = in.read()) != null) {
+                expected.add(bean);
+            }
+        }
+        finally {
+            in.close();
+        }
+        assertEquals(20000, expected.size());
+
+        List<Object> actual = new ArrayList<Object>();
+        in = createReader("p5", 8, 4096, true);
+        try {
+            Object bean;
+            while ((bean = in.read()) != null) {
+                actual.add(bean);
+            }
+        }
+        finally {
+            in.close();
+        }
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    @SuppressWarnings("rawtypes")
+    public void testSplitIteratorPatterns() throws Exception {
+        writePatterns(20000);
+
+        List<Object> expected = new ArrayList<Object>();
+        BeanIterator<Map> root = factory.createIterator("p5", file, UTF8, Map.class);
+        List<BeanIterator<Map>> list = new ArrayList<BeanIterator<Map>>();
+        list.add(factory.createIterator("p5", file, UTF8, Map.class));
+        while (root.hasNext()) {
+            expected.add(root.next());
+        }
+        assertEquals(20000, expected.size());
+        
+        while (list.size() < 8) {
+            List<BeanIterator<Map>> next = new ArrayList<BeanIterator<Map>>();
+            for (BeanIterator<Map> it : list) {
+                next.add(it.trySplit());
+                next.add(it);
+            }
+            list = next;
+        }
+
+        // read each iterator using its own thread
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<List<Object>>> results = new ArrayList<Future<List<Object>>>();
+        try {
+            for (final BeanIterator<Map> it : list) {
+                results.add(executor.submit(new Callable<List<Object>>() {
+                    public List<Object> call() {
+                        List<Object> beans = new ArrayList<Object>();
+                        while (it.hasNext()) {
+                            beans.add(it.next());
+                        }
+                        return beans;
+                    }
+                }));
+            }
+            List<Object> actual = new ArrayList<Object>();
+            for (Future<List<Object>> result : results) {
+                actual.addAll(result.get());
+            }
+            assertEquals(expected, actual);
+        }
+        finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOrderedLayoutNotSupported() {
+        factory.createParallelReader("p3", file, UTF8, 2, true);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testLineContinuationNotSupported() {
+        factory.createParallelReader("p4", file, UTF8, 2, true);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCharsetNotSupported() {
+        factory.createParallelReader("p1", file, Charset.forName("UTF-16"), 2, true);
+    }
+
+    private BeanReader createReader(String name, int threads, long chunkSize, boolean ordered) {
+        BeanReader in = factory.createParallelReader(name, file, UTF8, threads, ordered);
+        ((ParallelBeanReader) in).setChunkSize(chunkSize);
+        return in;
+    }
+
+    /*
+     * Writes records with date and number patterns not supported without a 
+     * SimpleDateFormat or DecimalFormat.
+     */
+    private void writePatterns(int count) throws Exception {
+        DateFormat dateFormat = new SimpleDateFormat("dd MMM yyyy HH:mm");
+        NumberFormat numberFormat = new DecimalFormat("#,##0.00");
+        long base = new SimpleDateFormat("yyyy-MM-dd").parse("2013-01-01").getTime();
+        
+        StringBuilder s = new StringBuilder();
+        for (int i=1; i<=count; i++) {
+            s.append(dateFormat.format(new Date(base + i * 60000L))).append(",\"");
+            s.append(numberFormat.format(i * 1234.25)).append("\"\n");
+        }
+        write(s.toString());
+    }
+
+    private void write(String text) throws IOException {
+        OutputStream out = new FileOutputStream(file);
+        try {
+            out.write(text.getBytes("UTF-8"));
+        }
+        finally {
+            out.close();
+        }
+    }
+}
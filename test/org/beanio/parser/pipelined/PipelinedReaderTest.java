@@ -0,0 +1,198 @@
+/*
+ * Copyright 2013 Kevin Seim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.beanio.parser.pipelined;
+
+import static org.junit.Assert.*;
+
+import java.io.*;
+import java.text.*;
+import java.util.*;
+
+import org.beanio.*;
+import org.beanio.parser.ParserTest;
+import org.junit.*;
+
+/**
+ * JUnit test cases for unmarshalling records using a pipeline of threads.
+ *
+ * @author Kevin Seim
+ * @since 2.1.1
+ */
+public class PipelinedReaderTest extends ParserTest {
+
+    private StreamFactory factory;
+
+    @Before
+    public void setup() throws Exception {
+        factory = newStreamFactory("pipelined_mapping.xml");
+    }
+
+    @Test
+    public void testSameAsBeanReader() {
+        StringBuilder s = new StringBuilder();
+        s.append("H,2013-01-01\n");
+        for (int i=1; i<=2000; i++) {
+            if (i % 100 == 0) {
+                s.append("BH,").append(i).append("\n");
+                s.append("BD,1\nBD,").append(i % 300 == 0 ? "x" : "2").append("\n");
+            }
+            else if (i % 77 == 0) {
+                s.append("D,").append(i).append(",bad\n");
+            }
+            else if (i % 250 == 0) {
+                s.append("X,").append(i).append("\n");
+            }
+            else {
+                s.append("D,").append(i).append(",").append(i).append(".25\n");
+            }
+        }
+        s.append("T,2000\n");
+        String input = s.toString();
+
+        List<String> expected = readAll(factory.createReader("p1", new StringReader(input)));
+        List<String> actual = readAll(factory.createPipelinedReader("p1", new StringReader(input), 4));
+        assertEquals(expected.size(), actual.size());
+        assertEquals(expected, actual);
+        
+        // reading beans in batches must return the same beans and errors
+        expected = readBatches(factory.createReader("p1", new StringReader(input)), 1);
+        assertEquals(expected, readBatches(factory.createReader("p1", new StringReader(input)), 64));
+        assertEquals(expected, readBatches(factory.createPipelinedReader("p1", new StringReader(input), 4), 64));
+    }
+
+    @Test
+    public void testPatterns() throws Exception {
+        // patterns not supported without a SimpleDateFormat or DecimalFormat
+        DateFormat dateFormat = new SimpleDateFormat("dd MMM yyyy HH:mm");
+        NumberFormat numberFormat = new DecimalFormat("#,##0.00");
+        long base = new SimpleDateFormat("yyyy-MM-dd").parse("2013-01-01").getTime();
+        
+        StringBuilder s = new StringBuilder();
+        for (int i=1; i<=20000; i++) {
+            s.append(dateFormat.format(new Date(base + i * 60000L))).append(",\"");
+            s.append(numberFormat.format(i * 1234.25)).append("\"\n");
+        }
+        String input = s.toString();
+        
+        List<String> expected = readAll(factory.createReader("p2", new StringReader(input)));
+        List<String> actual = readAll(factory.createPipelinedReader("p2", new StringReader(input), 8));
+        assertEquals(20000, expected.size());
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void testUnsatisfiedRecord() {
+        BeanReader in = factory.createPipelinedReader("p1", new StringReader("H,2013-01-01\nD,1,1\n"), 2);
+        try {
+            assertNotNull(in.read());
+            assertNotNull(in.read());
+            in.read();
+            fail("Record expected");
+        }
+        catch (BeanReaderException ex) {
+            assertTrue(ex.getMessage().contains("trailer"));
+        }
+        finally {
+            in.close();
+        }
+    }
+
+    @Test
+    public void testSkip() {
+        BeanReader in = factory.createPipelinedReader("p1", new StringReader(
+            "H,2013-01-01\nD,1,1\nD,2,x\nD,3,3\nT,1\n"), 2);
+        try {
+            assertEquals(3, in.skip(3));
+            assertEquals("detail", in.getRecordName());
+            assertEquals(3, in.getLineNumber());
+            assertNotNull(in.read());
+            assertEquals(4, in.getLineNumber());
+            assertNotNull(in.read());
+            assertEquals("trailer", in.getRecordName());
+            assertNull(in.read());
+        }
+        finally {
+            in.close();
+        }
+    }
+
+    /*
+     * Reads all bean objects in batches of the given size, and errors, into a list of 
+     * strings for comparison.
+     */
+    private List<String> readBatches(BeanReader in, int max) {
+        List<String> list = new ArrayList<String>();
+        final List<String> errors = new ArrayList<String>();
+        in.setErrorHandler(new BeanReaderErrorHandler() {
+            public void handleError(BeanReaderException ex) throws Exception {
+                errors.add(ex.getClass().getSimpleName() + ": " + ex.getMessage());
+            }
+        });
+        try {
+            List<Object> beans = new ArrayList<Object>();
+            int n;
+            do {
+                beans.clear();
+                n = ((BatchBeanReader) in).read(beans, max);
+                assertEquals(n, beans.size());
+                for (Object bean : beans) {
+                    list.add(new TreeMap<Object, Object>((Map<?, ?>) bean).toString());
+                }
+            }
+            while (n == max);
+        }
+        finally {
+            in.close();
+        }
+        list.addAll(errors);
+        return list;
+    }
+    
+    /*
+     * Reads all bean objects and errors into a list of strings for comparison.
+     */
+    private List<String> readAll(BeanReader in) {
+        final List<String> list = new ArrayList<String>();
+        in.setErrorHandler(new BeanReaderErrorHandler() {
+            public void handleError(BeanReaderException ex) throws Exception {
+                StringBuilder s = new StringBuilder(ex.getClass().getSimpleName()).append(": ");
+                s.append(ex.getMessage());
+                for (int i=0; i<ex.getRecordCount(); i++) {
+                    RecordContext rc = ex.getRecordContext(i);
+                    s.append(" [").append(rc.getRecordName()).append(", ").append(rc.getLineNumber());
+                    s.append(", ").append(rc.getRecordText()).append(", ").append(rc.getFieldErrors()).append("]");
+                }
+                list.add(s.toString());
+            }
+        });
+        try {
+            Object bean;
+            while ((bean = in.read()) != null) {
+                StringBuilder s = new StringBuilder();
+                s.append(in.getRecordName()).append(" ").append(in.getLineNumber()).append(" ");
+                s.append(new TreeMap<Object, Object>((Map<?, ?>) bean));
+                for (int i=0; i<in.getRecordCount(); i++) {
+                    s.append(" [").append(in.getRecordContext(i).getRecordText()).append("]");
+                }
+                list.add(s.toString());
+            }
+        }
+        finally {
+            in.close();
+        }
+        return list;
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2013 Kevin Seim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.beanio.parser.pooled;
+
+import static org.junit.Assert.*;
+
+import java.math.BigDecimal;
+import java.text.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+import org.beanio.*;
+import org.beanio.internal.parser.*;
+import org.beanio.parser.ParserTest;
+import org.junit.*;
+
+/**
+ * JUnit test cases for pooled, thread safe marshallers and unmarshallers.
+ *
+ * @author Kevin Seim
+ * @since 2.1.1
+ */
+public class PooledMarshallerTest extends ParserTest {
+
+    private StreamFactory factory;
+
+    @Before
+    public void setup() throws Exception {
+        factory = newStreamFactory("pooled_mapping.xml");
+    }
+
+    @Test
+    @SuppressWarnings("rawtypes")
+    public void testUnmarshal() {
+        Unmarshaller u = factory.createPooledUnmarshaller("p1", null, 2);
+        
+        Map map = (Map) u.unmarshal("D,1,john");
+        assertEquals(1, map.get("id"));
+        assertEquals("john", map.get("name"));
+        assertEquals("detail", u.getRecordName());
+        assertEquals(0, u.getRecordContext().getLineNumber());
+        
+        // record order and occurrences are reset after each call
+        assertNotNull(u.unmarshal("H,2013-01-01"));
+        assertEquals("header", u.getRecordName());
+        assertNotNull(u.unmarshal("H,2013-01-02"));
+        assertEquals(1, ((PooledUnmarshaller) u).getIdleCount());
+        
+        try {
+            u.unmarshal("D,x,mary");
+            fail("Invalid record expected");
+        }
+        catch (InvalidRecordException ex) {
+            assertEquals("detail", u.getRecordName());
+            assertTrue(u.getRecordContext().hasFieldErrors());
+        }
+        
+        map = (Map) u.unmarshal(new String[] { "D", "2", "mary" });
+        assertEquals(2, map.get("id"));
+    }
+    
+    @Test
+    public void testMarshal() {
+        Map<String,Object> map = new HashMap<String,Object>();
+        map.put("type", "D");
+        map.put("id", 1);
+        map.put("name", "john");
+        
+        Marshaller m = factory.createPooledMarshaller("p1", 2);
+        assertEquals("D,1,john", m.marshal("detail", map).toString());
+        assertArrayEquals(new String[] { "D", "1", "john" }, m.toArray());
+        assertEquals(Arrays.asList("D", "1", "john"), m.toList());
+        assertEquals(1, ((PooledMarshaller) m).getIdleCount());
+    }
+    
+    @Test
+    @SuppressWarnings("rawtypes")
+    public void testConcurrent() throws Exception {
+        final Unmarshaller u = factory.createPooledUnmarshaller("p1", null, 3);
+        final Marshaller m = factory.createPooledMarshaller("p1", 3);
+        
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> results = new ArrayList<Future<Boolean>>();
+            for (int t=0; t<8; t++) {
+                final int thread = t;
+                results.add(executor.submit(new Callable<Boolean>() {
+                    public Boolean call() throws Exception {
+                        for (int i=0; i<500; i++) {
+                            String text = "D," + i + ",name" + thread;
+                            Map map = (Map) u.unmarshal(text);
+                            assertEquals(i, map.get("id"));
+                            assertEquals("name" + thread, map.get("name"));
+                            assertEquals("detail", u.getRecordName());
+                            assertEquals(text, m.marshal("detail", map).toString());
+                        }
+                        return Boolean.TRUE;
+                    }
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        }
+        finally {
+            executor.shutdown();
+        }
+        assertTrue(((PooledUnmarshaller) u).getIdleCount() <= 3);
+    }
+    
+    @Test
+    @SuppressWarnings("rawtypes")
+    public void testConcurrentPatterns() throws Exception {
+        // patterns not supported without a SimpleDateFormat or DecimalFormat
+        final Unmarshaller u = factory.createPooledUnmarshaller("p1", null, 3);
+        final Marshaller m = factory.createPooledMarshaller("p1", 3);
+        final long base = new SimpleDateFormat("yyyy-MM-dd").parse("2013-01-01").getTime();
+        
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> results = new ArrayList<Future<Boolean>>();
+            for (int t=0; t<8; t++) {
+                final int thread = t;
+                results.add(executor.submit(new Callable<Boolean>() {
+                    public Boolean call() throws Exception {
+                        DateFormat dateFormat = new SimpleDateFormat("dd MMM yyyy HH:mm");
+                        NumberFormat numberFormat = new DecimalFormat("#,##0.00");
+                        for (int i=0; i<500; i++) {
+                            Date date = new Date(base + (thread * 1000L + i) * 3600000L);
+                            BigDecimal amount = new BigDecimal((thread * 1000000L + i * 1234L) + ".25");
+                            String number = numberFormat.format(amount);
+                            if (number.indexOf(',') >= 0) {
+                                number = "\"" + number + "\"";
+                            }
+                            String text = "P," + dateFormat.format(date) + "," + number;
+                            
+                            Map map = (Map) u.unmarshal(text);
+                            assertEquals(date, map.get("date"));
+                            assertEquals(0, amount.compareTo((BigDecimal) map.get("amount")));
+                            assertEquals(text, m.marshal("amount", map).toString());
+                        }
+                        return Boolean.TRUE;
+                    }
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        }
+        finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2013 Kevin Seim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.beanio.parser.xml.projection;
+
+import static org.junit.Assert.*;
+
+import java.io.*;
+import java.util.Map;
+
+import org.beanio.*;
+import org.beanio.internal.util.DomUtil;
+import org.beanio.parser.xml.XmlParserTest;
+import org.beanio.stream.xml.*;
+import org.junit.*;
+import org.w3c.dom.*;
+
+/**
+ * JUnit test cases for skipping unmapped elements when reading an XML stream.
+ *
+ * @author Kevin Seim
+ * @since 2.1.1
+ */
+public class XmlProjectionTest extends XmlParserTest {
+
+    private static final String INPUT =
+        "<people>\n" +
+        "  <person id=\"1\">\n" +
+        "    <history><event><date>2013-01-01</date></event><event/></history>\n" +
+        "    <firstName>John</firstName>\n" +
+        "    <address><street>Main</street><city>Chicago</city></address>\n" +
+        "    <note type=\"a\">some <b>mixed</b> text</note>\n" +
+        "  </person>\n" +
+        "  <person id=\"2\">\n" +
+        "    <firstName>Mary</firstName>\n" +
+        "  </person>\n" +
+        "</people>";
+
+    private StreamFactory factory;
+
+    @Before
+    public void setup() throws Exception {
+        factory = newStreamFactory("projection_mapping.xml");
+    }
+
+    @Test
+    @SuppressWarnings("rawtypes")
+    public void testRead() {
+        BeanReader in = factory.createReader("stream", new StringReader(INPUT));
+        try {
+            Map map = (Map) in.read();
+            assertEquals("1", map.get("id"));
+            assertEquals("John", map.get("firstName"));
+            assertEquals("Chicago", ((Map) map.get("address")).get("city"));
+            assertEquals("a", ((Map) map.get("note")).get("type"));
+            assertEquals("some  text", ((Map) map.get("note")).get("text"));
+
+            map = (Map) in.read();
+            assertEquals("2", map.get("id"));
+            assertEquals("Mary", map.get("firstName"));
+            assertNull(map.get("address"));
+            assertEquals(8, in.getLineNumber());
+
+            assertNull(in.read());
+        }
+        finally {
+            in.close();
+        }
+    }
+
+    @Test
+    public void testSkippedElements() throws Exception {
+        Document base = DomUtil.newDocument();
+        base.appendChild(base.createElementNS(null, "people"));
+
+        XmlProjection projection = new XmlProjection();
+        XmlProjection person = projection.addNode("person");
+        person.addElement("firstName");
+        person.addNode("address").addElement("city");
+
+        XmlReader in = new XmlReader(new StringReader(INPUT), base);
+        in.setProjection(projection);
+
+        Element record = (Element) in.read().getDocumentElement().getFirstChild();
+        assertEquals("person", record.getLocalName());
+        assertEquals("1", record.getAttribute("id"));
+        assertEquals(2, record.getChildNodes().getLength());
+        assertEquals("firstName", record.getFirstChild().getLocalName());
+        Element address = (Element) record.getLastChild();
+        assertEquals(1, address.getChildNodes().getLength());
+        assertEquals("Chicago", address.getTextContent());
+        assertEquals(2, in.getRecordLineNumber());
+
+        assertNotNull(in.read());
+        assertNull(in.read());
+        in.close();
+    }
+}
@@ -16,6 +16,9 @@
 package org.beanio.spring;
 
 import static org.junit.Assert.*;
+
+import java.util.*;
+
 import org.junit.Test;
 import org.springframework.batch.item.*;
 import org.springframework.core.io.ClassPathResource;
@@ -42,6 +45,55 @@ public class BeanIOFlatFileItemReaderTest {
         assertNull(reader.read());
     }
     
+    @Test
+    public void testReadList() throws Exception {
+        BeanIOFlatFileItemReader<Map<String,Object>> reader = new BeanIOFlatFileItemReader<Map<String,Object>>();
+        reader.setStreamName("stream1");
+        reader.setStreamMapping(new ClassPathResource("spring_mapping1.xml", getClass()));
+        reader.setResource(new ClassPathResource("in.txt", getClass()));
+        reader.afterPropertiesSet();
+        
+        ExecutionContext ctx = new ExecutionContext();
+        reader.open(ctx);
+        
+        List<Object> items = new ArrayList<Object>();
+        assertEquals(2, reader.read(items, 2));
+        assertEquals("John", ((Map<?,?>) items.get(0)).get("name"));
+        assertEquals("Kevin", ((Map<?,?>) items.get(1)).get("name"));
+        assertEquals(2, reader.getLineNumber());
+        reader.update(ctx);
+        reader.close();
+        
+        // the item count is used to restart
+        reader.open(ctx);
+        items.clear();
+        assertEquals(2, reader.read(items, 3));
+        assertEquals("Joe", ((Map<?,?>) items.get(0)).get("name"));
+        assertEquals("Barney", ((Map<?,?>) items.get(1)).get("name"));
+        assertEquals(0, reader.read(items, 3));
+        reader.close();
+    }
+    
+    @Test
+    public void testReadListMaxItemCount() throws Exception {
+        BeanIOFlatFileItemReader<Map<String,Object>> reader = new BeanIOFlatFileItemReader<Map<String,Object>>();
+        reader.setStreamName("stream1");
+        reader.setStreamMapping(new ClassPathResource("spring_mapping1.xml", getClass()));
+        reader.setResource(new ClassPathResource("in.txt", getClass()));
+        reader.setMaxItemCount(3);
+        reader.afterPropertiesSet();
+        
+        reader.open(new ExecutionContext());
+        List<Object> items = new ArrayList<Object>();
+        assertNotNull(reader.read());
+        assertEquals(2, reader.read(items, 5));
+        assertEquals("Kevin", ((Map<?,?>) items.get(0)).get("name"));
+        assertEquals("Joe", ((Map<?,?>) items.get(1)).get("name"));
+        assertEquals(0, reader.read(items, 5));
+        assertNull(reader.read());
+        reader.close();
+    }
+    
     @Test(expected=ItemStreamException.class)
     public void testInputFileNotFoundAndStrict() throws Exception {
         BeanIOFlatFileItemReader<Object> reader = new BeanIOFlatFileItemReader<Object>();
@@ -0,0 +1,182 @@
+/*
+ * Copyright 2013 Kevin Seim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.beanio.stream;
+
+import static org.junit.Assert.*;
+
+import java.io.*;
+import java.nio.charset.Charset;
+import java.util.*;
+
+import org.beanio.stream.csv.*;
+import org.junit.*;
+
+/**
+ * JUnit test cases for the <tt>CsvByteReader</tt>.  Most test cases compare the
+ * results of a <tt>CsvByteReader</tt> with a <tt>CsvReader</tt>.
+ *
+ * @author Kevin Seim
+ * @since 2.1.1
+ */
+public class CsvByteReaderTest {
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+    private static final Charset LATIN1 = Charset.forName("ISO-8859-1");
+
+    private CsvRecordParserFactory factory;
+
+    @Before
+    public void setUp() throws Exception {
+        factory = new CsvRecordParserFactory();
+    }
+
+    @Test
+    public void testBasic() throws IOException {
+        RecordReader in = createReader("1,2,3\r\n\"4\",\"5,\"\"6\"\"\",\u00e9\u20ac\n", UTF8, 1024);
+        assertArrayEquals(new String[] { "1", "2", "3" }, (String[]) in.read());
+        assertEquals("1,2,3", in.getRecordText());
+        assertArrayEquals(new String[] { "4", "5,\"6\"", "\u00e9\u20ac" }, (String[]) in.read());
+        assertEquals("\"4\",\"5,\"\"6\"\"\",\u00e9\u20ac", in.getRecordText());
+        assertEquals(2, in.getRecordLineNumber());
+        assertNull(in.read());
+        assertNull(in.getRecordText());
+        assertEquals(-1, in.getRecordLineNumber());
+        in.close();
+    }
+
+    @Test
+    public void testLatin1() throws IOException {
+        RecordReader in = createReader("\u00e9,\"\u00ff\"", LATIN1, 1024);
+        assertArrayEquals(new String[] { "\u00e9", "\u00ff" }, (String[]) in.read());
+        assertNull(in.read());
+        in.close();
+    }
+
+    @Test
+    public void testRecordsSpanningBuffer() throws IOException {
+        RecordReader in = createReader("aaaaaaaaaaaaaaaaaaaa,\"bb\"\"bbbbbbbbbbbbbbbbbbb\"\r\nc", UTF8, 4);
+        assertArrayEquals(new String[] { "aaaaaaaaaaaaaaaaaaaa", "bb\"bbbbbbbbbbbbbbbbbbb" }, (String[]) in.read());
+        assertArrayEquals(new String[] { "c" }, (String[]) in.read());
+        assertNull(in.read());
+        in.close();
+    }
+
+    @Test
+    public void testFactory() throws IOException {
+        assertTrue(factory.createReader(new ByteArrayInputStream(new byte[0]), UTF8) instanceof CsvByteReader);
+        assertTrue(factory.createReader(new ByteArrayInputStream(new byte[0]), Charset.forName("UTF-16")) instanceof CsvReader);
+        factory.setDelimiter('\u00a7');
+        assertTrue(factory.createReader(new ByteArrayInputStream(new byte[0]), UTF8) instanceof CsvReader);
+    }
+
+    @Test
+    public void testDefaultSettings() throws IOException {
+        String[] input = {
+            "", "\n", "   1,2,3", ",,\n", ",", "\"1,\",2", "\"1,\"\"\",2", "\"1\",\"\",\"3\"",
+            "\"1\",\"\",\"3\"2\n\r1,2", "\"1\",\"\",\"3\" \n\r1,2", "1\"1,2,3", "\"1\",\"\",\"3\" 2\n,2",
+            "1,2,3\r\n4,5,6\r\n", "1,2,3\r4,5,6\r", "1,2,3\n4,5,6\n", "\"hello,ma", "\"a\"\"",
+            "\"a\"\"\",b\r\n\n", "1,\"2\r\n3\",4\r\n5", "a,\"b\"x\r\nc\r\n",
+        };
+        assertSameResults(input);
+    }
+
+    @Test
+    public void testCustomSettings() throws IOException {
+        factory.setDelimiter('|');
+        assertSameResults("\"1\"|2|3", "1,2|3|\n|");
+
+        factory = new CsvRecordParserFactory();
+        factory.setQuote('\'');
+        factory.setEscape('\\');
+        assertSameResults("'1',' \\'23\\\\4\\' ',5\\\\\n", "'1\\x','2\\", "'1\\\n2'", "'\\\\'");
+
+        factory = new CsvRecordParserFactory();
+        factory.setQuote('\'');
+        factory.setMultilineEnabled(true);
+        assertSameResults("'12\n3','4\r\n5'\n'6',7", "'1\r2'\r\n3", "'1\r");
+
+        factory = new CsvRecordParserFactory();
+        factory.setQuote('\'');
+        factory.setWhitespaceAllowed(true);
+        assertSameResults(" '1' , '2'  \n", "   1,2,  3  ", "  ,  \n  ", "  \n  ");
+
+        factory = new CsvRecordParserFactory();
+        factory.setEscape(null);
+        factory.setQuote('\'');
+        factory.setUnquotedQuotesAllowed(true);
+        assertSameResults("'1\"','2'\n", "1\"1,2", "field1,'field2\nfield1", "field1,'field2' ,field3\r\nfield1");
+    }
+
+    @Test
+    public void testComments() throws IOException {
+        factory.setComments(new String[] { "#", "$$", "--" });
+        assertSameResults(
+            "# Comment\n1\r\n-1\r\n--Comment\r\n2\n#",
+            "1\r\n#2\r\n3",
+            "#1\r\n#2\r\n",
+            "$");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnsupportedCharset() {
+        new CsvByteReader(new ByteArrayInputStream(new byte[0]), Charset.forName("UTF-16"), null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testQuoteIsDelimiter() {
+        CsvParserConfiguration config = new CsvParserConfiguration();
+        config.setQuote(',');
+        new CsvByteReader(new ByteArrayInputStream(new byte[0]), UTF8, config);
+    }
+
+    /*
+     * Asserts a CsvByteReader returns the same records, line numbers, record text
+     * and errors as a CsvReader for each input, using various buffer sizes.
+     */
+    private void assertSameResults(String... input) throws IOException {
+        for (String s : input) {
+            List<String> expected = parse(factory.createReader(new StringReader(s)));
+            for (int bufferSize : new int[] { 1, 3, 8, 1024 }) {
+                List<String> actual = parse(new CsvByteReader(
+                    new ByteArrayInputStream(s.getBytes("UTF-8")), UTF8, factory, bufferSize));
+                assertEquals("Input '" + s + "', buffer size " + bufferSize, expected, actual);
+            }
+        }
+    }
+
+    private List<String> parse(RecordReader in) throws IOException {
+        List<String> list = new ArrayList<String>();
+        for (int i=0; i<20; i++) {
+            try {
+                String[] record = (String[]) in.read();
+                if (record == null) {
+                    list.add("EOF " + in.getRecordLineNumber());
+                    break;
+                }
+                list.add(Arrays.asList(record) + " " + in.getRecordLineNumber() + " " + in.getRecordText());
+            }
+            catch (RecordIOException ex) {
+                list.add(ex.getMessage());
+            }
+        }
+        in.close();
+        return list;
+    }
+
+    private RecordReader createReader(String input, Charset charset, int bufferSize) throws IOException {
+        return new CsvByteReader(new ByteArrayInputStream(input.getBytes(charset.name())), charset, factory, bufferSize);
+    }
+}
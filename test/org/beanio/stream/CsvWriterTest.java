@@ -81,6 +81,24 @@ public class CsvWriterTest {
         assertEquals(5, out.getLineNumber());
     }
 
+    @Test
+    public void testLargeRecord() throws IOException {
+        CsvRecordParserFactory factory = new CsvRecordParserFactory();
+        factory.setRecordTerminator("");
+        StringBuilder value = new StringBuilder();
+        StringBuilder expected = new StringBuilder();
+        for (int i=0; i<500; i++) {
+            value.append("a\"\n");
+            expected.append("a\"\"\n");
+        }
+        StringWriter text = new StringWriter();
+        CsvWriter out = (CsvWriter) factory.createWriter(text);
+        out.write(new String[] { value.toString(), "b" });
+        out.write(new String[] { "c" });
+        assertEquals("\"" + expected + "\",bc", text.toString());
+        assertEquals(502, out.getLineNumber());
+    }
+
     @Test
     public void testFlushAndClose() throws IOException {
         CsvRecordParserFactory factory = new CsvRecordParserFactory();
@@ -0,0 +1,154 @@
+package org.beanio.stream;
+
+import static org.junit.Assert.*;
+
+import java.io.*;
+
+import org.beanio.stream.delimited.*;
+import org.junit.Test;
+
+/**
+ * JUnit test cases for <tt>DelimitedBufferedReader</tt>.
+ *
+ * @author Kevin Seim
+ */
+public class DelimitedBufferedReaderTest {
+
+    @Test
+    public void testBasic() throws IOException {
+        DelimitedRecordParserFactory factory = createFactory(1024);
+        RecordReader in = factory.createReader(new StringReader("1\t2\t33\t444\t\n"));
+        assertTrue(in instanceof DelimitedBufferedReader);
+        assertArrayEquals(new String[] { "1", "2", "33", "444", "" }, (String[]) in.read());
+        assertEquals("1\t2\t33\t444\t", in.getRecordText());
+        assertEquals(1, in.getRecordLineNumber());
+        assertNull(in.read());
+        assertNull(in.getRecordText());
+        assertEquals(-1, in.getRecordLineNumber());
+    }
+
+    @Test
+    public void testRecordLargerThanBuffer() throws IOException {
+        DelimitedRecordParserFactory factory = createFactory(2);
+        factory.setDelimiter(',');
+        RecordReader in = factory.createReader(new StringReader("aaaa,bbbbbb,c\r\ndd,e\nf"));
+        assertArrayEquals(new String[] { "aaaa", "bbbbbb", "c" }, (String[]) in.read());
+        assertEquals("aaaa,bbbbbb,c", in.getRecordText());
+        assertArrayEquals(new String[] { "dd", "e" }, (String[]) in.read());
+        assertEquals("dd,e", in.getRecordText());
+        assertEquals(2, in.getRecordLineNumber());
+        assertArrayEquals(new String[] { "f" }, (String[]) in.read());
+        assertEquals("f", in.getRecordText());
+        assertEquals(3, in.getRecordLineNumber());
+        assertNull(in.read());
+    }
+
+    @Test
+    public void testEscapeAndLineContinuation() throws IOException {
+        DelimitedRecordParserFactory factory = createFactory(3);
+        factory.setDelimiter(',');
+        factory.setEscape('\\');
+        factory.setLineContinuationCharacter('\\');
+        RecordReader in = factory.createReader(new StringReader("1\\,2,3\\\\,\\\r\n4\n5"));
+        assertArrayEquals(new String[] { "1,2", "3\\", "4" }, (String[]) in.read());
+        assertEquals("1\\,2,3\\\\,\\\r4", in.getRecordText());
+        assertEquals(1, in.getRecordLineNumber());
+        assertArrayEquals(new String[] { "5" }, (String[]) in.read());
+        assertEquals(3, in.getRecordLineNumber());
+        assertNull(in.read());
+    }
+
+    @Test
+    public void testComments() throws IOException {
+        DelimitedRecordParserFactory factory = createFactory(4);
+        factory.setDelimiter(',');
+        factory.setComments(new String[] { "#", "!!" });
+        RecordReader in = factory.createReader(new StringReader("#a,b\r\n!!c\r\n1,2\r\n!d\n#e"));
+        assertArrayEquals(new String[] { "1", "2" }, (String[]) in.read());
+        assertEquals(3, in.getRecordLineNumber());
+        assertArrayEquals(new String[] { "!d" }, (String[]) in.read());
+        assertEquals(4, in.getRecordLineNumber());
+        assertNull(in.read());
+    }
+
+    @Test(expected = RecordIOException.class)
+    public void testLineContinuationError() throws IOException {
+        DelimitedRecordParserFactory factory = createFactory(16);
+        factory.setDelimiter(',');
+        factory.setLineContinuationCharacter('\\');
+        factory.createReader(new StringReader("1,2,\\")).read();
+    }
+
+    @Test
+    public void testSameAsDelimitedReader() throws IOException {
+        String[] inputs = {
+            "1,2,\\\n3,4\n5,6",
+            "1,2,*,4\n5,6,\\*7*",
+            "a\\\\b,\\c,d\\,e\\",
+            "\n\n1,2\r\r\n,\r\n",
+            "#x\n1,#2\n#\n",
+            "1\\\\\\x,,y\\\\\\\r\nz",
+        };
+
+        for (String input : inputs) {
+            for (int size = 1; size <= 8; size++) {
+                for (int i = 0; i < 4; i++) {
+                    DelimitedRecordParserFactory factory = new DelimitedRecordParserFactory();
+                    factory.setDelimiter(',');
+                    if ((i & 1) != 0) {
+                        factory.setEscape('\\');
+                    }
+                    if ((i & 2) != 0) {
+                        factory.setLineContinuationCharacter('\\');
+                    }
+                    if (input.indexOf('*') >= 0) {
+                        factory.setRecordTerminator("*");
+                    }
+                    if (input.startsWith("#")) {
+                        factory.setComments(new String[] { "#" });
+                    }
+
+                    RecordReader expected = new DelimitedReader(new BufferedReader(new StringReader(input)), factory);
+                    factory.setBufferSize(size);
+                    RecordReader actual = factory.createReader(new StringReader(input));
+                    assertSameRecords(expected, actual);
+                }
+            }
+        }
+    }
+
+    private void assertSameRecords(RecordReader expected, RecordReader actual) throws IOException {
+        while (true) {
+            String[] e = null;
+            String[] a = null;
+            RecordIOException ee = null;
+            RecordIOException ae = null;
+            try {
+                e = (String[]) expected.read();
+            }
+            catch (RecordIOException ex) {
+                ee = ex;
+            }
+            try {
+                a = (String[]) actual.read();
+            }
+            catch (RecordIOException ex) {
+                ae = ex;
+            }
+
+            assertEquals(ee == null, ae == null);
+            assertArrayEquals(e, a);
+            assertEquals(expected.getRecordText(), actual.getRecordText());
+            assertEquals(expected.getRecordLineNumber(), actual.getRecordLineNumber());
+            if (e == null && ee == null) {
+                break;
+            }
+        }
+    }
+
+    private DelimitedRecordParserFactory createFactory(int bufferSize) {
+        DelimitedRecordParserFactory factory = new DelimitedRecordParserFactory();
+        factory.setBufferSize(bufferSize);
+        return factory;
+    }
+}
@@ -94,6 +94,24 @@ public class DelimitedWriterTest {
         assertEquals("value1,value\\,2", text.toString());
     }
 
+    @Test
+    public void testLargeRecord() throws IOException {
+        factory.setDelimiter(',');
+        factory.setEscape('\\');
+        factory.setRecordTerminator("");
+        StringBuilder value = new StringBuilder();
+        StringBuilder expected = new StringBuilder();
+        for (int i=0; i<500; i++) {
+            value.append("a,\\");
+            expected.append("a\\,\\\\");
+        }
+        StringWriter text = new StringWriter();
+        RecordWriter out = factory.createWriter(text);
+        out.write(new String[] { "v", value.toString() });
+        out.write(new String[] { "v" });
+        assertEquals("v," + expected + "v", text.toString());
+    }
+
     @Test
     public void testFlushAndClose() throws IOException {
         DelimitedRecordParserFactory factory = new DelimitedRecordParserFactory();
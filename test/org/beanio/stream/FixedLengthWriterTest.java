@@ -59,6 +59,15 @@ public class FixedLengthWriterTest {
         assertEquals("value1  value2", text.toString());
     }
 
+    @Test
+    public void testWriteCharArray() throws IOException {
+        StringWriter text = new StringWriter();
+        FixedLengthWriter out = new FixedLengthWriter(text, "\n");
+        out.write("xvalue1  value2x".toCharArray(), 1, 14);
+        out.write("v");
+        assertEquals("value1  value2\nv\n", text.toString());
+    }
+
     @Test
     public void testFlushAndClose() throws IOException {
         FixedLengthRecordParserFactory factory = new FixedLengthRecordParserFactory();
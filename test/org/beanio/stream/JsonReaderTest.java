@@ -213,6 +213,82 @@ public class JsonReaderTest {
         assertError("{ \"f1\" : \"value\" \"f2\" : \"value2\" }", "Expected ',' or '}' near position 18");
     }
 
+    @Test
+    @SuppressWarnings("rawtypes")
+    public void test_readProjection() throws IOException {
+        JsonProjection projection = new JsonProjection();
+        projection.addValue("id");
+        projection.addValue("tags");
+        JsonProjection items = projection.addNode("items");
+        items.addValue("sku");
+        
+        JsonReader in = newReader(
+            "{ \"id\" : 1, \"note\" : \"a \\\"quoted\\\" \\u0041 }\", \"tags\" : [ \"x\", { \"y\" : 1 } ],\n" +
+            "  \"nested\" : { \"a\" : [ 1, 2.5e3, null, { \"b\" : [ true, false ] } ] },\n" +
+            "  \"items\" : [ { \"sku\" : \"A\", \"qty\" : 2 }, { \"qty\" : -1, \"sku\" : null } ],\n" +
+            "  \"flag\" : true }\n" +
+            "{ \"other\" : 10 }");
+        in.setProjection(projection);
+        
+        Map map = in.read();
+        assertEquals(3, map.size());
+        assertEquals(1, map.get("id"));
+        assertEquals(Arrays.asList("x", Collections.singletonMap("y", 1)), map.get("tags"));
+        List items1 = (List) map.get("items");
+        assertEquals(2, items1.size());
+        assertEquals(Collections.singletonMap("sku", "A"), items1.get(0));
+        assertEquals(Collections.singletonMap("sku", null), items1.get(1));
+        assertEquals(1, in.getRecordLineNumber());
+        assertTrue(in.getRecordText().endsWith("\"flag\" : true }"));
+        
+        map = in.read();
+        assertTrue(map.isEmpty());
+        assertEquals(5, in.getRecordLineNumber());
+        assertNull(in.read());
+    }
+    
+    @Test
+    public void test_projectionValidatesSkippedValues() throws IOException {
+        JsonReader in = newReader("{ \"id\" : 1, \"other\" : [ 1, 2x ] }");
+        in.setProjection(new JsonProjection());
+        try {
+            in.read();
+            fail("RecordIOException expected");
+        }
+        catch (RecordIOException ex) {
+            assertTrue(ex.getMessage().startsWith("Cannot parse '2x'"));
+        }
+    }
+    
+    @Test
+    public void test_projectionValidatesSkippedNumbers() throws IOException {
+        String[] valid = { "0", "-12", "1.", ".5", "1.5d", "123456789012345678", "-9223372036854775808" };
+        for (String text : valid) {
+            assertSkippedValue(text, true);
+        }
+        String[] invalid = { "-", "1x", "99999999999999999999", "9223372036854775808", "1e400" };
+        for (String text : invalid) {
+            assertSkippedValue(text, false);
+        }
+    }
+    
+    private void assertSkippedValue(String text, boolean valid) throws IOException {
+        String json = "{ \"id\" : 1, \"other\" : " + text + " }";
+        for (int i=0; i<2; i++) {
+            JsonReader in = newReader(json);
+            if (i == 1) {
+                in.setProjection(new JsonProjection());
+            }
+            try {
+                in.read();
+                assertTrue(text + " expected to be invalid", valid);
+            }
+            catch (RecordIOException ex) {
+                assertFalse(text + " expected to be valid", valid);
+            }
+        }
+    }
+
     @Test
     public void test_missingCommaInArray() throws IOException {
         assertError("{ \"array\" : [ 10 20 ] }", "Expected ',' near position 18");
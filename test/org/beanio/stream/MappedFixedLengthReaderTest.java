@@ -0,0 +1,131 @@
+package org.beanio.stream;
+
+import static org.junit.Assert.*;
+
+import java.io.*;
+import java.nio.charset.Charset;
+
+import org.beanio.stream.fixedlength.*;
+import org.junit.*;
+
+/**
+ * JUnit test cases for the <tt>MappedFixedLengthReader</tt>.
+ *
+ * @author Kevin Seim
+ * @since 2.1.1
+ */
+public class MappedFixedLengthReaderTest {
+
+    private static final Charset LATIN1 = Charset.forName("ISO-8859-1");
+
+    private File file;
+
+    @Before
+    public void setup() throws IOException {
+        file = File.createTempFile("beanio", ".txt");
+    }
+
+    @After
+    public void teardown() {
+        file.delete();
+    }
+
+    @Test
+    public void testBasic() throws IOException {
+        RecordReader in = createReader(new FixedLengthRecordParserFactory(), "1111\r\n\n2222\r33\u00e9", 1024);
+        assertEquals("1111", in.read().toString());
+        assertEquals(1, in.getRecordLineNumber());
+        assertEquals("", in.read().toString());
+        assertEquals(2, in.getRecordLineNumber());
+        assertEquals("2222", in.read().toString());
+        assertEquals("2222", in.getRecordText());
+        assertEquals(3, in.getRecordLineNumber());
+        assertEquals("33\u00e9", in.read().toString());
+        assertNull(in.read());
+        assertNull(in.getRecordText());
+        assertEquals(-1, in.getRecordLineNumber());
+        in.close();
+    }
+
+    @Test
+    public void testSubSequence() throws IOException {
+        RecordReader in = createReader(new FixedLengthRecordParserFactory(), "abcdef\n", 1024);
+        CharSequence record = (CharSequence) in.read();
+        assertEquals(6, record.length());
+        assertEquals('c', record.charAt(2));
+        assertEquals("cde", record.subSequence(2, 5).toString());
+        assertNull(in.read());
+        assertEquals("abcdef", record.toString());
+        in.close();
+    }
+
+    @Test
+    public void testRecordsSpanningWindows() throws IOException {
+        RecordReader in = createReader(new FixedLengthRecordParserFactory(), "aaa\nbbbbbbbbbb\r\nc\r\ndd", 4);
+        CharSequence a = (CharSequence) in.read();
+        assertEquals("bbbbbbbbbb", in.read().toString());
+        assertEquals("c", in.read().toString());
+        assertEquals("dd", in.read().toString());
+        assertEquals(4, in.getRecordLineNumber());
+        assertNull(in.read());
+        assertEquals("aaa", a.toString());
+        in.close();
+    }
+
+    @Test
+    public void testCustomRecordTerminatorAndComments() throws IOException {
+        FixedLengthRecordParserFactory factory = new FixedLengthRecordParserFactory();
+        factory.setRecordTerminator("*");
+        factory.setComments(new String[] { "#", "!!" });
+        RecordReader in = createReader(factory, "#11*22*!!33*!44\n*", 2);
+        assertEquals("22", in.read().toString());
+        assertEquals(0, in.getRecordLineNumber());
+        assertEquals("!44\n", in.read().toString());
+        assertNull(in.read());
+        in.close();
+    }
+
+    @Test
+    public void testFactory() throws IOException {
+        FixedLengthRecordParserFactory factory = new FixedLengthRecordParserFactory();
+        write("1111\n");
+
+        RecordReader in = factory.createReader(file, LATIN1);
+        assertTrue(in instanceof MappedFixedLengthReader);
+        in.close();
+
+        in = factory.createReader(file, Charset.forName("UTF-8"));
+        assertTrue(in instanceof FixedLengthReader);
+        assertEquals("1111", in.read());
+        in.close();
+
+        factory.setLineContinuationCharacter('\\');
+        in = factory.createReader(file, LATIN1);
+        assertTrue(in instanceof FixedLengthReader);
+        in.close();
+    }
+
+    @Test
+    public void testSupportedCharsets() {
+        assertTrue(MappedFixedLengthReader.isSupported(LATIN1));
+        assertTrue(MappedFixedLengthReader.isSupported(Charset.forName("US-ASCII")));
+        assertFalse(MappedFixedLengthReader.isSupported(Charset.forName("UTF-8")));
+        assertFalse(MappedFixedLengthReader.isSupported(Charset.forName("UTF-16")));
+    }
+
+    private RecordReader createReader(FixedLengthRecordParserFactory factory, String input, int mapSize)
+        throws IOException {
+        write(input);
+        return new MappedFixedLengthReader(file, LATIN1, factory, mapSize);
+    }
+
+    private void write(String input) throws IOException {
+        OutputStream out = new FileOutputStream(file);
+        try {
+            out.write(input.getBytes("ISO-8859-1"));
+        }
+        finally {
+            out.close();
+        }
+    }
+}
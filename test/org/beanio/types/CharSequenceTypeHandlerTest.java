@@ -0,0 +1,115 @@
+/*
+ * Copyright 2013 Kevin Seim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.beanio.types;
+
+import static org.junit.Assert.*;
+
+import java.lang.annotation.ElementType;
+
+import org.beanio.internal.util.*;
+import org.junit.Test;
+
+/**
+ * JUnit test cases for type handlers implementing <tt>CharSequenceTypeHandler</tt>.
+ * Each test case compares parsing a region of a character sequence with parsing
+ * the same text as a <tt>String</tt>.
+ *
+ * @author Kevin Seim
+ * @since 2.1.1
+ */
+public class CharSequenceTypeHandlerTest {
+
+    private static final String[] NUMBERS = {
+        "", "0", "7", "-7", "007", "+7", "-", "--1", "1a", " 1", "\u0661\u0662", "127", "128", "-128", "-129",
+        "32767", "32768", "2147483647", "2147483648", "-2147483648", "-2147483649",
+        "999999999999999999", "9223372036854775807", "9223372036854775808", "-9223372036854775808",
+        "1.50", "-0.00", "1,234"
+    };
+
+    @Test
+    public void testIntegralHandlers() {
+        assertSameResults(new ByteTypeHandler(), NUMBERS);
+        assertSameResults(new ShortTypeHandler(), NUMBERS);
+        assertSameResults(new IntegerTypeHandler(), NUMBERS);
+        assertSameResults(new LongTypeHandler(), NUMBERS);
+    }
+
+    @Test
+    public void testPatternHandlers() {
+        IntegerTypeHandler intHandler = new IntegerTypeHandler();
+        intHandler.setPattern("000");
+        assertSameResults(intHandler, NUMBERS);
+
+        BigDecimalTypeHandler decimalHandler = new BigDecimalTypeHandler();
+        decimalHandler.setPattern("#0.00");
+        assertSameResults(decimalHandler, NUMBERS);
+    }
+
+    @Test
+    public void testOtherHandlers() {
+        assertSameResults(new BooleanTypeHandler(), "", "true", "TRUE", "tRuE", "false", "truex", "x");
+        assertSameResults(new CharacterTypeHandler(), "", "a", "ab");
+        StringTypeHandler stringHandler = new StringTypeHandler();
+        stringHandler.setTrim(true);
+        stringHandler.setNullIfEmpty(true);
+        assertSameResults(stringHandler, "", " ", " a ", "b");
+    }
+
+    @Test
+    public void testSubclassedNumberHandler() throws TypeConversionException {
+        // a subclass that only overrides createNumber(String) is always called
+        IntegerTypeHandler handler = new IntegerTypeHandler() {
+            @Override
+            protected Integer createNumber(String text) throws NumberFormatException {
+                return new Integer(text) * 100;
+            }
+        };
+        assertEquals(1200, handler.parse("12"));
+        assertEquals(1200, handler.parse("x12y", 1, 3));
+    }
+
+    @Test
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public void testEnumHandlers() {
+        String[] input = { "", "TYPE", "FIELD", "field", "FIELDS", "X" };
+        assertSameResults(new EnumTypeHandler((Class) ElementType.class), input);
+        assertSameResults(new ToStringEnumTypeHandler((Class) ElementType.class), input);
+    }
+
+    private void assertSameResults(CharSequenceTypeHandler handler, String... input) {
+        for (String text : input) {
+            Object expected;
+            try {
+                expected = handler.parse(text);
+            }
+            catch (TypeConversionException ex) {
+                expected = ex.getClass();
+            }
+
+            // parse the text from the middle of a longer character sequence
+            StringBuilder s = new StringBuilder("12").append(text).append("34");
+            Object actual;
+            try {
+                actual = handler.parse(s, 2, 2 + text.length());
+            }
+            catch (TypeConversionException ex) {
+                actual = ex.getClass();
+            }
+
+            assertEquals(handler.getClass().getSimpleName() + " '" + text + "'", expected, actual);
+        }
+    }
+}
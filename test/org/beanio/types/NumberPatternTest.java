@@ -0,0 +1,152 @@
+/*
+ * Copyright 2013 Kevin Seim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.beanio.types;
+
+import static org.junit.Assert.*;
+
+import java.math.BigDecimal;
+import java.text.*;
+import java.util.Locale;
+
+import org.junit.Test;
+
+/**
+ * JUnit test cases for the <tt>NumberPattern</tt> class.  Most test cases compare
+ * the results of a <tt>NumberPattern</tt> with a <tt>DecimalFormat</tt>.
+ *
+ * @author Kevin Seim
+ * @since 2.1.1
+ */
+public class NumberPatternTest {
+
+    private static final String[] PATTERNS = { "0", "000", "#0.00", "#0.##", "0.0#", "00.000", "#.##", "#" };
+
+    @Test
+    public void testSupported() {
+        assertTrue(compile("#0.00", Locale.US).isSupported());
+        assertTrue(compile("0", Locale.GERMANY).isSupported());
+        assertFalse(compile("#,##0.00", Locale.US).isSupported());
+        assertFalse(compile("0.", Locale.US).isSupported());
+        assertFalse(compile("0.00E0", Locale.US).isSupported());
+        assertFalse(compile("0%", Locale.US).isSupported());
+        assertFalse(compile("$0.00", Locale.US).isSupported());
+        assertFalse(compile("0;(0)", Locale.US).isSupported());
+        assertFalse(compile("0", new Locale("ar", "EG")).isSupported());
+    }
+
+    @Test
+    public void testParse() {
+        assertEquals(new BigDecimal("-12.50"), compile("#0.00", Locale.US).parse("-12.50"));
+        assertEquals(new BigDecimal("12.50"), compile("#0.00", Locale.GERMANY).parse("12,50"));
+        assertNull(compile("#0.00", Locale.US).parse("1,234.00"));
+
+        String[] input = {
+            "0", "7", "007", "-0", "-0.00", "1.50", "100", "-12.345", "1.", ".5", "-.5", "-",
+            "+1", " 1", "1 ", "1,234.00", "1E3", "--1", "1.2.3", "123456789012345678",
+            "1234567890123456789", "-9223372036854775808", "0.000000000000000000001",
+            "0.123456789012345678", "000000000000000000000001", "1-"
+        };
+        for (String pattern : PATTERNS) {
+            for (String text : input) {
+                assertSameParse(pattern, Locale.US, text);
+                assertSameParse(pattern, Locale.GERMANY, text.replace('.', ','));
+            }
+        }
+    }
+
+    @Test
+    public void testFormat() {
+        assertEquals("-012.50", compile("000.00", Locale.US).format(new BigDecimal("-12.5")));
+        assertEquals("12,5", compile("#0.0#", Locale.GERMANY).format(new BigDecimal("12.500")));
+        assertNull(compile("#0.00", Locale.US).format(new BigDecimal("1.005")));
+        assertNull(compile("#0.00", Locale.US).format(1.5d));
+
+        Object[] values = {
+            0, 1, -1, 123, -5, Integer.MAX_VALUE, Integer.MIN_VALUE, Long.MAX_VALUE, Long.MIN_VALUE,
+            (short) -12, (byte) 7, 999999999999999999L, new BigDecimal("1.5"), new BigDecimal("-0.001"),
+            new BigDecimal("1E+3"), new BigDecimal("12.345"), new BigDecimal("0.00"), new BigDecimal("-1.005"),
+            new BigDecimal("1.000000"), new BigDecimal("0.05"), new BigDecimal("-123456789.12"),
+            new BigDecimal("1E+17"), new BigDecimal("1E+18"), new BigDecimal("123456789012345678901"),
+            new BigDecimal("1E-30"), 1.5d, 2.5f
+        };
+        for (String pattern : PATTERNS) {
+            for (Object value : values) {
+                assertSameFormat(pattern, Locale.US, value);
+                assertSameFormat(pattern, Locale.GERMANY, value);
+            }
+        }
+    }
+
+    @Test
+    public void testTypeHandler() throws TypeConversionException {
+        IntegerTypeHandler intHandler = new IntegerTypeHandler();
+        intHandler.setPattern("000");
+        assertEquals(Integer.valueOf(-5), intHandler.parse("-005"));
+        assertEquals(Integer.valueOf(12), intHandler.parse("12.00"));
+        assertEquals("-005", intHandler.format(-5));
+        try {
+            intHandler.parse("1.5");
+            fail("Expected TypeConversionException");
+        }
+        catch (TypeConversionException ex) { }
+
+        BigDecimalTypeHandler decimalHandler = new BigDecimalTypeHandler();
+        decimalHandler.setPattern("#0.00");
+        assertEquals(new BigDecimal("1234.56"), decimalHandler.parse("1234.56"));
+        assertEquals("1234.50", decimalHandler.format(new BigDecimal("1234.5")));
+
+        // changes to the pattern and locale are honored
+        decimalHandler.setLocale("de_DE");
+        assertEquals("1234,50", decimalHandler.format(new BigDecimal("1234.5")));
+        decimalHandler.setPattern("#,##0.00");
+        assertEquals("1.234,50", decimalHandler.format(new BigDecimal("1234.5")));
+        assertEquals(new BigDecimal("1234.50"), decimalHandler.parse("1.234,50"));
+    }
+
+    private void assertSameParse(String pattern, Locale locale, String text) {
+        DecimalFormat df = createDecimalFormat(pattern, locale);
+        ParsePosition pp = new ParsePosition(0);
+        Number expected = df.parse(text, pp);
+        if (pp.getErrorIndex() >= 0 || pp.getIndex() != text.length()) {
+            expected = null;
+        }
+
+        BigDecimal actual = NumberPattern.compile(pattern, locale, df).parse(text);
+        if (actual != null) {
+            assertEquals("Pattern '" + pattern + "', locale " + locale + ", text '" + text + "'",
+                expected, actual);
+        }
+    }
+
+    private void assertSameFormat(String pattern, Locale locale, Object value) {
+        DecimalFormat df = createDecimalFormat(pattern, locale);
+        String actual = NumberPattern.compile(pattern, locale, df).format(value);
+        if (actual != null) {
+            assertEquals("Pattern '" + pattern + "', locale " + locale + ", value " + value,
+                df.format(value), actual);
+        }
+    }
+
+    private NumberPattern compile(String pattern, Locale locale) {
+        return NumberPattern.compile(pattern, locale, createDecimalFormat(pattern, locale));
+    }
+
+    private DecimalFormat createDecimalFormat(String pattern, Locale locale) {
+        DecimalFormat df = new DecimalFormat(pattern, DecimalFormatSymbols.getInstance(locale));
+        df.setParseBigDecimal(true);
+        return df;
+    }
+}
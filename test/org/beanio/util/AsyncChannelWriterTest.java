@@ -0,0 +1,176 @@
+/*
+ * Copyright 2013 Kevin Seim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.beanio.util;
+
+import static org.junit.Assert.*;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.*;
+import java.nio.charset.Charset;
+import java.util.*;
+
+import org.beanio.internal.util.AsyncChannelWriter;
+import org.junit.Test;
+
+/**
+ * JUnit test cases for the <tt>AsyncChannelWriter</tt> class.
+ *
+ * @author Kevin Seim
+ * @since 2.1.1
+ */
+public class AsyncChannelWriterTest {
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+    private static final String[] CHARSETS = { "UTF-8", "US-ASCII", "ISO-8859-1", "UTF-16" };
+
+    @Test
+    public void testWrite() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        Writer out = new AsyncChannelWriter(Channels.newChannel(bytes), UTF8, 5, 2);
+
+        StringBuilder s = new StringBuilder();
+        for (int i=0; i<200; i++) {
+            String line = i + ",caf\u00e9,\ud83d\ude00\n";
+            s.append(line);
+            if (i % 3 == 0) {
+                out.write(line);
+            }
+            else {
+                for (int j=0; j<line.length(); j++) {
+                    out.write(line.charAt(j));
+                }
+            }
+            if (i == 100) {
+                out.flush();
+                assertEquals(s.toString(), new String(bytes.toByteArray(), "UTF-8"));
+            }
+        }
+        out.close();
+        out.close();
+        assertEquals(s.toString(), new String(bytes.toByteArray(), "UTF-8"));
+    }
+
+    @Test
+    public void testEncoding() throws IOException {
+        String[] text = {
+            "", "abc,def\r\n", "caf\u00e9", "\u00ff\u0100\u07ff\u0800\uffff", "a\ud83d\ude00b",
+            "\ud83d", "x\ude00y", "\ud83d\ud83d\ude00", "\ud83dz", "\ud800\ud800\ud800z",
+            "ab\ud800\ud800", "\ude00\ud83d\ude00\ud83d",
+        };
+        for (String name : CHARSETS) {
+            Charset charset = Charset.forName(name);
+            for (String s : text) {
+                for (int bufferSize=2; bufferSize<=5; bufferSize++) {
+                    assertEncoded(charset, bufferSize, s, s);
+                    assertEncoded(charset, bufferSize, s, s.split(""));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testRandomEncoding() throws IOException {
+        char[] alphabet = { 'a', '\u00e9', '\u20ac', '\ud83d', '\ude00' };
+        Random random = new Random(42);
+        for (int i=0; i<500; i++) {
+            Charset charset = Charset.forName(CHARSETS[i % CHARSETS.length]);
+            char[] c = new char[random.nextInt(20)];
+            for (int j=0; j<c.length; j++) {
+                c[j] = alphabet[random.nextInt(alphabet.length)];
+            }
+            String s = new String(c);
+            
+            List<String> parts = new ArrayList<String>();
+            for (int j=0; j<s.length(); ) {
+                int n = Math.min(s.length() - j, 1 + random.nextInt(4));
+                parts.add(s.substring(j, j + n));
+                j += n;
+            }
+            assertEncoded(charset, 2 + random.nextInt(4), s, parts.toArray(new String[parts.size()]));
+        }
+    }
+
+    @Test
+    public void testError() throws IOException {
+        assertError(new IOException("disk full"));
+    }
+
+    @Test(timeout=10000)
+    public void testFatalError() throws IOException {
+        assertError(new Error("fatal"));
+    }
+
+    private void assertError(final Throwable error) throws IOException {
+        WritableByteChannel channel = new WritableByteChannel() {
+            private boolean open = true;
+            public int write(ByteBuffer src) throws IOException {
+                if (error instanceof IOException) {
+                    throw (IOException) error;
+                }
+                throw (Error) error;
+            }
+            public boolean isOpen() {
+                return open;
+            }
+            public void close() {
+                open = false;
+            }
+        };
+
+        // the error may be reported by either call, depending on when the
+        // background thread fails
+        Writer out = new AsyncChannelWriter(channel, UTF8, 4, 2);
+        try {
+            out.write("abcdefghijkl");
+            out.flush();
+            fail();
+        }
+        catch (IOException ex) {
+            assertSame(error, ex.getCause());
+        }
+        try {
+            out.write("x");
+            fail();
+        }
+        catch (IOException ex) { }
+        try {
+            out.close();
+            fail();
+        }
+        catch (IOException ex) { }
+        assertFalse(channel.isOpen());
+    }
+
+    private void assertEncoded(Charset charset, int bufferSize, String text, String... parts) 
+        throws IOException {
+        
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        Writer out = new OutputStreamWriter(expected, charset);
+        out.write(text);
+        out.close();
+
+        ByteArrayOutputStream actual = new ByteArrayOutputStream();
+        out = new AsyncChannelWriter(Channels.newChannel(actual), charset, bufferSize, 2);
+        for (String part : parts) {
+            out.write(part);
+        }
+        out.close();
+
+        assertArrayEquals(charset + " " + bufferSize + ": " + text, 
+            expected.toByteArray(), actual.toByteArray());
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2013 Kevin Seim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.beanio.util;
+
+import static org.junit.Assert.*;
+
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.charset.Charset;
+
+import org.beanio.internal.util.ByteEncodingWriter;
+import org.junit.Test;
+
+/**
+ * JUnit test cases for the <tt>ByteEncodingWriter</tt> class.  Test cases compare
+ * the bytes written by a <tt>ByteEncodingWriter</tt> with an <tt>OutputStreamWriter</tt>.
+ *
+ * @author Kevin Seim
+ * @since 2.1.1
+ */
+public class ByteEncodingWriterTest {
+
+    private static final String[] CHARSETS = { "UTF-8", "US-ASCII", "ISO-8859-1" };
+
+    private static final String[] TEXT = {
+        "", "abc,def\r\n", "caf\u00e9", "\u00ff\u0100\u07ff\u0800\uffff", "a\ud83d\ude00b",
+        "\ud83d", "x\ude00y", "\ud83d\ud83d\ude00", "\ud83dz",
+    };
+
+    @Test
+    public void testWrite() throws IOException {
+        for (String name : CHARSETS) {
+            Charset charset = Charset.forName(name);
+            for (String text : TEXT) {
+                assertEncoded(charset, text, text);
+            }
+
+            // a surrogate pair split across calls
+            StringBuilder s = new StringBuilder();
+            for (int i=0; i<3000; i++) {
+                s.append(i).append("\u00e9\ud83d\ude00,");
+            }
+            assertEncoded(charset, s.toString(), s.substring(0, 5), s.substring(5, 7), s.substring(7));
+        }
+    }
+
+    @Test
+    public void testChannel() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        Writer out = new ByteEncodingWriter(Channels.newChannel(bytes), Charset.forName("UTF-8"));
+        out.write("caf\u00e9");
+        out.flush();
+        assertEquals("caf\u00e9", new String(bytes.toByteArray(), "UTF-8"));
+        out.write('!');
+        out.close();
+        out.close();
+        assertEquals("caf\u00e9!", new String(bytes.toByteArray(), "UTF-8"));
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testUnsupportedCharset() {
+        new ByteEncodingWriter(new ByteArrayOutputStream(), Charset.forName("UTF-16"));
+    }
+
+    private void assertEncoded(Charset charset, String text, String... parts) throws IOException {
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        Writer out = new OutputStreamWriter(expected, charset);
+        out.write(text);
+        out.close();
+
+        ByteArrayOutputStream actual = new ByteArrayOutputStream();
+        out = new ByteEncodingWriter(actual, charset);
+        for (String part : parts) {
+            out.write(part.toCharArray());
+        }
+        out.close();
+
+        assertArrayEquals(charset + ": " + text, expected.toByteArray(), actual.toByteArray());
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright 2013 Kevin Seim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.beanio.util;
+
+import static org.junit.Assert.*;
+
+import java.text.*;
+import java.util.*;
+
+import org.beanio.internal.util.FixedDateFormat;
+import org.beanio.types.*;
+import org.junit.Test;
+
+/**
+ * JUnit test cases for the <tt>FixedDateFormat</tt> class.  Most test cases compare
+ * the results of a <tt>FixedDateFormat</tt> with a non-lenient <tt>SimpleDateFormat</tt>.
+ *
+ * @author Kevin Seim
+ * @since 2.1.1
+ */
+public class FixedDateFormatTest {
+
+    private static final String[] ZONES = {
+        "UTC", "America/Chicago", "Europe/London", "Australia/Lord_Howe", "Asia/Kolkata"
+    };
+
+    @Test
+    public void testSupported() {
+        assertTrue(compile("yyyyMMdd").isSupported());
+        assertTrue(compile("yyyy-MM-dd'T'HH:mm:ss.SSS").isSupported());
+        assertTrue(compile("'Date: 'dd/MM/yyyy' o''clock'").isSupported());
+        assertFalse(compile("yy-MM-dd").isSupported());
+        assertFalse(compile("MMM dd, yyyy").isSupported());
+        assertFalse(compile("yyyy-M-d").isSupported());
+        assertFalse(compile("yyyy-MM-dd Z").isSupported());
+        assertFalse(compile("yyyy-MM-dd-yyyy").isSupported());
+        assertFalse(compile("yyyy'1'MM").isSupported());
+        assertFalse(compile("':'").isSupported());
+        assertFalse(FixedDateFormat.compile("yyyyMMdd", Locale.US, null, true).isSupported());
+        assertFalse(FixedDateFormat.compile("yyyyMMdd", new Locale("th", "TH", "TH"), null, false).isSupported());
+        assertFalse(FixedDateFormat.compile("yyyyMMdd", new Locale("ja", "JP", "JP"), null, false).isSupported());
+    }
+
+    @Test
+    public void testParse() throws ParseException {
+        assertEquals(new Date(1372957215123L), compile("yyyy-MM-dd HH:mm:ss.SSS").parse("2013-07-04 17:00:15.123"));
+        assertEquals(new Date(45000000L), compile("'T'HH:mm").parse("T12:30"));
+        assertNull(compile("yyyy-MM-dd").parse("2013-02-29"));
+
+        String[] patterns = { "yyyy-MM-dd", "MMddyyyy", "yyyy-MM-dd HH:mm:ss.SSS", "'T'HH:mm" };
+        String[] input = {
+            "2013-01-31", "2013-02-29", "2012-02-29", "2013-13-01", "2013-00-01", "2013-1-01",
+            "01312013", "02302013", "1583-01-01 00:00:00.000", "9999-12-31 23:59:59.999",
+            "2013-06-15 24:00:00.000", "2013-06-15 12:60:00.000", "2013-06-15 12:30:15.123",
+            "2013-03-10 02:30:00.000", "2013-11-03 01:30:00.000", "2013-03-31 01:30:00.000",
+            "2013-10-06 01:45:00.000", "1500-01-01", "2013-01-0a", "2013+01-01", "T12:15", "T25:00"
+        };
+        for (String zone : ZONES) {
+            for (String pattern : patterns) {
+                for (String text : input) {
+                    assertSameParse(pattern, TimeZone.getTimeZone(zone), text);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testFormat() {
+        assertEquals("[04/07/2013 17:00]", compile("'['dd/MM/yyyy HH:mm']'").format(new Date(1372957215123L)));
+        assertNull(compile("yyyy-MM-dd").format(new Date(Long.MIN_VALUE)));
+
+        String[] patterns = { "yyyy-MM-dd", "yyyyMMddHHmmssSSS", "'['dd/MM/yyyy HH:mm']'" };
+        long[] times = {
+            0, -1, 1, 1356998400000L, 1362880800000L, 1383460200000L, 1364693400000L,
+            -12212553600000L, 253402300799999L, Long.MAX_VALUE, Long.MIN_VALUE
+        };
+        for (String zone : ZONES) {
+            for (String pattern : patterns) {
+                for (long time : times) {
+                    assertSameFormat(pattern, TimeZone.getTimeZone(zone), new Date(time));
+                }
+                // every hour over two years, including all DST transitions
+                for (long time = 1356998400000L; time < 1420070400000L; time += 3600000L + 61001L) {
+                    assertSameFormat(pattern, TimeZone.getTimeZone(zone), new Date(time));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testTypeHandler() throws TypeConversionException {
+        DateTypeHandler handler = new DateTypeHandler("yyyy-MM-dd HH:mm");
+        handler.setTimeZoneId("America/Chicago");
+        Date date = handler.parse("2013-07-04 12:00");
+        assertEquals(1372957200000L, date.getTime());
+        assertEquals("2013-07-04 12:00", handler.format(date));
+
+        // falls back to a SimpleDateFormat
+        assertEquals(date, handler.parse("2013-7-4 12:00"));
+
+        // settings changes are honored
+        handler.setTimeZoneId("UTC");
+        assertEquals("2013-07-04 17:00", handler.format(date));
+        handler.setPattern("yyyyMMdd");
+        assertEquals("20130704", handler.format(date));
+        handler.setLenient(true);
+        assertEquals(new Date(1359676800000L), handler.parse("20130132"));
+        handler.setLenient(false);
+        try {
+            handler.parse("20130132");
+            fail("Expected TypeConversionException");
+        }
+        catch (TypeConversionException ex) { }
+
+        CalendarTypeHandler calendarHandler = new CalendarTypeHandler();
+        calendarHandler.setPattern("yyyy-MM-dd");
+        calendarHandler.setTimeZoneId("UTC");
+        Calendar cal = calendarHandler.parse("2013-07-04");
+        assertEquals(1372896000000L, cal.getTimeInMillis());
+        assertEquals("2013-07-04", calendarHandler.format(cal));
+    }
+
+    @Test
+    public void testCustomDateFormat() throws TypeConversionException {
+        DateTypeHandler handler = new DateTypeHandler("yyyy-MM-dd") {
+            @Override
+            protected DateFormat createDateFormat() {
+                DateFormat format = super.createDateFormat();
+                format.setTimeZone(TimeZone.getTimeZone("GMT+01:00"));
+                return format;
+            }
+        };
+        handler.setTimeZoneId("UTC");
+        assertEquals(1372892400000L, handler.parse("2013-07-04").getTime());
+    }
+
+    private void assertSameParse(String pattern, TimeZone zone, String text) {
+        SimpleDateFormat sdf = new SimpleDateFormat(pattern, Locale.US);
+        sdf.setLenient(false);
+        sdf.setTimeZone(zone);
+        ParsePosition pp = new ParsePosition(0);
+        Date expected = sdf.parse(text, pp);
+        if (pp.getErrorIndex() >= 0 || pp.getIndex() != text.length()) {
+            expected = null;
+        }
+
+        Date actual = FixedDateFormat.compile(pattern, Locale.US, zone, false).parse(text);
+        if (actual != null) {
+            assertEquals("Pattern '" + pattern + "', zone " + zone.getID() + ", text '" + text + "'",
+                expected, actual);
+        }
+    }
+
+    private void assertSameFormat(String pattern, TimeZone zone, Date date) {
+        SimpleDateFormat sdf = new SimpleDateFormat(pattern, Locale.US);
+        sdf.setLenient(false);
+        sdf.setTimeZone(zone);
+
+        String actual = FixedDateFormat.compile(pattern, Locale.US, zone, false).format(date);
+        if (actual != null) {
+            assertEquals("Pattern '" + pattern + "', zone " + zone.getID() + ", time " + date.getTime(),
+                sdf.format(date), actual);
+        }
+    }
+
+    private FixedDateFormat compile(String pattern) {
+        return FixedDateFormat.compile(pattern, Locale.US, TimeZone.getTimeZone("UTC"), false);
+    }
+}
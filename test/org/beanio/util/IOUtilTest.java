@@ -15,7 +15,10 @@
  */
 package org.beanio.util;
 
+import static org.junit.Assert.*;
+
 import java.io.*;
+import java.nio.charset.Charset;
 
 import org.beanio.internal.util.IOUtil;
 import org.junit.Test;
@@ -72,4 +75,50 @@ public class IOUtilTest {
         IOUtil.closeQuietly(out);
         IOUtil.closeQuietly(new ByteArrayOutputStream());
     }
+    
+    @Test
+    public void testOpenReader() throws IOException {
+        Charset utf8 = Charset.forName("UTF-8");
+        
+        StringBuilder s = new StringBuilder("caf\u00e9\n");
+        assertEquals(s.toString(), readFile(s.toString(), utf8));
+        assertEquals("", readFile("", utf8));
+        
+        // larger files are not read into memory
+        while (s.length() <= IOUtil.SMALL_FILE_SIZE) {
+            s.append("line ").append(s.length()).append("\u00e9\n");
+        }
+        assertEquals(s.toString(), readFile(s.toString(), utf8));
+    }
+    
+    private String readFile(String text, Charset charset) throws IOException {
+        File file = File.createTempFile("beanio", ".txt");
+        try {
+            OutputStream out = new FileOutputStream(file);
+            try {
+                out.write(text.getBytes(charset.name()));
+            }
+            finally {
+                out.close();
+            }
+            
+            Reader in = IOUtil.openReader(file, charset);
+            try {
+                assertTrue(in.markSupported());
+                StringBuilder s = new StringBuilder();
+                char[] buf = new char[1000];
+                int n;
+                while ((n = in.read(buf)) != -1) {
+                    s.append(buf, 0, n);
+                }
+                return s.toString();
+            }
+            finally {
+                in.close();
+            }
+        }
+        finally {
+            file.delete();
+        }
+    }
 }
\ No newline at end of file
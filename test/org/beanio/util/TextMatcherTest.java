@@ -0,0 +1,95 @@
+/*
+ * Copyright 2013 Kevin Seim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.beanio.util;
+
+import static org.junit.Assert.*;
+
+import java.util.regex.Pattern;
+
+import org.beanio.internal.util.TextMatcher;
+import org.junit.Test;
+
+/**
+ * JUnit test cases for the <tt>TextMatcher</tt> class.  Most test cases compare
+ * the result of a <tt>TextMatcher</tt> with a <tt>java.util.regex.Pattern</tt>.
+ *
+ * @author Kevin Seim
+ * @since 2.1.1
+ */
+public class TextMatcherTest {
+
+    private static final String[] REGEX = {
+        "[A-Z]+", "[0-9]{3}", "\\d{3}-\\d{4}", "^[a-z]*$", "\\w+", "\\s?x", "[^0-9]+", "\\D*", "\\W", "\\S{2,}",
+        "a.c", ".*", ".+", "[a-cx-z_]{1,3}", "[-a]", "[a-]+", "[\\-\\]]", "[\\d.]+", "[\\s,]*", "abc",
+        "a\\.b", "a\\$", "x{0}", "x{2,}y", "[\\u00e9]", "[\u00c0-\u00ff]+", "[^\u00e9]", "\t\\t", "[ ]+",
+        "A|B|C", "(A|BB|)", "(?:YES|NO)", "(A)", "a\\|b|c",
+        // unsupported expressions
+        "a+b+", "(ab)+", "a*?", "a++", "[a-z&&[^x]]", "\\p{Alpha}+", "a{2}b*c?", "(?i)abc", "[\\D]", "\\1",
+        "^(A|B)$", "\\Qa.b\\E", "a|b+"
+    };
+
+    private static final String[] TEXT = {
+        "", "A", "AB", "a", "abc", "aBc", "123", "123-4567", "12-34", "_", " ", "\t", "\n", "\r\n", "x", "xx",
+        "xxy", "y", "-", "]", "a-", "1.2", ",", "\u00e9", "\u00c0\u00ff", "\u0100", "\u2028", "\t\t", "BB",
+        "C", "YES", "NO", "yes", "a.b", "a$", "a|b", "AAA", "a b",
+        // a surrogate pair is a single code point to a regular expression
+        "\ud83d\ude00", "\ud83d", "a\ud83d\ude00c", "\ud83d\ude00\ud83d\ude00"
+    };
+
+    @Test
+    public void testCompile() {
+        assertFalse(compile("[A-Z]+").isRegex());
+        assertFalse(compile("(A|B)").isRegex());
+        assertTrue(compile("(ab)+").isRegex());
+        assertTrue(compile("a*?").isRegex());
+        assertEquals("abc", compile("abc").getPattern().pattern());
+        assertTrue(TextMatcher.compile(Pattern.compile("abc", Pattern.CASE_INSENSITIVE)).isRegex());
+    }
+
+    @Test
+    public void testMatch() {
+        for (String regex : REGEX) {
+            Pattern pattern = Pattern.compile(regex);
+            TextMatcher matcher = TextMatcher.compile(pattern);
+            for (String text : TEXT) {
+                // match the text from the middle of a longer character sequence
+                StringBuilder s = new StringBuilder("12").append(text).append("34");
+                int result = matcher.match(s, 2, 2 + text.length());
+                if (result != TextMatcher.UNKNOWN) {
+                    assertEquals("Regex '" + regex + "', text '" + text + "'",
+                        pattern.matcher(text).matches(), result == TextMatcher.MATCH);
+                }
+                else {
+                    assertTrue("Regex '" + regex + "', text '" + text + "'",
+                        matcher.isRegex() || hasSurrogate(text));
+                }
+            }
+        }
+    }
+
+    private boolean hasSurrogate(String text) {
+        for (int i=0; i<text.length(); i++) {
+            if (text.charAt(i) >= '\ud800' && text.charAt(i) <= '\udfff') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private TextMatcher compile(String regex) {
+        return TextMatcher.compile(Pattern.compile(regex));
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2013 Kevin Seim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.beanio.util;
+
+import static org.junit.Assert.*;
+
+import java.io.*;
+
+import org.beanio.internal.util.UnsynchronizedBufferedReader;
+import org.beanio.stream.util.CommentReader;
+import org.junit.Test;
+
+/**
+ * JUnit test cases for the <tt>UnsynchronizedBufferedReader</tt> class.
+ *
+ * @author Kevin Seim
+ * @since 2.1.1
+ */
+public class UnsynchronizedBufferedReaderTest {
+
+    @Test
+    public void testRead() throws IOException {
+        Reader in = new UnsynchronizedBufferedReader(new StringReader("abcdefghij"), 3);
+        assertEquals('a', in.read());
+        char[] c = new char[5];
+        assertEquals(5, in.read(c));
+        assertEquals("bcdef", new String(c));
+        assertEquals(2, in.skip(2));
+        assertEquals(2, in.read(c, 0, 5));
+        assertEquals("ij", new String(c, 0, 2));
+        assertEquals(-1, in.read());
+        assertEquals(-1, in.read(c));
+        assertEquals(0, in.skip(1));
+    }
+
+    @Test
+    public void testMark() throws IOException {
+        Reader in = new UnsynchronizedBufferedReader(new StringReader("abcdefghij"), 2);
+        in.read();
+
+        // the buffer grows to the read-ahead limit
+        in.mark(6);
+        char[] c = new char[6];
+        assertEquals(6, in.read(c));
+        assertEquals("bcdefg", new String(c));
+        in.reset();
+        assertEquals('b', in.read());
+
+        // the mark is invalid once the read-ahead limit is exceeded and the buffer is refilled
+        in.mark(1);
+        assertEquals('c', in.read());
+        in.reset();
+        assertEquals(8, in.read(new char[10]));
+        assertEquals(-1, in.read());
+        try {
+            in.reset();
+            fail();
+        }
+        catch (IOException ex) { }
+    }
+
+    @Test
+    public void testCharArray() throws IOException {
+        char[] chars = "xabcx".toCharArray();
+        Reader in = new UnsynchronizedBufferedReader(chars, 1, 3);
+        assertTrue(in.ready());
+        in.mark(0);
+        assertEquals('a', in.read());
+        assertEquals(2, in.read(new char[5]));
+        assertFalse(in.ready());
+        assertEquals(-1, in.read());
+        in.reset();
+        assertEquals('a', in.read());
+    }
+
+    @Test
+    public void testComments() throws IOException {
+        Reader in = new UnsynchronizedBufferedReader(new StringReader("# one\n# two\r\nvalue\n"), 4);
+        CommentReader comments = new CommentReader(in, new String[] { "#" });
+        assertEquals(2, comments.skipComments(false));
+        assertTrue(comments.isSkipLF());
+        assertEquals('\n', in.read());
+        assertEquals('v', in.read());
+    }
+
+    @Test(expected=IOException.class)
+    public void testClosed() throws IOException {
+        Reader in = new UnsynchronizedBufferedReader(new StringReader("abc"));
+        in.read();
+        in.close();
+        in.close();
+        in.read();
+    }
+}